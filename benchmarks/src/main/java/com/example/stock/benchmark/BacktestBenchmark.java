@@ -0,0 +1,148 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.Fixtures;
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.config.BacktestProperties;
+import com.example.stock.config.IndicatorProperties;
+import com.example.stock.model.dto.BacktestRequest;
+import com.example.stock.model.dto.BacktestResultDTO;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.service.backtest.BacktestEngine;
+import com.example.stock.service.backtest.BacktestService;
+import com.example.stock.service.backtest.BacktestSettings;
+import com.example.stock.service.backtest.BacktestStats;
+import com.example.stock.service.backtest.StrategyType;
+import com.example.stock.service.indicator.IndicatorPeriods;
+import com.example.stock.service.indicator.IndicatorSpecParser;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.example.stock.service.timeseries.QuoteSlice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 回测基准
+ * engine 为单线程单次回测，结果换算为每根 K 线的耗时；service 为全市场 × 参数网格的并行回测，
+ * 服务返回的 barsPerSecond 在准备阶段打印，可与单线程结果对照
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BacktestBenchmark {
+
+    private static final BacktestSettings SETTINGS = new BacktestSettings(100_000, 1, 0.0005, 0.0005, 252);
+
+    /**
+     * 单次回测
+     */
+    @State(Scope.Thread)
+    public static class EngineState {
+
+        @Param({"2520"})
+        private int bars;
+
+        @Param({"ma_cross", "rsi_reversion"})
+        private String strategy;
+
+        private StrategyType type;
+
+        private double[] params;
+
+        private QuoteSlice slice;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            type = StrategyType.fromCode(strategy);
+            params = type == StrategyType.MA_CROSS ? new double[]{10, 50} : new double[]{14, 30, 70};
+            slice = SyntheticData.series("AAPL", bars).slice();
+        }
+
+    }
+
+    /**
+     * 全市场并行回测
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+
+        @Param({"1000"})
+        private int universeSize;
+
+        @Param({"2520"})
+        private int bars;
+
+        @Param({"1", "0"})
+        private int parallelism;
+
+        private BacktestService backtestService;
+
+        private BacktestRequest request;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<Stock> stocks = SyntheticData.stocks(universeSize);
+            List<QuoteSeries> series = stocks.stream()
+                    .map(stock -> SyntheticData.series(stock.getSymbol(), bars))
+                    .toList();
+            QuoteSeriesStore store = Fixtures.quoteSeriesStore(series);
+            BacktestProperties properties = new BacktestProperties();
+            properties.setParallelism(parallelism);
+            backtestService = new BacktestService(Fixtures.searchIndex(Fixtures.stockRepository(stocks)),
+                    store, Fixtures.stockService(stocks), properties,
+                    new IndicatorSpecParser(new IndicatorProperties()));
+            request = BacktestRequest.builder()
+                    .strategy("ma_cross")
+                    .params(Map.of("fast", "5:20:5", "slow", "30:60:10"))
+                    .feeBps(5.0)
+                    .curvePoints(250)
+                    .build();
+            BacktestResultDTO result = backtestService.run(request);
+            System.out.printf("%n回测 %d 次，K 线 %d 根，%d 根/秒%n",
+                    result.getRuns(), result.getBars(), result.getBarsPerSecond());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            backtestService.shutdown();
+        }
+
+    }
+
+    /**
+     * 单线程回测一只股票（不输出权益曲线）
+     */
+    @Benchmark
+    public BacktestStats engine(EngineState state) {
+        return BacktestEngine.run(state.slice, state.type.create(state.params, IndicatorPeriods.DEFAULT), SETTINGS, null);
+    }
+
+    /**
+     * 全市场 × 16 组参数
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BacktestResultDTO service(ServiceState state) {
+        return state.backtestService.run(state.request);
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.Fixtures;
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.config.CorrelationProperties;
+import com.example.stock.model.dto.CorrelationMatrixDTO;
+import com.example.stock.model.dto.CorrelationRequest;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.service.correlation.CorrelationService;
+import com.example.stock.service.correlation.CovarianceKernel;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.example.stock.service.timeseries.QuoteSlice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 相关性矩阵基准
+ * full 为 N 只股票 × 250 个收益率的全量叉积（分块并行）；incremental 为每只股票追加一根 K 线后
+ * 经服务滚动更新并输出相关系数；cached 为无新行情时的缓存命中。
+ * 准备阶段打印连续滚动更新 300 天后与全量重算结果的最大偏差
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorrelationBenchmark {
+
+    private static final int WINDOW = 250;
+
+    /**
+     * 全量叉积
+     */
+    @State(Scope.Benchmark)
+    public static class KernelState {
+
+        @Param({"500", "1000"})
+        private int universeSize;
+
+        @Param({"64"})
+        private int blockSize;
+
+        @Param({"1", "0"})
+        private int parallelism;
+
+        private double[] returns;
+
+        private double[] products;
+
+        private ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(SyntheticData.SEED);
+            returns = new double[universeSize * WINDOW];
+            for (int k = 0; k < returns.length; k++) {
+                returns[k] = random.nextGaussian() * 0.02;
+            }
+            products = new double[universeSize * universeSize];
+            pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+
+    }
+
+    /**
+     * 服务级滚动更新与缓存命中
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+
+        @Param({"500"})
+        private int universeSize;
+
+        private List<QuoteSeries> series;
+
+        private CorrelationService correlationService;
+
+        private CorrelationRequest request;
+
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<Stock> stocks = SyntheticData.stocks(universeSize);
+            series = stocks.stream()
+                    .map(stock -> SyntheticData.series(stock.getSymbol(), WINDOW * 2))
+                    .toList();
+            QuoteSeriesStore store = Fixtures.quoteSeriesStore(series);
+            CorrelationProperties properties = new CorrelationProperties();
+            properties.setMaxWindow(WINDOW);
+            properties.setRebuildInterval(Integer.MAX_VALUE);
+            correlationService = new CorrelationService(Fixtures.searchIndex(Fixtures.stockRepository(stocks)),
+                    store, Fixtures.stockService(stocks), properties);
+            request = CorrelationRequest.builder()
+                    .symbols(stocks.stream().map(Stock::getSymbol).toList())
+                    .window(WINDOW)
+                    .type("covariance")
+                    .build();
+            random = new SplittableRandom(SyntheticData.SEED);
+
+            correlationService.compute(request);
+            for (int i = 0; i < 300; i++) {
+                appendDay();
+                correlationService.compute(request);
+            }
+            float[] rolled = correlationService.compute(request).getValues();
+            CorrelationProperties fresh = new CorrelationProperties();
+            fresh.setMaxWindow(WINDOW);
+            CorrelationService reference = new CorrelationService(
+                    Fixtures.searchIndex(Fixtures.stockRepository(stocks)), store, Fixtures.stockService(stocks), fresh);
+            float[] rebuilt = reference.compute(request).getValues();
+            reference.shutdown();
+            double maxError = 0;
+            for (int k = 0; k < rolled.length; k++) {
+                maxError = Math.max(maxError, Math.abs(rolled[k] - rebuilt[k]) / Math.max(1e-12, Math.abs(rebuilt[k])));
+            }
+            System.out.printf("%n滚动更新 300 天后协方差与全量重算的最大相对偏差: %.3e%n", maxError);
+            request.setType("correlation");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            correlationService.shutdown();
+        }
+
+        private void appendDay() {
+            for (QuoteSeries s : series) {
+                QuoteSlice slice = s.tail(1);
+                double close = slice.close(0) * (1 + random.nextGaussian() * 0.02);
+                s.append(slice.day(0) + 1, close, close, close, close, 1_000_000);
+            }
+        }
+
+    }
+
+    /**
+     * N × 250 收益率矩阵的全量叉积
+     */
+    @Benchmark
+    public double[] full(KernelState state) {
+        CovarianceKernel.crossProducts(state.returns, state.universeSize, WINDOW, state.products,
+                state.blockSize, state.pool);
+        return state.products;
+    }
+
+    /**
+     * 追加一个交易日后滚动更新并输出相关系数
+     */
+    @Benchmark
+    public CorrelationMatrixDTO incremental(ServiceState state) {
+        state.appendDay();
+        return state.correlationService.compute(state.request);
+    }
+
+    /**
+     * 无新行情时的缓存命中
+     */
+    @Benchmark
+    public CorrelationMatrixDTO cached(ServiceState state) {
+        return state.correlationService.compute(state.request);
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.entity.DailyQuote;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.AvailableHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日线实体加载基准（H2 内存库）
+ * 对比 JPA 加载 {@link DailyQuote} 实体（托管 / 只读）与 JDBC 直接读入列式序列的开销
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityHydrationBenchmark {
+
+    private static final String SYMBOL = "AAPL";
+
+    private static final String JPQL = "SELECT q FROM DailyQuote q WHERE q.symbol = :symbol ORDER BY q.date";
+
+    private static final String SQL =
+            "SELECT date, open, high, low, close, volume FROM daily_quotes WHERE symbol = ? ORDER BY date";
+
+    @Param({"250", "2500"})
+    private int bars;
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private HikariDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setJdbcUrl("jdbc:h2:mem:hydration" + bars + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        ds.setUsername("sa");
+        ds.setMaximumPoolSize(4);
+        dataSource = ds;
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(ds);
+        factoryBean.setPackagesToScan("com.example.stock.model.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.jdbc.batch_size", "500"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<QuoteBarDTO> quotes = SyntheticData.quoteBars(SYMBOL, bars);
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(Stock.builder().symbol(SYMBOL).name("Apple Inc.").exchange("NASDAQ")
+                    .sector("Technology").createdAt(now).build());
+            for (QuoteBarDTO q : quotes) {
+                em.persist(DailyQuote.builder().symbol(SYMBOL).date(q.getDate())
+                        .open(q.getOpen()).high(q.getHigh()).low(q.getLow()).close(q.getClose())
+                        .volume(q.getVolume()).adjClose(q.getAdjClose()).createdAt(now).build());
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factoryBean.destroy();
+        dataSource.close();
+    }
+
+    /**
+     * 托管实体：持久化上下文保存快照用于脏检查
+     */
+    @Benchmark
+    public List<DailyQuote> jpaManaged() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            return em.createQuery(JPQL, DailyQuote.class)
+                    .setParameter("symbol", SYMBOL)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * 只读实体：不保留脏检查快照
+     */
+    @Benchmark
+    public List<DailyQuote> jpaReadOnly() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            return em.createQuery(JPQL, DailyQuote.class)
+                    .setParameter("symbol", SYMBOL)
+                    .setHint(AvailableHints.HINT_READ_ONLY, true)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * JDBC 直接读入列式序列（QuoteSeriesStore 的加载方式）
+     */
+    @Benchmark
+    public QuoteSeries jdbcColumnar() throws SQLException {
+        QuoteSeries series = new QuoteSeries(SYMBOL, 256);
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(SQL)) {
+            ps.setString(1, SYMBOL);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    series.append((int) rs.getObject(1, LocalDate.class).toEpochDay(),
+                            rs.getDouble(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5), rs.getLong(6));
+                }
+            }
+        }
+        return series;
+    }
+
+}
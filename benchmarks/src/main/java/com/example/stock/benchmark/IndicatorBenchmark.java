@@ -0,0 +1,99 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.config.IndicatorProperties;
+import com.example.stock.service.indicator.IndicatorService;
+import com.example.stock.service.indicator.IndicatorSpec;
+import com.example.stock.service.indicator.IndicatorSpecParser;
+import com.example.stock.service.indicator.Indicators;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSlice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 技术指标计算基准
+ * 对比整段重算与 {@link IndicatorService} 的增量推进（盘中最后一根 K 线被修正）
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IndicatorBenchmark {
+
+    @Param({"252", "2520"})
+    private int bars;
+
+    @Param({"ma(20)", "ema(12)", "rsi(14)", "macd", "boll_upper"})
+    private String indicator;
+
+    private IndicatorSpec spec;
+
+    private QuoteSeries series;
+
+    private IndicatorService indicatorService;
+
+    private int lastDay;
+
+    private double lastClose;
+
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        IndicatorProperties properties = new IndicatorProperties();
+        spec = new IndicatorSpecParser(properties).parse(indicator);
+        series = SyntheticData.series("AAPL", bars);
+        indicatorService = new IndicatorService(null, properties);
+        indicatorService.get(series, spec);
+
+        QuoteSlice slice = series.slice();
+        lastDay = slice.day(slice.size() - 1);
+        lastClose = slice.close(slice.size() - 1);
+    }
+
+    /**
+     * 整段重算
+     */
+    @Benchmark
+    public double[] fullRecompute() {
+        QuoteSlice slice = series.slice();
+        return Indicators.compute(spec, slice.closeColumn(), slice.from(), slice.to());
+    }
+
+    /**
+     * 最后一根 K 线收盘价变动后增量更新
+     */
+    @Benchmark
+    public double incrementalTick() {
+        double close = lastClose * (1 + ((tick++ & 15) - 8) * 0.0005);
+        series.append(lastDay, close, close, close, close, 1_000_000);
+        return indicatorService.get(series, spec).last();
+    }
+
+    /**
+     * 行情无变化时直接命中缓存
+     */
+    @Benchmark
+    public double cachedRead() {
+        return indicatorService.get(series, spec).last();
+    }
+
+}
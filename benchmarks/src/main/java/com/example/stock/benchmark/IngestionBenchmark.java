@@ -0,0 +1,172 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.config.IngestionProperties;
+import com.example.stock.config.PartitionProperties;
+import com.example.stock.model.dto.IngestionReportDTO;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.entity.DailyQuote;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.service.QuoteIngestionService;
+import com.example.stock.service.partition.QuotePartitionManager;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日线批量写入基准（PostgreSQL）
+ * 对比逐实体保存（与 DailyQuoteRepository.saveAll 相同：IDENTITY 主键使 Hibernate 每行一次 INSERT 往返）
+ * 与 QuoteIngestionService 的多行 INSERT ... ON CONFLICT 批量写入。
+ * ON CONFLICT DO UPDATE 只能在 PostgreSQL 上执行，连接参数通过系统属性指定：
+ * bench.jdbc.url（默认 docker-compose 中的 stock_db）、bench.jdbc.username、bench.jdbc.password。
+ * 表结构由 Hibernate 在独立 schema 中创建并在结束时删除
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngestionBenchmark {
+
+    private static final String SYMBOL = "AAPL";
+
+    private static final String SCHEMA = "ingestion_bench";
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private List<QuoteBarDTO> bars;
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private HikariDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private QuoteIngestionService quoteIngestionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/stock_db");
+        String username = System.getProperty("bench.jdbc.username", "stock_user");
+        String password = System.getProperty("bench.jdbc.password", "stock_password");
+        // 独立 schema，create-drop 不会触及应用自己的表
+        try (Connection con = DriverManager.getConnection(url, username, password);
+             Statement statement = con.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+        } catch (SQLException e) {
+            throw new IllegalStateException("无法连接基准数据库: " + url, e);
+        }
+        HikariDataSource ds = new HikariDataSource();
+        ds.setJdbcUrl(url);
+        ds.setUsername(username);
+        ds.setPassword(password);
+        ds.setSchema(SCHEMA);
+        ds.setMaximumPoolSize(4);
+        dataSource = ds;
+        jdbcTemplate = new JdbcTemplate(ds);
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(ds);
+        factoryBean.setPackagesToScan("com.example.stock.model.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.jdbc.batch_size", "500"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        LocalDateTime now = LocalDateTime.now();
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(Stock.builder().symbol(SYMBOL).name("Apple Inc.").exchange("NASDAQ")
+                    .sector("Technology").createdAt(now).build());
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        bars = SyntheticData.quoteBars(SYMBOL, rows);
+        QuotePartitionManager partitionManager = new QuotePartitionManager(jdbcTemplate,
+                new DataSourceTransactionManager(ds), new PartitionProperties());
+        quoteIngestionService = new QuoteIngestionService(jdbcTemplate, event -> {
+        }, new IngestionProperties(), partitionManager);
+    }
+
+    /**
+     * 两种写法都写入同一批新行，每次调用前清空
+     */
+    @Setup(Level.Invocation)
+    public void truncate() {
+        jdbcTemplate.update("DELETE FROM daily_quotes");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factoryBean.destroy();
+        dataSource.close();
+    }
+
+    /**
+     * 逐实体保存：一个事务内每行一次 INSERT 往返
+     */
+    @Benchmark
+    public int saveAll() {
+        LocalDateTime now = LocalDateTime.now();
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (QuoteBarDTO q : bars) {
+                em.persist(DailyQuote.builder().symbol(SYMBOL).date(q.getDate())
+                        .open(q.getOpen()).high(q.getHigh()).low(q.getLow()).close(q.getClose())
+                        .volume(q.getVolume()).adjClose(q.getAdjClose()).createdAt(now).build());
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        return bars.size();
+    }
+
+    /**
+     * 多行 INSERT ... ON CONFLICT，默认每批 1000 行
+     */
+    @Benchmark
+    public IngestionReportDTO bulkUpsert() {
+        return quoteIngestionService.ingest(bars);
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.utils.VirtualThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 详情页概览并发扇出基准
+ * 模拟 64 个并发请求，每个请求并发执行 4 个阻塞分支（模拟数据库 / 缓存 / 模型调用延迟），
+ * 对比固定平台线程池与虚拟线程（需要 Java 21+，否则该组参数报错跳过）的吞吐与 p99
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class OverviewFanOutBenchmark {
+
+    private static final int BRANCHES = 4;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    /**
+     * 与 app.overview.threads 默认值一致
+     */
+    @Param({"16"})
+    private int platformThreads;
+
+    /**
+     * 单个分支的阻塞时间（毫秒）
+     */
+    @Param({"2"})
+    private int branchLatencyMs;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("virtual".equals(mode)) {
+            executor = VirtualThreads.newPerTaskExecutor()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "当前运行时（Java " + Runtime.version().feature() + "）不支持虚拟线程"));
+        } else {
+            executor = Executors.newFixedThreadPool(platformThreads, new CustomizableThreadFactory("overview-"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int overview() {
+        List<CompletableFuture<Integer>> branches = new ArrayList<>(BRANCHES);
+        for (int i = 0; i < BRANCHES; i++) {
+            int branch = i;
+            branches.add(CompletableFuture.supplyAsync(() -> {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(branchLatencyMs));
+                return branch;
+            }, executor).orTimeout(800, TimeUnit.MILLISECONDS));
+        }
+        int sum = 0;
+        for (CompletableFuture<Integer> future : branches) {
+            sum += future.join();
+        }
+        return sum;
+    }
+
+}
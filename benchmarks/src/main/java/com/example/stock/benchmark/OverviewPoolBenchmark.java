@@ -0,0 +1,233 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.utils.VirtualThreads;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 概览扇出 + 连接池基准（H2 内存库 + HikariCP）
+ * 与 OverviewService 相同的四分支：详情、最近两根日线两个分支经连接池查库
+ * （查询前在同一连接上 SLEEP_MS 模拟数据库往返），指标与 AI 报告两个分支不占连接。
+ * 平台线程池与虚拟线程使用同样大小的连接池（默认与 spring.datasource.hikari.maximum-pool-size 一致），
+ * 对比 64 并发请求下的延迟分布；分支超时与 OverviewService 一致会取消分支，超时次数在结束时打印。
+ * 虚拟线程需要 Java 21+，否则该组参数报错跳过
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class OverviewPoolBenchmark {
+
+    private static final int SYMBOLS = 200;
+
+    private static final int BARS = 250;
+
+    private static final long BRANCH_TIMEOUT_MS = 800;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    /**
+     * 与 app.overview.threads 默认值一致
+     */
+    @Param({"16"})
+    private int platformThreads;
+
+    /**
+     * 与 spring.datasource.hikari.maximum-pool-size 一致
+     */
+    @Param({"10"})
+    private int poolSize;
+
+    /**
+     * 每次查库附加的往返延迟（毫秒）
+     */
+    @Param({"2"})
+    private int dbLatencyMs;
+
+    private HikariDataSource dataSource;
+
+    private ExecutorService executor;
+
+    private final LongAdder timeouts = new LongAdder();
+
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * H2 存储函数，用于在持有连接期间模拟数据库往返
+     */
+    public static int sleepMs(int millis) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        return millis;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        if ("virtual".equals(mode)) {
+            executor = VirtualThreads.newPerTaskExecutor()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "当前运行时（Java " + Runtime.version().feature() + "）不支持虚拟线程"));
+        } else {
+            executor = Executors.newFixedThreadPool(platformThreads, new CustomizableThreadFactory("overview-"));
+        }
+
+        HikariDataSource ds = new HikariDataSource();
+        ds.setJdbcUrl("jdbc:h2:mem:overview" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        ds.setUsername("sa");
+        ds.setMaximumPoolSize(poolSize);
+        ds.setMinimumIdle(poolSize);
+        ds.setConnectionTimeout(30_000);
+        dataSource = ds;
+
+        try (Connection connection = ds.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS SLEEP_MS FOR \""
+                    + OverviewPoolBenchmark.class.getName() + ".sleepMs\"");
+            statement.execute("CREATE TABLE IF NOT EXISTS stocks (symbol VARCHAR(20) PRIMARY KEY, "
+                    + "name VARCHAR(100), sector VARCHAR(50))");
+            statement.execute("CREATE TABLE IF NOT EXISTS daily_quotes (symbol VARCHAR(20), date DATE, "
+                    + "close DECIMAL(10, 2), PRIMARY KEY (symbol, date))");
+            statement.execute("DELETE FROM daily_quotes");
+            statement.execute("DELETE FROM stocks");
+            try (PreparedStatement stocks = connection.prepareStatement("INSERT INTO stocks VALUES (?, ?, ?)");
+                 PreparedStatement quotes = connection.prepareStatement("INSERT INTO daily_quotes VALUES (?, ?, ?)")) {
+                LocalDate start = LocalDate.of(2024, 1, 1);
+                for (int s = 0; s < SYMBOLS; s++) {
+                    String symbol = "S" + s;
+                    stocks.setString(1, symbol);
+                    stocks.setString(2, "Stock " + s);
+                    stocks.setString(3, "Sector " + (s % 10));
+                    stocks.addBatch();
+                    for (int d = 0; d < BARS; d++) {
+                        quotes.setString(1, symbol);
+                        quotes.setDate(2, Date.valueOf(start.plusDays(d)));
+                        quotes.setDouble(3, 100 + Math.sin(s + d / 10.0) * 10);
+                        quotes.addBatch();
+                    }
+                    quotes.executeBatch();
+                }
+                stocks.executeBatch();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[overview-pool] mode=%s pool=%d requests=%d branch timeouts=%d%n",
+                mode, poolSize, requests.sum(), timeouts.sum());
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int overview() {
+        requests.increment();
+        String symbol = "S" + ThreadLocalRandom.current().nextInt(SYMBOLS);
+        CompletableFuture<String> detail = branch(() -> query(
+                "SELECT name FROM stocks WHERE symbol = ?", symbol));
+        CompletableFuture<String> quote = branch(() -> query(
+                "SELECT close FROM daily_quotes WHERE symbol = ? ORDER BY date DESC LIMIT 2", symbol));
+        CompletableFuture<String> indicators = branch(() -> {
+            double sum = 0;
+            for (int i = 0; i < BARS; i++) {
+                sum += Math.sin(i);
+            }
+            return Double.toString(sum);
+        });
+        CompletableFuture<String> analysis = branch(() -> {
+            // 模拟缓存命中的 Redis 往返
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+            return symbol;
+        });
+        return length(detail) + length(quote) + length(indicators) + length(analysis);
+    }
+
+    /**
+     * 与 OverviewService.branch 相同：超时后取消仍在执行的分支
+     */
+    private <T> CompletableFuture<T> branch(Supplier<T> supplier) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(supplier.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.orTimeout(BRANCH_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error instanceof TimeoutException) {
+                        task.cancel(true);
+                    }
+                });
+        return result;
+    }
+
+    private int length(CompletableFuture<String> future) {
+        try {
+            String value = future.join();
+            return value == null ? 0 : value.length();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                timeouts.increment();
+            }
+            return 0;
+        }
+    }
+
+    private String query(String sql, String symbol) {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement sleep = connection.prepareStatement("SELECT SLEEP_MS(?)")) {
+                sleep.setInt(1, dbLatencyMs);
+                sleep.executeQuery().close();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, symbol);
+                try (ResultSet rs = statement.executeQuery()) {
+                    return rs.next() ? rs.getString(1) : null;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.Fixtures;
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.config.StreamProperties;
+import com.example.stock.model.dto.PriceTickDTO;
+import com.example.stock.model.dto.StreamStatsDTO;
+import com.example.stock.service.stream.PriceFeed;
+import com.example.stock.service.stream.QuoteSink;
+import com.example.stock.service.stream.QuoteStreamService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * 实时报价广播基准
+ * 数千个订阅者平均分布在若干股票上，基准线程充当模拟行情源持续广播报价；
+ * 订阅者以可配置的延迟模拟慢消费者，观察广播吞吐以及合并（conflated）比例。
+ * 每轮结束打印推送统计，sent + conflated 应约等于 published × 每股票订阅者数
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuoteStreamBenchmark {
+
+    @Param({"1000", "10000"})
+    private int subscribers;
+
+    @Param({"10"})
+    private int symbols;
+
+    /**
+     * 单条推送的耗时（微秒），模拟网络写出；0 为即时消费
+     */
+    @Param({"0", "50"})
+    private int sinkLatencyMicros;
+
+    private QuoteStreamService service;
+
+    private List<String> symbolList;
+
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StreamProperties properties = new StreamProperties();
+        // 行情由基准线程直接广播，上游轮询只在订阅时触发一次
+        properties.setPollIntervalMs(TimeUnit.HOURS.toMillis(1));
+        properties.setHeartbeatIntervalMs(0);
+        properties.setMaxSubscribers(subscribers);
+
+        PriceFeed silentFeed = new PriceFeed() {
+            @Override
+            public String getSource() {
+                return "benchmark";
+            }
+
+            @Override
+            public PriceTickDTO fetch(String symbol) {
+                return null;
+            }
+        };
+        service = new QuoteStreamService(silentFeed, properties, Fixtures.objectMapper(), new SimpleMeterRegistry());
+
+        symbolList = IntStream.range(0, symbols).mapToObj(SyntheticData::symbol).toList();
+        long latencyNanos = TimeUnit.MICROSECONDS.toNanos(sinkLatencyMicros);
+        QuoteSink sink = (tick, json) -> {
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+        };
+        for (int i = 0; i < subscribers; i++) {
+            service.subscribe(List.of(symbolList.get(i % symbols)), sink);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        StreamStatsDTO stats = service.getStats();
+        System.out.printf("%n  published=%d sent=%d conflated=%d pending=%d%n",
+                stats.getPublished(), stats.getSent(), stats.getConflated(), stats.getPending());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public void broadcast() {
+        long n = counter++;
+        service.publish(PriceTickDTO.builder()
+                .symbol(symbolList.get((int) (n % symbols)))
+                .price(BigDecimal.valueOf(10_000 + n % 500, 2))
+                .change(BigDecimal.ZERO)
+                .changePercent(BigDecimal.ZERO)
+                .volume(n)
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.metrics.RequestTrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求阶段耗时记录的开销
+ * 一次详情请求约记录 3 ~ 5 个阶段，与毫秒级的请求耗时相比应远低于 1%
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestTraceBenchmark {
+
+    @Benchmark
+    public long nanoTimeBaseline() {
+        return System.nanoTime();
+    }
+
+    /**
+     * 非请求线程：空操作
+     */
+    @Benchmark
+    public void recordInactive() {
+        RequestTrace.record(RequestTrace.DB, System.nanoTime());
+    }
+
+    /**
+     * 一个完整请求：激活、记录 4 个阶段、生成 Server-Timing 头、关闭
+     */
+    @Benchmark
+    public String request() {
+        RequestTrace trace = RequestTrace.begin();
+        RequestTrace.record(RequestTrace.REDIS, System.nanoTime());
+        RequestTrace.record(RequestTrace.DB, System.nanoTime());
+        RequestTrace.record(RequestTrace.MAPPING, System.nanoTime());
+        RequestTrace.record(RequestTrace.DB, System.nanoTime());
+        String header = trace.toServerTiming(System.nanoTime());
+        trace.end();
+        return header;
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.Fixtures;
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.config.IndicatorProperties;
+import com.example.stock.config.ScreenerProperties;
+import com.example.stock.model.dto.ScreenerResultDTO;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.service.indicator.IndicatorService;
+import com.example.stock.service.indicator.IndicatorSpecParser;
+import com.example.stock.service.screener.ScreenerService;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 横截面选股基准：全市场扫描，对比串行与并行（parallelism=0 即 CPU 核数）
+ * 指标缓存在预热阶段填满，测量的是行情无变化时的重复扫描
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScreenerBenchmark {
+
+    private static final String FILTER = "cross_above(ma(5), ma(20)) or (rsi(14) < 40 and close > boll_lower)";
+
+    private static final String SORT = "change_pct";
+
+    @Param({"1000", "5000"})
+    private int universeSize;
+
+    @Param({"252"})
+    private int bars;
+
+    @Param({"1", "0"})
+    private int parallelism;
+
+    private ScreenerService screenerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Stock> stocks = SyntheticData.stocks(universeSize);
+        List<QuoteSeries> series = stocks.stream()
+                .map(stock -> SyntheticData.series(stock.getSymbol(), bars))
+                .toList();
+        QuoteSeriesStore store = Fixtures.quoteSeriesStore(series);
+
+        IndicatorProperties indicatorProperties = new IndicatorProperties();
+        indicatorProperties.setCacheMaxEntries(universeSize * 8);
+        ScreenerProperties screenerProperties = new ScreenerProperties();
+        screenerProperties.setParallelism(parallelism);
+
+        screenerService = new ScreenerService(
+                Fixtures.searchIndex(Fixtures.stockRepository(stocks)),
+                store,
+                new IndicatorService(store, indicatorProperties),
+                new IndicatorSpecParser(indicatorProperties),
+                screenerProperties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        screenerService.shutdown();
+    }
+
+    @Benchmark
+    public ScreenerResultDTO screen() {
+        return screenerService.screen(FILTER, null, SORT, false, 1, 20);
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.Fixtures;
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.service.search.StockSearchIndex;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.AvailableHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 股票搜索基准（H2 内存库）
+ * 对比内存前缀 / 三元组索引与原先 JPA 的 LOWER(..) LIKE '%kw%' 全表扫描
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    /**
+     * 与 StockRepository.searchBySymbolOrName 相同的查询
+     */
+    private static final String JPQL = "SELECT s FROM Stock s WHERE "
+            + "LOWER(s.symbol) LIKE LOWER(CONCAT('%', :keyword, '%')) OR "
+            + "LOWER(s.name) LIKE LOWER(CONCAT('%', :keyword, '%'))";
+
+    @Param({"1000", "10000"})
+    private int universeSize;
+
+    /**
+     * 关键字类型：代码前缀、名称前缀、名称子串、无匹配
+     */
+    @Param({"AB", "summit", "ware", "xqz"})
+    private String keyword;
+
+    private StockSearchIndex index;
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private HikariDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Stock> stocks = SyntheticData.stocks(universeSize);
+        index = Fixtures.searchIndex(Fixtures.stockRepository(stocks));
+
+        HikariDataSource ds = new HikariDataSource();
+        ds.setJdbcUrl("jdbc:h2:mem:search" + universeSize + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        ds.setUsername("sa");
+        ds.setMaximumPoolSize(4);
+        dataSource = ds;
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(ds);
+        factoryBean.setPackagesToScan("com.example.stock.model.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.jdbc.batch_size", "500"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (int i = 0; i < stocks.size(); i++) {
+                Stock stock = stocks.get(i);
+                em.persist(Stock.builder().symbol(stock.getSymbol()).name(stock.getName())
+                        .exchange(stock.getExchange()).sector(stock.getSector())
+                        .lastUpdate(stock.getLastUpdate()).createdAt(stock.getCreatedAt()).build());
+                if (i % 500 == 499) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factoryBean.destroy();
+        dataSource.close();
+    }
+
+    /**
+     * 内存索引，取前 20 条
+     */
+    @Benchmark
+    public List<StockSearchIndex.Entry> index() {
+        return index.search(keyword, 20);
+    }
+
+    /**
+     * JPA 模糊查询（只读实体），返回全部匹配
+     */
+    @Benchmark
+    public List<Stock> jpaLike() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            return em.createQuery(JPQL, Stock.class)
+                    .setParameter("keyword", keyword)
+                    .setHint(AvailableHints.HINT_READ_ONLY, true)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.Fixtures;
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.StockSearchDTO;
+import com.example.stock.model.vo.Result;
+import com.example.stock.utils.CandleBinaryReader;
+import com.example.stock.utils.CandleBinaryWriter;
+import com.example.stock.utils.CandleJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 序列化基准
+ * - 搜索结果 {@code Result<List<StockSearchDTO>>}
+ * - K 线：Jackson 序列化报价 DTO 列表 / 二维数组，对比 {@link CandleJsonWriter} 直写与 {@link CandleBinaryWriter} 列式二进制；
+ *   各表示的字节数在准备阶段打印，二进制结果经 {@link CandleBinaryReader} 解码校验
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private ByteArrayOutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Fixtures.objectMapper();
+        out = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public int searchResult(SearchData data) throws IOException {
+        out.reset();
+        data.writer.writeValue(out, data.result);
+        return out.size();
+    }
+
+    @Benchmark
+    public int candleDtoList(CandleData data) throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, data.dtoResult);
+        return out.size();
+    }
+
+    @Benchmark
+    public int candleArraysJackson(CandleData data) throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, data.arrayResult);
+        return out.size();
+    }
+
+    @Benchmark
+    public int candleArraysWriter(CandleData data) throws IOException {
+        out.reset();
+        CandleJsonWriter writer = new CandleJsonWriter(out);
+        writer.beginEnvelope();
+        long[][] rows = data.cents;
+        for (long[] row : rows) {
+            writer.writeCandle(row[0], row[1], row[2], row[3], row[4], row[5]);
+        }
+        writer.endEnvelope();
+        return out.size();
+    }
+
+    @Benchmark
+    public int candleBinaryWriter(CandleData data) throws IOException {
+        out.reset();
+        CandleBinaryWriter writer = new CandleBinaryWriter(out, data.cents.length);
+        writer.beginEnvelope();
+        long[][] rows = data.cents;
+        for (long[] row : rows) {
+            writer.writeCandle(row[0], row[1], row[2], row[3], row[4], row[5]);
+        }
+        writer.endEnvelope();
+        return out.size();
+    }
+
+    @Benchmark
+    public int candleBinaryDecode(CandleData data) {
+        return CandleBinaryReader.decode(data.binary).size();
+    }
+
+    /**
+     * 搜索结果数据
+     */
+    @State(Scope.Benchmark)
+    public static class SearchData {
+
+        @Param({"20", "200"})
+        int resultSize;
+
+        Result<List<StockSearchDTO>> result;
+
+        ObjectWriter writer;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<StockSearchDTO> list = SyntheticData.stocks(resultSize).stream()
+                    .map(s -> StockSearchDTO.builder()
+                            .symbol(s.getSymbol())
+                            .name(s.getName())
+                            .exchange(s.getExchange())
+                            .build())
+                    .toList();
+            result = Result.success(list);
+            writer = Fixtures.objectMapper().writerFor(Result.class);
+        }
+
+    }
+
+    /**
+     * K 线数据：同一段行情的三种表示
+     */
+    @State(Scope.Benchmark)
+    public static class CandleData {
+
+        @Param({"250", "2500"})
+        int bars;
+
+        Result<List<QuoteBarDTO>> dtoResult;
+
+        Result<List<Object[]>> arrayResult;
+
+        long[][] cents;
+
+        byte[] binary;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<QuoteBarDTO> quotes = SyntheticData.quoteBars("AAPL", bars);
+            dtoResult = Result.success(quotes);
+
+            List<Object[]> arrays = new ArrayList<>(bars);
+            cents = new long[bars][];
+            for (int i = 0; i < bars; i++) {
+                QuoteBarDTO q = quotes.get(i);
+                long timestamp = q.getDate().toEpochDay() * 86400L;
+                arrays.add(new Object[]{timestamp, q.getOpen(), q.getHigh(), q.getLow(), q.getClose(), q.getVolume()});
+                cents[i] = new long[]{timestamp, toCents(q.getOpen().doubleValue()), toCents(q.getHigh().doubleValue()),
+                        toCents(q.getLow().doubleValue()), toCents(q.getClose().doubleValue()), q.getVolume()};
+            }
+            arrayResult = Result.success(arrays);
+            binary = encodeBinary(cents);
+            verify(quotes);
+
+            ObjectMapper objectMapper = Fixtures.objectMapper();
+            try {
+                System.out.printf("%n  payload bytes (bars=%d): dtoList=%d, arraysJackson=%d, binary=%d%n", bars,
+                        objectMapper.writeValueAsBytes(dtoResult).length,
+                        objectMapper.writeValueAsBytes(arrayResult).length,
+                        binary.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static byte[] encodeBinary(long[][] rows) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            CandleBinaryWriter writer = new CandleBinaryWriter(buffer, rows.length);
+            for (long[] row : rows) {
+                writer.writeCandle(row[0], row[1], row[2], row[3], row[4], row[5]);
+            }
+            try {
+                writer.endEnvelope();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        }
+
+        /**
+         * 解码结果必须与原始行情逐项一致
+         */
+        private void verify(List<QuoteBarDTO> quotes) {
+            CandleBinaryReader.Candles decoded = CandleBinaryReader.decode(binary);
+            if (decoded.size() != quotes.size()) {
+                throw new IllegalStateException("二进制解码条数不一致");
+            }
+            for (int i = 0; i < decoded.size(); i++) {
+                long[] row = cents[i];
+                if (decoded.timestamps()[i] != row[0] || decoded.opens()[i] != row[1] || decoded.highs()[i] != row[2]
+                        || decoded.lows()[i] != row[3] || decoded.closes()[i] != row[4] || decoded.volumes()[i] != row[5]) {
+                    throw new IllegalStateException("二进制解码结果不一致，第 " + i + " 根");
+                }
+            }
+        }
+
+        private static long toCents(double price) {
+            return Math.round(price * 100);
+        }
+
+    }
+
+}
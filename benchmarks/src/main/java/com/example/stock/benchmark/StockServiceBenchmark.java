@@ -0,0 +1,85 @@
+package com.example.stock.benchmark;
+
+import com.example.stock.benchmark.support.Fixtures;
+import com.example.stock.benchmark.support.SyntheticData;
+import com.example.stock.model.dto.StockDetailDTO;
+import com.example.stock.model.dto.StockSearchDTO;
+import com.example.stock.service.StockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 股票服务基准：内存索引搜索（含搜索结果 DTO 转换）与详情 DTO 转换
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockServiceBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    private int universeSize;
+
+    private StockService stockService;
+
+    private String[] symbols;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stockService = Fixtures.stockService(SyntheticData.stocks(universeSize));
+        SplittableRandom random = new SplittableRandom(SyntheticData.SEED);
+        symbols = new String[1024];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = SyntheticData.symbol(random.nextInt(universeSize)).toLowerCase();
+        }
+    }
+
+    @Benchmark
+    public List<StockSearchDTO> search(Keyword keyword) {
+        return stockService.search(keyword.value, 20);
+    }
+
+    /**
+     * 缓存直通时的详情查询：代码解析 + 仓库查找 + 详情 DTO 转换
+     */
+    @Benchmark
+    public StockDetailDTO details() {
+        return stockService.getStockDetails(symbols[cursor++ & (symbols.length - 1)]);
+    }
+
+    /**
+     * 搜索关键字（仅作用于搜索基准）
+     */
+    @State(Scope.Benchmark)
+    public static class Keyword {
+
+        /**
+         * 关键字类型：代码前缀、名称前缀、名称子串、无匹配
+         */
+        @Param({"AB", "summit", "ware", "xqz"})
+        String value;
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.example.stock.benchmark.support;
+
+import com.example.stock.config.CacheProperties;
+import com.example.stock.config.SearchProperties;
+import com.example.stock.config.SectorProperties;
+import com.example.stock.config.TimeSeriesProperties;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.repository.QuoteVersionRepository;
+import com.example.stock.repository.StockRepository;
+import com.example.stock.service.StockService;
+import com.example.stock.service.cache.DataVersionService;
+import com.example.stock.service.search.StockSearchIndex;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 基准测试装配工具
+ * 不启动 Spring 容器，直接以合成数据装配被测服务；数据库访问由内存桩替代
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * 基于内存列表的股票仓库桩，仅实现基准用到的查询方法
+     */
+    public static StockRepository stockRepository(List<Stock> stocks) {
+        Map<String, Stock> bySymbol = stocks.stream()
+                .collect(Collectors.toMap(s -> s.getSymbol().toLowerCase(Locale.ROOT), Function.identity()));
+        return (StockRepository) Proxy.newProxyInstance(StockRepository.class.getClassLoader(),
+                new Class<?>[]{StockRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> stocks;
+                    case "findBySymbolIgnoreCase" ->
+                            Optional.ofNullable(bySymbol.get(((String) args[0]).toLowerCase(Locale.ROOT)));
+                    case "existsBySymbolIgnoreCase" -> bySymbol.containsKey(((String) args[0]).toLowerCase(Locale.ROOT));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StockRepository(in-memory, " + stocks.size() + ")";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * 构建完成的搜索索引
+     */
+    public static StockSearchIndex searchIndex(StockRepository stockRepository) {
+        StockSearchIndex index = new StockSearchIndex(stockRepository);
+        index.rebuild();
+        return index;
+    }
+
+    /**
+     * 股票服务：内存索引 + 仓库桩，缓存直通（每次都走 DTO 转换）
+     */
+    public static StockService stockService(List<Stock> stocks) {
+        StockRepository repository = stockRepository(stocks);
+        return new StockService(repository, searchIndex(repository), new SearchProperties(), new SectorProperties(),
+                null, new NoOpCacheManager());
+    }
+
+    /**
+     * 没有任何行情版本记录的版本服务：已装入的序列永远不需要追赶
+     */
+    public static DataVersionService dataVersionService() {
+        QuoteVersionRepository repository = (QuoteVersionRepository) Proxy.newProxyInstance(
+                QuoteVersionRepository.class.getClassLoader(), new Class<?>[]{QuoteVersionRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.empty();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "QuoteVersionRepository(empty)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return new DataVersionService(null, repository, new CacheProperties());
+    }
+
+    /**
+     * 预先装入给定序列的列式行情存储（不连接数据库）
+     */
+    @SuppressWarnings("unchecked")
+    public static QuoteSeriesStore quoteSeriesStore(Collection<QuoteSeries> seriesList) {
+        QuoteSeriesStore store = new QuoteSeriesStore(null, null, new TimeSeriesProperties(), dataVersionService());
+        try {
+            Field field = QuoteSeriesStore.class.getDeclaredField("series");
+            field.setAccessible(true);
+            Map<String, QuoteSeries> map = (Map<String, QuoteSeries>) field.get(store);
+            seriesList.forEach(s -> map.put(s.getSymbol(), s));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法装入行情序列", e);
+        }
+        return store;
+    }
+
+    /**
+     * 与 application.yml 中 spring.jackson 配置一致的 ObjectMapper
+     */
+    public static ObjectMapper objectMapper() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT+8"));
+        return Jackson2ObjectMapperBuilder.json()
+                .timeZone("GMT+8")
+                .dateFormat(dateFormat)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+}
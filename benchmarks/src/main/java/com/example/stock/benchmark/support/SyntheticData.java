@@ -0,0 +1,162 @@
+package com.example.stock.benchmark.support;
+
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.service.timeseries.QuoteSeries;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 合成数据生成器
+ * 按固定种子生成可复现的股票池与日线行情，规模由基准参数决定
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class SyntheticData {
+
+    public static final long SEED = 20240101L;
+
+    /**
+     * 合成行情的起始交易日
+     */
+    public static final LocalDate START_DATE = LocalDate.of(2015, 1, 1);
+
+    private static final String[] EXCHANGES = {"NASDAQ", "NYSE", "AMEX"};
+
+    private static final String[] SECTORS = {
+            "Technology", "Healthcare", "Financial Services", "Consumer Cyclical", "Industrials",
+            "Energy", "Utilities", "Real Estate", "Basic Materials", "Communication Services"
+    };
+
+    private static final String[] NAME_HEADS = {
+            "Apex", "Blue", "Cedar", "Delta", "Eagle", "First", "Global", "Harbor", "Iron", "Jade",
+            "Keystone", "Lunar", "Micro", "North", "Orion", "Pacific", "Quantum", "River", "Summit", "Titan"
+    };
+
+    private static final String[] NAME_TAILS = {
+            "Systems", "Holdings", "Energy", "Pharma", "Capital", "Networks", "Foods", "Motors",
+            "Semiconductor", "Realty", "Biotech", "Logistics", "Software", "Mining", "Media"
+    };
+
+    private SyntheticData() {
+    }
+
+    /**
+     * 生成股票池；代码为 A..Z、AA..ZZ ... 的递增序列，名称与行业随机
+     *
+     * @param size 股票数量
+     */
+    public static List<Stock> stocks(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Stock> stocks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = NAME_HEADS[random.nextInt(NAME_HEADS.length)] + " "
+                    + NAME_TAILS[random.nextInt(NAME_TAILS.length)] + (i >= 300 ? " " + i : "");
+            stocks.add(Stock.builder()
+                    .symbol(symbol(i))
+                    .name(name)
+                    .exchange(EXCHANGES[random.nextInt(EXCHANGES.length)])
+                    .sector(SECTORS[random.nextInt(SECTORS.length)])
+                    .lastUpdate(now)
+                    .createdAt(now)
+                    .build());
+        }
+        return stocks;
+    }
+
+    /**
+     * 第 i 只股票的代码（双射：0 -> A，25 -> Z，26 -> AA ...）
+     */
+    public static String symbol(int index) {
+        StringBuilder sb = new StringBuilder();
+        int n = index;
+        do {
+            sb.append((char) ('A' + n % 26));
+            n = n / 26 - 1;
+        } while (n >= 0);
+        return sb.reverse().toString();
+    }
+
+    /**
+     * 生成几何随机游走的日线序列
+     *
+     * @param symbol 股票代码
+     * @param bars   K 线数量
+     */
+    public static QuoteSeries series(String symbol, int bars) {
+        QuoteSeries series = new QuoteSeries(symbol, bars + 256);
+        Walk walk = new Walk(symbol);
+        int day = (int) START_DATE.toEpochDay();
+        for (int i = 0; i < bars; i++) {
+            walk.next();
+            series.append(day + i, walk.open, walk.high, walk.low, walk.close, walk.volume);
+        }
+        return series;
+    }
+
+    /**
+     * 生成与 {@link #series(String, int)} 相同走势的日线报价 DTO
+     *
+     * @param symbol 股票代码
+     * @param bars   K 线数量
+     */
+    public static List<QuoteBarDTO> quoteBars(String symbol, int bars) {
+        List<QuoteBarDTO> list = new ArrayList<>(bars);
+        Walk walk = new Walk(symbol);
+        for (int i = 0; i < bars; i++) {
+            walk.next();
+            BigDecimal close = price(walk.close);
+            list.add(QuoteBarDTO.builder()
+                    .symbol(symbol)
+                    .date(START_DATE.plusDays(i))
+                    .open(price(walk.open))
+                    .high(price(walk.high))
+                    .low(price(walk.low))
+                    .close(close)
+                    .volume(walk.volume)
+                    .adjClose(close)
+                    .build());
+        }
+        return list;
+    }
+
+    private static BigDecimal price(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 单只股票的随机游走状态
+     */
+    private static final class Walk {
+
+        private final SplittableRandom random;
+        private double close;
+        private double open;
+        private double high;
+        private double low;
+        private long volume;
+
+        private Walk(String symbol) {
+            this.random = new SplittableRandom(SEED ^ symbol.hashCode());
+            this.close = 10 + random.nextDouble(190);
+        }
+
+        private void next() {
+            open = close * (1 + (random.nextDouble() - 0.5) * 0.01);
+            close = Math.max(1, open * (1 + (random.nextDouble() - 0.5) * 0.04));
+            high = Math.max(open, close) * (1 + random.nextDouble() * 0.01);
+            low = Math.min(open, close) * (1 - random.nextDouble() * 0.01);
+            volume = 100_000 + random.nextLong(5_000_000);
+        }
+
+    }
+
+}
@@ -2,8 +2,11 @@ package com.example.stock;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Web 股票分析平台 - 主启动类
@@ -12,8 +15,11 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
  * @version 1.0
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableCaching
 @EnableJpaAuditing
+@EnableScheduling
+@EnableAsync
 public class StockApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,66 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * AI 分析配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.ai")
+public class AiProperties {
+
+    /**
+     * 模型服务：openai（OpenAI 兼容接口）/ stub（本地模拟，测试与压测用）
+     */
+    private String provider = "stub";
+
+    /**
+     * OpenAI 兼容接口地址
+     */
+    private String baseUrl = "https://api.openai.com/v1";
+
+    /**
+     * 接口密钥
+     */
+    private String apiKey;
+
+    /**
+     * 模型名称
+     */
+    private String model = "gpt-4o-mini";
+
+    /**
+     * 单次生成超时时间（毫秒，自入队起计算，含排队等待），超时返回 3001
+     */
+    private int timeoutMs = 5000;
+
+    /**
+     * 生成线程数
+     */
+    private int threads = 4;
+
+    /**
+     * 排队任务上限，超出后拒绝新任务
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * 报告过期后继续保留、作为旧报告返回的时长（秒）
+     */
+    private long staleRetention = 86400;
+
+    /**
+     * 任务状态保留时长（秒），期间可按任务令牌查询
+     */
+    private long jobRetention = 600;
+
+    /**
+     * 模拟模型的响应延迟（毫秒）
+     */
+    private long stubLatencyMs = 1500;
+
+}
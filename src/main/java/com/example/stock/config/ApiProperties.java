@@ -0,0 +1,26 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 外部数据源接口配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.api")
+public class ApiProperties {
+
+    /**
+     * Yahoo Finance 接口地址
+     */
+    private String yahooFinanceBaseUrl = "https://query1.finance.yahoo.com";
+
+    /**
+     * 请求超时时间（毫秒）
+     */
+    private int requestTimeout = 5000;
+
+}
@@ -0,0 +1,56 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 回测配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.backtest")
+public class BacktestProperties {
+
+    /**
+     * 并行计算线程数，0 表示使用 CPU 核数
+     */
+    private int parallelism = 0;
+
+    /**
+     * 单次请求允许的最大股票数
+     */
+    private int maxSymbols = 5000;
+
+    /**
+     * 单次请求允许的最大回测次数（股票数 × 参数组合数）
+     */
+    private int maxRuns = 200000;
+
+    /**
+     * 默认返回的最优回测条数
+     */
+    private int defaultTop = 20;
+
+    /**
+     * 返回条数上限
+     */
+    private int maxTop = 200;
+
+    /**
+     * 权益曲线默认点数（超过时等间隔抽样，保留首尾）
+     */
+    private int defaultCurvePoints = 250;
+
+    /**
+     * 权益曲线点数上限
+     */
+    private int maxCurvePoints = 5000;
+
+    /**
+     * 每年交易日数，用于年化收益率、波动率与夏普比率
+     */
+    private int tradingDaysPerYear = 252;
+
+}
@@ -0,0 +1,71 @@
+package com.example.stock.config;
+
+import com.example.stock.model.dto.AnalysisReportDTO;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.StockDetailDTO;
+import com.example.stock.service.cache.CacheNames;
+import com.example.stock.service.cache.TieredCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 缓存配置：每个缓存都是 Caffeine（L1）+ Redis（L2）两级缓存
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * 以字节数组存取值的 RedisTemplate，值的序列化由缓存自行处理
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+                                     AiProperties aiProperties,
+                                     RedisTemplate<String, byte[]> binaryRedisTemplate,
+                                     ObjectMapper objectMapper) {
+        Duration marketTtl = Duration.ofSeconds(cacheProperties.getMarketDataTtl());
+        // 报告过期后仍保留一段时间，重新生成期间作为旧报告返回
+        Duration reportTtl = Duration.ofSeconds(cacheProperties.getAiReportTtl() + aiProperties.getStaleRetention());
+        RedisTemplate<String, byte[]> redis = cacheProperties.isRedisEnabled() ? binaryRedisTemplate : null;
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                tieredCache(CacheNames.STOCK_DETAIL, StockDetailDTO.class, marketTtl, cacheProperties, redis, objectMapper),
+                tieredCache(CacheNames.CANDLES, byte[].class, marketTtl, cacheProperties, redis, objectMapper),
+                tieredCache(CacheNames.LATEST_QUOTE, QuoteBarDTO.class, marketTtl, cacheProperties, redis, objectMapper),
+                tieredCache(CacheNames.AI_REPORT, AnalysisReportDTO.class, reportTtl, cacheProperties, redis, objectMapper)
+        ));
+        return cacheManager;
+    }
+
+    private static TieredCache tieredCache(String name, Class<?> valueType, Duration ttl,
+                                           CacheProperties cacheProperties,
+                                           RedisTemplate<String, byte[]> redis, ObjectMapper objectMapper) {
+        return new TieredCache(name, valueType, ttl,
+                Duration.ofSeconds(cacheProperties.getLocalTtl()),
+                cacheProperties.getLocalMaxEntries(),
+                redis, objectMapper,
+                Duration.ofSeconds(cacheProperties.getRedisRetryInterval()));
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 两级缓存配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    /**
+     * 行情数据（股票详情、K 线、最新报价）在 Redis 中的过期时间（秒）
+     */
+    private long marketDataTtl = 300;
+
+    /**
+     * AI 分析报告在 Redis 中的过期时间（秒）
+     */
+    private long aiReportTtl = 3600;
+
+    /**
+     * 是否启用 Redis 二级缓存，关闭后只使用本地缓存
+     */
+    private boolean redisEnabled = true;
+
+    /**
+     * Redis 访问失败后暂停使用 Redis 的时长（秒）
+     */
+    private long redisRetryInterval = 30;
+
+    /**
+     * 每个本地缓存的最大条目数
+     */
+    private long localMaxEntries = 10000;
+
+    /**
+     * 本地缓存过期时间（秒），多实例部署时即为实例间最大不一致时间
+     */
+    private long localTtl = 30;
+
+}
@@ -0,0 +1,31 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * K 线接口配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.candles")
+public class CandleProperties {
+
+    /**
+     * 默认返回条数
+     */
+    private int defaultLimit = 200;
+
+    /**
+     * 单次请求允许的最大返回条数
+     */
+    private int maxLimit = 10000;
+
+    /**
+     * JDBC 游标每次抓取的行数
+     */
+    private int fetchSize = 500;
+
+}
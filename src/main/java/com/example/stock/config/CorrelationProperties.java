@@ -0,0 +1,61 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 相关系数 / 协方差矩阵配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.correlation")
+public class CorrelationProperties {
+
+    /**
+     * 单个矩阵允许的最大股票数
+     */
+    private int maxSymbols = 1000;
+
+    /**
+     * 默认窗口（收益率个数）
+     */
+    private int defaultWindow = 60;
+
+    /**
+     * 最大窗口
+     */
+    private int maxWindow = 1260;
+
+    /**
+     * 并行计算线程数，0 表示使用 CPU 核数
+     */
+    private int parallelism = 0;
+
+    /**
+     * 分块计算时每块的股票数
+     */
+    private int blockSize = 64;
+
+    /**
+     * 缓存的矩阵总规模上限（单元数，每个矩阵计 N × (N + window) 个单元，每单元 8 字节）
+     */
+    private long cacheMaxCells = 8_000_000;
+
+    /**
+     * 缓存的矩阵多久未访问后淘汰（秒）
+     */
+    private long cacheExpireSeconds = 3600;
+
+    /**
+     * 增量更新多少次后整体重算一次，消除累计的浮点误差
+     */
+    private int rebuildInterval = 250;
+
+    /**
+     * 相关系数默认保留的小数位数
+     */
+    private int defaultPrecision = 4;
+
+}
@@ -2,16 +2,21 @@ package com.example.stock.config;
 
 import com.example.stock.model.entity.Stock;
 import com.example.stock.repository.StockRepository;
+import com.example.stock.service.snapshot.SnapshotLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 数据加载器 - 应用启动时自动加载测试数据
- * 
+ * 开启 app.snapshot.enabled 且快照存在时，空库改为从快照批量导入；
+ * 快照导入是否完成以 data_seeds 中的完成标记为准，上次未完成时清空后重新导入；
+ * 检查与导入都在快照导入锁内进行，多个实例同时启动时只有一个实例初始化
+ *
  * @author Toom
  * @version 1.0
  */
@@ -22,42 +27,72 @@ public class DataLoader implements CommandLineRunner {
 
     private final StockRepository stockRepository;
 
+    private final SnapshotLoader snapshotLoader;
+
     @Override
     public void run(String... args) throws Exception {
         log.info("检查数据库是否需要初始化...");
+        snapshotLoader.withSeedLock(() -> {
+            initialize();
+            return null;
+        });
+    }
+
+    private void initialize() {
+        // 快照导入按完成标记判断：中途失败的导入已写入部分股票，不能按行数跳过
+        SnapshotLoader.SeedStatus seed = snapshotLoader.status();
+        if (seed == SnapshotLoader.SeedStatus.COMPLETED) {
+            log.info("快照已导入，跳过初始化");
+            return;
+        }
+        if (seed == SnapshotLoader.SeedStatus.STARTED) {
+            if (!snapshotLoader.isAvailable()) {
+                throw new IllegalStateException("上次快照导入未完成，但当前未启用快照或快照不存在；"
+                        + "请启用快照重新导入，或确认数据后删除 data_seeds 中的 snapshot 记录");
+            }
+            snapshotLoader.load();
+            return;
+        }
 
         // 检查数据库是否为空
-        if (stockRepository.count() == 0) {
-            log.info("数据库为空，开始加载测试数据...");
-
-            // 创建测试股票 1: Apple Inc.
-            Stock apple = Stock.builder()
-                    .symbol("AAPL")
-                    .name("Apple Inc.")
-                    .exchange("NASDAQ")
-                    .sector("Technology")
-                    .lastUpdate(LocalDateTime.now())
-                    .build();
-
-            // 创建测试股票 2: 贵州茅台
-            Stock maotai = Stock.builder()
-                    .symbol("600519.SS")
-                    .name("贵州茅台")
-                    .exchange("SSE")
-                    .sector("Consumer Goods")
-                    .lastUpdate(LocalDateTime.now())
-                    .build();
-
-            // 保存到数据库
-            stockRepository.save(apple);
-            stockRepository.save(maotai);
-
-            log.info("测试数据已加载");
-            log.info("- AAPL (Apple Inc.) - NASDAQ");
-            log.info("- 600519.SS (贵州茅台) - SSE");
-        } else {
-            log.info("数据库已有数据，跳过初始化。当前股票数量: {}", stockRepository.count());
+        long count = stockRepository.count();
+        if (count > 0) {
+            log.info("数据库已有数据，跳过初始化。当前股票数量: {}", count);
+            return;
+        }
+
+        if (snapshotLoader.isAvailable()) {
+            log.info("数据库为空，开始从快照导入...");
+            snapshotLoader.load();
+            return;
         }
+
+        log.info("数据库为空，开始加载测试数据...");
+
+        // 创建测试股票 1: Apple Inc.
+        Stock apple = Stock.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .exchange("NASDAQ")
+                .sector("Technology")
+                .lastUpdate(LocalDateTime.now())
+                .build();
+
+        // 创建测试股票 2: 贵州茅台
+        Stock maotai = Stock.builder()
+                .symbol("600519.SS")
+                .name("贵州茅台")
+                .exchange("SSE")
+                .sector("Consumer Goods")
+                .lastUpdate(LocalDateTime.now())
+                .build();
+
+        // 保存到数据库
+        stockRepository.saveAll(List.of(apple, maotai));
+
+        log.info("测试数据已加载");
+        log.info("- AAPL (Apple Inc.) - NASDAQ");
+        log.info("- 600519.SS (贵州茅台) - SSE");
     }
 
 }
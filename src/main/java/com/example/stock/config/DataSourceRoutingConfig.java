@@ -0,0 +1,93 @@
+package com.example.stock.config;
+
+import com.example.stock.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离数据源配置（app.replica.enabled=true 时生效）
+ * 主库仍由 spring.datasource.* 配置，从库各自一个 Hikari 连接池；
+ * 所有连接池都以 pool 标签注册 hikaricp.* 指标，可分别观察主库与每个从库的连接使用情况
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.replica", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /**
+     * 主库连接池
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties replicaProperties,
+                                                             MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Replica replica : replicaProperties.getReplicas()) {
+            replicas.add(replicaPool(replica, dataSourceProperties, replicaProperties, meterRegistry));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProperties, meterRegistry);
+    }
+
+    /**
+     * 应用使用的数据源：延迟到第一条语句才按事务的只读标记选择主库或从库
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource replicaPool(ReplicaProperties.Replica replica,
+                                                DataSourceProperties dataSourceProperties,
+                                                ReplicaProperties replicaProperties,
+                                                MeterRegistry meterRegistry) {
+        if (!StringUtils.hasText(replica.getName()) || !StringUtils.hasText(replica.getUrl())) {
+            throw new IllegalStateException("从库配置缺少 name 或 url: " + replica);
+        }
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica-" + replica.getName());
+        config.setJdbcUrl(replica.getUrl());
+        config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        config.setUsername(StringUtils.hasText(replica.getUsername())
+                ? replica.getUsername() : dataSourceProperties.determineUsername());
+        config.setPassword(replica.getPassword() != null
+                ? replica.getPassword() : dataSourceProperties.determinePassword());
+        config.setMaximumPoolSize(replica.getMaximumPoolSize() != null
+                ? replica.getMaximumPoolSize() : replicaProperties.getMaximumPoolSize());
+        config.setReadOnly(true);
+        // 从库不可用时照常启动，由健康检查标记为不可路由
+        config.setInitializationFailTimeout(-1);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+
+}
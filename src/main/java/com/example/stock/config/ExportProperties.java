@@ -0,0 +1,41 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 行情批量导出配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    /**
+     * 单次导出允许的最大股票数
+     */
+    private int maxSymbols = 1000;
+
+    /**
+     * 同时进行的导出数上限；每个导出在写出期间占用一个数据库连接，超出时返回 429
+     */
+    private int maxConcurrent = 4;
+
+    /**
+     * JDBC 游标每次抓取的行数
+     */
+    private int fetchSize = 2000;
+
+    /**
+     * 列式格式每块的最大 K 线数，决定写出时缓存的行数上限
+     */
+    private int blockSize = 4096;
+
+    /**
+     * 输出缓冲区大小（字节）
+     */
+    private int bufferSize = 65536;
+
+}
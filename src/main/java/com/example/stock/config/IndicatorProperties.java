@@ -0,0 +1,26 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 技术指标配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.indicator")
+public class IndicatorProperties {
+
+    /**
+     * 指标缓存的最大条目数（每个条目对应一个 (symbol, 指标, 参数)）
+     */
+    private int cacheMaxEntries = 20000;
+
+    /**
+     * 指标与回测策略周期参数的上限（周期决定滑动窗口长度）
+     */
+    private int maxPeriod = 1000;
+
+}
@@ -0,0 +1,22 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 行情批量写入配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.ingestion")
+public class IngestionProperties {
+
+    /**
+     * 每条多行 INSERT 语句包含的行数
+     * PostgreSQL JDBC 驱动单条语句最多 32767 个参数，每行 8 个参数，超过 4095（32767 / 8）时按 4095 处理
+     */
+    private int chunkSize = 1000;
+
+}
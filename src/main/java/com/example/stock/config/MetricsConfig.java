@@ -0,0 +1,28 @@
+package com.example.stock.config;
+
+import com.example.stock.metrics.TieredCacheMeterBinder;
+import com.example.stock.service.cache.TieredCache;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 指标配置
+ * HTTP 接口、Hikari 连接池、Lettuce 命令耗时由 Actuator 自动注册；
+ * 这里补充自定义两级缓存的指标绑定
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 启动时 Actuator 会用它把 CacheManager 中的每个 TieredCache 绑定到 MeterRegistry
+     */
+    @Bean
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider() {
+        return TieredCacheMeterBinder::new;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 指标与慢查询日志配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.metrics")
+public class MetricsProperties {
+
+    /**
+     * 仓库方法慢查询阈值（毫秒），超过即计入 repository.slow 并可能打印日志
+     */
+    private long slowQueryThresholdMs = 200;
+
+    /**
+     * 慢查询日志采样率（0 ~ 1），1 表示每次都打印
+     */
+    private double slowQuerySampleRate = 1.0;
+
+}
@@ -0,0 +1,31 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 股票概览页（并发聚合）配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.overview")
+public class OverviewProperties {
+
+    /**
+     * 是否使用虚拟线程执行各分支（需要 Java 21+，否则回退到平台线程池）
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * 平台线程池大小
+     */
+    private int threads = 16;
+
+    /**
+     * 单个分支的超时时间（毫秒），超时的分支以空值返回
+     */
+    private int branchTimeoutMs = 800;
+
+}
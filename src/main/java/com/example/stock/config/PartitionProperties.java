@@ -0,0 +1,38 @@
+package com.example.stock.config;
+
+import com.example.stock.model.enums.PartitionInterval;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * daily_quotes 分区配置（仅 PostgreSQL）
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.partition")
+public class PartitionProperties {
+
+    /**
+     * 是否将 daily_quotes 维护为按日期范围分区的表；
+     * 已有的普通表须先离线执行 db/migrate-daily-quotes-partitioned.sql 迁移
+     */
+    private boolean enabled = false;
+
+    /**
+     * 分区粒度；修改后只影响新建的分区，已有分区保持原范围
+     */
+    private PartitionInterval interval = PartitionInterval.YEAR;
+
+    /**
+     * 预先创建的未来分区个数（不含当前分区）
+     */
+    private int premake = 2;
+
+    /**
+     * 分区维护（预建未来分区）的 cron
+     */
+    private String maintenanceCron = "0 15 2 * * *";
+
+}
@@ -0,0 +1,108 @@
+package com.example.stock.config;
+
+import com.example.stock.model.enums.ReplicaSelectionStrategy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置
+ * 开启后 @Transactional(readOnly = true) 的事务路由到从库，其余仍走 spring.datasource 主库
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.replica")
+public class ReplicaProperties {
+
+    /**
+     * 是否启用读写分离
+     */
+    private boolean enabled = false;
+
+    /**
+     * 从库选择策略
+     */
+    private ReplicaSelectionStrategy strategy = ReplicaSelectionStrategy.ROUND_ROBIN;
+
+    /**
+     * 健康检查间隔（毫秒）
+     */
+    private long healthCheckIntervalMs = 5000;
+
+    /**
+     * 允许的最大复制延迟（毫秒），超过后该从库暂不接收读请求；全部不可用时回退主库
+     */
+    private long maxLagMs = 30000;
+
+    /**
+     * 复制延迟查询，返回毫秒数；默认适用于 PostgreSQL 流复制，
+     * 主库或已追平 WAL 的从库返回 0，避免主库空闲时 replay 时间戳变旧被误判为延迟
+     */
+    private String lagQuery = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END""";
+
+    /**
+     * 写后读一致：主库有写入提交后，只读事务只路由到已确认回放到该写入之后 WAL 位置的从库，
+     * 其余走主库；确认由健康检查完成，因此写入后至多 healthCheckIntervalMs 内的读取走主库。
+     * 写入时间只在本实例内记录：其他应用实例或外部进程（如 psql、ETL）直接写主库不会触发，
+     * 这些写入之后本实例仍可能读到尚未回放的从库，只受 maxLagMs 约束
+     */
+    private boolean readYourWrites = true;
+
+    /**
+     * 在主库上执行，返回当前 WAL 写入位置
+     */
+    private String primaryPositionQuery = "SELECT pg_current_wal_lsn()::text";
+
+    /**
+     * 在从库上执行，参数为主库 WAL 位置，返回是否已回放到该位置；非从库（未处于恢复模式）视为已追平
+     */
+    private String caughtUpQuery = "SELECT COALESCE(pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn), true)";
+
+    /**
+     * 从库连接池默认最大连接数
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * 从库列表
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * 单个从库
+     */
+    @Data
+    public static class Replica {
+
+        /**
+         * 名称，用作连接池名（replica-名称）与指标标签
+         */
+        private String name;
+
+        private String url;
+
+        /**
+         * 为空时沿用主库用户名
+         */
+        private String username;
+
+        /**
+         * 为空时沿用主库密码
+         */
+        private String password;
+
+        /**
+         * 最大连接数，为空时使用 app.replica.maximum-pool-size
+         */
+        private Integer maximumPoolSize;
+
+    }
+
+}
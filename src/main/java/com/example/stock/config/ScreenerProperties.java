@@ -0,0 +1,31 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 选股器配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.screener")
+public class ScreenerProperties {
+
+    /**
+     * 并行计算线程数，0 表示使用 CPU 核数
+     */
+    private int parallelism = 0;
+
+    /**
+     * 默认每页条数
+     */
+    private int defaultPageSize = 20;
+
+    /**
+     * 每页最大条数
+     */
+    private int maxPageSize = 200;
+
+}
@@ -0,0 +1,31 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 股票搜索配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+    /**
+     * 默认返回条数
+     */
+    private int defaultLimit = 10;
+
+    /**
+     * 单次请求允许的最大返回条数
+     */
+    private int maxLimit = 50;
+
+    /**
+     * 批量查询单次允许的最大股票代码数
+     */
+    private int batchMaxSymbols = 500;
+
+}
@@ -0,0 +1,41 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 行业成员与行业统计配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sector")
+public class SectorProperties {
+
+    /**
+     * 成员列表默认每页条数
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * 成员列表每页最大条数
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * 涨跌幅榜默认条数
+     */
+    private int defaultTopMovers = 5;
+
+    /**
+     * 涨跌幅榜最大条数
+     */
+    private int maxTopMovers = 50;
+
+    /**
+     * 启动加载时只扫描最新交易日之前多少个自然日内的日线，需覆盖长假停市
+     */
+    private int preloadLookbackDays = 30;
+
+}
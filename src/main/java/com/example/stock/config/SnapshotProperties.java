@@ -0,0 +1,42 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 启动快照导入配置
+ * 数据库为空时从随包发布的 gzip CSV 快照批量导入股票与日线，替代逐条 save 的演示数据
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.snapshot")
+public class SnapshotProperties {
+
+    /**
+     * 数据库为空时是否从快照导入
+     */
+    private boolean enabled = false;
+
+    /**
+     * 股票快照（symbol,name,exchange,sector）
+     */
+    private String stocksLocation = "classpath:snapshot/stocks.csv.gz";
+
+    /**
+     * 日线快照（symbol,date,open,high,low,close,volume,adj_close）
+     */
+    private String quotesLocation = "classpath:snapshot/quotes.csv.gz";
+
+    /**
+     * 日线写入并发数，0 表示使用 CPU 核数
+     */
+    private int parallelism = 0;
+
+    /**
+     * 每个 JDBC 批次（一次提交）的行数
+     */
+    private int batchSize = 2000;
+
+}
@@ -0,0 +1,67 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 实时行情推送配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.stream")
+public class StreamProperties {
+
+    /**
+     * 上游行情源：quote 轮询最新日线报价；simulated 本地随机游走模拟行情（仅 loadtest profile 使用）
+     */
+    private String feed = "quote";
+
+    /**
+     * 每个股票上游轮询间隔（毫秒）
+     */
+    private long pollIntervalMs = 1000;
+
+    /**
+     * 上游轮询线程数（所有股票共享）
+     */
+    private int pollerThreads = 4;
+
+    /**
+     * 向客户端推送的线程数（所有连接共享）
+     */
+    private int senderThreads = 16;
+
+    /**
+     * 单次推送的超时时间（毫秒）
+     * 超时的订阅者被断开，其阻塞的发送线程由一个临时线程顶替，直到容器的写超时释放它
+     */
+    private long sendTimeoutMs = 5000;
+
+    /**
+     * 全局最大订阅连接数
+     */
+    private int maxSubscribers = 10000;
+
+    /**
+     * 单个连接最多订阅的股票数
+     */
+    private int maxSymbolsPerSubscriber = 20;
+
+    /**
+     * SSE 连接超时时间（毫秒），到期后客户端应重连
+     */
+    private long emitterTimeoutMs = 1_800_000;
+
+    /**
+     * 心跳间隔（毫秒），用于及时发现已断开的连接
+     */
+    private long heartbeatIntervalMs = 15_000;
+
+    /**
+     * 模拟行情每次跳动的波动率
+     */
+    private double simulatedVolatility = 0.002;
+
+}
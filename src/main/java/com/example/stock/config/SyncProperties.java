@@ -0,0 +1,51 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 行情增量同步配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sync")
+public class SyncProperties {
+
+    /**
+     * 是否启用定时同步
+     */
+    private boolean enabled = false;
+
+    /**
+     * 定时同步 cron 表达式（默认工作日收盘后）
+     */
+    private String cron = "0 30 18 * * MON-FRI";
+
+    /**
+     * 数据源：yahoo / stub（本地模拟数据源，用于测试与压测）
+     */
+    private String source = "yahoo";
+
+    /**
+     * 同时同步的股票数上限
+     */
+    private int parallelism = 4;
+
+    /**
+     * 数据源每秒请求数上限
+     */
+    private double rateLimitPerSecond = 5;
+
+    /**
+     * 没有任何历史数据时首次回补的天数
+     */
+    private int initialHistoryDays = 365;
+
+    /**
+     * 模拟数据源的单次请求延迟（毫秒）
+     */
+    private long stubLatencyMs = 50;
+
+}
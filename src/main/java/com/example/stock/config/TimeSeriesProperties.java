@@ -0,0 +1,41 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 列式行情序列存储配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.timeseries")
+public class TimeSeriesProperties {
+
+    /**
+     * 是否启用内存列式存储（关闭后 K 线等路径直接查询数据库）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 启动时是否预加载全部股票的历史行情
+     */
+    private boolean preload = false;
+
+    /**
+     * 内存映射文件目录，为空表示不落盘
+     */
+    private String storageDir;
+
+    /**
+     * 从数据库加载时的 JDBC 抓取行数
+     */
+    private int fetchSize = 5000;
+
+    /**
+     * 序列版本落后于当前行情版本时，两次从数据库追赶之间的最小间隔（毫秒）
+     */
+    private long refreshIntervalMs = 1000;
+
+}
@@ -0,0 +1,31 @@
+package com.example.stock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 请求阶段耗时追踪配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "app.trace")
+public class TraceProperties {
+
+    /**
+     * 是否记录请求阶段耗时
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否输出 Server-Timing 响应头
+     */
+    private boolean serverTiming = true;
+
+    /**
+     * 保留的最慢请求条数
+     */
+    private int slowCapacity = 50;
+
+}
@@ -0,0 +1,97 @@
+package com.example.stock.controller;
+
+import com.example.stock.exception.StockNotFoundException;
+import com.example.stock.model.dto.AnalysisDTO;
+import com.example.stock.model.enums.AnalysisStatus;
+import com.example.stock.model.vo.Result;
+import com.example.stock.service.ai.AnalysisService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * AI 分析 API 控制器
+ * 报告未就绪时返回 202 与任务令牌（附带旧报告），页面不会因模型调用而阻塞
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "AI 分析", description = "AI 行情解读报告的获取与生成进度查询 API")
+public class AnalysisController {
+
+    private final AnalysisService analysisService;
+
+    /**
+     * 获取 / 触发 AI 分析报告
+     *
+     * @param symbol 股票代码
+     * @return 200：最新报告；202：生成中，附任务令牌与旧报告（如有）
+     */
+    @GetMapping("/stocks/{symbol}/analysis")
+    @Operation(summary = "获取 AI 分析报告", description = "报告有效时直接返回；否则后台生成并返回 202 与任务令牌")
+    public ResponseEntity<Result<AnalysisDTO>> getAnalysis(
+            @Parameter(description = "股票代码", example = "AAPL")
+            @PathVariable("symbol") String symbol) {
+
+        log.info("接收到 AI 分析请求，代码: {}", symbol);
+
+        try {
+            return toResponse(analysisService.request(symbol));
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", symbol);
+            return ResponseEntity.ok(Result.stockNotFound(symbol));
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return ResponseEntity.ok(Result.badRequest(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            log.warn("AI 分析任务队列已满: {}", symbol);
+            return ResponseEntity.ok(Result.systemError("AI 分析繁忙，请稍后重试"));
+        } catch (Exception e) {
+            log.error("获取 AI 分析失败: {}", e.getMessage(), e);
+            return ResponseEntity.ok(Result.systemError("获取 AI 分析失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 按任务令牌查询生成结果
+     *
+     * @param jobId 任务令牌
+     * @return 任务状态与报告
+     */
+    @GetMapping("/analysis/jobs/{jobId}")
+    @Operation(summary = "查询 AI 分析任务", description = "轮询生成结果，超时返回 3001")
+    public ResponseEntity<Result<AnalysisDTO>> getJob(
+            @Parameter(description = "任务令牌")
+            @PathVariable("jobId") String jobId) {
+
+        return analysisService.getJob(jobId)
+                .map(this::toResponse)
+                .orElseGet(() -> ResponseEntity.ok(Result.badRequest("任务不存在或已过期: " + jobId)));
+    }
+
+    private ResponseEntity<Result<AnalysisDTO>> toResponse(AnalysisDTO analysis) {
+        AnalysisStatus status = analysis.getStatus();
+        if (status == AnalysisStatus.SUCCESS) {
+            return ResponseEntity.ok(Result.success(analysis));
+        }
+        if (status == AnalysisStatus.TIMEOUT) {
+            return ResponseEntity.ok(Result.aiTimeout(analysis));
+        }
+        if (status == AnalysisStatus.FAILED) {
+            return ResponseEntity.ok(Result.error(500, "AI 分析失败: " + analysis.getError(), analysis));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Result.success("AI 分析生成中", analysis));
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.example.stock.controller;
+
+import com.example.stock.exception.StockNotFoundException;
+import com.example.stock.model.dto.BacktestRequest;
+import com.example.stock.model.dto.BacktestResultDTO;
+import com.example.stock.model.vo.Result;
+import com.example.stock.service.backtest.BacktestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 策略回测 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/backtest")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "策略回测", description = "基于日线的多股票、多参数并行回测 API")
+public class BacktestController {
+
+    private final BacktestService backtestService;
+
+    /**
+     * 执行回测
+     *
+     * @param request 回测请求
+     * @return 按排序指标最优的回测（含权益曲线）与各参数组合的汇总
+     */
+    @PostMapping
+    @Operation(summary = "执行回测", description = "策略 ma_cross / rsi_reversion；收盘产生信号、次日开盘成交，"
+            + "参数可写成 5,10,20 或 5:30:5 的网格，对 股票 × 参数组合 并行回测")
+    public Result<BacktestResultDTO> run(@RequestBody BacktestRequest request) {
+
+        log.info("接收到回测请求，策略: {}，参数: {}，股票数: {}，行业: {}", request.getStrategy(), request.getParams(),
+                request.getSymbols() == null ? 0 : request.getSymbols().size(), request.getSector());
+
+        try {
+            return Result.success(backtestService.run(request));
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", e.getSymbol());
+            return Result.stockNotFound(e.getSymbol());
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("回测失败: {}", e.getMessage(), e);
+            return Result.systemError("回测失败: " + e.getMessage());
+        }
+    }
+
+}
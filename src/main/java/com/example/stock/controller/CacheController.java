@@ -0,0 +1,96 @@
+package com.example.stock.controller;
+
+import com.example.stock.model.dto.CacheStatsDTO;
+import com.example.stock.model.vo.Result;
+import com.example.stock.service.cache.CacheAdminService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 缓存管理 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "缓存管理", description = "两级缓存的命中统计与清除 API")
+public class CacheController {
+
+    private final CacheAdminService cacheAdminService;
+
+    /**
+     * 查询缓存统计
+     *
+     * @return 每个缓存的命中、未命中与加载耗时
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "查询缓存统计", description = "查询每个缓存的 L1 / L2 命中数、未命中数与平均加载耗时")
+    public Result<List<CacheStatsDTO>> getStats() {
+        return Result.success(cacheAdminService.getStats());
+    }
+
+    /**
+     * 清除缓存中的一个键
+     *
+     * @param name 缓存名，如 market:candles
+     * @param key  键，如 AAPL:1d
+     * @return 操作结果
+     */
+    @DeleteMapping("/{name}/{key}")
+    @Operation(summary = "清除缓存键", description = "同时清除本地与 Redis 中的条目")
+    public Result<Void> evict(
+            @Parameter(description = "缓存名", example = "market:candles")
+            @PathVariable("name") String name,
+            @Parameter(description = "键", example = "AAPL:1d")
+            @PathVariable("key") String key) {
+
+        log.info("接收到清除缓存请求: {} {}", name, key);
+
+        try {
+            cacheAdminService.evict(name, key);
+            return Result.success();
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("清除缓存失败: {}", e.getMessage(), e);
+            return Result.systemError("清除缓存失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 清空一个缓存（本地与 Redis）
+     *
+     * @param name 缓存名
+     * @return 操作结果
+     */
+    @DeleteMapping("/{name}")
+    @Operation(summary = "清空缓存", description = "清空指定缓存在本实例的 L1 条目与 Redis 中的全部键，其他实例的 L1 按 TTL 过期")
+    public Result<Void> clear(
+            @Parameter(description = "缓存名", example = "market:candles")
+            @PathVariable("name") String name) {
+
+        log.info("接收到清空缓存请求: {}", name);
+
+        try {
+            cacheAdminService.clear(name);
+            return Result.success();
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("清空缓存失败: {}", e.getMessage(), e);
+            return Result.systemError("清空缓存失败: " + e.getMessage());
+        }
+    }
+
+}
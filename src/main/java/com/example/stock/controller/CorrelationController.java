@@ -0,0 +1,58 @@
+package com.example.stock.controller;
+
+import com.example.stock.exception.StockNotFoundException;
+import com.example.stock.model.dto.CorrelationMatrixDTO;
+import com.example.stock.model.dto.CorrelationRequest;
+import com.example.stock.model.vo.Result;
+import com.example.stock.service.correlation.CorrelationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 相关性分析 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/correlation")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "相关性分析", description = "多股票日收益率相关系数 / 协方差矩阵 API")
+public class CorrelationController {
+
+    private final CorrelationService correlationService;
+
+    /**
+     * 计算相关系数或协方差矩阵
+     *
+     * @param request 矩阵请求
+     * @return 上三角按行展开的矩阵
+     */
+    @PostMapping
+    @Operation(summary = "计算相关系数 / 协方差矩阵", description = "按共同交易日对齐最近 window 个日收益率；"
+            + "同一组股票与窗口的矩阵被缓存，新行情到达后滚动更新")
+    public Result<CorrelationMatrixDTO> compute(@RequestBody CorrelationRequest request) {
+
+        log.info("接收到相关性矩阵请求，类型: {}，股票数: {}，行业: {}，窗口: {}", request.getType(),
+                request.getSymbols() == null ? 0 : request.getSymbols().size(), request.getSector(),
+                request.getWindow());
+
+        try {
+            return Result.success(correlationService.compute(request));
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", e.getSymbol());
+            return Result.stockNotFound(e.getSymbol());
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("相关性矩阵计算失败: {}", e.getMessage(), e);
+            return Result.systemError("相关性矩阵计算失败: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.stock.controller;
+
+import com.example.stock.datasource.ReplicaRoutingDataSource;
+import com.example.stock.model.dto.DataSourceStatusDTO;
+import com.example.stock.model.vo.Result;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.*;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 数据源状态 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/admin/datasources")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "数据源", description = "主库 / 从库连接池与读写分离路由状态 API")
+public class DataSourceController {
+
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    private final DataSource dataSource;
+
+    /**
+     * 查询数据源状态
+     *
+     * @return 主库及各从库的健康状态、复制延迟、连接池使用情况与只读路由次数
+     */
+    @GetMapping
+    @Operation(summary = "查询数据源状态", description = "未启用读写分离时只返回主库连接池")
+    public Result<List<DataSourceStatusDTO>> status() {
+        ReplicaRoutingDataSource routing = replicaRoutingDataSource.getIfAvailable();
+        if (routing != null) {
+            return Result.success(routing.getStatus());
+        }
+        try {
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean bean = hikari.getHikariPoolMXBean();
+            return Result.success(List.of(DataSourceStatusDTO.builder()
+                    .pool(hikari.getPoolName())
+                    .role("primary")
+                    .healthy(true)
+                    .caughtUp(true)
+                    .activeConnections(bean == null ? 0 : bean.getActiveConnections())
+                    .idleConnections(bean == null ? 0 : bean.getIdleConnections())
+                    .pendingThreads(bean == null ? 0 : bean.getThreadsAwaitingConnection())
+                    .build()));
+        } catch (SQLException e) {
+            log.warn("数据源不是 Hikari 连接池: {}", e.getMessage());
+            return Result.success(List.of());
+        }
+    }
+
+}
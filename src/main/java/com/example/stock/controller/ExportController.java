@@ -0,0 +1,135 @@
+package com.example.stock.controller;
+
+import com.example.stock.exception.StockNotFoundException;
+import com.example.stock.model.enums.ExportFormat;
+import com.example.stock.model.vo.Result;
+import com.example.stock.service.export.QuoteExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 行情批量导出 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/export")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "行情导出", description = "多只股票历史日线的流式批量导出 API")
+public class ExportController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final QuoteExportService quoteExportService;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 导出历史日线
+     * 响应体边查询边写出，按股票代码、日期升序；参数错误时返回 JSON 格式的 Result。
+     * 客户端断开时停止查询，请求超时（spring.mvc.async.request-timeout）时取消正在执行的语句；
+     * 同时进行的导出数达到 app.export.max-concurrent 时返回 429
+     *
+     * @param symbols 逗号分隔的股票代码
+     * @param from    起始日期（含）
+     * @param to      结束日期（含）
+     * @param format  导出格式：csv（默认）/ columnar
+     * @param gzip    是否 gzip 压缩（默认是）
+     * @param request 当前请求
+     */
+    @GetMapping("/quotes")
+    @Operation(summary = "导出历史日线", description = "服务端游标流式写出，内存占用与导出量无关；"
+            + "columnar 为按股票分块的 application/x-candles 帧序列")
+    public ResponseEntity<StreamingResponseBody> exportQuotes(
+            @Parameter(description = "股票代码，逗号分隔", example = "AAPL,MSFT")
+            @RequestParam("symbols") String symbols,
+            @Parameter(description = "起始日期（含），默认不限", example = "2024-01-01")
+            @RequestParam(value = "from", required = false) String from,
+            @Parameter(description = "结束日期（含），默认今天", example = "2024-12-31")
+            @RequestParam(value = "to", required = false) String to,
+            @Parameter(description = "导出格式：csv / columnar", example = "csv")
+            @RequestParam(value = "format", required = false, defaultValue = "csv") String format,
+            @Parameter(description = "是否 gzip 压缩", example = "true")
+            @RequestParam(value = "gzip", required = false, defaultValue = "true") boolean gzip,
+            HttpServletRequest request) {
+
+        log.info("接收到行情导出请求，股票: {}，区间: {} ~ {}，格式: {}", symbols, from, to, format);
+
+        try {
+            QuoteExportService.Export export = quoteExportService.prepare(symbols, from, to,
+                    ExportFormat.fromCode(format), gzip);
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(export,
+                    new CallableProcessingInterceptor() {
+                        @Override
+                        public <T> Object handleTimeout(NativeWebRequest webRequest, Callable<T> task) {
+                            log.warn("行情导出超时，取消查询");
+                            export.cancel();
+                            return RESULT_NONE;
+                        }
+
+                        @Override
+                        public <T> Object handleError(NativeWebRequest webRequest, Callable<T> task, Throwable t) {
+                            log.warn("行情导出连接异常，取消查询: {}", t.getMessage());
+                            export.cancel();
+                            return RESULT_NONE;
+                        }
+
+                        @Override
+                        public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                            export.close();
+                        }
+                    });
+            return ResponseEntity.ok()
+                    .contentType(gzip ? GZIP : MediaType.parseMediaType(export.getFormat().getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(export.getFilename()).build().toString())
+                    .body(export::writeTo);
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", e.getSymbol());
+            return jsonError(Result.stockNotFound(e.getSymbol()));
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return jsonError(Result.badRequest(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            log.warn("行情导出繁忙: {}", e.getMessage());
+            return jsonError(HttpStatus.TOO_MANY_REQUESTS, Result.tooManyRequests("行情导出繁忙，请稍后重试"));
+        } catch (Exception e) {
+            log.error("行情导出失败: {}", e.getMessage(), e);
+            return jsonError(Result.systemError("行情导出失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 流式接口在写出前出错时返回 JSON 格式的 Result
+     */
+    private ResponseEntity<StreamingResponseBody> jsonError(Result<?> error) {
+        return jsonError(HttpStatus.OK, error);
+    }
+
+    private ResponseEntity<StreamingResponseBody> jsonError(HttpStatus status, Result<?> error) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, error));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.example.stock.controller;
+
+import com.example.stock.exception.StockNotFoundException;
+import com.example.stock.model.dto.RollupCheckDTO;
+import com.example.stock.model.enums.CandlePeriod;
+import com.example.stock.model.vo.Result;
+import com.example.stock.service.CandleRollupService;
+import com.example.stock.service.StockService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 预聚合 K 线管理 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/admin/rollups")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "K 线预聚合", description = "周线 / 月线预聚合的重建与一致性检查 API")
+public class RollupController {
+
+    private final CandleRollupService candleRollupService;
+
+    private final StockService stockService;
+
+    /**
+     * 全量重建某只股票的预聚合数据
+     *
+     * @param symbol 股票代码
+     * @return 操作结果
+     */
+    @PostMapping("/{symbol}/rebuild")
+    @Operation(summary = "重建预聚合 K 线", description = "删除并从日线重新聚合指定股票的周线 / 月线")
+    public Result<Void> rebuild(
+            @Parameter(description = "股票代码", example = "AAPL")
+            @PathVariable("symbol") String symbol) {
+
+        log.info("接收到预聚合重建请求: {}", symbol);
+
+        try {
+            candleRollupService.rebuild(stockService.resolveSymbol(symbol));
+            return Result.success();
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", symbol);
+            return Result.stockNotFound(symbol);
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("重建预聚合 K 线失败: {}", e.getMessage(), e);
+            return Result.systemError("重建失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 比较预聚合数据与现场聚合结果
+     *
+     * @param symbol 股票代码
+     * @param period 周期：1w / 1mo
+     * @return 检查结果
+     */
+    @GetMapping("/{symbol}/check")
+    @Operation(summary = "预聚合一致性检查", description = "比较预聚合结果与从日线现场聚合的结果")
+    public Result<RollupCheckDTO> check(
+            @Parameter(description = "股票代码", example = "AAPL")
+            @PathVariable("symbol") String symbol,
+            @Parameter(description = "周期：1w / 1mo", example = "1w")
+            @RequestParam(value = "period", defaultValue = "1w") String period) {
+
+        log.info("接收到预聚合一致性检查请求: {} {}", symbol, period);
+
+        try {
+            return Result.success(candleRollupService.check(
+                    stockService.resolveSymbol(symbol), CandlePeriod.fromCode(period)));
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", symbol);
+            return Result.stockNotFound(symbol);
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("预聚合一致性检查失败: {}", e.getMessage(), e);
+            return Result.systemError("检查失败: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.example.stock.controller;
+
+import com.example.stock.model.dto.ScreenerResultDTO;
+import com.example.stock.model.vo.Result;
+import com.example.stock.service.screener.ScreenerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 选股器 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/screener")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "选股器", description = "按指标与价格条件对全市场并行选股")
+public class ScreenerController {
+
+    private final ScreenerService screenerService;
+
+    /**
+     * 按条件选股
+     *
+     * @param filter 选股条件
+     * @param sector 行业（可选）
+     * @param sort   排序表达式（可选）
+     * @param order  排序方向 asc / desc
+     * @param page   页码
+     * @param size   每页条数
+     * @return 分页的选股结果
+     */
+    @GetMapping
+    @Operation(summary = "选股", description = "条件支持 and / or / not、比较符、四则运算、cross_above / cross_below，"
+            + "字段 open / high / low / close / volume / change_pct 及全部技术指标，[n] 表示 n 根 K 线之前")
+    public Result<ScreenerResultDTO> screen(
+            @Parameter(description = "选股条件", example = "cross_above(ma(5), ma(20)) and rsi(14) < 40")
+            @RequestParam(value = "filter", required = false) String filter,
+            @Parameter(description = "行业", example = "Technology")
+            @RequestParam(value = "sector", required = false) String sector,
+            @Parameter(description = "排序表达式", example = "rsi(14)")
+            @RequestParam(value = "sort", required = false) String sort,
+            @Parameter(description = "排序方向", example = "desc")
+            @RequestParam(value = "order", defaultValue = "desc") String order,
+            @Parameter(description = "页码（从 1 开始）", example = "1")
+            @RequestParam(value = "page", required = false) Integer page,
+            @Parameter(description = "每页条数", example = "20")
+            @RequestParam(value = "size", required = false) Integer size) {
+
+        log.info("接收到选股请求，条件: {}，行业: {}，排序: {} {}", filter, sector, sort, order);
+
+        try {
+            if (!"asc".equalsIgnoreCase(order) && !"desc".equalsIgnoreCase(order)) {
+                throw new IllegalArgumentException("order 只能是 asc 或 desc");
+            }
+            return Result.success(screenerService.screen(filter, sector, sort,
+                    "asc".equalsIgnoreCase(order), page, size));
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("选股失败: {}", e.getMessage(), e);
+            return Result.systemError("选股失败: " + e.getMessage());
+        }
+    }
+
+}
@@ -1,18 +1,43 @@
 package com.example.stock.controller;
 
 import com.example.stock.exception.StockNotFoundException;
+import com.example.stock.model.dto.IndicatorDTO;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.SectorMembersDTO;
+import com.example.stock.model.dto.SectorStatsDTO;
+import com.example.stock.model.dto.StockBatchItemDTO;
+import com.example.stock.model.dto.StockBatchRequest;
 import com.example.stock.model.dto.StockDetailDTO;
+import com.example.stock.model.dto.StockOverviewDTO;
 import com.example.stock.model.dto.StockSearchDTO;
+import com.example.stock.model.enums.CandleFormat;
+import com.example.stock.model.enums.CandlePeriod;
 import com.example.stock.model.vo.Result;
+import com.example.stock.service.CandleService;
+import com.example.stock.service.OverviewService;
 import com.example.stock.service.StockService;
+import com.example.stock.service.cache.DataVersionService;
+import com.example.stock.service.indicator.IndicatorService;
+import com.example.stock.service.indicator.IndicatorSpec;
+import com.example.stock.service.indicator.IndicatorSpecParser;
+import com.example.stock.service.sector.SectorStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 股票 API 控制器
@@ -29,22 +54,41 @@ public class StockController {
 
     private final StockService stockService;
 
+    private final CandleService candleService;
+
+    private final IndicatorService indicatorService;
+
+    private final IndicatorSpecParser indicatorSpecParser;
+
+    private final OverviewService overviewService;
+
+    private final ObjectMapper objectMapper;
+
+    private final DataVersionService dataVersionService;
+
+    private final SectorStatsService sectorStatsService;
+
     /**
      * 搜索股票
      * 
-     * @param q 搜索关键字（股票代码或名称）
+     * @param q     搜索关键字（股票代码或名称）
+     * @param limit 最大返回条数（可选）
      * @return 股票搜索结果列表
      */
     @GetMapping("/search")
-    @Operation(summary = "搜索股票", description = "根据股票代码或名称模糊搜索股票")
+    @Operation(summary = "搜索股票", description = "根据股票代码或名称模糊搜索股票，按相关度排序")
     public Result<List<StockSearchDTO>> search(
             @Parameter(description = "搜索关键字", example = "AAPL")
-            @RequestParam("q") String q) {
+            @RequestParam("q") String q,
+            @Parameter(description = "最大返回条数", example = "10")
+            @RequestParam(value = "limit", required = false) Integer limit) {
         
         log.info("接收到搜索请求，关键字: {}", q);
 
         try {
-            List<StockSearchDTO> results = stockService.search(q);
+            List<StockSearchDTO> results = limit == null
+                    ? stockService.search(q)
+                    : stockService.search(q, limit);
             
             if (results.isEmpty()) {
                 return Result.success("未找到匹配的股票", results);
@@ -59,20 +103,27 @@ public class StockController {
 
     /**
      * 获取股票详情
+     * 支持 If-None-Match / If-Modified-Since，股票信息未变时返回 304
      * 
-     * @param symbol 股票代码
+     * @param symbol     股票代码
+     * @param webRequest 当前请求（条件请求校验）
      * @return 股票详情
      */
     @GetMapping("/stocks/{symbol}")
     @Operation(summary = "获取股票详情", description = "根据股票代码查询详细信息")
     public Result<StockDetailDTO> getStockDetails(
             @Parameter(description = "股票代码", example = "AAPL")
-            @PathVariable("symbol") String symbol) {
+            @PathVariable("symbol") String symbol,
+            ServletWebRequest webRequest) {
         
         log.info("接收到股票详情请求，代码: {}", symbol);
 
         try {
-            StockDetailDTO details = stockService.getStockDetails(symbol);
+            String resolved = stockService.resolveSymbol(symbol);
+            if (notModified(webRequest, dataVersionService.stock(resolved))) {
+                return null;
+            }
+            StockDetailDTO details = stockService.getStockDetails(resolved);
             return Result.success(details);
         } catch (StockNotFoundException e) {
             log.warn("股票不存在: {}", symbol);
@@ -82,10 +133,122 @@ public class StockController {
             return Result.badRequest(e.getMessage());
         } catch (Exception e) {
             log.error("获取股票详情失败: {}", e.getMessage(), e);
+            noStore(webRequest);
             return Result.systemError("获取股票详情失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 获取股票详情页概览
+     * 基本信息、最新报价、技术指标与 AI 面板并发获取，单个部分失败或超时不影响整体返回
+     *
+     * @param symbol 股票代码
+     * @return 概览数据
+     */
+    @GetMapping("/stocks/{symbol}/overview")
+    @Operation(summary = "获取股票概览", description = "并发聚合详情页所需数据，部分失败时返回部分结果")
+    public Result<StockOverviewDTO> getOverview(
+            @Parameter(description = "股票代码", example = "AAPL")
+            @PathVariable("symbol") String symbol) {
+
+        log.info("接收到股票概览请求，代码: {}", symbol);
+
+        try {
+            return Result.success(overviewService.getOverview(symbol));
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", symbol);
+            return Result.stockNotFound(symbol);
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("获取股票概览失败: {}", e.getMessage(), e);
+            return Result.systemError("获取股票概览失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取最新报价
+     * 支持条件请求，行情未变时返回 304；Accept 为 application/x-candles 时以单根 K 线的二进制格式返回，
+     * 出错时仍返回 JSON 格式的 Result
+     *
+     * @param symbol     股票代码
+     * @param accept     Accept 头
+     * @param webRequest 当前请求（条件请求校验）
+     * @param response   HTTP 响应
+     * @return 最新一根日线；已直接写出响应（304 或二进制）时返回 null
+     */
+    @GetMapping("/stocks/{symbol}/quote")
+    @Operation(summary = "获取最新报价", description = "返回最新一个交易日的 OHLCV 数据")
+    public Result<QuoteBarDTO> getLatestQuote(
+            @Parameter(description = "股票代码", example = "AAPL")
+            @PathVariable("symbol") String symbol,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            ServletWebRequest webRequest,
+            HttpServletResponse response) throws IOException {
+
+        log.info("接收到最新报价请求，代码: {}", symbol);
+
+        CandleFormat format = CandleFormat.fromAccept(accept);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Result<QuoteBarDTO> error;
+        try {
+            String resolved = stockService.resolveSymbol(symbol);
+            if (notModified(webRequest, dataVersionService.quotes(resolved).map(v -> v.variant(format.getSuffix())))) {
+                return null;
+            }
+            QuoteBarDTO quote = stockService.getLatestQuote(resolved);
+            if (format == CandleFormat.JSON) {
+                return Result.success(quote);
+            }
+            response.setContentType(CandleFormat.BINARY_MEDIA_TYPE_VALUE);
+            candleService.writeBinaryQuote(quote, response.getOutputStream());
+            return null;
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在或无行情数据: {}", symbol);
+            error = Result.stockNotFound(symbol);
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            error = Result.badRequest(e.getMessage());
+        } catch (IOException e) {
+            log.warn("最新报价写出中断: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("获取最新报价失败: {}", e.getMessage(), e);
+            noStore(webRequest);
+            error = Result.systemError("获取最新报价失败: " + e.getMessage());
+        }
+        if (format == CandleFormat.JSON) {
+            return error;
+        }
+        writeJsonError(response, error);
+        return null;
+    }
+
+    /**
+     * 批量查询股票详情与最新报价
+     *
+     * @param request 股票代码列表
+     * @return 每个代码一条结果，不存在的代码 found 为 false
+     */
+    @PostMapping("/stocks/batch")
+    @Operation(summary = "批量查询股票", description = "一次请求查询多只股票的详情与最新报价，不存在的代码单独标记而不影响整体")
+    public Result<List<StockBatchItemDTO>> getBatch(@RequestBody StockBatchRequest request) {
+        int count = request.getSymbols() == null ? 0 : request.getSymbols().size();
+        log.info("接收到批量查询请求，数量: {}", count);
+
+        try {
+            boolean includeQuote = request.getIncludeQuote() == null || request.getIncludeQuote();
+            return Result.success(stockService.getBatch(request.getSymbols(), includeQuote));
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("批量查询股票失败: {}", e.getMessage(), e);
+            return Result.systemError("批量查询股票失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 检查股票是否存在
      * 
@@ -111,25 +274,242 @@ public class StockController {
 
     /**
      * 根据行业查询股票
+     * 支持条件请求，股票列表未变时返回 304
      * 
-     * @param sector 行业名称
+     * @param sector     行业名称
+     * @param webRequest 当前请求（条件请求校验）
      * @return 股票列表
      */
     @GetMapping("/stocks/sector/{sector}")
     @Operation(summary = "根据行业查询股票", description = "查询指定行业的所有股票")
     public Result<List<StockSearchDTO>> getStocksBySector(
             @Parameter(description = "行业名称", example = "Technology")
-            @PathVariable("sector") String sector) {
+            @PathVariable("sector") String sector,
+            ServletWebRequest webRequest) {
         
         log.info("根据行业查询股票: {}", sector);
 
         try {
+            if (notModified(webRequest, dataVersionService.stockList())) {
+                return null;
+            }
             List<StockSearchDTO> stocks = stockService.findBySector(sector);
             return Result.success(stocks);
         } catch (Exception e) {
             log.error("查询行业股票失败: {}", e.getMessage(), e);
+            noStore(webRequest);
+            return Result.systemError("查询失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 分页查询行业成员
+     * 支持条件请求，股票列表未变时返回 304
+     *
+     * @param sector     行业名称（忽略大小写）
+     * @param page       页码（可选）
+     * @param size       每页条数（可选）
+     * @param webRequest 当前请求（条件请求校验）
+     * @return 成员分页结果
+     */
+    @GetMapping("/stocks/sector/{sector}/members")
+    @Operation(summary = "分页查询行业成员", description = "按股票代码排序分页返回行业成员，行业名忽略大小写")
+    public Result<SectorMembersDTO> getSectorMembers(
+            @Parameter(description = "行业名称", example = "Technology")
+            @PathVariable("sector") String sector,
+            @Parameter(description = "页码（从 1 开始）", example = "1")
+            @RequestParam(value = "page", required = false) Integer page,
+            @Parameter(description = "每页条数", example = "50")
+            @RequestParam(value = "size", required = false) Integer size,
+            ServletWebRequest webRequest) {
+
+        log.info("分页查询行业成员: {}，page: {}，size: {}", sector, page, size);
+
+        try {
+            if (notModified(webRequest, dataVersionService.stockList())) {
+                return null;
+            }
+            SectorMembersDTO members = stockService.getSectorMembers(sector, page, size);
+            if (members.getTotal() == 0) {
+                noStore(webRequest);
+                return Result.sectorNotFound(sector);
+            }
+            return Result.success(members);
+        } catch (IllegalArgumentException e) {
+            noStore(webRequest);
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("查询行业成员失败: {}", e.getMessage(), e);
+            noStore(webRequest);
             return Result.systemError("查询失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 获取行业统计
+     *
+     * @param sector 行业名称（忽略大小写）
+     * @param top    涨跌幅榜条数（可选）
+     * @return 行业最新交易日的涨跌家数、平均 / 中位数 / 成交量加权涨跌幅及涨跌幅榜
+     */
+    @GetMapping("/stocks/sector/{sector}/stats")
+    @Operation(summary = "获取行业统计", description = "行业最新交易日的涨跌家数、平均 / 中位数 / 成交量加权涨跌幅及涨跌幅榜，由内存统计增量维护")
+    public Result<SectorStatsDTO> getSectorStats(
+            @Parameter(description = "行业名称", example = "Technology")
+            @PathVariable("sector") String sector,
+            @Parameter(description = "涨跌幅榜条数", example = "5")
+            @RequestParam(value = "top", required = false) Integer top) {
+
+        log.info("获取行业统计: {}", sector);
+
+        try {
+            return sectorStatsService.getStats(sector, top)
+                    .map(Result::success)
+                    .orElseGet(() -> Result.sectorNotFound(sector));
+        } catch (IllegalArgumentException e) {
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("获取行业统计失败: {}", e.getMessage(), e);
+            return Result.systemError("获取失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取技术指标序列
+     *
+     * @param symbol 股票代码
+     * @param names  指标列表，逗号分隔，如 ma(5),ma(10),ma(20),rsi(14)
+     * @param limit  返回条数（默认与 K 线一致）
+     * @return 与 K 线时间戳对齐的指标数据
+     */
+    @GetMapping("/stocks/{symbol}/indicators")
+    @Operation(summary = "获取技术指标", description = "支持 ma / ema / rsi / macd / macd_signal / macd_hist / boll_upper / boll_mid / boll_lower")
+    public Result<IndicatorDTO> getIndicators(
+            @Parameter(description = "股票代码", example = "AAPL")
+            @PathVariable("symbol") String symbol,
+            @Parameter(description = "指标列表", example = "ma(5),ma(10),ma(20)")
+            @RequestParam(value = "names", defaultValue = "ma(5),ma(10),ma(20)") String names,
+            @Parameter(description = "返回条数", example = "200")
+            @RequestParam(value = "limit", required = false) Integer limit) {
+
+        log.info("接收到技术指标请求，代码: {}，指标: {}", symbol, names);
+
+        try {
+            List<IndicatorSpec> specs = indicatorSpecParser.parseList(names);
+            int resolvedLimit = candleService.resolveLimit(limit);
+            return Result.success(indicatorService.getIndicators(
+                    stockService.resolveSymbol(symbol), specs, resolvedLimit));
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", symbol);
+            return Result.stockNotFound(symbol);
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("获取技术指标失败: {}", e.getMessage(), e);
+            return Result.systemError("获取技术指标失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取 K 线数据（适配 Lightweight Charts）
+     * 数组格式：[timestamp, open, high, low, close, volume]，直接流式写出响应；
+     * Accept 为 application/x-candles 时返回列式二进制格式（见 {@link com.example.stock.utils.CandleBinaryWriter}），
+     * 出错时仍返回 JSON 格式的 Result。支持条件请求，行情未变时只做一次内存版本比较即返回 304
+     *
+     * @param symbol     股票代码
+     * @param period     K 线周期：1d（默认）/ 1w / 1mo
+     * @param limit      返回条数（默认 200）
+     * @param accept     Accept 头
+     * @param webRequest 当前请求（条件请求校验）
+     * @param response   HTTP 响应
+     */
+    @GetMapping(value = "/stocks/{symbol}/candles",
+            produces = {MediaType.APPLICATION_JSON_VALUE, CandleFormat.BINARY_MEDIA_TYPE_VALUE})
+    @Operation(summary = "获取 K 线数据", description = "返回数组压缩格式的 OHLCV 数据，按时间升序；"
+            + "Accept: application/x-candles 时返回差分 + 定点 + 变长整数编码的列式二进制")
+    public void getCandles(
+            @Parameter(description = "股票代码", example = "AAPL")
+            @PathVariable("symbol") String symbol,
+            @Parameter(description = "K 线周期：1d / 1w / 1mo", example = "1d")
+            @RequestParam(value = "period", required = false, defaultValue = "1d") String period,
+            @Parameter(description = "返回条数", example = "200")
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            ServletWebRequest webRequest,
+            HttpServletResponse response) throws IOException {
+
+        log.info("接收到 K 线请求，代码: {}，周期: {}，条数: {}", symbol, period, limit);
+
+        CandleFormat format = CandleFormat.fromAccept(accept);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Result<Void> error;
+        try {
+            CandlePeriod candlePeriod = CandlePeriod.fromCode(period);
+            int resolvedLimit = candleService.resolveLimit(limit);
+            String resolvedSymbol = stockService.resolveSymbol(symbol);
+            if (notModified(webRequest,
+                    candleService.version(resolvedSymbol, candlePeriod).map(v -> v.variant(format.getSuffix())))) {
+                return;
+            }
+
+            if (format == CandleFormat.BINARY) {
+                response.setContentType(CandleFormat.BINARY_MEDIA_TYPE_VALUE);
+            } else {
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            }
+            candleService.writeCandles(resolvedSymbol, candlePeriod, resolvedLimit, format, response.getOutputStream());
+            return;
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", symbol);
+            error = Result.stockNotFound(symbol);
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            error = Result.badRequest(e.getMessage());
+        } catch (IOException e) {
+            // 客户端断开等写出异常，响应已无法挽回
+            log.warn("K 线数据写出中断: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("获取 K 线数据失败: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                throw e;
+            }
+            error = Result.systemError("获取 K 线数据失败: " + e.getMessage());
+        }
+
+        noStore(webRequest);
+        writeJsonError(response, error);
+    }
+
+    /**
+     * 直接写出响应的接口在出错时写出 JSON 格式的 Result
+     */
+    private void writeJsonError(HttpServletResponse response, Result<?> error) throws IOException {
+        response.resetBuffer();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    /**
+     * 条件请求校验：版本未变时写出 304，调用方直接返回
+     * 同时设置 Cache-Control: no-cache，要求客户端每次复用前都来校验，而不是按 Last-Modified 启发式缓存
+     */
+    private static boolean notModified(ServletWebRequest webRequest, Optional<DataVersionService.Version> version) {
+        if (version.isEmpty()) {
+            return false;
+        }
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return webRequest.checkNotModified(version.get().etag(), version.get().lastModified());
+    }
+
+    /**
+     * 校验之后失败的响应已带上 ETag，禁止客户端保存，以免之后被 304 续用
+     */
+    private static void noStore(ServletWebRequest webRequest) {
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+    }
+
 }
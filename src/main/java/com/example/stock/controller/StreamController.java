@@ -0,0 +1,103 @@
+package com.example.stock.controller;
+
+import com.example.stock.config.StreamProperties;
+import com.example.stock.exception.StockNotFoundException;
+import com.example.stock.model.dto.StreamStatsDTO;
+import com.example.stock.model.vo.Result;
+import com.example.stock.service.StockService;
+import com.example.stock.service.stream.QuoteStreamService;
+import com.example.stock.service.stream.SseQuoteSink;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 实时行情推送 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/stream")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "实时行情", description = "SSE 实时报价推送 API")
+public class StreamController {
+
+    private final QuoteStreamService quoteStreamService;
+
+    private final StockService stockService;
+
+    private final StreamProperties streamProperties;
+
+    /**
+     * 订阅实时报价
+     * 推送 quote 事件；订阅失败时推送一个 error 事件（data 为 Result）后关闭连接
+     *
+     * @param symbols 逗号分隔的股票代码
+     * @return SSE 连接
+     */
+    @GetMapping(value = "/quotes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "订阅实时报价", description = "每个股票只有一个上游轮询；消费慢的连接只收到最新报价，序号跳号表示中间报价被合并")
+    public SseEmitter quotes(
+            @Parameter(description = "股票代码，逗号分隔", example = "AAPL,MSFT")
+            @RequestParam("symbols") String symbols) {
+
+        log.info("接收到实时报价订阅，股票: {}", symbols);
+
+        SseEmitter emitter = new SseEmitter(streamProperties.getEmitterTimeoutMs());
+        try {
+            Set<String> resolved = new LinkedHashSet<>();
+            for (String symbol : symbols.split(",")) {
+                if (!symbol.isBlank()) {
+                    resolved.add(stockService.resolveSymbol(symbol));
+                }
+            }
+            QuoteStreamService.Subscription subscription =
+                    quoteStreamService.subscribe(resolved, new SseQuoteSink(emitter));
+            emitter.onCompletion(subscription::cancel);
+            emitter.onTimeout(subscription::cancel);
+            emitter.onError(e -> subscription.cancel());
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", e.getMessage());
+            fail(emitter, Result.stockNotFound(e.getSymbol()));
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            fail(emitter, Result.badRequest(e.getMessage()));
+        } catch (Exception e) {
+            log.error("订阅实时报价失败: {}", e.getMessage(), e);
+            fail(emitter, Result.systemError("订阅实时报价失败: " + e.getMessage()));
+        }
+        return emitter;
+    }
+
+    /**
+     * 查询推送统计
+     *
+     * @return 订阅数、上游轮询数与背压统计
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "推送统计", description = "conflated 为消费慢的连接被合并掉的报价数，pending 为尚未推送的报价数")
+    public Result<StreamStatsDTO> stats() {
+        return Result.success(quoteStreamService.getStats());
+    }
+
+    private static void fail(SseEmitter emitter, Result<?> result) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(result, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+}
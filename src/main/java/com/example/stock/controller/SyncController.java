@@ -0,0 +1,108 @@
+package com.example.stock.controller;
+
+import com.example.stock.exception.StockNotFoundException;
+import com.example.stock.model.dto.SyncRunDTO;
+import com.example.stock.model.dto.SyncStatusDTO;
+import com.example.stock.model.vo.Result;
+import com.example.stock.service.MarketDataSyncService;
+import com.example.stock.service.StockService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 行情同步管理 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/admin/sync")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "行情同步", description = "行情增量同步的触发与进度查询 API")
+public class SyncController {
+
+    private final MarketDataSyncService marketDataSyncService;
+
+    private final StockService stockService;
+
+    /**
+     * 触发一轮全量股票的增量同步（后台执行）
+     *
+     * @return 是否已启动
+     */
+    @PostMapping
+    @Operation(summary = "触发行情同步", description = "在后台对所有股票执行增量同步")
+    public Result<Boolean> triggerSync() {
+        log.info("接收到行情同步请求");
+
+        try {
+            boolean started = marketDataSyncService.startAsync();
+            return started
+                    ? Result.success("行情同步已启动", true)
+                    : Result.success("行情同步正在运行", false);
+        } catch (Exception e) {
+            log.error("启动行情同步失败: {}", e.getMessage(), e);
+            return Result.systemError("启动行情同步失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 同步单只股票（同步执行）
+     *
+     * @param symbol 股票代码
+     * @return 同步结果
+     */
+    @PostMapping("/{symbol}")
+    @Operation(summary = "同步单只股票", description = "立即对指定股票执行增量同步")
+    public Result<SyncStatusDTO> syncSymbol(
+            @Parameter(description = "股票代码", example = "AAPL")
+            @PathVariable("symbol") String symbol) {
+
+        log.info("接收到单只股票同步请求: {}", symbol);
+
+        try {
+            return Result.success(marketDataSyncService.syncSymbol(stockService.resolveSymbol(symbol)));
+        } catch (StockNotFoundException e) {
+            log.warn("股票不存在: {}", symbol);
+            return Result.stockNotFound(symbol);
+        } catch (IllegalArgumentException e) {
+            log.warn("参数错误: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("同步股票失败: {}", e.getMessage(), e);
+            return Result.systemError("同步失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询当前一轮同步的进度
+     *
+     * @return 同步进度
+     */
+    @GetMapping("/progress")
+    @Operation(summary = "查询同步进度", description = "查询当前或最近一轮同步的进度")
+    public Result<SyncRunDTO> getProgress() {
+        return marketDataSyncService.getCurrentRun()
+                .map(Result::success)
+                .orElseGet(() -> Result.success("尚未执行过同步", null));
+    }
+
+    /**
+     * 查询每只股票的同步状态与滞后天数
+     *
+     * @return 同步状态列表（滞后最多的在前）
+     */
+    @GetMapping("/status")
+    @Operation(summary = "查询同步状态", description = "查询每只股票的高水位日期与滞后天数")
+    public Result<List<SyncStatusDTO>> getStatuses() {
+        return Result.success(marketDataSyncService.getStatuses());
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.stock.controller;
+
+import com.example.stock.metrics.SlowRequestRecorder;
+import com.example.stock.model.dto.SlowRequestDTO;
+import com.example.stock.model.vo.Result;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 慢请求查看 API 控制器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/admin/slow-requests")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "请求追踪", description = "最慢请求及其阶段耗时拆分 API")
+public class TraceController {
+
+    private final SlowRequestRecorder slowRequestRecorder;
+
+    /**
+     * 查询最慢的请求
+     *
+     * @return 按耗时从高到低排列的请求及各阶段耗时
+     */
+    @GetMapping
+    @Operation(summary = "查询最慢请求", description = "返回本实例启动（或上次清空）以来最慢的 N 个请求及 db / redis / mapping / serialize 阶段耗时")
+    public Result<List<SlowRequestDTO>> list() {
+        return Result.success(slowRequestRecorder.list());
+    }
+
+    /**
+     * 清空慢请求记录
+     *
+     * @return 操作结果
+     */
+    @DeleteMapping
+    @Operation(summary = "清空慢请求记录")
+    public Result<Void> clear() {
+        log.info("清空慢请求记录");
+        slowRequestRecorder.clear();
+        return Result.success();
+    }
+
+}
@@ -0,0 +1,329 @@
+package com.example.stock.datasource;
+
+import com.example.stock.config.ReplicaProperties;
+import com.example.stock.event.QuotesIngestedEvent;
+import com.example.stock.model.dto.DataSourceStatusDTO;
+import com.example.stock.model.enums.ReplicaSelectionStrategy;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离路由数据源
+ * 只读事务（TransactionSynchronizationManager 标记 readOnly）路由到健康的从库，其余一律走主库。
+ * 事务开始时尚未标记只读，须包在 LazyConnectionDataSourceProxy 中，使真实连接推迟到第一条语句时再获取。
+ * 后台线程定期检查各从库的连通性与复制延迟，延迟超过 maxLagMs 或检查失败的从库暂不参与路由，
+ * 没有可用从库时只读事务回退到主库。
+ * 开启 readYourWrites 时记录主库最近一次写入提交的时间，健康检查先取主库 WAL 位置、再确认各从库是否已回放到该位置，
+ * 只读事务只路由到在最近一次写入之后确认追平的从库，写入后的缓存回填与预热不会读到落后的从库。
+ * 写入时间仅覆盖经本实例提交的写入；多实例部署时其他实例的写入不可见，不保证跨实例的写后读一致
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final HikariDataSource primary;
+
+    private final List<ReplicaTarget> replicas = new ArrayList<>();
+
+    private final ReplicaProperties properties;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final Counter primaryReads;
+
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * 主库最近一次写入提交的时间（System.nanoTime）
+     */
+    private volatile long lastWriteNanos = System.nanoTime();
+
+    /**
+     * 读写事务提交后记录写入时间；排在缓存清除等提交后回调之前执行
+     */
+    private final TransactionSynchronization writeCommitted = new TransactionSynchronization() {
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void afterCommit() {
+            markWritten();
+        }
+
+    };
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                    ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.properties = properties;
+        this.primaryReads = Counter.builder("datasource.routing.reads")
+                .description("路由到各数据源的只读事务数，主库为从库不可用时的回退")
+                .tag("pool", primary.getPoolName())
+                .register(meterRegistry);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(primary.getPoolName(), primary);
+        for (HikariDataSource pool : replicaPools) {
+            targets.put(pool.getPoolName(), pool);
+            replicas.add(new ReplicaTarget(pool, lastWriteNanos - 1, meterRegistry));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        // 首次检查也在后台执行，不可达的从库不会拖慢启动；检查通过前只读事务走主库
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0,
+                properties.getHealthCheckIntervalMs(), TimeUnit.MILLISECONDS);
+        log.info("读写分离已启用，从库: {}，策略: {}", replicas.stream().map(r -> r.pool.getPoolName()).toList(),
+                properties.getStrategy());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (properties.isReadYourWrites() && TransactionSynchronizationManager.isSynchronizationActive()
+                    && !TransactionSynchronizationManager.getSynchronizations().contains(writeCommitted)) {
+                TransactionSynchronizationManager.registerSynchronization(writeCommitted);
+            }
+            return primary.getPoolName();
+        }
+        ReplicaTarget target = select();
+        if (target == null) {
+            primaryReads.increment();
+            return primary.getPoolName();
+        }
+        target.routed.increment();
+        return target.pool.getPoolName();
+    }
+
+    /**
+     * 记录主库有写入提交，之后的只读事务只路由到再次确认追平的从库
+     * 读写事务由提交回调自动记录；不在事务中的写入（如自动提交的批量写入）须显式调用
+     */
+    public void markWritten() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    /**
+     * 自动提交的日线批量写入完成后记录写入；先于清除行情缓存的监听器执行
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuotesIngested(QuotesIngestedEvent event) {
+        markWritten();
+    }
+
+    /**
+     * 检查全部从库的连通性、复制延迟以及是否已回放到检查开始时的主库 WAL 位置
+     */
+    public void checkHealth() {
+        long checkNanos = System.nanoTime();
+        String primaryPosition = properties.isReadYourWrites() ? primaryPosition() : null;
+        for (ReplicaTarget replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                long lag;
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+                    lag = rs.next() ? Math.max(0, Math.round(rs.getDouble(1))) : 0;
+                }
+                if (primaryPosition != null && caughtUp(connection, primaryPosition)) {
+                    replica.caughtUpNanos = checkNanos;
+                }
+                boolean healthy = lag <= properties.getMaxLagMs();
+                if (healthy != replica.healthy) {
+                    log.info("从库 {} {}，复制延迟: {} ms", replica.pool.getPoolName(), healthy ? "恢复" : "延迟过大，暂停读路由", lag);
+                }
+                replica.lagMs = lag;
+                replica.lastError = null;
+                replica.healthy = healthy;
+            } catch (SQLException | RuntimeException e) {
+                if (replica.healthy) {
+                    log.warn("从库 {} 健康检查失败，暂停读路由: {}", replica.pool.getPoolName(), e.getMessage());
+                }
+                replica.lagMs = null;
+                replica.lastError = e.getMessage();
+                replica.healthy = false;
+            }
+        }
+    }
+
+    /**
+     * 主库与各从库的连接池状态
+     */
+    public List<DataSourceStatusDTO> getStatus() {
+        List<DataSourceStatusDTO> status = new ArrayList<>(replicas.size() + 1);
+        status.add(toStatus(primary, "primary", true, true, 0L, null, (long) primaryReads.count()));
+        for (ReplicaTarget replica : replicas) {
+            status.add(toStatus(replica.pool, "replica", replica.healthy, isCaughtUp(replica), replica.lagMs,
+                    replica.lastError, (long) replica.routed.count()));
+        }
+        return status;
+    }
+
+    /**
+     * 停止健康检查并关闭从库连接池；主库连接池由容器管理
+     */
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private ReplicaTarget select() {
+        int size = replicas.size();
+        if (properties.getStrategy() == ReplicaSelectionStrategy.LEAST_CONNECTIONS) {
+            ReplicaTarget best = null;
+            int bestLoad = Integer.MAX_VALUE;
+            for (ReplicaTarget replica : replicas) {
+                if (routable(replica)) {
+                    int load = load(replica.pool);
+                    if (load < bestLoad) {
+                        best = replica;
+                        bestLoad = load;
+                    }
+                }
+            }
+            return best;
+        }
+        int start = Math.floorMod(cursor.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaTarget replica = replicas.get((start + i) % size);
+            if (routable(replica)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private boolean routable(ReplicaTarget replica) {
+        return replica.healthy && isCaughtUp(replica);
+    }
+
+    private boolean isCaughtUp(ReplicaTarget replica) {
+        return !properties.isReadYourWrites() || replica.caughtUpNanos - lastWriteNanos >= 0;
+    }
+
+    /**
+     * 主库当前 WAL 位置；查询失败时返回 null，本轮不更新从库的追平状态
+     */
+    private String primaryPosition() {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(properties.getPrimaryPositionQuery())) {
+            return rs.next() ? rs.getString(1) : null;
+        } catch (SQLException | RuntimeException e) {
+            log.warn("查询主库 WAL 位置失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean caughtUp(Connection connection, String primaryPosition) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(properties.getCaughtUpQuery())) {
+            statement.setString(1, primaryPosition);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static int load(HikariDataSource pool) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        return bean == null ? 0 : bean.getActiveConnections() + bean.getThreadsAwaitingConnection();
+    }
+
+    private static DataSourceStatusDTO toStatus(HikariDataSource pool, String role, boolean healthy, boolean caughtUp,
+                                                Long lagMs, String lastError, long routed) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        return DataSourceStatusDTO.builder()
+                .pool(pool.getPoolName())
+                .role(role)
+                .healthy(healthy)
+                .caughtUp(caughtUp)
+                .lagMs(lagMs)
+                .lastError(lastError)
+                .activeConnections(bean == null ? 0 : bean.getActiveConnections())
+                .idleConnections(bean == null ? 0 : bean.getIdleConnections())
+                .pendingThreads(bean == null ? 0 : bean.getThreadsAwaitingConnection())
+                .routedReads(routed)
+                .build();
+    }
+
+    /**
+     * 从库及其健康状态
+     */
+    private static final class ReplicaTarget {
+
+        private final HikariDataSource pool;
+
+        private final Counter routed;
+
+        private volatile boolean healthy;
+
+        private volatile Long lagMs;
+
+        private volatile String lastError;
+
+        /**
+         * 最近一次确认已回放到主库 WAL 位置的检查开始时间（System.nanoTime）
+         */
+        private volatile long caughtUpNanos;
+
+        private ReplicaTarget(HikariDataSource pool, long caughtUpNanos, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.caughtUpNanos = caughtUpNanos;
+            this.routed = Counter.builder("datasource.routing.reads")
+                    .description("路由到各数据源的只读事务数，主库为从库不可用时的回退")
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", this, t -> t.healthy ? 1 : 0)
+                    .description("从库是否接收读请求")
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.lag", this, t -> t.lagMs == null ? Double.NaN : t.lagMs)
+                    .description("从库复制延迟（毫秒）")
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.example.stock.event;
+
+import com.example.stock.model.dto.QuoteBarDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 日线行情写入事件
+ * 每个批次写入数据库后发布，供列式序列、聚合等内存结构增量更新；
+ * bars 已按 (symbol, date) 升序排列且去重；versions 为本批次写入后各股票的 quote_versions 版本号
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class QuotesIngestedEvent {
+
+    private final List<QuoteBarDTO> bars;
+
+    private final Map<String, Long> versions;
+
+    public QuotesIngestedEvent(List<QuoteBarDTO> bars, Map<String, Long> versions) {
+        this.bars = bars;
+        this.versions = versions;
+    }
+
+    public List<QuoteBarDTO> getBars() {
+        return bars;
+    }
+
+    public Map<String, Long> getVersions() {
+        return versions;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.stock.event;
+
+import com.example.stock.model.entity.Stock;
+
+/**
+ * 股票基础信息保存事件
+ * 由 {@link Stock} 通过 Spring Data 领域事件在 save 时发布，
+ * 用于同步各类内存索引
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class StockSavedEvent {
+
+    private final Stock stock;
+
+    public StockSavedEvent(Stock stock) {
+        this.stock = stock;
+    }
+
+    public Stock getStock() {
+        return stock;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.example.stock.exception;
+
+/**
+ * AI 模型服务异常
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class AiServiceException extends RuntimeException {
+
+    private final String provider;
+
+    public AiServiceException(String provider, String message) {
+        super(message);
+        this.provider = provider;
+    }
+
+    public AiServiceException(String provider, String message, Throwable cause) {
+        super(message, cause);
+        this.provider = provider;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+}
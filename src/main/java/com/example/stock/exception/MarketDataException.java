@@ -0,0 +1,27 @@
+package com.example.stock.exception;
+
+/**
+ * 外部行情数据源异常
+ * 
+ * @author Toom
+ * @version 1.0
+ */
+public class MarketDataException extends RuntimeException {
+
+    private final String source;
+
+    public MarketDataException(String source, String message) {
+        super(message);
+        this.source = source;
+    }
+
+    public MarketDataException(String source, String message, Throwable cause) {
+        super(message, cause);
+        this.source = source;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.example.stock.metrics;
+
+import com.example.stock.config.MetricsProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 仓库方法指标切面
+ * 记录每个仓库方法的耗时（repository.query，按 repository / method / outcome 区分）、
+ * 返回行数（repository.rows）与慢查询次数（repository.slow）；慢查询按采样率打印日志
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Aspect
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    private final MetricsProperties metricsProperties;
+
+    @Around("execution(* *(..)) && this(org.springframework.data.repository.Repository)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint);
+        String method = joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            Object result = joinPoint.proceed();
+            long rows = rowCount(result);
+            if (rows >= 0) {
+                DistributionSummary.builder("repository.rows")
+                        .description("仓库方法返回的行数")
+                        .tags("repository", repository, "method", method)
+                        .register(meterRegistry)
+                        .record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            RequestTrace.record(RequestTrace.DB, start);
+            Timer.builder("repository.query")
+                    .description("仓库方法耗时")
+                    .tags("repository", repository, "method", method, "outcome", outcome)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            recordSlow(repository, method, nanos);
+        }
+    }
+
+    private void recordSlow(String repository, String method, long nanos) {
+        long millis = nanos / 1_000_000;
+        if (millis < metricsProperties.getSlowQueryThresholdMs()) {
+            return;
+        }
+        meterRegistry.counter("repository.slow", "repository", repository, "method", method).increment();
+        double rate = metricsProperties.getSlowQuerySampleRate();
+        if (rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate)) {
+            log.warn("慢查询: {}.{} 耗时 {} ms", repository, method, millis);
+        }
+    }
+
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        for (Class<?> type : joinPoint.getThis().getClass().getInterfaces()) {
+            if (type.getName().startsWith("com.example.stock.repository.")) {
+                return type.getSimpleName();
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+
+    /**
+     * 返回值对应的行数；void 与非集合返回值为 -1（不记录）
+     */
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.stock.metrics;
+
+import com.example.stock.config.TraceProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 请求阶段耗时过滤器
+ * 请求开始时激活当前线程的 {@link RequestTrace}，结束时补记序列化阶段，
+ * 未提交的响应补写 Server-Timing 头，并把足够慢的请求交给 {@link SlowRequestRecorder}
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final TraceProperties traceProperties;
+
+    private final SlowRequestRecorder slowRequestRecorder;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !traceProperties.isEnabled() || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long now = System.nanoTime();
+            if (trace.getBodyStartNanos() > 0) {
+                trace.add(RequestTrace.SERIALIZE, now - trace.getBodyStartNanos());
+            }
+            if (traceProperties.isServerTiming() && !response.isCommitted()
+                    && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, trace.toServerTiming(now));
+            }
+            long total = now - trace.getStartNanos();
+            if (slowRequestRecorder.accepts(total)) {
+                String query = request.getQueryString();
+                slowRequestRecorder.offer(request.getMethod(),
+                        query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query,
+                        response.getStatus(), total, trace);
+            }
+            trace.end();
+        }
+    }
+
+}
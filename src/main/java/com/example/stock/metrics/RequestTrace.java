@@ -0,0 +1,157 @@
+package com.example.stock.metrics;
+
+/**
+ * 单次请求的阶段耗时记录
+ * 每个线程复用同一个实例（定长数组，无额外分配），由 {@link RequestTimingFilter} 在请求开始 / 结束时激活与关闭；
+ * 非请求线程上调用 {@link #record(String, long)} 为空操作。同名阶段累加耗时与次数
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class RequestTrace {
+
+    public static final String DB = "db";
+    public static final String REDIS = "redis";
+    public static final String MAPPING = "mapping";
+    public static final String SERIALIZE = "serialize";
+
+    private static final int MAX_STAGES = 16;
+
+    private static final ThreadLocal<RequestTrace> CURRENT = ThreadLocal.withInitial(RequestTrace::new);
+
+    private final String[] names = new String[MAX_STAGES];
+
+    private final long[] nanos = new long[MAX_STAGES];
+
+    private final int[] counts = new int[MAX_STAGES];
+
+    private int size;
+
+    private boolean active;
+
+    private long startNanos;
+
+    /**
+     * 开始写响应体的时间点，0 表示尚未开始
+     */
+    private long bodyStartNanos;
+
+    private RequestTrace() {
+    }
+
+    /**
+     * 激活当前线程的记录
+     */
+    public static RequestTrace begin() {
+        RequestTrace trace = CURRENT.get();
+        trace.size = 0;
+        trace.bodyStartNanos = 0;
+        trace.startNanos = System.nanoTime();
+        trace.active = true;
+        return trace;
+    }
+
+    /**
+     * 当前线程上激活中的记录，未激活时返回 null
+     */
+    static RequestTrace current() {
+        RequestTrace trace = CURRENT.get();
+        return trace.active ? trace : null;
+    }
+
+    /**
+     * 记录一个阶段从 startNanos 到现在的耗时
+     *
+     * @param stage      阶段名，建议使用本类常量
+     * @param startNanos 阶段开始时的 System.nanoTime()
+     */
+    public static void record(String stage, long startNanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace.active) {
+            trace.add(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * 关闭当前线程的记录
+     */
+    public void end() {
+        active = false;
+    }
+
+    void add(String stage, long elapsed) {
+        for (int i = 0; i < size; i++) {
+            if (names[i] == stage || names[i].equals(stage)) {
+                nanos[i] += elapsed;
+                counts[i]++;
+                return;
+            }
+        }
+        if (size < MAX_STAGES) {
+            names[size] = stage;
+            nanos[size] = elapsed;
+            counts[size] = 1;
+            size++;
+        }
+    }
+
+    void markBodyStart() {
+        if (bodyStartNanos == 0) {
+            bodyStartNanos = System.nanoTime();
+        }
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getBodyStartNanos() {
+        return bodyStartNanos;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String name(int i) {
+        return names[i];
+    }
+
+    long nanos(int i) {
+        return nanos[i];
+    }
+
+    int count(int i) {
+        return counts[i];
+    }
+
+    /**
+     * 生成 Server-Timing 头，如 {@code db;dur=3.21;desc="2", redis;dur=0.40, app;dur=5.02}
+     *
+     * @param nowNanos 截止时间点，app 为请求开始到此刻的耗时
+     */
+    public String toServerTiming(long nowNanos) {
+        StringBuilder sb = new StringBuilder(32 + size * 24);
+        for (int i = 0; i < size; i++) {
+            appendMetric(sb, names[i], nanos[i]);
+            if (counts[i] > 1) {
+                sb.append(";desc=\"").append(counts[i]).append('"');
+            }
+            sb.append(", ");
+        }
+        appendMetric(sb, "app", nowNanos - startNanos);
+        return sb.toString();
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, long nanos) {
+        // 保留两位小数的毫秒值，避免 String.format 的开销
+        long hundredths = (nanos + 5_000) / 10_000;
+        sb.append(name).append(";dur=").append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+}
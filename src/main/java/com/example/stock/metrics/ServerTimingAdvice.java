@@ -0,0 +1,46 @@
+package com.example.stock.metrics;
+
+import com.example.stock.config.TraceProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 在响应体序列化之前写出 Server-Timing 头
+ * 响应头必须先于响应体发送，因此头中的 app 为序列化之前的耗时；
+ * 序列化阶段本身由 {@link RequestTimingFilter} 计入慢请求记录
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final TraceProperties traceProperties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return traceProperties.isEnabled();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            if (traceProperties.isServerTiming()) {
+                response.getHeaders().set(RequestTimingFilter.SERVER_TIMING, trace.toServerTiming(System.nanoTime()));
+            }
+            trace.markBodyStart();
+        }
+        return body;
+    }
+
+}
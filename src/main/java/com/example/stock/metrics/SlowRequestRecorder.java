@@ -0,0 +1,134 @@
+package com.example.stock.metrics;
+
+import com.example.stock.config.TraceProperties;
+import com.example.stock.model.dto.SlowRequestDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 最慢请求记录
+ * 定长槽位保留耗时最长的 N 个请求，满了以后新请求只有慢于当前最快的一条才会替换它；
+ * 绝大多数请求只需读一次 volatile 门槛值即可跳过，不加锁也不分配
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+public class SlowRequestRecorder {
+
+    private final Sample[] slots;
+
+    private int size;
+
+    /**
+     * 进入记录所需的最小耗时；未满时为 0
+     */
+    private volatile long floorNanos;
+
+    public SlowRequestRecorder(TraceProperties traceProperties) {
+        this.slots = new Sample[Math.max(1, traceProperties.getSlowCapacity())];
+    }
+
+    /**
+     * 是否值得为该请求生成快照
+     */
+    boolean accepts(long totalNanos) {
+        return totalNanos > floorNanos;
+    }
+
+    /**
+     * 记录一次请求；快照在调用方确认 {@link #accepts(long)} 后生成
+     */
+    void offer(String method, String uri, int status, long totalNanos, RequestTrace trace) {
+        int n = trace.size();
+        String[] names = new String[n];
+        long[] nanos = new long[n];
+        int[] counts = new int[n];
+        for (int i = 0; i < n; i++) {
+            names[i] = trace.name(i);
+            nanos[i] = trace.nanos(i);
+            counts[i] = trace.count(i);
+        }
+        Sample sample = new Sample(method, uri, status,
+                System.currentTimeMillis() - totalNanos / 1_000_000, totalNanos, names, nanos, counts);
+
+        synchronized (this) {
+            if (size < slots.length) {
+                slots[size++] = sample;
+                if (size == slots.length) {
+                    floorNanos = minNanos();
+                }
+                return;
+            }
+            int fastest = 0;
+            for (int i = 1; i < size; i++) {
+                if (slots[i].totalNanos < slots[fastest].totalNanos) {
+                    fastest = i;
+                }
+            }
+            if (sample.totalNanos > slots[fastest].totalNanos) {
+                slots[fastest] = sample;
+                floorNanos = minNanos();
+            }
+        }
+    }
+
+    /**
+     * 按耗时从高到低返回记录
+     */
+    public List<SlowRequestDTO> list() {
+        Sample[] copy;
+        synchronized (this) {
+            copy = Arrays.copyOf(slots, size);
+        }
+        Arrays.sort(copy, Comparator.comparingLong((Sample s) -> s.totalNanos).reversed());
+        List<SlowRequestDTO> result = new ArrayList<>(copy.length);
+        for (Sample sample : copy) {
+            result.add(sample.toDTO());
+        }
+        return result;
+    }
+
+    /**
+     * 清空记录
+     */
+    public synchronized void clear() {
+        Arrays.fill(slots, null);
+        size = 0;
+        floorNanos = 0;
+    }
+
+    private long minNanos() {
+        return Arrays.stream(slots, 0, size).filter(Objects::nonNull)
+                .mapToLong(s -> s.totalNanos).min().orElse(0);
+    }
+
+    private record Sample(String method, String uri, int status, long startedAtMillis, long totalNanos,
+                          String[] names, long[] nanos, int[] counts) {
+
+        SlowRequestDTO toDTO() {
+            List<SlowRequestDTO.Stage> stages = new ArrayList<>(names.length);
+            for (int i = 0; i < names.length; i++) {
+                stages.add(new SlowRequestDTO.Stage(names[i], nanos[i] / 1e6, counts[i]));
+            }
+            return SlowRequestDTO.builder()
+                    .method(method)
+                    .uri(uri)
+                    .status(status)
+                    .startedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(startedAtMillis), ZoneId.systemDefault()))
+                    .totalMillis(totalNanos / 1e6)
+                    .stages(stages)
+                    .build();
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.example.stock.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 启动耗时记录
+ * 以 JVM 启动时间为起点，在应用就绪与第一个业务请求完成时各打印一次耗时，
+ * 并注册 startup.time.ready / startup.time.first.request 指标；之后每个请求只多一次 volatile 读
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StartupTimingFilter extends OncePerRequestFilter {
+
+    private final AtomicLong readyMillis = new AtomicLong(-1);
+
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    public StartupTimingFilter(MeterRegistry meterRegistry) {
+        TimeGauge.builder("startup.time.ready", readyMillis, TimeUnit.MILLISECONDS, v -> Math.max(v.get(), 0))
+                .description("JVM 启动到应用就绪的耗时")
+                .register(meterRegistry);
+        TimeGauge.builder("startup.time.first.request", firstRequestMillis, TimeUnit.MILLISECONDS,
+                        v -> Math.max(v.get(), 0))
+                .description("JVM 启动到第一个业务请求完成的耗时")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        long millis = sinceJvmStart();
+        readyMillis.set(millis);
+        log.info("应用就绪，距 JVM 启动: {} ms", millis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return firstRequestMillis.get() >= 0 || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long millis = sinceJvmStart();
+            if (firstRequestMillis.compareAndSet(-1, millis)) {
+                log.info("首个请求完成（{} {}），距 JVM 启动: {} ms", request.getMethod(), request.getRequestURI(), millis);
+            }
+        }
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+}
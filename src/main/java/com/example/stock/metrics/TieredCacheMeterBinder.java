@@ -0,0 +1,89 @@
+package com.example.stock.metrics;
+
+import com.example.stock.service.cache.TieredCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 两级缓存指标
+ * 通用部分（cache.gets hit/miss、cache.size、cache.puts）由 {@link CacheMeterBinder} 注册，
+ * 另外按层级区分命中、记录加载耗时、合并请求数与 Redis 故障状态
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class TieredCacheMeterBinder extends CacheMeterBinder<TieredCache> {
+
+    public TieredCacheMeterBinder(TieredCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        return getCache().stats().localSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        TieredCache.Stats stats = getCache().stats();
+        return stats.l1Hits() + stats.l2Hits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return getCache().stats().misses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        // L1 未开启 Caffeine 统计，淘汰数不可得
+        return null;
+    }
+
+    @Override
+    protected long putCount() {
+        TieredCache.Stats stats = getCache().stats();
+        return stats.loads() - stats.loadFailures();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        counter(registry, "cache.tiered.hits", "按层级区分的命中次数", "level", "l1", s -> s.l1Hits());
+        counter(registry, "cache.tiered.hits", "按层级区分的命中次数", "level", "l2", s -> s.l2Hits());
+        counter(registry, "cache.tiered.load.failures", "加载失败次数", null, null, s -> s.loadFailures());
+        counter(registry, "cache.tiered.collapsed", "合并到进行中加载的请求数", null, null, s -> s.collapsed());
+        counter(registry, "cache.tiered.redis.errors", "Redis 访问失败次数", null, null, s -> s.redisErrors());
+
+        FunctionTimer.builder("cache.tiered.loads", getCache(),
+                        cache -> cache.stats().loads(),
+                        cache -> cache.stats().loadNanos(), TimeUnit.NANOSECONDS)
+                .tags(getTagsWithCacheName())
+                .description("未命中时的加载次数与耗时")
+                .register(registry);
+
+        Gauge.builder("cache.tiered.redis.degraded", getCache(), cache -> cache.stats().redisDegraded() ? 1 : 0)
+                .tags(getTagsWithCacheName())
+                .description("是否因 Redis 故障降级为只用本地缓存（1 为降级）")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         String tagKey, String tagValue, ToDoubleFunction<TieredCache.Stats> value) {
+        FunctionCounter.Builder<TieredCache> builder = FunctionCounter
+                .builder(name, getCache(), cache -> value.applyAsDouble(cache.stats()))
+                .tags(getTagsWithCacheName())
+                .description(description);
+        if (tagKey != null) {
+            builder.tag(tagKey, tagValue);
+        }
+        builder.register(registry);
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.example.stock.model.dto;
+
+import com.example.stock.model.enums.AnalysisStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * AI 分析请求结果 DTO
+ * 报告未过期时直接返回报告；否则返回任务令牌，并附带已过期的旧报告（如有）
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalysisDTO {
+
+    /**
+     * 股票代码
+     */
+    private String symbol;
+
+    /**
+     * 任务状态
+     */
+    private AnalysisStatus status;
+
+    /**
+     * 任务令牌，可用于轮询生成结果
+     */
+    private String jobId;
+
+    /**
+     * 分析报告（生成中时为旧报告，可能为空）
+     */
+    private AnalysisReportDTO report;
+
+    /**
+     * 报告是否已过期
+     */
+    private boolean stale;
+
+    /**
+     * 任务提交时间
+     */
+    private LocalDateTime submittedAt;
+
+    /**
+     * 任务结束时间
+     */
+    private LocalDateTime finishedAt;
+
+    /**
+     * 失败原因
+     */
+    private String error;
+
+}
@@ -0,0 +1,58 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * AI 分析报告 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalysisReportDTO {
+
+    /**
+     * 股票代码
+     */
+    private String symbol;
+
+    /**
+     * 结论：看涨 / 看跌 / 震荡
+     */
+    private String summary;
+
+    /**
+     * 分析正文
+     */
+    private String content;
+
+    /**
+     * 支撑位
+     */
+    private BigDecimal supportPrice;
+
+    /**
+     * 压力位
+     */
+    private BigDecimal resistancePrice;
+
+    /**
+     * 生成模型
+     */
+    private String model;
+
+    /**
+     * 生成时间
+     */
+    private LocalDateTime updatedAt;
+
+}
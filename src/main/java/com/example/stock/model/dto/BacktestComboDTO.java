@@ -0,0 +1,52 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 一组策略参数在全部股票上的汇总 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BacktestComboDTO {
+
+    /**
+     * 策略参数
+     */
+    private Map<String, Double> params;
+
+    /**
+     * 参与汇总的股票数
+     */
+    private int symbols;
+
+    /**
+     * 平均总收益率
+     */
+    private double meanReturn;
+
+    /**
+     * 平均夏普比率
+     */
+    private double meanSharpe;
+
+    /**
+     * 平均最大回撤
+     */
+    private double meanMaxDrawdown;
+
+    /**
+     * 总收益为正的股票占比
+     */
+    private double profitableRatio;
+
+}
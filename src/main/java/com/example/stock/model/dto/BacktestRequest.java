@@ -0,0 +1,89 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 回测请求
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BacktestRequest {
+
+    /**
+     * 策略：ma_cross（参数 fast / slow）、rsi_reversion（参数 period / lower / upper）
+     */
+    private String strategy;
+
+    /**
+     * 策略参数，值为单个数值、逗号分隔的取值列表（5,10,20）或 起始:结束:步长（5:30:5，含结束）；
+     * 未给出的参数取默认值，多个参数取笛卡尔积
+     */
+    private Map<String, String> params;
+
+    /**
+     * 股票代码列表；为空时按 sector 筛选，两者都为空时回测全市场
+     */
+    private List<String> symbols;
+
+    /**
+     * 行业（忽略大小写）
+     */
+    private String sector;
+
+    /**
+     * 起始日期（含，yyyy-MM-dd），默认不限
+     */
+    private String from;
+
+    /**
+     * 结束日期（含，yyyy-MM-dd），默认不限
+     */
+    private String to;
+
+    /**
+     * 初始资金，默认 100000
+     */
+    private Double initialCapital;
+
+    /**
+     * 满仓时投入的权益比例 (0, 1]，默认 1
+     */
+    private Double positionSize;
+
+    /**
+     * 手续费（基点，按成交额），默认 0
+     */
+    private Double feeBps;
+
+    /**
+     * 滑点（基点），默认 0
+     */
+    private Double slippageBps;
+
+    /**
+     * 排序指标：sharpe（默认）/ total_return / cagr / max_drawdown / win_rate
+     */
+    private String sort;
+
+    /**
+     * 返回的最优回测条数
+     */
+    private Integer top;
+
+    /**
+     * 每条回测返回的权益曲线点数，0 表示不返回
+     */
+    private Integer curvePoints;
+
+}
@@ -0,0 +1,72 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 回测结果 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BacktestResultDTO {
+
+    /**
+     * 策略
+     */
+    private String strategy;
+
+    /**
+     * 回测的股票数
+     */
+    private int symbols;
+
+    /**
+     * 参数组合数
+     */
+    private int combos;
+
+    /**
+     * 完成的回测次数
+     */
+    private int runs;
+
+    /**
+     * 区间内 K 线不足 2 根而跳过的股票数
+     */
+    private int skipped;
+
+    /**
+     * 全部回测扫描的 K 线总数
+     */
+    private long bars;
+
+    /**
+     * 总耗时（毫秒，含加载序列）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 回测计算阶段的吞吐（K 线 / 秒）
+     */
+    private long barsPerSecond;
+
+    /**
+     * 按排序指标最优的回测
+     */
+    private List<BacktestRunDTO> items;
+
+    /**
+     * 各参数组合在全部股票上的汇总，按平均夏普比率降序
+     */
+    private List<BacktestComboDTO> paramSummary;
+
+}
@@ -0,0 +1,113 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 单次回测结果 DTO（一只股票 × 一组参数）
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BacktestRunDTO {
+
+    /**
+     * 股票代码
+     */
+    private String symbol;
+
+    /**
+     * 策略参数
+     */
+    private Map<String, Double> params;
+
+    /**
+     * 起始交易日
+     */
+    private LocalDate startDate;
+
+    /**
+     * 结束交易日
+     */
+    private LocalDate endDate;
+
+    /**
+     * K 线数
+     */
+    private int bars;
+
+    /**
+     * 期末权益
+     */
+    private double finalEquity;
+
+    /**
+     * 总收益率
+     */
+    private double totalReturn;
+
+    /**
+     * 年化收益率
+     */
+    private double cagr;
+
+    /**
+     * 年化波动率
+     */
+    private double volatility;
+
+    /**
+     * 夏普比率（无风险利率取 0）
+     */
+    private double sharpe;
+
+    /**
+     * 最大回撤（正数）
+     */
+    private double maxDrawdown;
+
+    /**
+     * 成交次数
+     */
+    private int trades;
+
+    /**
+     * 完整的开仓 - 平仓次数
+     */
+    private int roundTrips;
+
+    /**
+     * 盈利的平仓次数占比，没有平仓时为空
+     */
+    private Double winRate;
+
+    /**
+     * 持仓的 K 线占比
+     */
+    private double exposure;
+
+    /**
+     * 累计手续费
+     */
+    private double fees;
+
+    /**
+     * 权益曲线时间戳（秒，UTC 零点），与 curveEquity 一一对应；未请求时为空
+     */
+    private long[] curveTimestamps;
+
+    /**
+     * 权益曲线（收盘权益）
+     */
+    private double[] curveEquity;
+
+}
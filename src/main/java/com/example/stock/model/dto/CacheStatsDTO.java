@@ -0,0 +1,80 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 缓存统计 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+
+    /**
+     * 缓存名
+     */
+    private String name;
+
+    /**
+     * 本地缓存条目数（估算）
+     */
+    private long localSize;
+
+    /**
+     * 本地缓存（L1）命中次数
+     */
+    private long l1Hits;
+
+    /**
+     * Redis（L2）命中次数
+     */
+    private long l2Hits;
+
+    /**
+     * 未命中次数
+     */
+    private long misses;
+
+    /**
+     * 命中率（0 ~ 1）
+     */
+    private double hitRate;
+
+    /**
+     * 实际加载次数
+     */
+    private long loads;
+
+    /**
+     * 加载失败次数
+     */
+    private long loadFailures;
+
+    /**
+     * 平均加载耗时（毫秒）
+     */
+    private double averageLoadMillis;
+
+    /**
+     * 合并到进行中加载的请求数（防击穿）
+     */
+    private long collapsedRequests;
+
+    /**
+     * Redis 访问失败次数
+     */
+    private long redisErrors;
+
+    /**
+     * 当前是否因 Redis 故障降级为只用本地缓存
+     */
+    private boolean redisDegraded;
+
+}
@@ -0,0 +1,71 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 相关系数 / 协方差矩阵 DTO
+ * 矩阵对称，只返回按行展开的上三角：
+ * correlation 不含对角线（恒为 1），第 i 行第 j 列（i &lt; j）位于 values[i * n - i * (i + 1) / 2 + j - i - 1]；
+ * covariance 含对角线（方差），第 i 行第 j 列（i &lt;= j）位于 values[i * n - i * (i - 1) / 2 + j - i]
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CorrelationMatrixDTO {
+
+    /**
+     * 矩阵类型：correlation / covariance
+     */
+    private String type;
+
+    /**
+     * 行列对应的股票代码（升序）
+     */
+    private List<String> symbols;
+
+    /**
+     * 数据不足 window + 1 根 K 线而被排除的股票
+     */
+    private List<String> excluded;
+
+    /**
+     * 窗口（收益率个数）
+     */
+    private int window;
+
+    /**
+     * 窗口内第一个收益率的交易日
+     */
+    private LocalDate startDate;
+
+    /**
+     * 窗口内最后一个收益率的交易日
+     */
+    private LocalDate endDate;
+
+    /**
+     * 本次计算方式：full（全量计算）/ incremental（滚动更新）/ cached（直接复用）
+     */
+    private String computation;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 上三角元素
+     */
+    private float[] values;
+
+}
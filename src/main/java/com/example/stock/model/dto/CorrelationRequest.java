@@ -0,0 +1,47 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 相关系数 / 协方差矩阵请求
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CorrelationRequest {
+
+    /**
+     * 股票代码列表；为空时取 sector 的全部成员
+     */
+    private List<String> symbols;
+
+    /**
+     * 行业（忽略大小写）
+     */
+    private String sector;
+
+    /**
+     * 窗口：最近多少个共同交易日的日收益率
+     */
+    private Integer window;
+
+    /**
+     * 矩阵类型：correlation（默认）/ covariance
+     */
+    private String type;
+
+    /**
+     * 相关系数保留的小数位数（0 ~ 6）
+     */
+    private Integer precision;
+
+}
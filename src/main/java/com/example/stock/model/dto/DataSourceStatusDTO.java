@@ -0,0 +1,52 @@
+package com.example.stock.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 数据源（主库 / 从库连接池）状态
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "数据源状态")
+public class DataSourceStatusDTO {
+
+    @Schema(description = "连接池名", example = "replica-r1")
+    private String pool;
+
+    @Schema(description = "角色：primary / replica")
+    private String role;
+
+    @Schema(description = "是否接收读请求（主库恒为 true）")
+    private boolean healthy;
+
+    @Schema(description = "最近一次检测到的复制延迟（毫秒），未检测或检测失败时为空")
+    private Long lagMs;
+
+    @Schema(description = "是否已回放到最近一次写入（主库恒为 true）；为 false 时只读事务不路由到该从库")
+    private boolean caughtUp;
+
+    @Schema(description = "最近一次健康检查的错误信息")
+    private String lastError;
+
+    @Schema(description = "活跃连接数")
+    private int activeConnections;
+
+    @Schema(description = "空闲连接数")
+    private int idleConnections;
+
+    @Schema(description = "等待获取连接的线程数")
+    private int pendingThreads;
+
+    @Schema(description = "路由到该数据源的只读事务数（主库为从库不可用时的回退次数）")
+    private long routedReads;
+
+}
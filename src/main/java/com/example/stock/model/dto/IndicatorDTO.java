@@ -0,0 +1,39 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 技术指标序列 DTO
+ * timestamps 与 K 线接口的时间戳一致，每条指标序列与之一一对齐，预热期为 null
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndicatorDTO {
+
+    /**
+     * 股票代码
+     */
+    private String symbol;
+
+    /**
+     * 秒级时间戳
+     */
+    private List<Long> timestamps;
+
+    /**
+     * 指标名称（如 ma(5)）-> 指标值
+     */
+    private Map<String, List<Double>> series;
+
+}
@@ -0,0 +1,40 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量写入结果 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionReportDTO {
+
+    /**
+     * 写入（插入或更新）的行数
+     */
+    private long rows;
+
+    /**
+     * 执行的批次数
+     */
+    private int chunks;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 吞吐量（行/秒）
+     */
+    private double rowsPerSecond;
+
+}
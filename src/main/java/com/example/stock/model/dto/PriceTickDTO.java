@@ -0,0 +1,45 @@
+package com.example.stock.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 实时报价推送数据
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Schema(description = "实时报价")
+public class PriceTickDTO {
+
+    @Schema(description = "股票代码", example = "AAPL")
+    private String symbol;
+
+    @Schema(description = "最新价")
+    private BigDecimal price;
+
+    @Schema(description = "涨跌额（相对昨收）")
+    private BigDecimal change;
+
+    @Schema(description = "涨跌幅（%）")
+    private BigDecimal changePercent;
+
+    @Schema(description = "成交量")
+    private Long volume;
+
+    @Schema(description = "报价时间（epoch 毫秒）")
+    private long timestamp;
+
+    @Schema(description = "该股票的推送序号，单调递增；跳号说明中间的报价被合并")
+    private long sequence;
+
+}
@@ -0,0 +1,63 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 日线 K 线数据 DTO（用于批量写入 / 行情同步）
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuoteBarDTO {
+
+    /**
+     * 股票代码
+     */
+    private String symbol;
+
+    /**
+     * 交易日期
+     */
+    private LocalDate date;
+
+    /**
+     * 开盘价
+     */
+    private BigDecimal open;
+
+    /**
+     * 最高价
+     */
+    private BigDecimal high;
+
+    /**
+     * 最低价
+     */
+    private BigDecimal low;
+
+    /**
+     * 收盘价
+     */
+    private BigDecimal close;
+
+    /**
+     * 成交量
+     */
+    private Long volume;
+
+    /**
+     * 调整后收盘价（复权价）
+     */
+    private BigDecimal adjClose;
+
+}
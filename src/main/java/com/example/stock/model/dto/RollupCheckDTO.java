@@ -0,0 +1,48 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 预聚合 K 线一致性检查结果 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupCheckDTO {
+
+    /**
+     * 股票代码
+     */
+    private String symbol;
+
+    /**
+     * 周期代码
+     */
+    private String period;
+
+    /**
+     * 预聚合桶总数
+     */
+    private long buckets;
+
+    /**
+     * 是否与现场聚合结果一致
+     */
+    private boolean consistent;
+
+    /**
+     * 不一致（含缺失 / 多余）的周期起始日期
+     */
+    private List<LocalDate> mismatchedBuckets;
+
+}
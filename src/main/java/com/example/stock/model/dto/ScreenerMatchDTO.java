@@ -0,0 +1,63 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 选股命中结果 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScreenerMatchDTO {
+
+    /**
+     * 股票代码
+     */
+    private String symbol;
+
+    /**
+     * 股票名称
+     */
+    private String name;
+
+    /**
+     * 所属行业
+     */
+    private String sector;
+
+    /**
+     * 最新 K 线日期
+     */
+    private LocalDate date;
+
+    /**
+     * 最新收盘价
+     */
+    private Double close;
+
+    /**
+     * 涨跌幅（百分比）
+     */
+    private Double changePercent;
+
+    /**
+     * 排序分值，未指定排序表达式时为空
+     */
+    private Double score;
+
+    /**
+     * 条件中引用的指标（如 rsi(14)）-> 最新值
+     */
+    private Map<String, Double> indicators;
+
+}
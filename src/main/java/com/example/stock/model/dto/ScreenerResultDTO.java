@@ -0,0 +1,52 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 选股结果 DTO（分页）
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScreenerResultDTO {
+
+    /**
+     * 扫描的股票数
+     */
+    private int scanned;
+
+    /**
+     * 命中的股票总数
+     */
+    private int total;
+
+    /**
+     * 页码（从 1 开始）
+     */
+    private int page;
+
+    /**
+     * 每页条数
+     */
+    private int size;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 当前页的命中结果
+     */
+    private List<ScreenerMatchDTO> items;
+
+}
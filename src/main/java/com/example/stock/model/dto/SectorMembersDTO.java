@@ -0,0 +1,39 @@
+package com.example.stock.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 行业成员分页结果
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "行业成员分页结果")
+public class SectorMembersDTO {
+
+    @Schema(description = "行业", example = "Technology")
+    private String sector;
+
+    @Schema(description = "成员总数")
+    private int total;
+
+    @Schema(description = "页码（从 1 开始）")
+    private int page;
+
+    @Schema(description = "每页条数")
+    private int size;
+
+    @Schema(description = "本页成员，按代码排序")
+    private List<StockSearchDTO> items;
+
+}
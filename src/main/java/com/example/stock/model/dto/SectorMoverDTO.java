@@ -0,0 +1,39 @@
+package com.example.stock.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 行业涨跌幅榜条目
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "行业涨跌幅榜条目")
+public class SectorMoverDTO {
+
+    @Schema(description = "股票代码", example = "AAPL")
+    private String symbol;
+
+    @Schema(description = "股票名称", example = "Apple Inc.")
+    private String name;
+
+    @Schema(description = "收盘价")
+    private BigDecimal close;
+
+    @Schema(description = "涨跌幅（%）")
+    private BigDecimal changePercent;
+
+    @Schema(description = "成交量")
+    private Long volume;
+
+}
@@ -0,0 +1,65 @@
+package com.example.stock.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 行业统计（最新交易日）
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "行业统计")
+public class SectorStatsDTO {
+
+    @Schema(description = "行业", example = "Technology")
+    private String sector;
+
+    @Schema(description = "统计的交易日（行业内最新交易日）")
+    private LocalDate date;
+
+    @Schema(description = "行业成员数")
+    private int members;
+
+    @Schema(description = "该交易日有涨跌幅数据的成员数")
+    private int reported;
+
+    @Schema(description = "上涨家数")
+    private int advancers;
+
+    @Schema(description = "下跌家数")
+    private int decliners;
+
+    @Schema(description = "平盘家数")
+    private int unchanged;
+
+    @Schema(description = "平均涨跌幅（%）")
+    private BigDecimal averageReturn;
+
+    @Schema(description = "涨跌幅中位数（%）")
+    private BigDecimal medianReturn;
+
+    @Schema(description = "成交量加权涨跌幅（%）")
+    private BigDecimal volumeWeightedReturn;
+
+    @Schema(description = "总成交量")
+    private long totalVolume;
+
+    @Schema(description = "涨幅榜")
+    private List<SectorMoverDTO> topGainers;
+
+    @Schema(description = "跌幅榜")
+    private List<SectorMoverDTO> topLosers;
+
+}
@@ -0,0 +1,78 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 慢请求记录 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlowRequestDTO {
+
+    /**
+     * 请求方法
+     */
+    private String method;
+
+    /**
+     * 请求路径（含查询参数）
+     */
+    private String uri;
+
+    /**
+     * 响应状态码
+     */
+    private int status;
+
+    /**
+     * 请求开始时间
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private double totalMillis;
+
+    /**
+     * 各阶段耗时，按首次出现顺序
+     */
+    private List<Stage> stages;
+
+    /**
+     * 阶段耗时
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stage {
+
+        /**
+         * 阶段名：db、redis、mapping、serialize 等
+         */
+        private String name;
+
+        /**
+         * 累计耗时（毫秒）
+         */
+        private double millis;
+
+        /**
+         * 次数
+         */
+        private int count;
+
+    }
+
+}
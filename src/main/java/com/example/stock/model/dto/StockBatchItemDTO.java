@@ -0,0 +1,45 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量查询中单只股票的结果
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchItemDTO {
+
+    /**
+     * 请求中的股票代码（原样返回）
+     */
+    private String symbol;
+
+    /**
+     * 是否存在
+     */
+    private boolean found;
+
+    /**
+     * 股票详情，不存在时为空
+     */
+    private StockDetailDTO detail;
+
+    /**
+     * 最新报价，未请求或尚无行情时为空
+     */
+    private QuoteBarDTO quote;
+
+    /**
+     * 不存在时的说明
+     */
+    private String error;
+
+}
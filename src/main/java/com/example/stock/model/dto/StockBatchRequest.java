@@ -0,0 +1,32 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量查询请求
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchRequest {
+
+    /**
+     * 股票代码列表（忽略大小写，重复的只查询一次）
+     */
+    private List<String> symbols;
+
+    /**
+     * 是否同时返回最新报价，默认 true
+     */
+    private Boolean includeQuote;
+
+}
@@ -0,0 +1,69 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * 股票详情页概览 DTO
+ * 各部分并发获取，失败或超时的部分为空，并在 errors 中注明原因
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockOverviewDTO {
+
+    /**
+     * 股票代码
+     */
+    private String symbol;
+
+    /**
+     * 基本信息
+     */
+    private StockDetailDTO detail;
+
+    /**
+     * 最新报价
+     */
+    private QuoteBarDTO quote;
+
+    /**
+     * 涨跌幅（百分比）
+     */
+    private BigDecimal changePercent;
+
+    /**
+     * 指标名称（如 ma(20)）-> 最新值
+     */
+    private Map<String, Double> indicators;
+
+    /**
+     * AI 分析面板（可能仍在生成中）
+     */
+    private AnalysisDTO analysis;
+
+    /**
+     * 是否为部分结果
+     */
+    private boolean partial;
+
+    /**
+     * 失败分支 -> 原因
+     */
+    private Map<String, String> errors;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+}
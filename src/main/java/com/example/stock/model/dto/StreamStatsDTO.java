@@ -0,0 +1,52 @@
+package com.example.stock.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 实时行情推送统计
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "实时行情推送统计")
+public class StreamStatsDTO {
+
+    @Schema(description = "上游行情源")
+    private String feed;
+
+    @Schema(description = "正在轮询的股票数（每个股票一个上游轮询）")
+    private int topics;
+
+    @Schema(description = "当前订阅连接数")
+    private int subscribers;
+
+    @Schema(description = "上游报价次数")
+    private long published;
+
+    @Schema(description = "已推送给客户端的消息数")
+    private long sent;
+
+    @Schema(description = "因客户端消费慢而被最新值覆盖的消息数")
+    private long conflated;
+
+    @Schema(description = "尚未推送的待发消息数")
+    private long pending;
+
+    @Schema(description = "上游轮询失败次数")
+    private long pollFailures;
+
+    @Schema(description = "推送失败（连接断开）次数")
+    private long sendFailures;
+
+    @Schema(description = "推送超时被断开的订阅数")
+    private long sendStalls;
+
+}
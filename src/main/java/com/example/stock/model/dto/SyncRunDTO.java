@@ -0,0 +1,62 @@
+package com.example.stock.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一轮行情同步的进度 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncRunDTO {
+
+    /**
+     * 数据源
+     */
+    private String source;
+
+    /**
+     * 是否仍在运行
+     */
+    private boolean running;
+
+    /**
+     * 股票总数
+     */
+    private int total;
+
+    /**
+     * 已完成数（含失败）
+     */
+    private int completed;
+
+    /**
+     * 失败数
+     */
+    private int failed;
+
+    /**
+     * 本轮拉取的 K 线总数
+     */
+    private long fetchedBars;
+
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * 结束时间
+     */
+    private LocalDateTime finishedAt;
+
+}
@@ -0,0 +1,64 @@
+package com.example.stock.model.dto;
+
+import com.example.stock.model.enums.SyncState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 单只股票的行情同步状态 DTO
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class SyncStatusDTO {
+
+    /**
+     * 股票代码
+     */
+    private String symbol;
+
+    /**
+     * 同步状态
+     */
+    private SyncState state;
+
+    /**
+     * 数据库中最新的交易日期（高水位）
+     */
+    private LocalDate highWaterDate;
+
+    /**
+     * 高水位距今天数，从未同步过时为空
+     */
+    private Long lagDays;
+
+    /**
+     * 最近一次同步拉取的 K 线数
+     */
+    private int fetchedBars;
+
+    /**
+     * 最近一次同步耗时（毫秒）
+     */
+    private long durationMillis;
+
+    /**
+     * 最近一次同步时间
+     */
+    private LocalDateTime lastSyncAt;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+}
@@ -0,0 +1,101 @@
+package com.example.stock.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 周线 / 月线预聚合实体类
+ * 由日线聚合：开盘取首日开盘，最高 / 最低取极值，收盘取末日收盘，成交量求和
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Entity
+@Table(name = "candle_rollups",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_rollup_symbol_period_bucket",
+                        columnNames = {"symbol", "period", "bucket_start"})
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CandleRollup {
+
+    /**
+     * 自增主键
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * 股票代码
+     */
+    @Column(name = "symbol", length = 20, nullable = false)
+    private String symbol;
+
+    /**
+     * 周期代码，如 1w / 1mo
+     */
+    @Column(name = "period", length = 8, nullable = false)
+    private String period;
+
+    /**
+     * 周期起始日期（周一 / 月初）
+     */
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    /**
+     * 开盘价
+     */
+    @Column(name = "open", precision = 10, scale = 2, nullable = false)
+    private BigDecimal open;
+
+    /**
+     * 最高价
+     */
+    @Column(name = "high", precision = 10, scale = 2, nullable = false)
+    private BigDecimal high;
+
+    /**
+     * 最低价
+     */
+    @Column(name = "low", precision = 10, scale = 2, nullable = false)
+    private BigDecimal low;
+
+    /**
+     * 收盘价
+     */
+    @Column(name = "close", precision = 10, scale = 2, nullable = false)
+    private BigDecimal close;
+
+    /**
+     * 成交量
+     */
+    @Column(name = "volume", nullable = false)
+    private Long volume;
+
+    /**
+     * 包含的日线条数
+     */
+    @Column(name = "bar_count", nullable = false)
+    private Integer barCount;
+
+    /**
+     * 最后聚合时间
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+}
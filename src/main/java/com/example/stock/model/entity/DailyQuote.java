@@ -23,8 +23,8 @@ import java.time.LocalDateTime;
         uniqueConstraints = {
                 @UniqueConstraint(name = "uk_symbol_date", columnNames = {"symbol", "date"})
         },
+        // 按股票查询由 uk_symbol_date (symbol, date) 的前缀覆盖，无需单独的 symbol 索引
         indexes = {
-                @Index(name = "idx_daily_quote_symbol", columnList = "symbol"),
                 @Index(name = "idx_daily_quote_date", columnList = "date")
         }
 )
@@ -0,0 +1,55 @@
+package com.example.stock.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 初始数据导入记录实体类
+ * 导入开始前写入 STARTED，全部数据提交后改为 COMPLETED；
+ * 启动时据此判断导入是否完成，而不是看表中是否已有数据
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Entity
+@Table(name = "data_seeds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DataSeed {
+
+    /**
+     * 导入名称，如 snapshot
+     */
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    /**
+     * 状态：STARTED / COMPLETED
+     */
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+
+    /**
+     * 最近一次开始导入的时间
+     */
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    /**
+     * 导入完成时间
+     */
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+}
@@ -0,0 +1,49 @@
+package com.example.stock.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 股票行情版本实体类
+ * 每次写入该股票的日线时与行情在同一条语句中递增，作为 ETag 的持久化来源；
+ * 同一股票的并发写入在该行上串行，版本号的提交顺序与大小一致
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Entity
+@Table(name = "quote_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuoteVersion {
+
+    /**
+     * 股票代码
+     */
+    @Id
+    @Column(name = "symbol", length = 20)
+    private String symbol;
+
+    /**
+     * 行情版本号，只增不减
+     */
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * 最后写入时间
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+}
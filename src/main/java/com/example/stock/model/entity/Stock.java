@@ -1,5 +1,6 @@
 package com.example.stock.model.entity;
 
+import com.example.stock.event.StockSavedEvent;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,9 +8,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.DomainEvents;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 股票基础信息实体类
@@ -72,4 +75,12 @@ public class Stock {
     @CreatedDate
     private LocalDateTime createdAt;
 
+    /**
+     * 领域事件：通过 StockRepository 保存时发布，用于增量更新内存索引
+     */
+    @DomainEvents
+    List<StockSavedEvent> domainEvents() {
+        return List.of(new StockSavedEvent(this));
+    }
+
 }
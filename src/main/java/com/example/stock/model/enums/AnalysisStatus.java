@@ -0,0 +1,36 @@
+package com.example.stock.model.enums;
+
+/**
+ * AI 分析任务状态
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public enum AnalysisStatus {
+
+    /**
+     * 排队中
+     */
+    PENDING,
+
+    /**
+     * 生成中
+     */
+    RUNNING,
+
+    /**
+     * 已完成
+     */
+    SUCCESS,
+
+    /**
+     * 失败
+     */
+    FAILED,
+
+    /**
+     * 超时
+     */
+    TIMEOUT
+
+}
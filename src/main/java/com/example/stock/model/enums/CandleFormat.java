@@ -0,0 +1,75 @@
+package com.example.stock.model.enums;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * K 线 / 报价响应格式，由请求的 Accept 头选择
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public enum CandleFormat {
+
+    /**
+     * Result 包装的数组 JSON（默认）
+     */
+    JSON(MediaType.APPLICATION_JSON_VALUE, ""),
+
+    /**
+     * 列式二进制：时间戳差分、定点价格、变长整数成交量，见 {@link com.example.stock.utils.CandleBinaryWriter}
+     */
+    BINARY(CandleFormat.BINARY_MEDIA_TYPE_VALUE, "b");
+
+    public static final String BINARY_MEDIA_TYPE_VALUE = "application/x-candles";
+
+    private final MediaType mediaType;
+
+    /**
+     * 缓存键与 ETag 的后缀，区分同一资源的不同表示
+     */
+    private final String suffix;
+
+    CandleFormat(String mediaType, String suffix) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.suffix = suffix;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * 根据 Accept 头选择格式：显式接受二进制格式且其权重不低于 JSON 时返回 BINARY
+     *
+     * @param accept Accept 头，可为空
+     * @return 响应格式
+     */
+    public static CandleFormat fromAccept(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return JSON;
+        }
+        double binary = 0;
+        double json = 0;
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.equalsTypeAndSubtype(BINARY.mediaType)) {
+                binary = Math.max(binary, mediaType.getQualityValue());
+            } else if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) && !mediaType.isWildcardType()) {
+                json = Math.max(json, mediaType.getQualityValue());
+            }
+        }
+        return binary > 0 && binary >= json ? BINARY : JSON;
+    }
+
+}
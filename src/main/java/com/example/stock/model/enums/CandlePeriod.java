@@ -0,0 +1,72 @@
+package com.example.stock.model.enums;
+
+/**
+ * K 线周期
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public enum CandlePeriod {
+
+    /**
+     * 日线
+     */
+    DAILY("1d", null),
+
+    /**
+     * 周线（自然周，周一开始）
+     */
+    WEEKLY("1w", "week"),
+
+    /**
+     * 月线（自然月）
+     */
+    MONTHLY("1mo", "month");
+
+    private final String code;
+
+    /**
+     * PostgreSQL date_trunc 的时间单位，日线为空
+     */
+    private final String truncUnit;
+
+    CandlePeriod(String code, String truncUnit) {
+        this.code = code;
+        this.truncUnit = truncUnit;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getTruncUnit() {
+        return truncUnit;
+    }
+
+    /**
+     * 是否为由日线聚合而来的周期
+     */
+    public boolean isRollup() {
+        return truncUnit != null;
+    }
+
+    /**
+     * 根据接口参数解析周期
+     *
+     * @param code 周期代码，如 1d / 1w / 1mo
+     * @return K 线周期
+     * @throws IllegalArgumentException 不支持的周期
+     */
+    public static CandlePeriod fromCode(String code) {
+        if (code == null || code.isBlank()) {
+            return DAILY;
+        }
+        for (CandlePeriod period : values()) {
+            if (period.code.equalsIgnoreCase(code.trim())) {
+                return period;
+            }
+        }
+        throw new IllegalArgumentException("不支持的 K 线周期: " + code);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.stock.model.enums;
+
+/**
+ * 行情导出文件格式
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public enum ExportFormat {
+
+    /**
+     * CSV：symbol,date,open,high,low,close,adj_close,volume，价格保留数据库中的原始精度
+     */
+    CSV("csv", "text/csv", "csv"),
+
+    /**
+     * 列式二进制：按股票分块，每块为一帧 application/x-candles，见 {@link com.example.stock.utils.QuoteExportColumnarWriter}
+     */
+    COLUMNAR("columnar", ExportFormat.COLUMNAR_MEDIA_TYPE_VALUE, "qx");
+
+    public static final String COLUMNAR_MEDIA_TYPE_VALUE = "application/x-quote-export";
+
+    private final String code;
+
+    private final String contentType;
+
+    private final String extension;
+
+    ExportFormat(String code, String contentType, String extension) {
+        this.code = code;
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 根据格式代码获取格式
+     *
+     * @param code 格式代码（csv / columnar），为空时返回 CSV
+     * @return 导出格式
+     * @throws IllegalArgumentException 不支持的格式
+     */
+    public static ExportFormat fromCode(String code) {
+        if (code == null || code.isBlank()) {
+            return CSV;
+        }
+        for (ExportFormat format : values()) {
+            if (format.code.equalsIgnoreCase(code.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("不支持的导出格式: " + code + "，可选值: csv / columnar");
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.example.stock.model.enums;
+
+import java.time.LocalDate;
+
+/**
+ * daily_quotes 分区粒度
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public enum PartitionInterval {
+
+    /**
+     * 按自然年分区，分区名如 daily_quotes_y2024
+     */
+    YEAR,
+
+    /**
+     * 按自然月分区，分区名如 daily_quotes_m202401
+     */
+    MONTH;
+
+    /**
+     * 日期所在分区的起始日
+     */
+    public LocalDate floor(LocalDate date) {
+        return this == YEAR ? date.withDayOfYear(1) : date.withDayOfMonth(1);
+    }
+
+    /**
+     * 下一个分区的起始日
+     *
+     * @param start 分区起始日
+     */
+    public LocalDate next(LocalDate start) {
+        return this == YEAR ? start.plusYears(1) : start.plusMonths(1);
+    }
+
+    /**
+     * 分区表名后缀
+     *
+     * @param start 分区起始日
+     */
+    public String suffix(LocalDate start) {
+        return this == YEAR
+                ? "y" + start.getYear()
+                : "m" + start.getYear() + (start.getMonthValue() < 10 ? "0" : "") + start.getMonthValue();
+    }
+
+}
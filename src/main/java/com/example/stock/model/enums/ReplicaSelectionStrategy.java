@@ -0,0 +1,21 @@
+package com.example.stock.model.enums;
+
+/**
+ * 只读事务在多个从库之间的选择策略
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public enum ReplicaSelectionStrategy {
+
+    /**
+     * 在健康从库之间轮询
+     */
+    ROUND_ROBIN,
+
+    /**
+     * 选择活跃连接最少（含等待获取连接的线程）的健康从库
+     */
+    LEAST_CONNECTIONS
+
+}
@@ -0,0 +1,31 @@
+package com.example.stock.model.enums;
+
+/**
+ * 行情同步状态
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public enum SyncState {
+
+    /**
+     * 等待同步
+     */
+    PENDING,
+
+    /**
+     * 同步中
+     */
+    RUNNING,
+
+    /**
+     * 同步成功
+     */
+    SUCCESS,
+
+    /**
+     * 同步失败
+     */
+    FAILED
+
+}
@@ -22,6 +22,7 @@ public class Result<T> {
      * 响应码
      * 200: 成功
      * 400: 参数错误
+     * 429: 请求过多
      * 500: 系统错误
      * 1001: 股票不存在
      * 2001: 外部数据源异常
@@ -81,6 +82,13 @@ public class Result<T> {
         return new Result<>(400, msg, null);
     }
 
+    /**
+     * 请求过多（并发已满）
+     */
+    public static <T> Result<T> tooManyRequests(String msg) {
+        return new Result<>(429, msg, null);
+    }
+
     /**
      * 系统错误
      */
@@ -95,4 +103,18 @@ public class Result<T> {
         return new Result<>(1001, "股票不存在: " + symbol, null);
     }
 
+    /**
+     * 行业不存在
+     */
+    public static <T> Result<T> sectorNotFound(String sector) {
+        return new Result<>(1002, "行业不存在: " + sector, null);
+    }
+
+    /**
+     * AI 服务超时（可附带旧数据）
+     */
+    public static <T> Result<T> aiTimeout(T data) {
+        return new Result<>(3001, "AI 服务超时", data);
+    }
+
 }
@@ -8,11 +8,15 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * 日线行情数据访问接口
+ * "最新一条"类查询写成 ORDER BY date DESC LIMIT 1：daily_quotes 按日期范围分区且没有默认分区时，
+ * PostgreSQL 以有序 Append 按分区逆序扫描各分区的 (symbol, date) 索引，在最新的命中分区取到一行后停止；
+ * 存在默认分区时分区之间不再有序，退化为 MergeAppend，须在每个分区上各取一行，因此分区表不建默认分区
  *
  * @author Toom
  * @version 1.0
@@ -63,7 +67,8 @@ public interface DailyQuoteRepository extends JpaRepository<DailyQuote, Long> {
      * @param symbol 股票代码
      * @return 最新交易日期
      */
-    @Query("SELECT MAX(dq.date) FROM DailyQuote dq WHERE dq.symbol = :symbol")
+    @Query(value = "SELECT date FROM daily_quotes WHERE symbol = :symbol ORDER BY date DESC LIMIT 1",
+            nativeQuery = true)
     Optional<LocalDate> findLatestDateBySymbol(@Param("symbol") String symbol);
 
     /**
@@ -72,10 +77,22 @@ public interface DailyQuoteRepository extends JpaRepository<DailyQuote, Long> {
      * @param symbol 股票代码
      * @return 最新行情数据
      */
-    @Query("SELECT dq FROM DailyQuote dq WHERE dq.symbol = :symbol " +
-            "AND dq.date = (SELECT MAX(dq2.date) FROM DailyQuote dq2 WHERE dq2.symbol = :symbol)")
+    @Query(value = "SELECT * FROM daily_quotes WHERE symbol = :symbol ORDER BY date DESC LIMIT 1",
+            nativeQuery = true)
     Optional<DailyQuote> findLatestBySymbol(@Param("symbol") String symbol);
 
+    /**
+     * 批量查询多只股票各自的最新一条行情数据
+     *
+     * @param symbols 股票代码集合
+     * @return 每只有行情的股票一条
+     */
+    @Query(value = "SELECT q.* FROM daily_quotes q WHERE (q.symbol, q.date) IN (" +
+            "SELECT s.symbol, (SELECT d.date FROM daily_quotes d WHERE d.symbol = s.symbol ORDER BY d.date DESC LIMIT 1) " +
+            "FROM stocks s WHERE s.symbol IN (:symbols))",
+            nativeQuery = true)
+    List<DailyQuote> findLatestBySymbols(@Param("symbols") Collection<String> symbols);
+
     /**
      * 批量删除指定股票的行情数据
      *
@@ -0,0 +1,16 @@
+package com.example.stock.repository;
+
+import com.example.stock.model.entity.QuoteVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 股票行情版本数据访问接口
+ * 版本号只由写入行情的 SQL 递增，这里只读
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Repository
+public interface QuoteVersionRepository extends JpaRepository<QuoteVersion, String> {
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,14 @@ public interface StockRepository extends JpaRepository<Stock, String> {
      */
     Optional<Stock> findBySymbolIgnoreCase(String symbol);
 
+    /**
+     * 按代码集合批量查询（精确匹配，走主键索引）
+     *
+     * @param symbols 股票代码集合
+     * @return 股票列表
+     */
+    List<Stock> findBySymbolIn(Collection<String> symbols);
+
     /**
      * 根据股票名称模糊查询（忽略大小写）
      * 用于搜索功能
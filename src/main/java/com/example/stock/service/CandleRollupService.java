@@ -0,0 +1,260 @@
+package com.example.stock.service;
+
+import com.example.stock.event.QuotesIngestedEvent;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.RollupCheckDTO;
+import com.example.stock.model.enums.CandlePeriod;
+import com.example.stock.service.snapshot.SnapshotLoader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 周线 / 月线预聚合服务
+ * 日线写入后只重算受影响的周期桶（日常增量即当前未走完的一周 / 一月），
+ * K 线接口直接读取 candle_rollups，不再每次从日线现算。
+ * 启动补建完成后在 data_seeds 中记录完成标记，之后的启动跳过补建；
+ * 其他数据导入（如快照）在补建开始后完成或未完成时标记失效。绕过写入事件直接改表的数据需调用 {@link #rebuild}
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CandleRollupService {
+
+    /**
+     * 聚合查询模板，%1$s 为 date_trunc 时间单位
+     */
+    private static final String AGGREGATE_SELECT = """
+            SELECT symbol,
+                   date_trunc('%1$s', date::timestamp)::date   AS bucket,
+                   (array_agg(open ORDER BY date))[1]         AS open,
+                   MAX(high)                                  AS high,
+                   MIN(low)                                   AS low,
+                   (array_agg(close ORDER BY date DESC))[1]   AS close,
+                   SUM(volume)::bigint                        AS volume,
+                   COUNT(*)::int                              AS bar_count
+            FROM daily_quotes
+            WHERE symbol = ? AND date >= ? AND date < ?
+            GROUP BY symbol, date_trunc('%1$s', date::timestamp)
+            """;
+
+    private static final String UPSERT_TEMPLATE = """
+            INSERT INTO candle_rollups (symbol, period, bucket_start, open, high, low, close, volume, bar_count, updated_at)
+            SELECT a.symbol, ?, a.bucket, a.open, a.high, a.low, a.close, a.volume, a.bar_count, now()
+            FROM (%s) a
+            ON CONFLICT (symbol, period, bucket_start) DO UPDATE SET
+                open = EXCLUDED.open, high = EXCLUDED.high, low = EXCLUDED.low, close = EXCLUDED.close,
+                volume = EXCLUDED.volume, bar_count = EXCLUDED.bar_count, updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String CHECK_TEMPLATE = """
+            SELECT COALESCE(a.bucket, r.bucket_start) AS bucket
+            FROM (%s) a
+            FULL OUTER JOIN (
+                SELECT * FROM candle_rollups WHERE symbol = ? AND period = ?
+            ) r ON r.bucket_start = a.bucket
+            WHERE a.bucket IS NULL OR r.bucket_start IS NULL
+               OR a.open <> r.open OR a.high <> r.high OR a.low <> r.low OR a.close <> r.close
+               OR a.volume <> r.volume OR a.bar_count <> r.bar_count
+            ORDER BY 1
+            """;
+
+    /**
+     * 从股票表出发逐只按索引探测，不扫描日线全表
+     */
+    private static final String MISSING_SYMBOLS_SQL = """
+            SELECT s.symbol FROM stocks s
+            WHERE NOT EXISTS (SELECT 1 FROM candle_rollups r WHERE r.symbol = s.symbol)
+              AND EXISTS (SELECT 1 FROM daily_quotes q WHERE q.symbol = s.symbol)
+            ORDER BY s.symbol
+            """;
+
+    static final String BACKFILL_SEED = "candle_rollups";
+
+    /**
+     * 补建标记有效：已完成，且没有在补建开始后完成或尚未完成的其他数据导入
+     */
+    static final String BACKFILL_DONE_SQL = """
+            SELECT COUNT(*) FROM data_seeds r
+            WHERE r.name = ? AND r.status = ?
+              AND NOT EXISTS (SELECT 1 FROM data_seeds s WHERE s.name <> r.name
+                              AND (s.status <> ? OR s.completed_at > r.started_at))
+            """;
+
+    static final String BACKFILL_COMPLETED_SQL = """
+            INSERT INTO data_seeds (name, status, started_at, completed_at) VALUES (?, ?, ?, ?)
+            ON CONFLICT (name) DO UPDATE SET status = EXCLUDED.status,
+                started_at = EXCLUDED.started_at, completed_at = EXCLUDED.completed_at
+            """;
+
+    private static final LocalDate MIN_DATE = LocalDate.of(1900, 1, 1);
+
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 1, 1);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<CandlePeriod, String> upsertSql = buildSql(UPSERT_TEMPLATE);
+
+    private final Map<CandlePeriod, String> checkSql = buildSql(CHECK_TEMPLATE);
+
+    /**
+     * 日线写入后增量更新受影响的周期桶
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuotesIngested(QuotesIngestedEvent event) {
+        // bars 已按 (symbol, date) 排序，每只股票取首尾日期即可
+        Map<String, LocalDate[]> ranges = new LinkedHashMap<>();
+        for (QuoteBarDTO bar : event.getBars()) {
+            LocalDate[] range = ranges.computeIfAbsent(bar.getSymbol(),
+                    s -> new LocalDate[]{bar.getDate(), bar.getDate()});
+            range[1] = bar.getDate();
+        }
+        ranges.forEach((symbol, range) -> refresh(symbol, range[0], range[1]));
+    }
+
+    /**
+     * 重算包含 [from, to] 区间的全部周期桶
+     *
+     * @param symbol 股票代码
+     * @param from   起始日期
+     * @param to     结束日期
+     */
+    public void refresh(String symbol, LocalDate from, LocalDate to) {
+        for (CandlePeriod period : CandlePeriod.values()) {
+            if (!period.isRollup()) {
+                continue;
+            }
+            LocalDate start = bucketStart(period, from);
+            LocalDate end = nextBucketStart(period, to);
+            int rows = jdbcTemplate.update(upsertSql.get(period),
+                    period.getCode(), symbol, Date.valueOf(start), Date.valueOf(end));
+            log.debug("更新预聚合 K 线: {} {} [{}, {})，桶数: {}", symbol, period.getCode(), start, end, rows);
+        }
+    }
+
+    /**
+     * 全量重建某只股票的预聚合数据；删除与重算在同一事务中，
+     * 其他连接在提交前仍读到旧数据，中途失败时回滚，不会留下空的预聚合
+     *
+     * @param symbol 股票代码
+     */
+    public void rebuild(String symbol) {
+        log.info("全量重建预聚合 K 线: {}", symbol);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM candle_rollups WHERE symbol = ?", symbol);
+            refresh(symbol, MIN_DATE, MAX_DATE.minusDays(1));
+        });
+    }
+
+    /**
+     * 启动后为尚无预聚合数据的股票补建；补建标记有效时跳过，全部成功后写入标记
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissing() {
+        Long done = jdbcTemplate.queryForObject(BACKFILL_DONE_SQL, Long.class, BACKFILL_SEED,
+                SnapshotLoader.SeedStatus.COMPLETED.name(), SnapshotLoader.SeedStatus.COMPLETED.name());
+        if (done != null && done > 0) {
+            log.debug("预聚合 K 线补建标记有效，跳过补建");
+            return;
+        }
+        Timestamp started = Timestamp.valueOf(LocalDateTime.now());
+        List<String> symbols = jdbcTemplate.queryForList(MISSING_SYMBOLS_SQL, String.class);
+        if (!symbols.isEmpty()) {
+            log.info("补建预聚合 K 线，股票数: {}", symbols.size());
+        }
+        int failed = 0;
+        for (String symbol : symbols) {
+            try {
+                rebuild(symbol);
+            } catch (Exception e) {
+                failed++;
+                log.warn("补建预聚合 K 线失败: {} - {}", symbol, e.getMessage());
+            }
+        }
+        if (failed > 0) {
+            log.warn("预聚合 K 线补建有 {} 只股票失败，下次启动重试", failed);
+            return;
+        }
+        jdbcTemplate.update(BACKFILL_COMPLETED_SQL, BACKFILL_SEED, SnapshotLoader.SeedStatus.COMPLETED.name(),
+                started, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * 一致性检查：比较预聚合结果与现场从日线聚合的结果
+     *
+     * @param symbol 股票代码
+     * @param period 周期
+     * @return 检查结果
+     */
+    public RollupCheckDTO check(String symbol, CandlePeriod period) {
+        if (!period.isRollup()) {
+            throw new IllegalArgumentException("日线没有预聚合数据: " + period.getCode());
+        }
+        List<LocalDate> mismatched = jdbcTemplate.query(checkSql.get(period),
+                (rs, rowNum) -> rs.getObject(1, LocalDate.class),
+                symbol, Date.valueOf(MIN_DATE), Date.valueOf(MAX_DATE), symbol, period.getCode());
+        Long buckets = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM candle_rollups WHERE symbol = ? AND period = ?",
+                Long.class, symbol, period.getCode());
+
+        if (!mismatched.isEmpty()) {
+            log.warn("预聚合 K 线不一致: {} {}，不一致桶数: {}", symbol, period.getCode(), mismatched.size());
+        }
+        return RollupCheckDTO.builder()
+                .symbol(symbol)
+                .period(period.getCode())
+                .buckets(buckets == null ? 0 : buckets)
+                .consistent(mismatched.isEmpty())
+                .mismatchedBuckets(mismatched)
+                .build();
+    }
+
+    private static LocalDate bucketStart(CandlePeriod period, LocalDate date) {
+        return period == CandlePeriod.WEEKLY
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date.withDayOfMonth(1);
+    }
+
+    private static LocalDate nextBucketStart(CandlePeriod period, LocalDate date) {
+        return period == CandlePeriod.WEEKLY
+                ? bucketStart(period, date).plusWeeks(1)
+                : bucketStart(period, date).plusMonths(1);
+    }
+
+    private static Map<CandlePeriod, String> buildSql(String template) {
+        Map<CandlePeriod, String> sql = new EnumMap<>(CandlePeriod.class);
+        for (CandlePeriod period : CandlePeriod.values()) {
+            if (period.isRollup()) {
+                sql.put(period, String.format(template, String.format(AGGREGATE_SELECT, period.getTruncUnit())));
+            }
+        }
+        return sql;
+    }
+
+}
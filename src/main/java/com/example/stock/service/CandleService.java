@@ -0,0 +1,269 @@
+package com.example.stock.service;
+
+import com.example.stock.config.CandleProperties;
+import com.example.stock.metrics.RequestTrace;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.enums.CandleFormat;
+import com.example.stock.model.enums.CandlePeriod;
+import com.example.stock.service.cache.CacheNames;
+import com.example.stock.service.cache.DataVersionService;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.example.stock.service.timeseries.QuoteSlice;
+import com.example.stock.utils.CandleBinaryWriter;
+import com.example.stock.utils.CandleJsonWriter;
+import com.example.stock.utils.CandleWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.util.Optional;
+
+/**
+ * K 线数据服务
+ * 日线优先读取内存列式序列，其余情况通过 JDBC 游标逐行读取，
+ * 直接写出 [ts, o, h, l, c, v] 数组（或列式二进制），不创建 DailyQuote 实体，也不经过 DTO 二次映射
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CandleService {
+
+    /**
+     * 日线：取最近 limit 条后按时间升序输出；价格转为两位定点整数，时间戳为 UTC 零点秒数
+     */
+    private static final String DAILY_SQL = """
+            SELECT ts, o, h, l, c, v FROM (
+                SELECT (date - DATE '1970-01-01')::bigint * 86400 AS ts,
+                       ROUND(open * 100)::bigint  AS o,
+                       ROUND(high * 100)::bigint  AS h,
+                       ROUND(low * 100)::bigint   AS l,
+                       ROUND(close * 100)::bigint AS c,
+                       volume                     AS v
+                FROM daily_quotes
+                WHERE symbol = ?
+                ORDER BY date DESC
+                LIMIT ?
+            ) t
+            ORDER BY ts
+            """;
+
+    /**
+     * 周线 / 月线：读取预聚合表 candle_rollups
+     */
+    private static final String ROLLUP_SQL = """
+            SELECT ts, o, h, l, c, v FROM (
+                SELECT (bucket_start - DATE '1970-01-01')::bigint * 86400 AS ts,
+                       ROUND(open * 100)::bigint  AS o,
+                       ROUND(high * 100)::bigint  AS h,
+                       ROUND(low * 100)::bigint   AS l,
+                       ROUND(close * 100)::bigint AS c,
+                       volume                     AS v
+                FROM candle_rollups
+                WHERE symbol = ? AND period = ?
+                ORDER BY bucket_start DESC
+                LIMIT ?
+            ) t
+            ORDER BY ts
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CandleProperties candleProperties;
+
+    private final QuoteSeriesStore quoteSeriesStore;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final CacheManager cacheManager;
+
+    private final DataVersionService dataVersionService;
+
+    /**
+     * 校验并规范化返回条数
+     *
+     * @param limit 请求的条数，可为空
+     * @return 实际条数
+     * @throws IllegalArgumentException 条数不合法
+     */
+    public int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return candleProperties.getDefaultLimit();
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit 必须大于 0");
+        }
+        return Math.min(limit, candleProperties.getMaxLimit());
+    }
+
+    /**
+     * 将 K 线数据以统一响应包装的 JSON 格式写入输出流
+     *
+     * @param symbol 股票代码（已规范化）
+     * @param period K 线周期
+     * @param limit  返回条数
+     * @param out    输出流
+     * @return 写出的 K 线条数，命中缓存时为 -1
+     */
+    public int writeCandles(String symbol, CandlePeriod period, int limit, OutputStream out) throws IOException {
+        return writeCandles(symbol, period, limit, CandleFormat.JSON, out);
+    }
+
+    /**
+     * K 线响应的版本（ETag / Last-Modified）
+     * 日线由内存列式序列输出时，版本不超过序列已包含的版本：序列尚未追上最新写入时发出旧版本，
+     * 客户端不会把旧数据保存在新版本号下
+     *
+     * @param symbol 股票代码（已规范化）
+     * @param period K 线周期
+     * @return 版本，无行情数据时为空
+     */
+    public Optional<DataVersionService.Version> version(String symbol, CandlePeriod period) {
+        if (period == CandlePeriod.DAILY && quoteSeriesStore.isEnabled()) {
+            return dataVersionService.quotes(symbol, quoteSeriesStore.getOrLoad(symbol).dataVersion());
+        }
+        return dataVersionService.quotes(symbol);
+    }
+
+    /**
+     * 将 K 线数据按指定格式写入输出流
+     * 默认条数的请求（图表首屏）整体缓存响应体，键为 market:candles:{symbol}:{period}[:b]@{version}：
+     * 带上响应体对应的版本，其他实例的本地缓存里留下的旧响应体不会在新版本号下返回
+     *
+     * @param symbol 股票代码（已规范化）
+     * @param period K 线周期
+     * @param limit  返回条数
+     * @param format 响应格式
+     * @param out    输出流
+     * @return 写出的 K 线条数，命中缓存时为 -1
+     */
+    public int writeCandles(String symbol, CandlePeriod period, int limit, CandleFormat format,
+                            OutputStream out) throws IOException {
+        if (limit != candleProperties.getDefaultLimit()) {
+            return streamCandles(symbol, period, limit, format, out);
+        }
+        Optional<DataVersionService.Version> version = version(symbol, period);
+        if (version.isEmpty()) {
+            return streamCandles(symbol, period, limit, format, out);
+        }
+        Cache cache = cacheManager.getCache(CacheNames.CANDLES);
+        byte[] body = cache.get(cacheKey(symbol, period, format) + '@' + version.get().etag(), () -> {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(limit * 48 + 64);
+            streamCandles(symbol, period, limit, format, buffer);
+            return buffer.toByteArray();
+        });
+        out.write(body);
+        return -1;
+    }
+
+    /**
+     * 以二进制格式写出单根 K 线（最新报价）
+     *
+     * @param bar 报价
+     * @param out 输出流
+     */
+    public void writeBinaryQuote(QuoteBarDTO bar, OutputStream out) throws IOException {
+        CandleBinaryWriter writer = new CandleBinaryWriter(out, 1);
+        writer.writeCandle(bar.getDate().toEpochDay() * 86400L, toCents(bar.getOpen()), toCents(bar.getHigh()),
+                toCents(bar.getLow()), toCents(bar.getClose()), bar.getVolume() == null ? 0 : bar.getVolume());
+        writer.endEnvelope();
+    }
+
+    /**
+     * K 线响应缓存键前缀（不含版本）
+     */
+    public static String cacheKey(String symbol, CandlePeriod period, CandleFormat format) {
+        String key = symbol + ':' + period.getCode();
+        return format.getSuffix().isEmpty() ? key : key + ':' + format.getSuffix();
+    }
+
+    /**
+     * 读取 K 线并直接写出；数据库游标需要在只读事务中使用
+     */
+    private int streamCandles(String symbol, CandlePeriod period, int limit, CandleFormat format,
+                              OutputStream out) throws IOException {
+        log.info("查询 K 线数据，代码: {}，周期: {}，条数: {}，格式: {}", symbol, period.getCode(), limit, format);
+
+        CandleWriter writer = format == CandleFormat.BINARY
+                ? new CandleBinaryWriter(out, limit)
+                : new CandleJsonWriter(out);
+        writer.beginEnvelope();
+
+        if (period == CandlePeriod.DAILY && quoteSeriesStore.isEnabled()) {
+            QuoteSlice slice = quoteSeriesStore.getOrLoad(symbol).tail(limit);
+            for (int i = 0; i < slice.size(); i++) {
+                writer.writeCandle(slice.day(i) * 86400L, toCents(slice.open(i)), toCents(slice.high(i)),
+                        toCents(slice.low(i)), toCents(slice.close(i)), slice.volume(i));
+            }
+            writer.endEnvelope();
+            log.info("K 线数据写出完成（列式序列），代码: {}，条数: {}", symbol, slice.size());
+            return slice.size();
+        }
+
+        boolean rollup = period.isRollup();
+        int[] count = new int[1];
+        // 游标读取与写出交替进行，db 阶段扣除写出响应的耗时
+        long[] writeNanos = new long[1];
+        long start = System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(rollup ? ROLLUP_SQL : DAILY_SQL);
+                ps.setFetchSize(candleProperties.getFetchSize());
+                int i = 1;
+                ps.setString(i++, symbol);
+                if (rollup) {
+                    ps.setString(i++, period.getCode());
+                }
+                ps.setInt(i, limit);
+                return ps;
+            }, rs -> {
+                long timestamp = rs.getLong(1);
+                long open = rs.getLong(2);
+                long high = rs.getLong(3);
+                long low = rs.getLong(4);
+                long close = rs.getLong(5);
+                long volume = rs.getLong(6);
+                long writeStart = System.nanoTime();
+                try {
+                    writer.writeCandle(timestamp, open, high, low, close, volume);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                writeNanos[0] += System.nanoTime() - writeStart;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        RequestTrace.record(RequestTrace.DB, start + writeNanos[0]);
+        writer.endEnvelope();
+
+        log.info("K 线数据写出完成，代码: {}，条数: {}", symbol, count[0]);
+        return count[0];
+    }
+
+    private static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price == null ? 0 : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+}
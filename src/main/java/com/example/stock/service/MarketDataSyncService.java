@@ -0,0 +1,285 @@
+package com.example.stock.service;
+
+import com.example.stock.config.SyncProperties;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.SyncRunDTO;
+import com.example.stock.model.dto.SyncStatusDTO;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.model.enums.SyncState;
+import com.example.stock.repository.DailyQuoteRepository;
+import com.example.stock.repository.StockRepository;
+import com.example.stock.service.market.MarketDataClient;
+import com.example.stock.utils.RateLimiter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 行情增量同步服务
+ * 对 stocks 表中的每只股票读取 daily_quotes 高水位日期，只向数据源请求之后的新 K 线并批量写入；
+ * 多只股票并发同步，并发数与数据源请求速率均可配置
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class MarketDataSyncService {
+
+    private final StockRepository stockRepository;
+
+    private final DailyQuoteRepository dailyQuoteRepository;
+
+    private final QuoteIngestionService quoteIngestionService;
+
+    private final MarketDataClient marketDataClient;
+
+    private final SyncProperties syncProperties;
+
+    private final RateLimiter rateLimiter;
+
+    private final Map<String, SyncStatusDTO> statuses = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final ExecutorService syncRunner;
+
+    private volatile RunProgress currentRun;
+
+    public MarketDataSyncService(StockRepository stockRepository,
+                                 DailyQuoteRepository dailyQuoteRepository,
+                                 QuoteIngestionService quoteIngestionService,
+                                 MarketDataClient marketDataClient,
+                                 SyncProperties syncProperties) {
+        this.stockRepository = stockRepository;
+        this.dailyQuoteRepository = dailyQuoteRepository;
+        this.quoteIngestionService = quoteIngestionService;
+        this.marketDataClient = marketDataClient;
+        this.syncProperties = syncProperties;
+        this.rateLimiter = new RateLimiter(syncProperties.getRateLimitPerSecond());
+        // 阻塞的整轮同步不占用公共 ForkJoinPool
+        this.syncRunner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("market-sync-run-"));
+    }
+
+    /**
+     * 定时同步入口
+     */
+    @Scheduled(cron = "${app.sync.cron:0 30 18 * * MON-FRI}")
+    public void scheduledSync() {
+        if (!syncProperties.isEnabled()) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.warn("上一轮行情同步尚未结束，跳过本次定时同步");
+            return;
+        }
+        runAll();
+    }
+
+    /**
+     * 在后台启动一轮全量股票的增量同步
+     *
+     * @return 是否成功启动（已有同步在运行时返回 false）
+     */
+    public boolean startAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            syncRunner.execute(this::runAll);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * 同步全部股票（阻塞直到完成）
+     *
+     * @return 本轮同步结果
+     * @throws IllegalStateException 已有同步在运行
+     */
+    public SyncRunDTO syncAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("行情同步正在运行");
+        }
+        return runAll();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncRunner.shutdownNow();
+    }
+
+    /**
+     * 执行一轮同步；调用方已将 running 置为 true，结束时复位
+     */
+    private SyncRunDTO runAll() {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, syncProperties.getParallelism()),
+                new CustomizableThreadFactory("market-sync-"));
+        try {
+            List<String> symbols = stockRepository.findAll().stream()
+                    .map(Stock::getSymbol)
+                    .toList();
+            RunProgress run = new RunProgress(symbols.size());
+            currentRun = run;
+            log.info("开始行情增量同步，数据源: {}，股票数: {}，并发: {}，限速: {}/s",
+                    marketDataClient.getSource(), symbols.size(),
+                    syncProperties.getParallelism(), rateLimiter.getPermitsPerSecond());
+
+            symbols.forEach(symbol -> statuses.compute(symbol, (key, old) -> (old == null
+                    ? SyncStatusDTO.builder().symbol(key)
+                    : old.toBuilder()).state(SyncState.PENDING).build()));
+
+            CompletableFuture<?>[] futures = symbols.stream()
+                    .map(symbol -> CompletableFuture.runAsync(() -> {
+                        SyncStatusDTO status = syncSymbol(symbol);
+                        run.completed.incrementAndGet();
+                        run.fetchedBars.addAndGet(status.getFetchedBars());
+                        if (status.getState() == SyncState.FAILED) {
+                            run.failed.incrementAndGet();
+                        }
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).join();
+
+            run.finishedAt = LocalDateTime.now();
+            log.info("行情增量同步完成，股票数: {}，失败: {}，新增 K 线: {}，耗时: {} s",
+                    run.total, run.failed.get(), run.fetchedBars.get(),
+                    ChronoUnit.SECONDS.between(run.startedAt, run.finishedAt));
+            return run.toDTO(marketDataClient.getSource(), false);
+        } catch (RuntimeException e) {
+            log.error("行情同步失败: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            executor.shutdown();
+            running.set(false);
+        }
+    }
+
+    /**
+     * 同步单只股票：只拉取高水位之后的 K 线
+     *
+     * @param symbol 股票代码
+     * @return 同步后的状态
+     */
+    public SyncStatusDTO syncSymbol(String symbol) {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        statuses.compute(symbol, (key, old) -> (old == null
+                ? SyncStatusDTO.builder().symbol(key)
+                : old.toBuilder()).state(SyncState.RUNNING).build());
+
+        SyncStatusDTO.SyncStatusDTOBuilder result = SyncStatusDTO.builder().symbol(symbol);
+        Optional<LocalDate> highWater = Optional.empty();
+        try {
+            highWater = dailyQuoteRepository.findLatestDateBySymbol(symbol);
+            LocalDate from = highWater.map(date -> date.plusDays(1))
+                    .orElse(today.minusDays(syncProperties.getInitialHistoryDays()));
+
+            List<QuoteBarDTO> bars = List.of();
+            if (!from.isAfter(today)) {
+                rateLimiter.acquire();
+                bars = marketDataClient.fetchDailyBars(symbol, from, today);
+                if (!bars.isEmpty()) {
+                    quoteIngestionService.ingest(bars);
+                    highWater = Optional.of(bars.get(bars.size() - 1).getDate());
+                }
+            }
+            result.state(SyncState.SUCCESS).fetchedBars(bars.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("同步行情被中断: {}", symbol);
+            result.state(SyncState.FAILED).lastError("同步被中断");
+        } catch (Exception e) {
+            log.warn("同步行情失败: {} - {}", symbol, e.getMessage());
+            result.state(SyncState.FAILED).lastError(e.getMessage());
+        }
+
+        SyncStatusDTO status = result
+                .highWaterDate(highWater.orElse(null))
+                .lagDays(highWater.map(date -> ChronoUnit.DAYS.between(date, today)).orElse(null))
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .lastSyncAt(LocalDateTime.now())
+                .build();
+        statuses.put(symbol, status);
+        return status;
+    }
+
+    /**
+     * 所有股票的同步状态，按滞后天数降序
+     */
+    public List<SyncStatusDTO> getStatuses() {
+        List<SyncStatusDTO> list = new ArrayList<>(statuses.values());
+        list.sort(Comparator.comparing(SyncStatusDTO::getLagDays,
+                Comparator.nullsFirst(Comparator.reverseOrder())));
+        return list;
+    }
+
+    /**
+     * 单只股票的同步状态
+     */
+    public Optional<SyncStatusDTO> getStatus(String symbol) {
+        return Optional.ofNullable(statuses.get(symbol));
+    }
+
+    /**
+     * 当前（或最近一轮）同步进度
+     */
+    public Optional<SyncRunDTO> getCurrentRun() {
+        RunProgress run = currentRun;
+        return run == null ? Optional.empty() : Optional.of(run.toDTO(marketDataClient.getSource(), running.get()));
+    }
+
+    /**
+     * 一轮同步的进度计数
+     */
+    private static final class RunProgress {
+
+        private final int total;
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong fetchedBars = new AtomicLong();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime finishedAt;
+
+        private RunProgress(int total) {
+            this.total = total;
+        }
+
+        private SyncRunDTO toDTO(String source, boolean running) {
+            return SyncRunDTO.builder()
+                    .source(source)
+                    .running(running && finishedAt == null)
+                    .total(total)
+                    .completed(completed.get())
+                    .failed(failed.get())
+                    .fetchedBars(fetchedBars.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.example.stock.service;
+
+import com.example.stock.config.OverviewProperties;
+import com.example.stock.model.dto.AnalysisDTO;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.StockDetailDTO;
+import com.example.stock.model.dto.StockOverviewDTO;
+import com.example.stock.model.entity.DailyQuote;
+import com.example.stock.repository.DailyQuoteRepository;
+import com.example.stock.service.ai.AnalysisService;
+import com.example.stock.service.indicator.IndicatorService;
+import com.example.stock.service.indicator.IndicatorSpec;
+import com.example.stock.service.indicator.IndicatorType;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.example.stock.utils.VirtualThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 股票详情页概览服务
+ * 基本信息、最新报价与涨跌幅、技术指标、AI 分析面板四个分支并发获取，
+ * 每个分支独立超时，失败或超时的分支以空值返回，不影响其余部分
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class OverviewService {
+
+    private static final List<IndicatorSpec> INDICATORS = List.of(
+            IndicatorSpec.of(IndicatorType.MA, 5),
+            IndicatorSpec.of(IndicatorType.MA, 10),
+            IndicatorSpec.of(IndicatorType.MA, 20),
+            IndicatorSpec.of(IndicatorType.MA, 60),
+            IndicatorSpec.of(IndicatorType.RSI, 14),
+            IndicatorSpec.of(IndicatorType.MACD),
+            IndicatorSpec.of(IndicatorType.MACD_SIGNAL),
+            IndicatorSpec.of(IndicatorType.MACD_HIST),
+            IndicatorSpec.of(IndicatorType.BOLL_UPPER),
+            IndicatorSpec.of(IndicatorType.BOLL_LOWER));
+
+    private final StockService stockService;
+
+    private final DailyQuoteRepository dailyQuoteRepository;
+
+    private final QuoteSeriesStore quoteSeriesStore;
+
+    private final IndicatorService indicatorService;
+
+    private final AnalysisService analysisService;
+
+    private final OverviewProperties overviewProperties;
+
+    private final ExecutorService executor;
+
+    public OverviewService(StockService stockService,
+                           DailyQuoteRepository dailyQuoteRepository,
+                           QuoteSeriesStore quoteSeriesStore,
+                           IndicatorService indicatorService,
+                           AnalysisService analysisService,
+                           OverviewProperties overviewProperties) {
+        this.stockService = stockService;
+        this.dailyQuoteRepository = dailyQuoteRepository;
+        this.quoteSeriesStore = quoteSeriesStore;
+        this.indicatorService = indicatorService;
+        this.analysisService = analysisService;
+        this.overviewProperties = overviewProperties;
+        this.executor = createExecutor(overviewProperties);
+    }
+
+    /**
+     * 获取股票概览
+     *
+     * @param symbol 股票代码
+     * @return 概览数据，部分分支失败时 partial 为 true
+     * @throws com.example.stock.exception.StockNotFoundException 股票不存在
+     */
+    public StockOverviewDTO getOverview(String symbol) {
+        long start = System.nanoTime();
+        String resolved = stockService.resolveSymbol(symbol);
+
+        CompletableFuture<StockDetailDTO> detail = branch(() -> stockService.getStockDetails(resolved));
+        CompletableFuture<List<DailyQuote>> quotes = branch(() ->
+                dailyQuoteRepository.findBySymbolOrderByDateDesc(resolved, PageRequest.of(0, 2)));
+        CompletableFuture<Map<String, Double>> indicators = branch(() -> latestIndicators(resolved));
+        CompletableFuture<AnalysisDTO> analysis = branch(() -> analysisService.request(resolved));
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        StockOverviewDTO.StockOverviewDTOBuilder result = StockOverviewDTO.builder()
+                .symbol(resolved)
+                .detail(await("detail", detail, errors))
+                .indicators(await("indicators", indicators, errors))
+                .analysis(await("analysis", analysis, errors));
+
+        List<DailyQuote> recent = await("quote", quotes, errors);
+        if (recent != null && !recent.isEmpty()) {
+            QuoteBarDTO latest = StockService.convertToQuoteDTO(recent.get(0));
+            result.quote(latest);
+            if (recent.size() > 1 && recent.get(1).getClose().signum() != 0) {
+                BigDecimal previous = recent.get(1).getClose();
+                result.changePercent(latest.getClose().subtract(previous)
+                        .multiply(BigDecimal.valueOf(100))
+                        .divide(previous, 2, RoundingMode.HALF_UP));
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        if (!errors.isEmpty()) {
+            log.warn("概览部分分支失败: {} - {}", resolved, errors);
+        }
+        return result
+                .partial(!errors.isEmpty())
+                .errors(errors.isEmpty() ? null : errors)
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 在执行器上运行一个分支；超时后中断仍在执行的分支，释放其占用的线程与数据库连接
+     */
+    private <T> CompletableFuture<T> branch(Supplier<T> supplier) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(supplier.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.orTimeout(overviewProperties.getBranchTimeoutMs(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error instanceof TimeoutException) {
+                        task.cancel(true);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * 等待分支结果；失败或超时记录原因并返回空
+     */
+    private static <T> T await(String name, CompletableFuture<T> future, Map<String, String> errors) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            errors.put(name, cause instanceof TimeoutException ? "超时" : String.valueOf(cause.getMessage()));
+            return null;
+        }
+    }
+
+    private Map<String, Double> latestIndicators(String symbol) {
+        QuoteSeries series = quoteSeriesStore.getOrLoad(symbol);
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (IndicatorSpec spec : INDICATORS) {
+            double value = indicatorService.get(series, spec).last();
+            values.put(spec.toString(), Double.isNaN(value) ? null : value);
+        }
+        return values;
+    }
+
+    private static ExecutorService createExecutor(OverviewProperties properties) {
+        if (properties.isVirtualThreads()) {
+            ExecutorService virtual = VirtualThreads.newPerTaskExecutor().orElse(null);
+            if (virtual != null) {
+                log.info("概览分支使用虚拟线程执行");
+                return virtual;
+            }
+            log.warn("当前运行时（Java {}）不支持虚拟线程，回退到平台线程池", Runtime.version().feature());
+        }
+        return Executors.newFixedThreadPool(Math.max(1, properties.getThreads()),
+                new CustomizableThreadFactory("overview-"));
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.example.stock.service;
+
+import com.example.stock.config.IngestionProperties;
+import com.example.stock.event.QuotesIngestedEvent;
+import com.example.stock.model.dto.IngestionReportDTO;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.service.partition.QuotePartitionManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 日线行情批量写入服务
+ * DailyQuote 使用 IDENTITY 主键，Hibernate 无法批量插入，逐条 save 每行一次往返；
+ * 这里改用多行 INSERT ... ON CONFLICT (symbol, date) DO UPDATE，
+ * 依赖 uk_symbol_date 唯一约束实现幂等写入，每个批次一条语句；
+ * 同一语句内递增 quote_versions 中涉及股票的版本号（按代码顺序加锁，避免并发批次死锁），
+ * 并返回递增后的版本号随写入事件发布，列式序列据此判断自己反映的是哪个版本
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class QuoteIngestionService {
+
+    private static final int COLUMNS = 8;
+
+    /**
+     * PostgreSQL JDBC 驱动单条语句的参数上限
+     */
+    private static final int MAX_PARAMETERS = Short.MAX_VALUE;
+
+    /**
+     * 每批行数上限：32767 / 8 = 4095
+     */
+    private static final int MAX_CHUNK_SIZE = MAX_PARAMETERS / COLUMNS;
+
+    private static final String INSERT_HEAD = "WITH written AS ("
+            + "INSERT INTO daily_quotes (symbol, date, open, high, low, close, volume, adj_close, created_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?, now())";
+
+    private static final String UPSERT_TAIL = " ON CONFLICT (symbol, date) DO UPDATE SET "
+            + "open = EXCLUDED.open, high = EXCLUDED.high, low = EXCLUDED.low, close = EXCLUDED.close, "
+            + "volume = EXCLUDED.volume, adj_close = EXCLUDED.adj_close RETURNING symbol) "
+            + "INSERT INTO quote_versions (symbol, version, updated_at) "
+            + "SELECT symbol, 1, now() FROM written GROUP BY symbol ORDER BY symbol "
+            + "ON CONFLICT (symbol) DO UPDATE SET version = quote_versions.version + 1, updated_at = EXCLUDED.updated_at "
+            + "RETURNING symbol, version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final IngestionProperties ingestionProperties;
+
+    private final QuotePartitionManager quotePartitionManager;
+
+    /**
+     * 按批次大小缓存的 SQL 文本，避免每个批次重复拼接
+     */
+    private final Map<Integer, String> sqlCache = new ConcurrentHashMap<>();
+
+    /**
+     * 批量写入日线行情（使用配置的批次大小）
+     *
+     * @param bars 日线数据，允许乱序与重复，同一 (symbol, date) 以最后一条为准
+     * @return 写入结果
+     */
+    public IngestionReportDTO ingest(List<QuoteBarDTO> bars) {
+        return ingest(bars, ingestionProperties.getChunkSize());
+    }
+
+    /**
+     * 批量写入日线行情
+     * 每个批次是一条独立提交的语句，大规模回补时不会形成长事务
+     *
+     * @param bars      日线数据
+     * @param chunkSize 每批行数
+     * @return 写入结果
+     */
+    public IngestionReportDTO ingest(List<QuoteBarDTO> bars, int chunkSize) {
+        if (bars == null || bars.isEmpty()) {
+            return IngestionReportDTO.builder().build();
+        }
+        int size = Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        long start = System.nanoTime();
+
+        List<QuoteBarDTO> rows = normalize(bars);
+        int chunks = 0;
+        for (int from = 0; from < rows.size(); from += size) {
+            List<QuoteBarDTO> chunk = rows.subList(from, Math.min(from + size, rows.size()));
+            quotePartitionManager.ensureCovering(chunkDates(chunk));
+            Map<String, Long> versions = writeChunk(chunk, size);
+            eventPublisher.publishEvent(new QuotesIngestedEvent(List.copyOf(chunk), versions));
+            chunks++;
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        double rowsPerSecond = rows.size() * 1_000_000_000.0 / elapsedNanos;
+        log.info("日线行情批量写入完成，行数: {}，批次: {}，耗时: {} ms，吞吐: {} 行/秒",
+                rows.size(), chunks, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+
+        return IngestionReportDTO.builder()
+                .rows(rows.size())
+                .chunks(chunks)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    /**
+     * 校验、去重并按 (symbol, date) 排序
+     * 同一条 INSERT ... ON CONFLICT 语句中不能两次更新同一行，因此必须先去重
+     */
+    private List<QuoteBarDTO> normalize(List<QuoteBarDTO> bars) {
+        Map<String, QuoteBarDTO> unique = new LinkedHashMap<>(bars.size() * 2);
+        for (QuoteBarDTO bar : bars) {
+            validate(bar);
+            unique.put(bar.getSymbol() + '|' + bar.getDate(), bar);
+        }
+        List<QuoteBarDTO> rows = new ArrayList<>(unique.values());
+        rows.sort(Comparator.comparing(QuoteBarDTO::getSymbol).thenComparing(QuoteBarDTO::getDate));
+        return rows;
+    }
+
+    private static void validate(QuoteBarDTO bar) {
+        if (bar == null || bar.getSymbol() == null || bar.getDate() == null
+                || bar.getOpen() == null || bar.getHigh() == null || bar.getLow() == null
+                || bar.getClose() == null || bar.getVolume() == null) {
+            throw new IllegalArgumentException("日线数据不完整: " + bar);
+        }
+    }
+
+    private static Set<LocalDate> chunkDates(List<QuoteBarDTO> chunk) {
+        Set<LocalDate> dates = new HashSet<>();
+        for (QuoteBarDTO bar : chunk) {
+            dates.add(bar.getDate());
+        }
+        return dates;
+    }
+
+    /**
+     * 写入一个批次
+     *
+     * @return 股票代码 -> 写入后的行情版本号
+     */
+    private Map<String, Long> writeChunk(List<QuoteBarDTO> chunk, int chunkSize) {
+        // 只缓存完整批次的 SQL，最后一个不足量的批次临时拼接
+        String sql = chunk.size() == chunkSize
+                ? sqlCache.computeIfAbsent(chunkSize, QuoteIngestionService::buildSql)
+                : buildSql(chunk.size());
+        Map<String, Long> versions = new HashMap<>();
+        jdbcTemplate.query(sql, ps -> {
+            int i = 1;
+            for (QuoteBarDTO bar : chunk) {
+                ps.setString(i++, bar.getSymbol());
+                ps.setDate(i++, Date.valueOf(bar.getDate()));
+                ps.setBigDecimal(i++, bar.getOpen());
+                ps.setBigDecimal(i++, bar.getHigh());
+                ps.setBigDecimal(i++, bar.getLow());
+                ps.setBigDecimal(i++, bar.getClose());
+                ps.setLong(i++, bar.getVolume());
+                if (bar.getAdjClose() != null) {
+                    ps.setBigDecimal(i++, bar.getAdjClose());
+                } else {
+                    ps.setNull(i++, Types.NUMERIC);
+                }
+            }
+        }, rs -> {
+            versions.put(rs.getString(1), rs.getLong(2));
+        });
+        return versions;
+    }
+
+    private static String buildSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_HEAD.length() + rows * (ROW_PLACEHOLDER.length() + 2)
+                + UPSERT_TAIL.length());
+        sql.append(INSERT_HEAD);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+        }
+        return sql.append(UPSERT_TAIL).toString();
+    }
+
+}
@@ -1,16 +1,39 @@
 package com.example.stock.service;
 
+import com.example.stock.config.SearchProperties;
+import com.example.stock.config.SectorProperties;
 import com.example.stock.exception.StockNotFoundException;
+import com.example.stock.metrics.RequestTrace;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.SectorMembersDTO;
+import com.example.stock.model.dto.StockBatchItemDTO;
 import com.example.stock.model.dto.StockDetailDTO;
 import com.example.stock.model.dto.StockSearchDTO;
+import com.example.stock.model.entity.DailyQuote;
 import com.example.stock.model.entity.Stock;
+import com.example.stock.repository.DailyQuoteRepository;
 import com.example.stock.repository.StockRepository;
+import com.example.stock.service.cache.CacheNames;
+import com.example.stock.service.cache.TieredCache;
+import com.example.stock.service.search.StockSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -26,15 +49,35 @@ public class StockService {
 
     private final StockRepository stockRepository;
 
+    private final StockSearchIndex stockSearchIndex;
+
+    private final SearchProperties searchProperties;
+
+    private final SectorProperties sectorProperties;
+
+    private final DailyQuoteRepository dailyQuoteRepository;
+
+    private final CacheManager cacheManager;
+
+    /**
+     * 搜索股票（使用默认返回条数）
+     *
+     * @param keyword 搜索关键字
+     * @return 股票搜索结果列表
+     */
+    public List<StockSearchDTO> search(String keyword) {
+        return search(keyword, searchProperties.getDefaultLimit());
+    }
+
     /**
      * 搜索股票
-     * 根据关键字模糊匹配股票代码或名称
+     * 优先使用内存索引，索引未就绪时回退到数据库模糊查询
      * 
      * @param keyword 搜索关键字
+     * @param limit   最大返回条数
      * @return 股票搜索结果列表
      */
-    @Transactional(readOnly = true)
-    public List<StockSearchDTO> search(String keyword) {
+    public List<StockSearchDTO> search(String keyword, int limit) {
         log.info("搜索股票，关键字: {}", keyword);
 
         if (keyword == null || keyword.trim().isEmpty()) {
@@ -42,37 +85,166 @@ public class StockService {
             return List.of();
         }
 
+        int effectiveLimit = Math.max(1, Math.min(limit, searchProperties.getMaxLimit()));
+
+        if (stockSearchIndex.isReady()) {
+            List<StockSearchDTO> results = stockSearchIndex.search(keyword, effectiveLimit).stream()
+                    .map(this::convertToSearchDTO)
+                    .collect(Collectors.toList());
+            log.info("搜索结果数量: {}", results.size());
+            return results;
+        }
+
+        log.warn("搜索索引尚未就绪，回退到数据库查询");
         List<Stock> stocks = stockRepository.searchBySymbolOrName(keyword.trim());
         log.info("搜索结果数量: {}", stocks.size());
 
         return stocks.stream()
+                .limit(effectiveLimit)
                 .map(this::convertToSearchDTO)
                 .collect(Collectors.toList());
     }
 
     /**
      * 获取股票详情
+     * 先经两级缓存（market:stock:{SYMBOL}），未命中再解析代码并查数据库
      * 
      * @param symbol 股票代码
      * @return 股票详情
      * @throws StockNotFoundException 股票不存在时抛出
      */
-    @Transactional(readOnly = true)
     public StockDetailDTO getStockDetails(String symbol) {
         log.info("查询股票详情，代码: {}", symbol);
 
-        if (symbol == null || symbol.trim().isEmpty()) {
-            throw new IllegalArgumentException("股票代码不能为空");
+        requireSymbol(symbol);
+        return cacheManager.getCache(CacheNames.STOCK_DETAIL).get(CacheNames.symbolKey(symbol), () -> {
+            Stock stock = stockRepository.findBySymbolIgnoreCase(resolveSymbol(symbol))
+                    .orElseThrow(() -> {
+                        log.error("股票不存在: {}", symbol);
+                        return new StockNotFoundException(symbol);
+                    });
+
+            log.info("成功查询到股票: {} - {}", stock.getSymbol(), stock.getName());
+            return convertToDetailDTO(stock);
+        });
+    }
+
+    /**
+     * 获取最新一根日线报价
+     * 先经两级缓存（market:quote:{SYMBOL}），未命中再解析代码并查数据库
+     *
+     * @param symbol 股票代码
+     * @return 最新报价
+     * @throws StockNotFoundException 股票不存在或尚无行情数据时抛出
+     */
+    public QuoteBarDTO getLatestQuote(String symbol) {
+        log.info("查询最新报价，代码: {}", symbol);
+
+        requireSymbol(symbol);
+        Cache cache = cacheManager.getCache(CacheNames.LATEST_QUOTE);
+        return cache.get(CacheNames.symbolKey(symbol), () -> dailyQuoteRepository
+                .findLatestBySymbol(resolveSymbol(symbol))
+                .map(StockService::convertToQuoteDTO)
+                .orElseThrow(() -> new StockNotFoundException(symbol)));
+    }
+
+    /**
+     * 批量获取股票详情与最新报价
+     * 代码先经内存索引解析（忽略大小写，不走 LOWER() 扫描），索引未命中的用一条 IN 查询兜底；
+     * 详情与报价先查两级缓存，未命中的部分各用一条集合查询补齐。
+     * 不存在的代码返回 found=false 的条目，不影响其余结果
+     *
+     * @param symbols      股票代码列表
+     * @param includeQuote 是否同时返回最新报价
+     * @return 按请求顺序（忽略大小写去重后）排列的结果
+     * @throws IllegalArgumentException 代码列表为空或超过上限
+     */
+    public List<StockBatchItemDTO> getBatch(List<String> symbols, boolean includeQuote) {
+        // 小写代码 -> 请求中的原始写法，去重并保持请求顺序
+        Map<String, String> requested = new LinkedHashMap<>();
+        if (symbols != null) {
+            for (String symbol : symbols) {
+                if (symbol != null && !symbol.isBlank()) {
+                    requested.putIfAbsent(symbol.trim().toLowerCase(Locale.ROOT), symbol.trim());
+                }
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("股票代码列表不能为空");
+        }
+        if (requested.size() > searchProperties.getBatchMaxSymbols()) {
+            throw new IllegalArgumentException("单次最多查询 " + searchProperties.getBatchMaxSymbols() + " 只股票");
+        }
+        log.info("批量查询股票，数量: {}", requested.size());
+
+        // 1. 解析规范代码
+        Map<String, String> resolved = new HashMap<>();
+        Map<String, Stock> loaded = new HashMap<>();
+        Set<String> unresolved = new HashSet<>();
+        for (String symbol : requested.values()) {
+            stockSearchIndex.findBySymbol(symbol).ifPresentOrElse(
+                    entry -> resolved.put(symbol.toLowerCase(Locale.ROOT), entry.getSymbol()),
+                    () -> {
+                        unresolved.add(symbol);
+                        unresolved.add(symbol.toUpperCase(Locale.ROOT));
+                    });
+        }
+        if (!unresolved.isEmpty()) {
+            for (Stock stock : stockRepository.findBySymbolIn(unresolved)) {
+                resolved.putIfAbsent(stock.getSymbol().toLowerCase(Locale.ROOT), stock.getSymbol());
+                loaded.put(stock.getSymbol(), stock);
+            }
         }
+        Set<String> canonical = new LinkedHashSet<>(resolved.values());
 
-        Stock stock = stockRepository.findBySymbolIgnoreCase(symbol.trim())
-                .orElseThrow(() -> {
-                    log.error("股票不存在: {}", symbol);
-                    return new StockNotFoundException(symbol);
-                });
+        // 2. 详情与报价
+        Map<String, StockDetailDTO> details = getDetails(canonical, loaded);
+        Map<String, QuoteBarDTO> quotes = includeQuote ? getLatestQuotes(details.keySet()) : Map.of();
 
-        log.info("成功查询到股票: {} - {}", stock.getSymbol(), stock.getName());
-        return convertToDetailDTO(stock);
+        List<StockBatchItemDTO> items = new ArrayList<>(requested.size());
+        for (Map.Entry<String, String> request : requested.entrySet()) {
+            String symbol = resolved.get(request.getKey());
+            StockDetailDTO detail = symbol == null ? null : details.get(symbol);
+            if (detail == null) {
+                items.add(StockBatchItemDTO.builder()
+                        .symbol(request.getValue())
+                        .found(false)
+                        .error("股票不存在: " + request.getValue())
+                        .build());
+            } else {
+                items.add(StockBatchItemDTO.builder()
+                        .symbol(request.getValue())
+                        .found(true)
+                        .detail(detail)
+                        .quote(quotes.get(symbol))
+                        .build());
+            }
+        }
+        log.info("批量查询完成，存在: {}，不存在: {}", details.size(), items.size() - details.size());
+        return items;
+    }
+
+    /**
+     * 解析股票代码为数据库中的规范写法（忽略大小写）
+     * 优先查内存索引，未命中再查数据库
+     *
+     * @param symbol 股票代码
+     * @return 规范化后的股票代码
+     * @throws StockNotFoundException 股票不存在时抛出
+     */
+    public String resolveSymbol(String symbol) {
+        requireSymbol(symbol);
+        String trimmed = symbol.trim();
+        return stockSearchIndex.findBySymbol(trimmed)
+                .map(StockSearchIndex.Entry::getSymbol)
+                .or(() -> stockRepository.findBySymbolIgnoreCase(trimmed).map(Stock::getSymbol))
+                .orElseThrow(() -> new StockNotFoundException(symbol));
+    }
+
+    private static void requireSymbol(String symbol) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("股票代码不能为空");
+        }
     }
 
     /**
@@ -88,6 +260,7 @@ public class StockService {
 
     /**
      * 根据行业查询股票列表
+     * 优先使用内存索引的行业成员表，索引未就绪时回退到数据库查询
      * 
      * @param sector 行业名称
      * @return 股票列表
@@ -95,7 +268,13 @@ public class StockService {
     @Transactional(readOnly = true)
     public List<StockSearchDTO> findBySector(String sector) {
         log.info("查询行业股票，行业: {}", sector);
-        
+
+        if (stockSearchIndex.isReady()) {
+            return stockSearchIndex.findBySector(sector, 0, Integer.MAX_VALUE).stream()
+                    .map(this::convertToSearchDTO)
+                    .collect(Collectors.toList());
+        }
+
         List<Stock> stocks = stockRepository.findBySector(sector);
         
         return stocks.stream()
@@ -103,22 +282,199 @@ public class StockService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 分页查询行业成员，按股票代码排序
+     *
+     * @param sector 行业名称（忽略大小写）
+     * @param page   页码（从 1 开始，可选）
+     * @param size   每页条数（可选）
+     * @return 成员分页结果，行业不存在时 total 为 0
+     */
+    @Transactional(readOnly = true)
+    public SectorMembersDTO getSectorMembers(String sector, Integer page, Integer size) {
+        int pageNo = page == null ? 1 : page;
+        int pageSize = size == null ? sectorProperties.getDefaultPageSize() : size;
+        if (pageNo < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("page 与 size 必须大于 0");
+        }
+        pageSize = Math.min(pageSize, sectorProperties.getMaxPageSize());
+        long offset = (long) (pageNo - 1) * pageSize;
+
+        int total;
+        List<StockSearchDTO> items;
+        if (stockSearchIndex.isReady()) {
+            total = stockSearchIndex.countBySector(sector);
+            items = offset >= total ? List.of()
+                    : stockSearchIndex.findBySector(sector, (int) offset, pageSize).stream()
+                    .map(this::convertToSearchDTO)
+                    .collect(Collectors.toList());
+        } else {
+            List<StockSearchDTO> all = stockRepository.findBySector(sector).stream()
+                    .sorted(Comparator.comparing(Stock::getSymbol))
+                    .map(this::convertToSearchDTO)
+                    .collect(Collectors.toList());
+            total = all.size();
+            int from = (int) Math.min(offset, total);
+            items = all.subList(from, Math.min(from + pageSize, total));
+        }
+        return SectorMembersDTO.builder()
+                .sector(sector)
+                .total(total)
+                .page(pageNo)
+                .size(pageSize)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * 批量获取详情：先批量查缓存，未命中的用一条 IN 查询补齐并批量回填缓存
+     *
+     * @param symbols 规范代码
+     * @param loaded  解析代码时已查出的实体
+     */
+    private Map<String, StockDetailDTO> getDetails(Set<String> symbols, Map<String, Stock> loaded) {
+        Cache cache = cacheManager.getCache(CacheNames.STOCK_DETAIL);
+        Map<String, StockDetailDTO> details = getCached(cache, symbols, StockDetailDTO.class);
+        List<Stock> toConvert = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String symbol : symbols) {
+            if (details.containsKey(symbol)) {
+                continue;
+            }
+            if (loaded.containsKey(symbol)) {
+                toConvert.add(loaded.get(symbol));
+            } else {
+                missing.add(symbol);
+            }
+        }
+        if (!missing.isEmpty()) {
+            toConvert.addAll(stockRepository.findBySymbolIn(missing));
+        }
+        Map<String, StockDetailDTO> converted = new HashMap<>();
+        for (Stock stock : toConvert) {
+            converted.put(stock.getSymbol(), convertToDetailDTO(stock));
+        }
+        putCached(cache, converted);
+        details.putAll(converted);
+        return details;
+    }
+
+    /**
+     * 批量获取最新报价：先批量查缓存，未命中的用一条集合查询补齐并批量回填缓存
+     *
+     * @param symbols 规范代码
+     */
+    private Map<String, QuoteBarDTO> getLatestQuotes(Set<String> symbols) {
+        Cache cache = cacheManager.getCache(CacheNames.LATEST_QUOTE);
+        Map<String, QuoteBarDTO> quotes = getCached(cache, symbols, QuoteBarDTO.class);
+        List<String> missing = new ArrayList<>();
+        for (String symbol : symbols) {
+            if (!quotes.containsKey(symbol)) {
+                missing.add(symbol);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, QuoteBarDTO> loaded = new HashMap<>();
+            for (DailyQuote quote : dailyQuoteRepository.findLatestBySymbols(missing)) {
+                loaded.put(quote.getSymbol(), convertToQuoteDTO(quote));
+            }
+            putCached(cache, loaded);
+            quotes.putAll(loaded);
+        }
+        return quotes;
+    }
+
+    /**
+     * 按代码批量读缓存；两级缓存走一次 MGET，其他实现逐个读取
+     *
+     * @return 规范代码 -> 缓存值，只含命中的代码
+     */
+    private static <T> Map<String, T> getCached(Cache cache, Collection<String> symbols, Class<T> type) {
+        Map<String, T> result = new HashMap<>();
+        if (cache instanceof TieredCache tiered) {
+            Map<Object, String> symbolByKey = new HashMap<>();
+            for (String symbol : symbols) {
+                symbolByKey.put(CacheNames.symbolKey(symbol), symbol);
+            }
+            tiered.getAll(symbolByKey.keySet()).forEach((key, value) ->
+                    result.put(symbolByKey.get(key), type.cast(value)));
+            return result;
+        }
+        for (String symbol : symbols) {
+            T value = cache.get(CacheNames.symbolKey(symbol), type);
+            if (value != null) {
+                result.put(symbol, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按代码批量写缓存；两级缓存走一次 Redis 管道，其他实现逐个写入
+     */
+    private static void putCached(Cache cache, Map<String, ?> values) {
+        if (cache instanceof TieredCache tiered) {
+            Map<Object, Object> entries = new HashMap<>();
+            values.forEach((symbol, value) -> entries.put(CacheNames.symbolKey(symbol), value));
+            tiered.putAll(entries);
+            return;
+        }
+        values.forEach((symbol, value) -> cache.put(CacheNames.symbolKey(symbol), value));
+    }
+
     /**
      * 转换为搜索结果 DTO
      */
     private StockSearchDTO convertToSearchDTO(Stock stock) {
-        return StockSearchDTO.builder()
+        long start = System.nanoTime();
+        StockSearchDTO dto = StockSearchDTO.builder()
                 .symbol(stock.getSymbol())
                 .name(stock.getName())
                 .exchange(stock.getExchange())
                 .build();
+        RequestTrace.record(RequestTrace.MAPPING, start);
+        return dto;
+    }
+
+    /**
+     * 索引条目转换为搜索结果 DTO
+     */
+    private StockSearchDTO convertToSearchDTO(StockSearchIndex.Entry entry) {
+        long start = System.nanoTime();
+        StockSearchDTO dto = StockSearchDTO.builder()
+                .symbol(entry.getSymbol())
+                .name(entry.getName())
+                .exchange(entry.getExchange())
+                .build();
+        RequestTrace.record(RequestTrace.MAPPING, start);
+        return dto;
+    }
+
+    /**
+     * 转换为日线报价 DTO
+     */
+    static QuoteBarDTO convertToQuoteDTO(DailyQuote quote) {
+        long start = System.nanoTime();
+        QuoteBarDTO dto = QuoteBarDTO.builder()
+                .symbol(quote.getSymbol())
+                .date(quote.getDate())
+                .open(quote.getOpen())
+                .high(quote.getHigh())
+                .low(quote.getLow())
+                .close(quote.getClose())
+                .volume(quote.getVolume())
+                .adjClose(quote.getAdjClose())
+                .build();
+        RequestTrace.record(RequestTrace.MAPPING, start);
+        return dto;
     }
 
     /**
      * 转换为详情 DTO
      */
     private StockDetailDTO convertToDetailDTO(Stock stock) {
-        return StockDetailDTO.builder()
+        long start = System.nanoTime();
+        StockDetailDTO dto = StockDetailDTO.builder()
                 .symbol(stock.getSymbol())
                 .name(stock.getName())
                 .exchange(stock.getExchange())
@@ -126,6 +482,8 @@ public class StockService {
                 .lastUpdate(stock.getLastUpdate())
                 .createdAt(stock.getCreatedAt())
                 .build();
+        RequestTrace.record(RequestTrace.MAPPING, start);
+        return dto;
     }
 
 }
@@ -0,0 +1,56 @@
+package com.example.stock.service.ai;
+
+import java.util.Locale;
+
+/**
+ * AI 分析提示词
+ *
+ * @author Toom
+ * @version 1.0
+ */
+final class AnalysisPrompts {
+
+    static final String BIAS_LABEL = "技术面倾向：";
+
+    static final String SYSTEM = """
+            你是一名专业的股票技术分析师。根据用户给出的行情与技术指标，
+            用约 200 字的中文点评近期走势，包含趋势判断、支撑 / 压力位和主要风险。
+            只输出 JSON：{"summary": "看涨|看跌|震荡", "content": "点评正文"}
+            """;
+
+    private AnalysisPrompts() {
+    }
+
+    /**
+     * 组装用户提示词
+     *
+     * @param snapshot 指标快照
+     * @return 提示词
+     */
+    static String user(IndicatorSnapshot snapshot) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("股票：").append(snapshot.symbol());
+        if (snapshot.name() != null) {
+            sb.append('（').append(snapshot.name()).append('）');
+        }
+        sb.append('\n');
+        sb.append("- 最新交易日 ").append(snapshot.date()).append(" 收盘价 ").append(format(snapshot.close()))
+                .append("，涨跌幅 ").append(format(snapshot.changePercent())).append("%\n");
+        sb.append("- MA5 ").append(format(snapshot.ma5())).append("，MA20 ").append(format(snapshot.ma20()))
+                .append("，MA60 ").append(format(snapshot.ma60())).append('\n');
+        sb.append("- RSI(14) ").append(format(snapshot.rsi14())).append('\n');
+        sb.append("- MACD ").append(format(snapshot.macd())).append("，信号线 ").append(format(snapshot.macdSignal()))
+                .append("，柱 ").append(format(snapshot.macdHist())).append('\n');
+        sb.append("- 布林带 ").append(format(snapshot.bollLower())).append(" ~ ").append(format(snapshot.bollUpper()))
+                .append('\n');
+        sb.append("- 近 20 日区间 ").append(format(snapshot.low20())).append(" ~ ").append(format(snapshot.high20()))
+                .append("，量比 ").append(format(snapshot.volumeRatio())).append('\n');
+        sb.append(BIAS_LABEL).append(snapshot.bias()).append('\n');
+        return sb.toString();
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "无" : String.format(Locale.ROOT, "%.2f", value);
+    }
+
+}
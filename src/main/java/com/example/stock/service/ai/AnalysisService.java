@@ -0,0 +1,374 @@
+package com.example.stock.service.ai;
+
+import com.example.stock.config.AiProperties;
+import com.example.stock.config.CacheProperties;
+import com.example.stock.model.dto.AnalysisDTO;
+import com.example.stock.model.dto.AnalysisReportDTO;
+import com.example.stock.model.enums.AnalysisStatus;
+import com.example.stock.service.StockService;
+import com.example.stock.service.cache.CacheNames;
+import com.example.stock.service.indicator.IndicatorService;
+import com.example.stock.service.indicator.IndicatorSpec;
+import com.example.stock.service.indicator.IndicatorType;
+import com.example.stock.service.search.StockSearchIndex;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.example.stock.service.timeseries.QuoteSlice;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 分析服务
+ * 请求从不等待模型：报告未过期时直接返回，否则提交（或加入进行中的）生成任务并立即返回任务令牌与旧报告。
+ * 生成在有界线程池中执行，每次调用有独立超时；完成的报告写入 ai:report:{symbol} 缓存，
+ * 超时后才返回的报告同样写入（任务仍报告超时），下一次请求直接命中
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class AnalysisService {
+
+    private static final IndicatorSpec MA5 = IndicatorSpec.of(IndicatorType.MA, 5);
+    private static final IndicatorSpec MA20 = IndicatorSpec.of(IndicatorType.MA, 20);
+    private static final IndicatorSpec MA60 = IndicatorSpec.of(IndicatorType.MA, 60);
+    private static final IndicatorSpec RSI14 = IndicatorSpec.of(IndicatorType.RSI, 14);
+    private static final IndicatorSpec MACD = IndicatorSpec.of(IndicatorType.MACD);
+    private static final IndicatorSpec MACD_SIGNAL = IndicatorSpec.of(IndicatorType.MACD_SIGNAL);
+    private static final IndicatorSpec MACD_HIST = IndicatorSpec.of(IndicatorType.MACD_HIST);
+    private static final IndicatorSpec BOLL_UPPER = IndicatorSpec.of(IndicatorType.BOLL_UPPER);
+    private static final IndicatorSpec BOLL_LOWER = IndicatorSpec.of(IndicatorType.BOLL_LOWER);
+
+    private static final int RANGE_BARS = 20;
+
+    private final StockService stockService;
+
+    private final StockSearchIndex stockSearchIndex;
+
+    private final QuoteSeriesStore quoteSeriesStore;
+
+    private final IndicatorService indicatorService;
+
+    private final LlmClient llmClient;
+
+    private final AiProperties aiProperties;
+
+    private final CacheProperties cacheProperties;
+
+    private final CacheManager cacheManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService timeoutScheduler;
+
+    /**
+     * symbol -> 进行中的任务，同一只股票的并发请求共用一个任务
+     */
+    private final Map<String, Job> inflight = new ConcurrentHashMap<>();
+
+    /**
+     * 任务令牌 -> 任务，结束后保留一段时间供轮询
+     */
+    private final com.github.benmanes.caffeine.cache.Cache<String, Job> jobs;
+
+    public AnalysisService(StockService stockService,
+                           StockSearchIndex stockSearchIndex,
+                           QuoteSeriesStore quoteSeriesStore,
+                           IndicatorService indicatorService,
+                           LlmClient llmClient,
+                           AiProperties aiProperties,
+                           CacheProperties cacheProperties,
+                           CacheManager cacheManager,
+                           ObjectMapper objectMapper) {
+        this.stockService = stockService;
+        this.stockSearchIndex = stockSearchIndex;
+        this.quoteSeriesStore = quoteSeriesStore;
+        this.indicatorService = indicatorService;
+        this.llmClient = llmClient;
+        this.aiProperties = aiProperties;
+        this.cacheProperties = cacheProperties;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        int threads = Math.max(1, aiProperties.getThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, aiProperties.getQueueCapacity())),
+                new CustomizableThreadFactory("ai-analysis-"));
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("ai-analysis-timeout-"));
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(aiProperties.getJobRetention()))
+                .build();
+    }
+
+    /**
+     * 获取分析报告；报告不存在或已过期时触发后台生成，不等待结果
+     *
+     * @param symbol 股票代码
+     * @return 分析结果：SUCCESS 时 report 为最新报告，否则为任务状态与旧报告（如有）
+     * @throws com.example.stock.exception.StockNotFoundException 股票不存在
+     * @throws java.util.concurrent.RejectedExecutionException   生成队列已满
+     */
+    public AnalysisDTO request(String symbol) {
+        String resolved = stockService.resolveSymbol(symbol);
+        AnalysisReportDTO report = reportCache().get(resolved, AnalysisReportDTO.class);
+        if (report != null && !isStale(report)) {
+            return AnalysisDTO.builder()
+                    .symbol(resolved)
+                    .status(AnalysisStatus.SUCCESS)
+                    .report(report)
+                    .build();
+        }
+
+        Job job = inflight.computeIfAbsent(resolved, this::submit);
+        return job.toDTO(report);
+    }
+
+    /**
+     * 按任务令牌查询生成结果
+     *
+     * @param jobId 任务令牌
+     * @return 任务状态，令牌不存在或已过期时为空
+     */
+    public Optional<AnalysisDTO> getJob(String jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        AnalysisReportDTO report = job.status == AnalysisStatus.SUCCESS
+                ? job.report
+                : reportCache().get(job.symbol, AnalysisReportDTO.class);
+        return Optional.of(job.toDTO(report));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        timeoutScheduler.shutdownNow();
+    }
+
+    /**
+     * 提交生成任务；超时从入队时开始计算，排队等待同样计入
+     * 任务与超时计时器在入队前创建好，超时回调总能取消到对应的任务；
+     * 已开始的调用不中断（模型客户端自身有读取超时），其结果仍写入缓存
+     */
+    private Job submit(String symbol) {
+        Job job = new Job(UUID.randomUUID().toString(), symbol);
+        FutureTask<Void> task = new FutureTask<>(() -> run(job), null);
+        job.timer = timeoutScheduler.schedule(() -> {
+            if (finish(job, AnalysisStatus.TIMEOUT, null, "AI 服务超时")) {
+                log.warn("AI 分析超时: {}，超时时间: {} ms", job.symbol, aiProperties.getTimeoutMs());
+                // 仍在排队的任务取消后移出队列，不会再执行
+                task.cancel(false);
+                executor.remove(task);
+            }
+        }, aiProperties.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            job.timer.cancel(false);
+            throw e;
+        }
+        jobs.put(job.id, job);
+        log.info("提交 AI 分析任务: {} - {}", symbol, job.id);
+        return job;
+    }
+
+    private void run(Job job) {
+        synchronized (job) {
+            if (job.status != AnalysisStatus.PENDING) {
+                return;
+            }
+            job.status = AnalysisStatus.RUNNING;
+        }
+
+        long start = System.nanoTime();
+        try {
+            AnalysisReportDTO report = generate(job.symbol);
+            // 先写缓存再结束任务：结束后的新请求能读到报告，超时后才完成的报告也不丢弃
+            cacheReport(report);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (finish(job, AnalysisStatus.SUCCESS, report, null)) {
+                log.info("AI 分析完成: {}，耗时: {} ms", job.symbol, elapsedMillis);
+            } else {
+                log.info("AI 分析在超时后完成，报告已缓存: {}，耗时: {} ms", job.symbol, elapsedMillis);
+            }
+        } catch (Exception e) {
+            if (finish(job, AnalysisStatus.FAILED, null, e.getMessage())) {
+                log.warn("AI 分析失败: {} - {}", job.symbol, e.getMessage());
+            }
+        } finally {
+            job.timer.cancel(false);
+        }
+    }
+
+    /**
+     * 结束任务，只有第一次调用生效（完成与超时竞争时以先到者为准）
+     */
+    private boolean finish(Job job, AnalysisStatus status, AnalysisReportDTO report, String error) {
+        synchronized (job) {
+            if (job.status == AnalysisStatus.SUCCESS || job.status == AnalysisStatus.FAILED
+                    || job.status == AnalysisStatus.TIMEOUT) {
+                return false;
+            }
+            job.report = report;
+            job.error = error;
+            job.finishedAt = LocalDateTime.now();
+            job.status = status;
+        }
+        inflight.remove(job.symbol, job);
+        return true;
+    }
+
+    private AnalysisReportDTO generate(String symbol) throws Exception {
+        IndicatorSnapshot snapshot = snapshot(symbol);
+        String raw = llmClient.complete(AnalysisPrompts.SYSTEM, AnalysisPrompts.user(snapshot));
+
+        String summary = snapshot.bias();
+        String content = raw.trim();
+        try {
+            JsonNode node = objectMapper.readTree(raw);
+            if (node.path("summary").isTextual()) {
+                summary = node.path("summary").asText();
+            }
+            if (node.path("content").isTextual()) {
+                content = node.path("content").asText();
+            }
+        } catch (Exception e) {
+            log.debug("模型未返回 JSON，按纯文本处理: {}", symbol);
+        }
+
+        return AnalysisReportDTO.builder()
+                .symbol(symbol)
+                .summary(summary)
+                .content(content)
+                .supportPrice(toPrice(snapshot.low20()))
+                .resistancePrice(toPrice(snapshot.high20()))
+                .model(llmClient.getModel())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private IndicatorSnapshot snapshot(String symbol) {
+        QuoteSeries series = quoteSeriesStore.getOrLoad(symbol);
+        QuoteSlice slice = series.slice();
+        int n = slice.size();
+        if (n == 0) {
+            throw new IllegalStateException("暂无行情数据: " + symbol);
+        }
+        int last = n - 1;
+
+        double high20 = Double.NEGATIVE_INFINITY;
+        double low20 = Double.POSITIVE_INFINITY;
+        double volumeSum = 0;
+        int from = Math.max(0, n - RANGE_BARS);
+        for (int i = from; i < n; i++) {
+            high20 = Math.max(high20, slice.high(i));
+            low20 = Math.min(low20, slice.low(i));
+            volumeSum += slice.volume(i);
+        }
+        double averageVolume = volumeSum / (n - from);
+        double previousClose = last > 0 ? slice.close(last - 1) : Double.NaN;
+
+        String name = stockSearchIndex.findBySymbol(symbol).map(StockSearchIndex.Entry::getName).orElse(null);
+        return new IndicatorSnapshot(symbol, name, LocalDate.ofEpochDay(slice.day(last)),
+                slice.close(last),
+                previousClose > 0 ? (slice.close(last) - previousClose) / previousClose * 100 : Double.NaN,
+                latest(series, MA5), latest(series, MA20), latest(series, MA60), latest(series, RSI14),
+                latest(series, MACD), latest(series, MACD_SIGNAL), latest(series, MACD_HIST),
+                latest(series, BOLL_UPPER), latest(series, BOLL_LOWER),
+                high20, low20,
+                averageVolume > 0 ? slice.volume(last) / averageVolume : Double.NaN);
+    }
+
+    private double latest(QuoteSeries series, IndicatorSpec spec) {
+        return indicatorService.get(series, spec).last();
+    }
+
+    private boolean isStale(AnalysisReportDTO report) {
+        return report.getUpdatedAt() == null || report.getUpdatedAt()
+                .plusSeconds(cacheProperties.getAiReportTtl())
+                .isBefore(LocalDateTime.now());
+    }
+
+    /**
+     * 写入报告缓存；已有更新的报告（超时后重新提交的任务先完成）时不覆盖
+     */
+    private void cacheReport(AnalysisReportDTO report) {
+        AnalysisReportDTO cached = reportCache().get(report.getSymbol(), AnalysisReportDTO.class);
+        if (cached == null || cached.getUpdatedAt() == null || cached.getUpdatedAt().isBefore(report.getUpdatedAt())) {
+            reportCache().put(report.getSymbol(), report);
+        }
+    }
+
+    private Cache reportCache() {
+        return cacheManager.getCache(CacheNames.AI_REPORT);
+    }
+
+    private static BigDecimal toPrice(double value) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP) : null;
+    }
+
+    /**
+     * 一次生成任务
+     */
+    private static final class Job {
+
+        private final String id;
+        private final String symbol;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile AnalysisStatus status = AnalysisStatus.PENDING;
+        private volatile AnalysisReportDTO report;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+        private volatile ScheduledFuture<?> timer;
+
+        private Job(String id, String symbol) {
+            this.id = id;
+            this.symbol = symbol;
+        }
+
+        private AnalysisDTO toDTO(AnalysisReportDTO currentReport) {
+            return AnalysisDTO.builder()
+                    .symbol(symbol)
+                    .status(status)
+                    .jobId(id)
+                    .report(currentReport)
+                    .stale(status != AnalysisStatus.SUCCESS && currentReport != null)
+                    .submittedAt(submittedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+
+    }
+
+}
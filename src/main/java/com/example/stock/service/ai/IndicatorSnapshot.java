@@ -0,0 +1,40 @@
+package com.example.stock.service.ai;
+
+import java.time.LocalDate;
+
+/**
+ * 生成 AI 分析所需的最新行情与指标快照，缺失值为 NaN
+ *
+ * @author Toom
+ * @version 1.0
+ */
+record IndicatorSnapshot(String symbol, String name, LocalDate date, double close, double changePercent,
+                         double ma5, double ma20, double ma60, double rsi14,
+                         double macd, double macdSignal, double macdHist,
+                         double bollUpper, double bollLower,
+                         double high20, double low20, double volumeRatio) {
+
+    /**
+     * 基于均线与 MACD 的规则化倾向判断，作为模型输入与模拟模型的输出
+     */
+    String bias() {
+        int score = 0;
+        if (close > ma20) {
+            score++;
+        } else if (close < ma20) {
+            score--;
+        }
+        if (ma5 > ma20) {
+            score++;
+        } else if (ma5 < ma20) {
+            score--;
+        }
+        if (macdHist > 0) {
+            score++;
+        } else if (macdHist < 0) {
+            score--;
+        }
+        return score >= 2 ? "看涨" : score <= -2 ? "看跌" : "震荡";
+    }
+
+}
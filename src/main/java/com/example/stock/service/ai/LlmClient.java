@@ -0,0 +1,26 @@
+package com.example.stock.service.ai;
+
+/**
+ * 大模型调用客户端
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public interface LlmClient {
+
+    /**
+     * 模型标识，如 openai:gpt-4o-mini
+     */
+    String getModel();
+
+    /**
+     * 生成回复
+     *
+     * @param systemPrompt 系统提示词
+     * @param userPrompt   用户提示词
+     * @return 模型回复文本
+     * @throws com.example.stock.exception.AiServiceException 调用失败
+     */
+    String complete(String systemPrompt, String userPrompt);
+
+}
@@ -0,0 +1,83 @@
+package com.example.stock.service.ai;
+
+import com.example.stock.config.AiProperties;
+import com.example.stock.exception.AiServiceException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OpenAI 兼容的对话补全接口客户端
+ * 连接与读取超时均使用 app.ai.timeout-ms，超时的调用不会长期占用生成线程
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.ai", name = "provider", havingValue = "openai")
+public class OpenAiLlmClient implements LlmClient {
+
+    private static final String PROVIDER = "openai";
+
+    private final RestClient restClient;
+
+    private final String model;
+
+    public OpenAiLlmClient(AiProperties aiProperties) {
+        if (aiProperties.getApiKey() == null || aiProperties.getApiKey().isBlank()) {
+            throw new IllegalStateException("app.ai.provider=openai 时必须配置 app.ai.api-key");
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(aiProperties.getTimeoutMs());
+        requestFactory.setReadTimeout(aiProperties.getTimeoutMs());
+        this.restClient = RestClient.builder()
+                .baseUrl(aiProperties.getBaseUrl())
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + aiProperties.getApiKey())
+                .requestFactory(requestFactory)
+                .build();
+        this.model = aiProperties.getModel();
+    }
+
+    @Override
+    public String getModel() {
+        return PROVIDER + ":" + model;
+    }
+
+    @Override
+    public String complete(String systemPrompt, String userPrompt) {
+        Map<String, Object> body = Map.of(
+                "model", model,
+                "temperature", 0.3,
+                "response_format", Map.of("type", "json_object"),
+                "messages", List.of(
+                        Map.of("role", "system", "content", systemPrompt),
+                        Map.of("role", "user", "content", userPrompt)));
+
+        JsonNode root;
+        try {
+            root = restClient.post()
+                    .uri("/chat/completions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body)
+                    .retrieve()
+                    .body(JsonNode.class);
+        } catch (RestClientException e) {
+            throw new AiServiceException(PROVIDER, "调用模型失败: " + e.getMessage(), e);
+        }
+
+        JsonNode content = root == null ? null : root.path("choices").path(0).path("message").path("content");
+        if (content == null || !content.isTextual()) {
+            throw new AiServiceException(PROVIDER, "模型返回为空");
+        }
+        return content.asText();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.example.stock.service.ai;
+
+import com.example.stock.config.AiProperties;
+import com.example.stock.exception.AiServiceException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 本地模拟模型
+ * 不访问外网，按提示词中的技术面倾向确定性地生成报告，并模拟可配置的响应延迟；
+ * 用于测试与压测，替代真实模型
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.ai", name = "provider", havingValue = "stub", matchIfMissing = true)
+public class StubLlmClient implements LlmClient {
+
+    private final AiProperties aiProperties;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String getModel() {
+        return "stub";
+    }
+
+    @Override
+    public String complete(String systemPrompt, String userPrompt) {
+        if (aiProperties.getStubLatencyMs() > 0) {
+            try {
+                Thread.sleep(aiProperties.getStubLatencyMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AiServiceException("stub", "生成被取消");
+            }
+        }
+
+        String bias = "震荡";
+        StringBuilder content = new StringBuilder("【模拟分析】");
+        for (String line : userPrompt.split("\n")) {
+            if (line.startsWith(AnalysisPrompts.BIAS_LABEL)) {
+                bias = line.substring(AnalysisPrompts.BIAS_LABEL.length()).trim();
+            } else if (line.startsWith("- ")) {
+                content.append(line.substring(2)).append("；");
+            }
+        }
+        content.append("综合来看短期走势偏").append(bias).append("，请注意控制仓位与风险。");
+
+        try {
+            return objectMapper.writeValueAsString(Map.of("summary", bias, "content", content.toString()));
+        } catch (Exception e) {
+            throw new AiServiceException("stub", e.getMessage(), e);
+        }
+    }
+
+}
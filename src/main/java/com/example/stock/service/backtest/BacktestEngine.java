@@ -0,0 +1,144 @@
+package com.example.stock.service.backtest;
+
+import com.example.stock.service.timeseries.QuoteSlice;
+
+/**
+ * 回测引擎
+ * 对一只股票的列式日线单遍扫描：第 i 根收盘后由策略给出目标仓位，在第 i + 1 根开盘时按滑点与手续费成交，
+ * 以收盘价逐日计算权益，收益率、波动率、回撤等统计量在同一遍扫描中累加。
+ * 直接遍历底层价格数组，扫描过程中不创建对象；需要权益曲线时由调用方传入数组
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class BacktestEngine {
+
+    private BacktestEngine() {
+    }
+
+    /**
+     * 执行回测
+     *
+     * @param slice       日线视图
+     * @param strategy    策略（新实例）
+     * @param settings    资金与交易成本
+     * @param equityCurve 逐日收盘权益的输出数组，长度不小于 slice.size()；不需要时传 null
+     * @return 统计结果
+     */
+    public static BacktestStats run(QuoteSlice slice, BacktestStrategy strategy,
+                                    BacktestSettings settings, double[] equityCurve) {
+        double[] open = slice.openColumn();
+        double[] close = slice.closeColumn();
+        int from = slice.from();
+        int to = slice.to();
+
+        double capital = settings.initialCapital();
+        double sizing = settings.positionSize();
+        double feeRate = settings.feeRate();
+        double slippage = settings.slippageRate();
+
+        double cash = capital;
+        double shares = 0;
+        double held = 0;
+        double pending = 0;
+        double entryEquity = 0;
+        double fees = 0;
+        int trades = 0;
+        int roundTrips = 0;
+        int wins = 0;
+        int exposed = 0;
+
+        double previous = capital;
+        double peak = capital;
+        double maxDrawdown = 0;
+        double sum = 0;
+        double sumSquares = 0;
+
+        for (int i = from; i < to; i++) {
+            if (pending != held) {
+                double price = open[i];
+                double position = shares * price;
+                double equity = cash + position;
+                double delta = pending * sizing * equity - position;
+                boolean wasFlat = shares == 0;
+                if (delta > 0) {
+                    double fill = price * (1 + slippage);
+                    double quantity = delta / (fill * (1 + feeRate));
+                    double notional = quantity * fill;
+                    cash -= notional + notional * feeRate;
+                    fees += notional * feeRate;
+                    shares += quantity;
+                } else if (delta < 0) {
+                    double fill = price * (1 - slippage);
+                    double quantity = pending == 0 ? shares : Math.min(shares, -delta / price);
+                    double notional = quantity * fill;
+                    cash += notional - notional * feeRate;
+                    fees += notional * feeRate;
+                    shares = pending == 0 ? 0 : shares - quantity;
+                }
+                if (delta != 0) {
+                    trades++;
+                    if (wasFlat && shares > 0) {
+                        entryEquity = equity;
+                    } else if (!wasFlat && shares == 0) {
+                        roundTrips++;
+                        if (cash > entryEquity) {
+                            wins++;
+                        }
+                    }
+                }
+                held = pending;
+            }
+
+            double equity = cash + shares * close[i];
+            if (i > from) {
+                double r = equity / previous - 1;
+                sum += r;
+                sumSquares += r * r;
+            }
+            previous = equity;
+            if (equity > peak) {
+                peak = equity;
+            } else {
+                double drawdown = 1 - equity / peak;
+                if (drawdown > maxDrawdown) {
+                    maxDrawdown = drawdown;
+                }
+            }
+            if (shares > 0) {
+                exposed++;
+            }
+            if (equityCurve != null) {
+                equityCurve[i - from] = equity;
+            }
+
+            double target = strategy.target(close[i]);
+            if (!Double.isNaN(target)) {
+                pending = target;
+            }
+        }
+
+        int bars = to - from;
+        int returns = Math.max(bars - 1, 0);
+        double mean = returns > 0 ? sum / returns : 0;
+        double variance = returns > 1 ? (sumSquares - sum * mean) / (returns - 1) : 0;
+        double dailyVolatility = Math.sqrt(Math.max(variance, 0));
+        double annualization = Math.sqrt(settings.tradingDaysPerYear());
+        double years = (double) bars / settings.tradingDaysPerYear();
+        double growth = previous / capital;
+        return new BacktestStats(
+                bars,
+                previous,
+                growth - 1,
+                years > 0 && growth > 0 ? Math.pow(growth, 1 / years) - 1 : 0,
+                dailyVolatility * annualization,
+                dailyVolatility > 0 ? mean / dailyVolatility * annualization : 0,
+                maxDrawdown,
+                trades,
+                roundTrips,
+                roundTrips > 0 ? (double) wins / roundTrips : Double.NaN,
+                bars > 0 ? (double) exposed / bars : 0,
+                fees);
+    }
+
+}
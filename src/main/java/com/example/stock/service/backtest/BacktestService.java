@@ -0,0 +1,493 @@
+package com.example.stock.service.backtest;
+
+import com.example.stock.config.BacktestProperties;
+import com.example.stock.model.dto.BacktestComboDTO;
+import com.example.stock.model.dto.BacktestRequest;
+import com.example.stock.model.dto.BacktestResultDTO;
+import com.example.stock.model.dto.BacktestRunDTO;
+import com.example.stock.service.StockService;
+import com.example.stock.service.indicator.IndicatorPeriods;
+import com.example.stock.service.indicator.IndicatorSpecParser;
+import com.example.stock.service.search.StockSearchIndex;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.example.stock.service.timeseries.QuoteSlice;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * 多股票回测服务
+ * 回测任务为 股票 × 参数组合 的笛卡尔积，在 fork-join 线程池上按扁平下标并行执行，
+ * 相邻下标属于同一只股票，工作窃取拆分后同一线程连续处理同一组价格数组。
+ * 第一轮只计算统计量，排序后仅对返回的最优回测重跑一遍以输出权益曲线
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class BacktestService {
+
+    private static final double DEFAULT_CAPITAL = 100_000;
+
+    private static final double BASIS_POINT = 0.0001;
+
+    /**
+     * 单个参数网格展开后的最大取值个数
+     */
+    private static final int MAX_GRID_VALUES = 1000;
+
+    private final StockSearchIndex stockSearchIndex;
+
+    private final QuoteSeriesStore quoteSeriesStore;
+
+    private final StockService stockService;
+
+    private final BacktestProperties backtestProperties;
+
+    private final IndicatorPeriods periods;
+
+    private final ForkJoinPool pool;
+
+    public BacktestService(StockSearchIndex stockSearchIndex,
+                           QuoteSeriesStore quoteSeriesStore,
+                           StockService stockService,
+                           BacktestProperties backtestProperties,
+                           IndicatorSpecParser indicatorSpecParser) {
+        this.stockSearchIndex = stockSearchIndex;
+        this.quoteSeriesStore = quoteSeriesStore;
+        this.stockService = stockService;
+        this.backtestProperties = backtestProperties;
+        this.periods = indicatorSpecParser.getPeriods();
+        int parallelism = backtestProperties.getParallelism() > 0
+                ? backtestProperties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * 执行回测
+     *
+     * @param request 回测请求
+     * @return 最优的若干次回测与各参数组合的汇总
+     * @throws IllegalArgumentException                         参数不合法或回测规模超出限制
+     * @throws com.example.stock.exception.StockNotFoundException 指定的股票不存在
+     */
+    public BacktestResultDTO run(BacktestRequest request) {
+        long start = System.nanoTime();
+        StrategyType type = StrategyType.fromCode(request.getStrategy());
+        List<double[]> combos = expandGrid(type, request.getParams(), backtestProperties.getMaxRuns(), periods);
+        BacktestSettings settings = settings(request);
+        int top = resolve(request.getTop(), backtestProperties.getDefaultTop(), backtestProperties.getMaxTop(), "top");
+        int curvePoints = resolve(request.getCurvePoints(), backtestProperties.getDefaultCurvePoints(),
+                backtestProperties.getMaxCurvePoints(), "curvePoints");
+        Metric metric = Metric.fromCode(request.getSort());
+        int fromDay = parseDay(request.getFrom(), Integer.MIN_VALUE);
+        int toDay = parseDay(request.getTo(), Integer.MAX_VALUE);
+        if (fromDay > toDay) {
+            throw new IllegalArgumentException("起始日期不能晚于结束日期");
+        }
+
+        List<String> symbols = universe(request);
+        long total = (long) symbols.size() * combos.size();
+        if (total > backtestProperties.getMaxRuns()) {
+            throw new IllegalArgumentException("回测次数 " + total + " 超过上限 " + backtestProperties.getMaxRuns()
+                    + "，请减少股票或参数组合");
+        }
+
+        QuoteSlice[] slices = pool.submit(() -> symbols.parallelStream()
+                .map(symbol -> quoteSeriesStore.getOrLoad(symbol).range(fromDay, toDay))
+                .toArray(QuoteSlice[]::new)).join();
+
+        int comboCount = combos.size();
+        BacktestStats[] stats = new BacktestStats[(int) total];
+        long simulationStart = System.nanoTime();
+        pool.submit(() -> IntStream.range(0, stats.length).parallel().forEach(k -> {
+            QuoteSlice slice = slices[k / comboCount];
+            if (slice.size() >= 2) {
+                stats[k] = BacktestEngine.run(slice, type.create(combos.get(k % comboCount), periods), settings, null);
+            }
+        })).join();
+        long simulationNanos = System.nanoTime() - simulationStart;
+
+        int runs = 0;
+        long bars = 0;
+        for (BacktestStats stat : stats) {
+            if (stat != null) {
+                runs++;
+                bars += stat.bars();
+            }
+        }
+        int skipped = (int) Arrays.stream(slices).filter(slice -> slice.size() < 2).count();
+
+        Integer[] order = IntStream.range(0, stats.length)
+                .filter(k -> stats[k] != null)
+                .boxed()
+                .toArray(Integer[]::new);
+        Comparator<Integer> byMetric = Comparator.comparingDouble(k -> metric.sortKey(stats[k]));
+        Arrays.sort(order, byMetric.thenComparing(k -> slices[k / comboCount].getSymbol()));
+
+        List<BacktestRunDTO> items = new ArrayList<>(Math.min(top, order.length));
+        for (int i = 0; i < Math.min(top, order.length); i++) {
+            int k = order[i];
+            QuoteSlice slice = slices[k / comboCount];
+            double[] params = combos.get(k % comboCount);
+            items.add(toDTO(type, slice, params, stats[k], curvePoints > 0
+                    ? curve(slice, type.create(params, periods), settings, curvePoints) : null));
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("回测完成，策略: {}，股票: {}，参数组合: {}，回测: {}，K 线: {}，耗时: {} ms",
+                type.getCode(), symbols.size(), comboCount, runs, bars, elapsedMillis);
+        return BacktestResultDTO.builder()
+                .strategy(type.getCode())
+                .symbols(symbols.size())
+                .combos(comboCount)
+                .runs(runs)
+                .skipped(skipped)
+                .bars(bars)
+                .elapsedMillis(elapsedMillis)
+                .barsPerSecond(simulationNanos > 0 ? Math.round(bars * 1e9 / simulationNanos) : 0)
+                .items(items)
+                .paramSummary(summarize(type, combos, stats, top))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * 展开参数网格；不满足策略约束的组合（如快线周期不小于慢线、周期不是整数）被跳过，
+     * 通过校验的组合按取值去重
+     *
+     * @param maxCombos 组合数上限
+     * @param periods   周期校验
+     */
+    static List<double[]> expandGrid(StrategyType type, Map<String, String> params, int maxCombos,
+                                     IndicatorPeriods periods) {
+        List<String> names = type.getParamNames();
+        Map<String, String> given = new HashMap<>();
+        if (params != null) {
+            params.forEach((name, value) -> {
+                if (!names.contains(name)) {
+                    throw new IllegalArgumentException("策略 " + type.getCode() + " 不支持参数: " + name
+                            + "，可选参数: " + String.join(" / ", names));
+                }
+                given.put(name, value);
+            });
+        }
+        double[] defaults = type.defaults();
+        List<double[]> combos = new ArrayList<>();
+        combos.add(defaults);
+        for (int p = 0; p < names.size(); p++) {
+            String spec = given.get(names.get(p));
+            if (spec == null || spec.isBlank()) {
+                continue;
+            }
+            double[] values = parseValues(names.get(p), spec);
+            if ((long) combos.size() * values.length > maxCombos) {
+                throw new IllegalArgumentException("参数组合数超过上限 " + maxCombos);
+            }
+            List<double[]> expanded = new ArrayList<>(combos.size() * values.length);
+            for (double[] combo : combos) {
+                for (double value : values) {
+                    double[] next = combo.clone();
+                    next[p] = value;
+                    expanded.add(next);
+                }
+            }
+            combos = expanded;
+        }
+
+        List<double[]> valid = new ArrayList<>(combos.size());
+        Set<List<Double>> seen = new HashSet<>();
+        String firstError = null;
+        for (double[] combo : combos) {
+            try {
+                type.create(combo, periods);
+                if (seen.add(Arrays.stream(combo).boxed().toList())) {
+                    valid.add(combo);
+                }
+            } catch (IllegalArgumentException e) {
+                if (firstError == null) {
+                    firstError = e.getMessage();
+                }
+            }
+        }
+        if (valid.isEmpty()) {
+            throw new IllegalArgumentException("没有有效的参数组合: " + firstError);
+        }
+        return valid;
+    }
+
+    private static double[] parseValues(String name, String spec) {
+        try {
+            String trimmed = spec.trim();
+            if (trimmed.contains(":")) {
+                String[] parts = trimmed.split(":");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("参数 " + name + " 的网格格式应为 起始:结束:步长");
+                }
+                double from = Double.parseDouble(parts[0].trim());
+                double to = Double.parseDouble(parts[1].trim());
+                double step = Double.parseDouble(parts[2].trim());
+                if (step <= 0 || to < from) {
+                    throw new IllegalArgumentException("参数 " + name + " 的网格步长必须大于 0 且结束不小于起始");
+                }
+                long count = (long) Math.floor((to - from) / step + 1e-9) + 1;
+                if (count > MAX_GRID_VALUES) {
+                    throw new IllegalArgumentException("参数 " + name + " 的取值超过 " + MAX_GRID_VALUES + " 个");
+                }
+                double[] values = new double[(int) count];
+                for (int i = 0; i < values.length; i++) {
+                    // 消除小数步长的累积误差，如 5 + 10 * 0.1 = 6.000000000000001
+                    double value = from + i * step;
+                    double rounded = Math.rint(value);
+                    values[i] = Math.abs(value - rounded) < 1e-9 ? rounded : value;
+                }
+                return values;
+            }
+            return Arrays.stream(trimmed.split(","))
+                    .filter(value -> !value.isBlank())
+                    .mapToDouble(value -> Double.parseDouble(value.trim()))
+                    .distinct()
+                    .toArray();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("参数 " + name + " 的取值不是数字: " + spec);
+        }
+    }
+
+    private BacktestSettings settings(BacktestRequest request) {
+        double capital = request.getInitialCapital() == null ? DEFAULT_CAPITAL : request.getInitialCapital();
+        double positionSize = request.getPositionSize() == null ? 1 : request.getPositionSize();
+        double feeBps = request.getFeeBps() == null ? 0 : request.getFeeBps();
+        double slippageBps = request.getSlippageBps() == null ? 0 : request.getSlippageBps();
+        if (!(capital > 0)) {
+            throw new IllegalArgumentException("initialCapital 必须大于 0");
+        }
+        if (!(positionSize > 0 && positionSize <= 1)) {
+            throw new IllegalArgumentException("positionSize 必须在 (0, 1] 之间");
+        }
+        if (!(feeBps >= 0 && feeBps < 10_000) || !(slippageBps >= 0 && slippageBps < 10_000)) {
+            throw new IllegalArgumentException("feeBps 与 slippageBps 必须在 [0, 10000) 之间");
+        }
+        return new BacktestSettings(capital, positionSize, feeBps * BASIS_POINT, slippageBps * BASIS_POINT,
+                backtestProperties.getTradingDaysPerYear());
+    }
+
+    /**
+     * 解析回测股票范围；先按请求数量或索引计数校验上限，超限时不解析代码、不复制全市场条目
+     */
+    private List<String> universe(BacktestRequest request) {
+        int maxSymbols = backtestProperties.getMaxSymbols();
+        if (request.getSymbols() != null && !request.getSymbols().isEmpty()) {
+            // 代码忽略大小写去重，保留首次出现的写法
+            Map<String, String> requested = new LinkedHashMap<>();
+            for (String symbol : request.getSymbols()) {
+                if (symbol != null && !symbol.isBlank()) {
+                    requested.putIfAbsent(symbol.trim().toUpperCase(Locale.ROOT), symbol.trim());
+                }
+            }
+            if (requested.isEmpty()) {
+                throw new IllegalArgumentException("股票代码不能为空");
+            }
+            requireWithin(requested.size(), maxSymbols);
+            Set<String> resolved = new LinkedHashSet<>();
+            for (String symbol : requested.values()) {
+                resolved.add(stockService.resolveSymbol(symbol));
+            }
+            return new ArrayList<>(resolved);
+        }
+        List<StockSearchIndex.Entry> entries;
+        if (request.getSector() != null && !request.getSector().isBlank()) {
+            String sector = request.getSector().trim();
+            int count = stockSearchIndex.countBySector(sector);
+            requireWithin(count, maxSymbols);
+            entries = stockSearchIndex.findBySector(sector, 0, count);
+        } else {
+            requireWithin(stockSearchIndex.size(), maxSymbols);
+            entries = stockSearchIndex.all();
+        }
+        return entries.stream().map(StockSearchIndex.Entry::getSymbol).toList();
+    }
+
+    private static void requireWithin(int count, int maxSymbols) {
+        if (count > maxSymbols) {
+            throw new IllegalArgumentException("单次最多回测 " + maxSymbols + " 只股票");
+        }
+    }
+
+    private static int resolve(Integer value, int defaultValue, int max, String name) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException(name + " 不能为负数");
+        }
+        return Math.min(value, max);
+    }
+
+    private static int parseDay(String value, int defaultDay) {
+        if (value == null || value.isBlank()) {
+            return defaultDay;
+        }
+        try {
+            return (int) LocalDate.parse(value.trim()).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("日期格式应为 yyyy-MM-dd: " + value);
+        }
+    }
+
+    /**
+     * 重跑一次回测取得权益曲线，超过 points 个点时等间隔抽样（保留首尾）
+     */
+    private static Curve curve(QuoteSlice slice, BacktestStrategy strategy, BacktestSettings settings, int points) {
+        double[] equity = new double[slice.size()];
+        BacktestEngine.run(slice, strategy, settings, equity);
+        int n = Math.min(Math.max(points, 2), equity.length);
+        long[] timestamps = new long[n];
+        double[] values = new double[n];
+        for (int j = 0; j < n; j++) {
+            int i = n == equity.length ? j : (int) Math.round((double) j * (equity.length - 1) / (n - 1));
+            timestamps[j] = slice.day(i) * 86400L;
+            values[j] = equity[i];
+        }
+        return new Curve(timestamps, values);
+    }
+
+    private static List<BacktestComboDTO> summarize(StrategyType type, List<double[]> combos,
+                                                    BacktestStats[] stats, int top) {
+        int comboCount = combos.size();
+        List<BacktestComboDTO> summary = new ArrayList<>(comboCount);
+        for (int c = 0; c < comboCount; c++) {
+            int count = 0;
+            int profitable = 0;
+            double returns = 0;
+            double sharpe = 0;
+            double drawdown = 0;
+            for (int k = c; k < stats.length; k += comboCount) {
+                BacktestStats stat = stats[k];
+                if (stat != null) {
+                    count++;
+                    returns += stat.totalReturn();
+                    sharpe += stat.sharpe();
+                    drawdown += stat.maxDrawdown();
+                    if (stat.totalReturn() > 0) {
+                        profitable++;
+                    }
+                }
+            }
+            if (count > 0) {
+                summary.add(BacktestComboDTO.builder()
+                        .params(params(type, combos.get(c)))
+                        .symbols(count)
+                        .meanReturn(returns / count)
+                        .meanSharpe(sharpe / count)
+                        .meanMaxDrawdown(drawdown / count)
+                        .profitableRatio((double) profitable / count)
+                        .build());
+            }
+        }
+        summary.sort(Comparator.comparingDouble(BacktestComboDTO::getMeanSharpe).reversed());
+        return summary.size() > top ? new ArrayList<>(summary.subList(0, top)) : summary;
+    }
+
+    private static BacktestRunDTO toDTO(StrategyType type, QuoteSlice slice, double[] params,
+                                        BacktestStats stats, Curve curve) {
+        return BacktestRunDTO.builder()
+                .symbol(slice.getSymbol())
+                .params(params(type, params))
+                .startDate(LocalDate.ofEpochDay(slice.day(0)))
+                .endDate(LocalDate.ofEpochDay(slice.day(slice.size() - 1)))
+                .bars(stats.bars())
+                .finalEquity(stats.finalEquity())
+                .totalReturn(stats.totalReturn())
+                .cagr(stats.cagr())
+                .volatility(stats.volatility())
+                .sharpe(stats.sharpe())
+                .maxDrawdown(stats.maxDrawdown())
+                .trades(stats.trades())
+                .roundTrips(stats.roundTrips())
+                .winRate(Double.isFinite(stats.winRate()) ? stats.winRate() : null)
+                .exposure(stats.exposure())
+                .fees(stats.fees())
+                .curveTimestamps(curve == null ? null : curve.timestamps())
+                .curveEquity(curve == null ? null : curve.equity())
+                .build();
+    }
+
+    private static Map<String, Double> params(StrategyType type, double[] values) {
+        Map<String, Double> params = new LinkedHashMap<>();
+        List<String> names = type.getParamNames();
+        for (int i = 0; i < names.size(); i++) {
+            params.put(names.get(i), values[i]);
+        }
+        return params;
+    }
+
+    private record Curve(long[] timestamps, double[] equity) {
+    }
+
+    /**
+     * 排序指标，sortKey 越小越靠前
+     */
+    private enum Metric {
+
+        SHARPE("sharpe", stats -> -stats.sharpe()),
+
+        TOTAL_RETURN("total_return", stats -> -stats.totalReturn()),
+
+        CAGR("cagr", stats -> -stats.cagr()),
+
+        MAX_DRAWDOWN("max_drawdown", BacktestStats::maxDrawdown),
+
+        WIN_RATE("win_rate", stats -> Double.isNaN(stats.winRate()) ? Double.MAX_VALUE : -stats.winRate());
+
+        private final String code;
+
+        private final ToDoubleFunction<BacktestStats> key;
+
+        Metric(String code, ToDoubleFunction<BacktestStats> key) {
+            this.code = code;
+            this.key = key;
+        }
+
+        double sortKey(BacktestStats stats) {
+            return key.applyAsDouble(stats);
+        }
+
+        static Metric fromCode(String code) {
+            if (code == null || code.isBlank()) {
+                return SHARPE;
+            }
+            for (Metric metric : values()) {
+                if (metric.code.equalsIgnoreCase(code.trim())) {
+                    return metric;
+                }
+            }
+            throw new IllegalArgumentException("不支持的排序指标: " + code
+                    + "，可选值: sharpe / total_return / cagr / max_drawdown / win_rate");
+        }
+
+    }
+
+}
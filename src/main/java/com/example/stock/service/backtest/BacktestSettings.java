@@ -0,0 +1,16 @@
+package com.example.stock.service.backtest;
+
+/**
+ * 回测参数（资金、仓位与交易成本）
+ *
+ * @param initialCapital     初始资金
+ * @param positionSize       满仓时投入的权益比例（0, 1]
+ * @param feeRate            手续费率（按成交额）
+ * @param slippageRate       滑点（买入按开盘价上浮、卖出下浮的比例）
+ * @param tradingDaysPerYear 每年交易日数，用于年化
+ * @author Toom
+ * @version 1.0
+ */
+public record BacktestSettings(double initialCapital, double positionSize, double feeRate,
+                               double slippageRate, int tradingDaysPerYear) {
+}
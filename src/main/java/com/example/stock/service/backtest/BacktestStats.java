@@ -0,0 +1,24 @@
+package com.example.stock.service.backtest;
+
+/**
+ * 单次回测的统计结果
+ *
+ * @param bars        参与回测的 K 线数
+ * @param finalEquity 期末权益
+ * @param totalReturn 总收益率
+ * @param cagr        年化收益率
+ * @param volatility  年化波动率（日收益率标准差）
+ * @param sharpe      夏普比率（无风险利率取 0），无波动时为 0
+ * @param maxDrawdown 最大回撤（正数）
+ * @param trades      成交次数（每次调仓算一次）
+ * @param roundTrips  完整的开仓 - 平仓次数
+ * @param winRate     盈利的平仓次数占比，没有平仓时为 NaN
+ * @param exposure    收盘时持仓的 K 线占比
+ * @param fees        累计手续费
+ * @author Toom
+ * @version 1.0
+ */
+public record BacktestStats(int bars, double finalEquity, double totalReturn, double cagr,
+                            double volatility, double sharpe, double maxDrawdown, int trades,
+                            int roundTrips, double winRate, double exposure, double fees) {
+}
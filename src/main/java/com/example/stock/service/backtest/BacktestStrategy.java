@@ -0,0 +1,21 @@
+package com.example.stock.service.backtest;
+
+/**
+ * 回测策略
+ * 每根 K 线收盘后调用一次 {@link #target(double)}，根据收盘价 O(1) 更新内部状态并给出目标仓位，
+ * 由引擎在下一根 K 线开盘时调仓。实例只用于一次回测，不需要线程安全
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public interface BacktestStrategy {
+
+    /**
+     * 输入一根 K 线的收盘价
+     *
+     * @param close 收盘价
+     * @return 目标仓位（0 为空仓，1 为按仓位比例满仓），预热期或无信号时返回 NaN 表示维持当前仓位
+     */
+    double target(double close);
+
+}
@@ -0,0 +1,35 @@
+package com.example.stock.service.backtest;
+
+import com.example.stock.service.indicator.SmaIndicator;
+
+/**
+ * 均线交叉策略：快线在慢线之上时持仓，否则空仓
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class MaCrossStrategy implements BacktestStrategy {
+
+    private final SmaIndicator fast;
+
+    private final SmaIndicator slow;
+
+    public MaCrossStrategy(int fastPeriod, int slowPeriod) {
+        if (fastPeriod >= slowPeriod) {
+            throw new IllegalArgumentException("快线周期必须小于慢线周期");
+        }
+        this.fast = new SmaIndicator(fastPeriod);
+        this.slow = new SmaIndicator(slowPeriod);
+    }
+
+    @Override
+    public double target(double close) {
+        double fastValue = fast.update(close);
+        double slowValue = slow.update(close);
+        if (Double.isNaN(slowValue)) {
+            return Double.NaN;
+        }
+        return fastValue > slowValue ? 1 : 0;
+    }
+
+}
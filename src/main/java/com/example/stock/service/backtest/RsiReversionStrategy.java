@@ -0,0 +1,41 @@
+package com.example.stock.service.backtest;
+
+import com.example.stock.service.indicator.RsiIndicator;
+
+/**
+ * RSI 均值回归策略：RSI 跌破下轨时买入，升破上轨时卖出，其间维持仓位
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class RsiReversionStrategy implements BacktestStrategy {
+
+    private final RsiIndicator rsi;
+
+    private final double lower;
+
+    private final double upper;
+
+    public RsiReversionStrategy(int period, double lower, double upper) {
+        if (lower >= upper) {
+            throw new IllegalArgumentException("RSI 下轨必须小于上轨");
+        }
+        this.rsi = new RsiIndicator(period);
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    @Override
+    public double target(double close) {
+        double value = rsi.update(close);
+        if (value < lower) {
+            return 1;
+        }
+        if (value > upper) {
+            return 0;
+        }
+        // 预热期 value 为 NaN，比较均为 false
+        return Double.NaN;
+    }
+
+}
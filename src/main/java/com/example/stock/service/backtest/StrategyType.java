@@ -0,0 +1,81 @@
+package com.example.stock.service.backtest;
+
+import com.example.stock.service.indicator.IndicatorPeriods;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * 回测策略类型
+ * 参数按声明顺序组成 double[]，请求中按参数名给出取值或网格；
+ * 周期参数与指标接口共用 {@link IndicatorPeriods} 的校验（[1, app.indicator.max-period] 内的整数），
+ * 由调用方传入按配置构造的校验器
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public enum StrategyType {
+
+    MA_CROSS("ma_cross", List.of("fast", "slow"), new double[]{5, 20},
+            (p, v) -> new MaCrossStrategy(v.require("快线周期", p[0]), v.require("慢线周期", p[1]))),
+
+    RSI_REVERSION("rsi_reversion", List.of("period", "lower", "upper"), new double[]{14, 30, 70},
+            (p, v) -> new RsiReversionStrategy(v.require("RSI 周期", p[0]), p[1], p[2]));
+
+    private final String code;
+
+    private final List<String> paramNames;
+
+    private final double[] defaults;
+
+    private final BiFunction<double[], IndicatorPeriods, BacktestStrategy> factory;
+
+    StrategyType(String code, List<String> paramNames, double[] defaults,
+                 BiFunction<double[], IndicatorPeriods, BacktestStrategy> factory) {
+        this.code = code;
+        this.paramNames = paramNames;
+        this.defaults = defaults;
+        this.factory = factory;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public List<String> getParamNames() {
+        return paramNames;
+    }
+
+    double[] defaults() {
+        return defaults.clone();
+    }
+
+    /**
+     * 创建策略实例
+     *
+     * @param params  参数，顺序同 {@link #getParamNames()}
+     * @param periods 周期校验
+     * @throws IllegalArgumentException 参数不合法
+     */
+    public BacktestStrategy create(double[] params, IndicatorPeriods periods) {
+        return factory.apply(params, periods);
+    }
+
+    /**
+     * 根据代码解析类型（忽略大小写）
+     *
+     * @throws IllegalArgumentException 不支持的策略
+     */
+    public static StrategyType fromCode(String code) {
+        if (code == null || code.isBlank()) {
+            throw new IllegalArgumentException("策略不能为空");
+        }
+        for (StrategyType type : values()) {
+            if (type.code.equalsIgnoreCase(code.trim())) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("不支持的策略: " + code + "，可选值: ma_cross / rsi_reversion");
+    }
+
+}
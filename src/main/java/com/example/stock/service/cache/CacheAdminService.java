@@ -0,0 +1,85 @@
+package com.example.stock.service.cache;
+
+import com.example.stock.model.dto.CacheStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 缓存统计与管理
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheAdminService {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * 全部两级缓存的统计
+     */
+    public List<CacheStatsDTO> getStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof TieredCache cache) {
+                stats.add(toDTO(cache.stats()));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 清除一个键（本地与 Redis）
+     *
+     * @param name 缓存名
+     * @param key  键
+     * @throws IllegalArgumentException 缓存不存在
+     */
+    public void evict(String name, String key) {
+        getCache(name).evict(key);
+    }
+
+    /**
+     * 清空一个缓存（本地与 Redis）
+     *
+     * @param name 缓存名
+     * @throws IllegalArgumentException 缓存不存在
+     */
+    public void clear(String name) {
+        getCache(name).clear();
+    }
+
+    private Cache getCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalArgumentException("缓存不存在: " + name);
+        }
+        return cache;
+    }
+
+    private static CacheStatsDTO toDTO(TieredCache.Stats stats) {
+        long hits = stats.l1Hits() + stats.l2Hits();
+        long lookups = hits + stats.misses();
+        return CacheStatsDTO.builder()
+                .name(stats.name())
+                .localSize(stats.localSize())
+                .l1Hits(stats.l1Hits())
+                .l2Hits(stats.l2Hits())
+                .misses(stats.misses())
+                .hitRate(lookups == 0 ? 0 : (double) hits / lookups)
+                .loads(stats.loads())
+                .loadFailures(stats.loadFailures())
+                .averageLoadMillis(stats.loads() == 0 ? 0 : stats.loadNanos() / 1e6 / stats.loads())
+                .collapsedRequests(stats.collapsed())
+                .redisErrors(stats.redisErrors())
+                .redisDegraded(stats.redisDegraded())
+                .build();
+    }
+
+}
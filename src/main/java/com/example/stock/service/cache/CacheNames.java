@@ -0,0 +1,44 @@
+package com.example.stock.service.cache;
+
+import java.util.Locale;
+
+/**
+ * 缓存名称，同时作为 Redis 键前缀（键格式见 PRD：market:candles:{symbol}:{period}）
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class CacheNames {
+
+    /**
+     * 股票详情，键为 {@link #symbolKey(String)}
+     */
+    public static final String STOCK_DETAIL = "market:stock";
+
+    /**
+     * K 线响应体，键为 {symbol}:{period}[:b]@{etag}，带版本，行情写入后自然换键
+     */
+    public static final String CANDLES = "market:candles";
+
+    /**
+     * 最新报价，键为 {@link #symbolKey(String)}
+     */
+    public static final String LATEST_QUOTE = "market:quote";
+
+    /**
+     * AI 分析报告，键为 {symbol}
+     */
+    public static final String AI_REPORT = "ai:report";
+
+    private CacheNames() {
+    }
+
+    /**
+     * 按股票代码缓存时的键：去空白、转大写
+     * 请求中的写法与规范写法得到同一个键，命中缓存时无需先解析代码
+     */
+    public static String symbolKey(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.example.stock.service.cache;
+
+import com.example.stock.config.CacheProperties;
+import com.example.stock.model.entity.QuoteVersion;
+import com.example.stock.repository.QuoteVersionRepository;
+import com.example.stock.service.search.StockSearchIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 响应版本号服务（用于 ETag / Last-Modified 条件请求）
+ * 股票详情取索引中的 lastUpdate，行业列表取索引的变更时间，均为一次内存查找；
+ * 行情版本取 quote_versions 中随每次日线写入递增的持久化版本号，按股票缓存在内存中，
+ * 写入提交后失效、过 app.cache.local-ttl 后重新加载，多实例间的不一致不超过该时长。
+ * 每只股票记录已发出的最高版本，重新加载得到更低的值（如读到落后的副本）时沿用已发出的版本，
+ * 版本号不会回退，不会对已变化的数据返回 304。
+ * 响应体来自内存列式序列时，版本不超过序列自身已包含的版本（{@link #quotes(String, long)}），
+ * 序列尚未追上时发出较旧的版本，客户端不会把旧数据保存在新版本号下
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+public class DataVersionService {
+
+    private final StockSearchIndex stockSearchIndex;
+
+    private final QuoteVersionRepository quoteVersionRepository;
+
+    /**
+     * 股票代码 -> 从数据库加载的行情版本，无行情数据时为 {@link QuoteStamp#NONE}
+     */
+    private final Cache<String, QuoteStamp> quoteVersions;
+
+    /**
+     * 股票代码 -> 已发出的最高行情版本，不过期（条目数不超过股票数）
+     */
+    private final Map<String, QuoteStamp> issuedQuoteVersions = new ConcurrentHashMap<>();
+
+    public DataVersionService(StockSearchIndex stockSearchIndex,
+                              QuoteVersionRepository quoteVersionRepository,
+                              CacheProperties cacheProperties) {
+        this.stockSearchIndex = stockSearchIndex;
+        this.quoteVersionRepository = quoteVersionRepository;
+        this.quoteVersions = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getLocalMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(cacheProperties.getLocalTtl()))
+                .build();
+    }
+
+    /**
+     * 股票基础信息的版本
+     *
+     * @param symbol 规范化后的股票代码
+     * @return 版本，不在索引中或缺少 lastUpdate 时为空
+     */
+    public Optional<Version> stock(String symbol) {
+        return stockSearchIndex.findBySymbol(symbol)
+                .map(StockSearchIndex.Entry::getLastUpdateMillis)
+                .filter(millis -> millis > 0)
+                .map(millis -> Version.of("s", millis));
+    }
+
+    /**
+     * 股票列表（行业等）的版本：任一股票变化都会推进
+     *
+     * @return 版本，索引尚未构建时为空
+     */
+    public Optional<Version> stockList() {
+        long millis = stockSearchIndex.getLastModified();
+        return stockSearchIndex.isReady() && millis > 0 ? Optional.of(Version.of("l", millis)) : Optional.empty();
+    }
+
+    /**
+     * 股票行情（K 线、最新报价）的版本
+     *
+     * @param symbol 规范化后的股票代码
+     * @return 版本，无行情数据时为空
+     */
+    public Optional<Version> quotes(String symbol) {
+        QuoteStamp stamp = quoteStamp(symbol);
+        return stamp.version() <= 0 ? Optional.empty() : Optional.of(stamp.toVersion());
+    }
+
+    /**
+     * 响应体所用数据只包含到 available 版本时的行情版本
+     * 当前版本更新时退回 available，并且不带 Last-Modified（该版本的写入时间未知，按时间校验可能误判未修改）
+     *
+     * @param symbol    规范化后的股票代码
+     * @param available 数据已包含的版本号
+     * @return 版本，无行情数据或数据不含任何版本时为空
+     */
+    public Optional<Version> quotes(String symbol, long available) {
+        QuoteStamp stamp = quoteStamp(symbol);
+        if (stamp.version() <= 0 || available <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(stamp.version() <= available ? stamp.toVersion() : Version.of("q", available, -1));
+    }
+
+    /**
+     * 当前的行情版本号，供内存数据判断是否需要追赶
+     *
+     * @param symbol 规范化后的股票代码
+     * @return 版本号，无行情数据时为 0
+     */
+    public long quoteVersion(String symbol) {
+        return quoteStamp(symbol).version();
+    }
+
+    private QuoteStamp quoteStamp(String symbol) {
+        QuoteStamp loaded = quoteVersions.get(symbol, key -> quoteVersionRepository.findById(key)
+                .map(QuoteStamp::of)
+                .orElse(QuoteStamp.NONE));
+        if (loaded.version() <= 0) {
+            return issuedQuoteVersions.getOrDefault(symbol, QuoteStamp.NONE);
+        }
+        return issuedQuoteVersions.merge(symbol, loaded, QuoteStamp::max);
+    }
+
+    /**
+     * 行情写入提交后失效内存中的版本，下次访问从数据库重新加载；
+     * 须在相关缓存清除之后调用，避免新版本号配旧数据
+     *
+     * @param symbols 有写入的股票代码
+     */
+    public void invalidateQuotes(Collection<String> symbols) {
+        quoteVersions.invalidateAll(symbols);
+    }
+
+    /**
+     * 持久化的行情版本
+     *
+     * @param version       版本号
+     * @param updatedMillis 最后写入时间（epoch 毫秒）
+     */
+    private record QuoteStamp(long version, long updatedMillis) {
+
+        static final QuoteStamp NONE = new QuoteStamp(0, 0);
+
+        static QuoteStamp of(QuoteVersion entity) {
+            return new QuoteStamp(entity.getVersion(),
+                    entity.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        static QuoteStamp max(QuoteStamp a, QuoteStamp b) {
+            return a.version >= b.version ? a : b;
+        }
+
+        Version toVersion() {
+            return Version.of("q", version, updatedMillis);
+        }
+
+    }
+
+    /**
+     * 资源版本
+     *
+     * @param etag         弱 ETag
+     * @param lastModified 最后修改时间（epoch 毫秒）
+     */
+    public record Version(String etag, long lastModified) {
+
+        /**
+         * 同一资源其他表示（如二进制格式）的版本，ETag 追加后缀以示区分
+         *
+         * @param suffix 表示后缀，空串时返回自身
+         */
+        public Version variant(String suffix) {
+            return suffix.isEmpty() ? this
+                    : new Version(etag.substring(0, etag.length() - 1) + '-' + suffix + '"', lastModified);
+        }
+
+        static Version of(String kind, long millis) {
+            return of(kind, millis, millis);
+        }
+
+        static Version of(String kind, long stamp, long lastModified) {
+            // 版本号不是响应体的摘要，使用弱校验器
+            return new Version("W/\"" + kind + Long.toHexString(stamp) + '"', lastModified);
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.stock.service.cache;
+
+import com.example.stock.event.QuotesIngestedEvent;
+import com.example.stock.event.StockSavedEvent;
+import com.example.stock.model.dto.QuoteBarDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 行情数据变更后清除相关缓存
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class MarketDataCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    private final DataVersionService dataVersionService;
+
+    /**
+     * 日线写入后清除最新报价缓存，并失效行情版本号
+     * K 线响应体按版本缓存，版本号失效后自然换键，无需逐个清除；
+     * 排在列式序列追加与周期预聚合之后执行，新版本号生效时两者已完成
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuotesIngested(QuotesIngestedEvent event) {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (QuoteBarDTO bar : event.getBars()) {
+            symbols.add(bar.getSymbol());
+        }
+        Cache quotes = cacheManager.getCache(CacheNames.LATEST_QUOTE);
+        for (String symbol : symbols) {
+            quotes.evict(CacheNames.symbolKey(symbol));
+        }
+        dataVersionService.invalidateQuotes(symbols);
+        log.debug("清除行情缓存，股票数: {}", symbols.size());
+    }
+
+    /**
+     * 股票信息提交后清除详情缓存
+     * 在事务提交后执行，避免并发读取在提交前把旧数据重新写回缓存；
+     * 先于搜索索引更新执行，索引中的新版本号生效时旧缓存已不存在
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockSaved(StockSavedEvent event) {
+        cacheManager.getCache(CacheNames.STOCK_DETAIL).evict(CacheNames.symbolKey(event.getStock().getSymbol()));
+    }
+
+}
@@ -0,0 +1,585 @@
+package com.example.stock.service.cache;
+
+import com.example.stock.metrics.RequestTrace;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 两级缓存：进程内 Caffeine（L1）+ Redis（L2）
+ * Redis 键为 "缓存名:键"，如 market:candles:AAPL:1d；L1 的 TTL 较短，用于吸收热点读并限制跨实例的不一致时间。
+ * 同一个键的并发未命中只会触发一次加载，其余调用等待同一个结果；
+ * 批量读写用 MGET 与管道各一次往返。
+ * Redis 不可用时自动降级为只用 L1，并在重试间隔后再尝试连接。
+ * 失效与回填：evict / clear 递增失效序号并为键记下墓碑，读取或加载开始前记下序号，
+ * 回填 L1 / L2 后若发现期间该键已被失效则撤销回填，避免加载中途的失效被旧值覆盖；
+ * Redis 删除失败（或降级期间）的键排队，下次访问 Redis 前先补删，补删完成前不读 Redis
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Slf4j
+public class TieredCache extends AbstractValueAdaptingCache {
+
+    /**
+     * clear() 时每批 SCAN / DEL 的键数
+     */
+    private static final int CLEAR_BATCH_SIZE = 500;
+
+    /**
+     * 待补删的 Redis 键数上限，超过后改为恢复时整体清空本缓存前缀
+     */
+    private static final int MAX_PENDING_EVICTIONS = 10_000;
+
+    private final String name;
+
+    private final Class<?> valueType;
+
+    private final Duration ttl;
+
+    private final Cache<Object, Object> local;
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final long redisRetryNanos;
+
+    private final Map<Object, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+
+    /**
+     * 失效序号，evict / clear 时递增
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 最近失效的键 -> 失效序号；容量与 L1 相同
+     */
+    private final Cache<Object, Long> tombstones;
+
+    /**
+     * clear 的序号及因容量被淘汰的墓碑中的最大序号：墓碑已不在时按此判断，宁可少回填
+     */
+    private final AtomicLong evictedFloor = new AtomicLong();
+
+    /**
+     * Redis 删除失败、待补删的键
+     */
+    private final Set<Object> pendingEvictions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Redis 清空失败、待补做
+     */
+    private final AtomicBoolean pendingClear = new AtomicBoolean();
+
+    /**
+     * Redis 恢复访问的时间点（System.nanoTime），0 表示正常
+     */
+    private volatile long redisRetryAt;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+
+    /**
+     * @param name           缓存名，同时作为 Redis 键前缀
+     * @param valueType      值类型，用于 Redis 中 JSON 的反序列化
+     * @param ttl            Redis 中的过期时间
+     * @param localTtl       L1 过期时间（不超过 ttl）
+     * @param localMaxSize   L1 最大条目数
+     * @param redisTemplate  Redis 访问模板，为空时只使用 L1
+     * @param objectMapper   JSON 序列化
+     * @param redisRetry     Redis 出错后暂停访问的时长
+     */
+    public TieredCache(String name, Class<?> valueType, Duration ttl, Duration localTtl, long localMaxSize,
+                       RedisTemplate<String, byte[]> redisTemplate, ObjectMapper objectMapper, Duration redisRetry) {
+        super(false);
+        this.name = name;
+        this.valueType = valueType;
+        this.ttl = ttl;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl.compareTo(ttl) < 0 ? localTtl : ttl)
+                .build();
+        this.tombstones = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .<Object, Long>evictionListener((key, evicted, cause) ->
+                        evictedFloor.accumulateAndGet(evicted, Math::max))
+                .build();
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisRetryNanos = redisRetry.toNanos();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        long observed = generation.get();
+        value = readRemote(key);
+        if (value != null) {
+            l2Hits.increment();
+            local.put(key, value);
+            if (evictedSince(key, observed)) {
+                local.invalidate(key);
+            }
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 读取缓存，未命中时加载；同一个键同时只有一个调用执行 valueLoader
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(key, mine);
+        if (existing != null) {
+            collapsed.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                // 与执行加载的调用抛出同样的异常
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new ValueRetrievalException(key, valueLoader, cause);
+            }
+        }
+
+        try {
+            // 排队期间可能已有其他调用完成加载
+            long observed = generation.get();
+            Object value = local.getIfPresent(key);
+            if (value == null) {
+                long start = System.nanoTime();
+                loads.increment();
+                try {
+                    value = valueLoader.call();
+                } finally {
+                    loadNanos.add(System.nanoTime() - start);
+                }
+                if (value != null) {
+                    putLoaded(key, value, observed);
+                }
+            }
+            mine.complete(value);
+            return (T) value;
+        } catch (Exception e) {
+            loadFailures.increment();
+            mine.completeExceptionally(e);
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 批量读取：先查 L1，L1 未命中的键用一次 Redis MGET 读取并回填 L1
+     *
+     * @param keys 缓存键
+     * @return 命中的键值，未命中的键不出现在结果中
+     */
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>();
+        List<Object> remoteKeys = new ArrayList<>();
+        long observed = generation.get();
+        for (Object key : keys) {
+            Object value = local.getIfPresent(key);
+            if (value != null) {
+                l1Hits.increment();
+                found.put(key, value);
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        if (!remoteKeys.isEmpty()) {
+            List<byte[]> values = readRemote(remoteKeys);
+            for (int i = 0; i < remoteKeys.size(); i++) {
+                Object value = values == null ? null : deserialize(remoteKeys.get(i), values.get(i));
+                if (value != null) {
+                    l2Hits.increment();
+                    local.put(remoteKeys.get(i), value);
+                    if (evictedSince(remoteKeys.get(i), observed)) {
+                        local.invalidate(remoteKeys.get(i));
+                    }
+                    found.put(remoteKeys.get(i), value);
+                } else {
+                    misses.increment();
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 批量写入：写 L1，并用一次 Redis 管道写入全部条目
+     *
+     * @param entries 缓存键值，值不能为空
+     */
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        local.putAll(entries);
+        if (!redisReady()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            Map<byte[], byte[]> serialized = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : entries.entrySet()) {
+                Object value = entry.getValue();
+                serialized.put(redisKey(entry.getKey()).getBytes(StandardCharsets.UTF_8),
+                        value instanceof byte[] raw ? raw : objectMapper.writeValueAsBytes(value));
+            }
+            long seconds = Math.max(1, ttl.toSeconds());
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                serialized.forEach((key, bytes) -> connection.stringCommands().setEx(key, seconds, bytes));
+                return null;
+            });
+        } catch (Exception e) {
+            redisFailed("批量写入", e);
+        } finally {
+            RequestTrace.record(RequestTrace.REDIS, start);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        local.put(key, value);
+        writeRemote(key, value);
+    }
+
+    /**
+     * 失效本地与 Redis 中的键；进行中的加载不会再回填该键。Redis 删除失败时排队，下次访问 Redis 前补删
+     */
+    @Override
+    public void evict(Object key) {
+        tombstones.put(key, generation.incrementAndGet());
+        local.invalidate(key);
+        if (redisTemplate == null) {
+            return;
+        }
+        if (!redisAvailable()) {
+            queueEviction(key);
+            return;
+        }
+        try {
+            redisTemplate.delete(redisKey(key));
+        } catch (Exception e) {
+            redisFailed("删除", e);
+            queueEviction(key);
+        }
+    }
+
+    /**
+     * 清空 L1，并用 SCAN 分批删除 Redis 中本缓存前缀下的键
+     * 本实例的 L1 立即失效；其他实例的 L1 在其 TTL 内过期。Redis 清空失败时在恢复后补做
+     */
+    @Override
+    public void clear() {
+        evictedFloor.accumulateAndGet(generation.incrementAndGet(), Math::max);
+        local.invalidateAll();
+        if (redisTemplate == null) {
+            return;
+        }
+        if (!redisAvailable()) {
+            pendingClear.set(true);
+            return;
+        }
+        try {
+            long deleted = clearRemote();
+            log.info("清空缓存: {}，删除 Redis 键 {} 个", name, deleted);
+        } catch (Exception e) {
+            redisFailed("清空", e);
+            pendingClear.set(true);
+        }
+    }
+
+    /**
+     * 当前统计快照
+     */
+    public Stats stats() {
+        return new Stats(name, local.estimatedSize(), l1Hits.sum(), l2Hits.sum(), misses.sum(),
+                loads.sum(), loadFailures.sum(), loadNanos.sum(), collapsed.sum(), redisErrors.sum(),
+                redisTemplate != null && !redisAvailable());
+    }
+
+    /**
+     * 加载结果回填两级缓存；回填后发现加载期间该键已被失效时撤销
+     */
+    private void putLoaded(Object key, Object value, long observed) {
+        local.put(key, value);
+        writeRemote(key, value);
+        if (evictedSince(key, observed)) {
+            local.invalidate(key);
+            if (redisReady()) {
+                try {
+                    redisTemplate.delete(redisKey(key));
+                } catch (Exception e) {
+                    redisFailed("删除", e);
+                    queueEviction(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * 序号 observed 之后该键是否被失效过
+     */
+    private boolean evictedSince(Object key, long observed) {
+        Long evicted = tombstones.getIfPresent(key);
+        return Math.max(evicted == null ? 0 : evicted, evictedFloor.get()) > observed;
+    }
+
+    private Object readRemote(Object key) {
+        if (!redisReady()) {
+            return null;
+        }
+        byte[] bytes;
+        long start = System.nanoTime();
+        try {
+            bytes = redisTemplate.opsForValue().get(redisKey(key));
+        } catch (Exception e) {
+            redisFailed("读取", e);
+            return null;
+        } finally {
+            RequestTrace.record(RequestTrace.REDIS, start);
+        }
+        return deserialize(key, bytes);
+    }
+
+    /**
+     * MGET 读取多个键，结果与 keys 一一对应；Redis 不可用时为空
+     */
+    private List<byte[]> readRemote(List<Object> keys) {
+        if (!redisReady()) {
+            return null;
+        }
+        List<String> redisKeys = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            redisKeys.add(redisKey(key));
+        }
+        long start = System.nanoTime();
+        try {
+            List<byte[]> values = redisTemplate.opsForValue().multiGet(redisKeys);
+            return values != null && values.size() == keys.size() ? values : null;
+        } catch (Exception e) {
+            redisFailed("批量读取", e);
+            return null;
+        } finally {
+            RequestTrace.record(RequestTrace.REDIS, start);
+        }
+    }
+
+    private Object deserialize(Object key, byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (valueType == byte[].class) {
+            return bytes;
+        }
+        try {
+            return objectMapper.readValue(bytes, valueType);
+        } catch (IOException e) {
+            log.warn("缓存反序列化失败，丢弃: {} - {}", redisKey(key), e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(Object key, Object value) {
+        if (!redisReady()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            byte[] bytes = value instanceof byte[] raw ? raw : objectMapper.writeValueAsBytes(value);
+            redisTemplate.opsForValue().set(redisKey(key), bytes, ttl);
+        } catch (Exception e) {
+            redisFailed("写入", e);
+        } finally {
+            RequestTrace.record(RequestTrace.REDIS, start);
+        }
+    }
+
+    private boolean redisAvailable() {
+        if (redisTemplate == null) {
+            return false;
+        }
+        long retryAt = redisRetryAt;
+        return retryAt == 0 || System.nanoTime() - retryAt >= 0;
+    }
+
+    /**
+     * Redis 可用且排队的补删已完成；补删失败时本次不访问 Redis，避免读到已失效的值
+     */
+    private boolean redisReady() {
+        return redisAvailable() && flushPendingEvictions();
+    }
+
+    private boolean flushPendingEvictions() {
+        if (!pendingClear.get() && pendingEvictions.isEmpty()) {
+            return true;
+        }
+        synchronized (pendingEvictions) {
+            try {
+                if (pendingClear.getAndSet(false)) {
+                    try {
+                        log.info("补做清空缓存: {}，删除 Redis 键 {} 个", name, clearRemote());
+                    } catch (RuntimeException e) {
+                        pendingClear.set(true);
+                        throw e;
+                    }
+                }
+                if (!pendingEvictions.isEmpty()) {
+                    List<Object> keys = new ArrayList<>(pendingEvictions);
+                    List<String> redisKeys = new ArrayList<>(keys.size());
+                    for (Object key : keys) {
+                        redisKeys.add(redisKey(key));
+                    }
+                    deleteRemote(redisKeys);
+                    pendingEvictions.removeAll(keys);
+                    log.info("补删缓存: {}，Redis 键 {} 个", name, keys.size());
+                }
+                return true;
+            } catch (Exception e) {
+                redisFailed("补删", e);
+                return false;
+            }
+        }
+    }
+
+    private void queueEviction(Object key) {
+        pendingEvictions.add(key);
+        if (pendingEvictions.size() > MAX_PENDING_EVICTIONS) {
+            pendingClear.set(true);
+            pendingEvictions.clear();
+        }
+    }
+
+    private void redisFailed(String action, Exception e) {
+        redisErrors.increment();
+        boolean wasAvailable = redisAvailable();
+        redisRetryAt = System.nanoTime() + redisRetryNanos;
+        if (wasAvailable) {
+            log.warn("Redis {}失败，暂时只使用本地缓存: {} - {}", action, name, e.getMessage());
+        } else {
+            log.debug("Redis {}失败: {} - {}", action, name, e.getMessage());
+        }
+    }
+
+    /**
+     * 用 SCAN 分批删除本缓存前缀下的键
+     */
+    private long clearRemote() {
+        ScanOptions options = ScanOptions.scanOptions().match(name + ":*").count(CLEAR_BATCH_SIZE).build();
+        List<String> batch = new ArrayList<>(CLEAR_BATCH_SIZE);
+        long deleted = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == CLEAR_BATCH_SIZE) {
+                    deleted += deleteRemote(batch);
+                    batch = new ArrayList<>(CLEAR_BATCH_SIZE);
+                }
+            }
+            deleted += deleteRemote(batch);
+        }
+        return deleted;
+    }
+
+    private long deleteRemote(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long deleted = redisTemplate.delete(keys);
+        return deleted == null ? 0 : deleted;
+    }
+
+    private String redisKey(Object key) {
+        return name + ':' + key;
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @param name          缓存名
+     * @param localSize     L1 条目数（估算）
+     * @param l1Hits        L1 命中次数
+     * @param l2Hits        L2 命中次数
+     * @param misses        两级都未命中的次数
+     * @param loads         实际加载次数
+     * @param loadFailures  加载失败次数
+     * @param loadNanos     加载总耗时（纳秒）
+     * @param collapsed     被合并到进行中加载的请求数
+     * @param redisErrors   Redis 访问失败次数
+     * @param redisDegraded 当前是否因 Redis 故障降级
+     */
+    public record Stats(String name, long localSize, long l1Hits, long l2Hits, long misses, long loads,
+                        long loadFailures, long loadNanos, long collapsed, long redisErrors,
+                        boolean redisDegraded) {
+    }
+
+}
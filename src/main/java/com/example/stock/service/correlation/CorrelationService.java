@@ -0,0 +1,194 @@
+package com.example.stock.service.correlation;
+
+import com.example.stock.config.CorrelationProperties;
+import com.example.stock.model.dto.CorrelationMatrixDTO;
+import com.example.stock.model.dto.CorrelationRequest;
+import com.example.stock.service.StockService;
+import com.example.stock.service.search.StockSearchIndex;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 相关系数 / 协方差矩阵服务
+ * 矩阵按 (股票集合, 窗口) 缓存，同一组股票换一种矩阵类型或精度不需要重算；
+ * 有新行情时在下次访问时滚动更新，否则直接复用。
+ * 全量计算在专用 fork-join 线程池上分块并行，不占用公共线程池
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class CorrelationService {
+
+    private static final int MAX_PRECISION = 6;
+
+    private final StockSearchIndex stockSearchIndex;
+
+    private final QuoteSeriesStore quoteSeriesStore;
+
+    private final StockService stockService;
+
+    private final CorrelationProperties correlationProperties;
+
+    private final ForkJoinPool pool;
+
+    private final Cache<CacheKey, RollingCovariance> cache;
+
+    public CorrelationService(StockSearchIndex stockSearchIndex,
+                              QuoteSeriesStore quoteSeriesStore,
+                              StockService stockService,
+                              CorrelationProperties correlationProperties) {
+        this.stockSearchIndex = stockSearchIndex;
+        this.quoteSeriesStore = quoteSeriesStore;
+        this.stockService = stockService;
+        this.correlationProperties = correlationProperties;
+        int parallelism = correlationProperties.getParallelism() > 0
+                ? correlationProperties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(correlationProperties.getCacheMaxCells())
+                .weigher((CacheKey key, RollingCovariance value) -> value.weight())
+                .expireAfterAccess(Duration.ofSeconds(correlationProperties.getCacheExpireSeconds()))
+                .build();
+    }
+
+    /**
+     * 计算相关系数或协方差矩阵
+     *
+     * @param request 矩阵请求
+     * @return 上三角按行展开的矩阵
+     * @throws IllegalArgumentException                         参数不合法、股票不足两只或共同交易日不足
+     * @throws com.example.stock.exception.StockNotFoundException 指定的股票不存在
+     */
+    public CorrelationMatrixDTO compute(CorrelationRequest request) {
+        long start = System.nanoTime();
+        boolean covariance = parseType(request.getType());
+        int window = request.getWindow() == null ? correlationProperties.getDefaultWindow() : request.getWindow();
+        if (window < 2 || window > correlationProperties.getMaxWindow()) {
+            throw new IllegalArgumentException("window 取值范围为 2 ~ " + correlationProperties.getMaxWindow());
+        }
+        int precision = request.getPrecision() == null
+                ? correlationProperties.getDefaultPrecision() : request.getPrecision();
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision 取值范围为 0 ~ " + MAX_PRECISION);
+        }
+
+        List<String> universe = universe(request);
+        List<String> included = new ArrayList<>(universe.size());
+        List<QuoteSeries> series = new ArrayList<>(universe.size());
+        List<String> excluded = new ArrayList<>();
+        for (String symbol : universe) {
+            QuoteSeries loaded = quoteSeriesStore.getOrLoad(symbol);
+            if (loaded.size() > window) {
+                included.add(symbol);
+                series.add(loaded);
+            } else {
+                excluded.add(symbol);
+            }
+        }
+        if (included.size() < 2) {
+            throw new IllegalArgumentException("K 线数超过 " + window + " 根的股票不足两只");
+        }
+
+        String[] symbols = included.toArray(String[]::new);
+        RollingCovariance matrix = cache.get(new CacheKey(Arrays.asList(symbols), window),
+                key -> new RollingCovariance(symbols, window));
+        RollingCovariance.Snapshot snapshot = matrix.catchUp(series.toArray(QuoteSeries[]::new), pool,
+                correlationProperties.getBlockSize(), correlationProperties.getRebuildInterval(), covariance, precision);
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("{}矩阵计算完成，股票: {}，排除: {}，窗口: {}，方式: {}，耗时: {} ms", covariance ? "协方差" : "相关系数",
+                symbols.length, excluded.size(), window, snapshot.computation(), elapsedMillis);
+        return CorrelationMatrixDTO.builder()
+                .type(covariance ? "covariance" : "correlation")
+                .symbols(included)
+                .excluded(excluded)
+                .window(window)
+                .startDate(LocalDate.ofEpochDay(snapshot.firstDay()))
+                .endDate(LocalDate.ofEpochDay(snapshot.lastDay()))
+                .computation(snapshot.computation().name().toLowerCase(Locale.ROOT))
+                .elapsedMillis(elapsedMillis)
+                .values(snapshot.values())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static boolean parseType(String type) {
+        if (type == null || type.isBlank() || "correlation".equalsIgnoreCase(type.trim())) {
+            return false;
+        }
+        if ("covariance".equalsIgnoreCase(type.trim())) {
+            return true;
+        }
+        throw new IllegalArgumentException("不支持的矩阵类型: " + type + "，可选: correlation / covariance");
+    }
+
+    /**
+     * 股票集合，按代码升序，使同一组股票无论请求顺序如何都命中同一缓存
+     */
+    private List<String> universe(CorrelationRequest request) {
+        TreeSet<String> resolved = new TreeSet<>();
+        if (request.getSymbols() != null && !request.getSymbols().isEmpty()) {
+            // 先按原始代码去重计数再逐个解析，超限的请求不做任何查找
+            Set<String> requested = new LinkedHashSet<>();
+            for (String symbol : request.getSymbols()) {
+                if (symbol != null && !symbol.isBlank()) {
+                    requested.add(symbol.trim());
+                }
+            }
+            if (requested.size() > correlationProperties.getMaxSymbols()) {
+                throw new IllegalArgumentException("单次最多计算 " + correlationProperties.getMaxSymbols() + " 只股票");
+            }
+            for (String symbol : requested) {
+                resolved.add(stockService.resolveSymbol(symbol));
+            }
+        } else if (request.getSector() != null && !request.getSector().isBlank()) {
+            String sector = request.getSector().trim();
+            int count = stockSearchIndex.countBySector(sector);
+            if (count == 0) {
+                throw new IllegalArgumentException("行业不存在: " + sector);
+            }
+            if (count > correlationProperties.getMaxSymbols()) {
+                throw new IllegalArgumentException("行业 " + sector + " 有 " + count + " 只股票，单次最多计算 "
+                        + correlationProperties.getMaxSymbols() + " 只");
+            }
+            stockSearchIndex.findBySector(sector, 0, count)
+                    .forEach(entry -> resolved.add(entry.getSymbol()));
+        } else {
+            throw new IllegalArgumentException("symbols 与 sector 不能同时为空");
+        }
+        if (resolved.size() < 2) {
+            throw new IllegalArgumentException("至少需要两只股票");
+        }
+        return new ArrayList<>(resolved);
+    }
+
+    /**
+     * 缓存键：升序股票代码 + 窗口
+     */
+    private record CacheKey(List<String> symbols, int window) {
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.example.stock.service.correlation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 收益率矩阵的叉积计算
+ * 输入为按行存放的 n × t 收益率矩阵 x，输出 n × n 的 P = x·xᵀ。
+ * 全量计算把 P 的上三角切成 block × block 的分块，各分块在线程池上并行；
+ * 分块内再按时间维切成 {@link #DEPTH} 列一段，使参与计算的 2 × block 行片段常驻 L2 缓存。
+ * 滚动窗口移动一天只需秩 2 更新 P += a·aᵀ - r·rᵀ，按行并行
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class CovarianceKernel {
+
+    /**
+     * 时间维分段长度
+     */
+    static final int DEPTH = 256;
+
+    private CovarianceKernel() {
+    }
+
+    /**
+     * 全量计算 P = x·xᵀ
+     *
+     * @param x     收益率矩阵，第 i 行为 x[i * t, (i + 1) * t)
+     * @param n     行数（股票数）
+     * @param t     列数（收益率个数）
+     * @param p     输出，长度 n × n，会被整体覆盖
+     * @param block 分块行数
+     * @param pool  线程池
+     */
+    public static void crossProducts(double[] x, int n, int t, double[] p, int block, ForkJoinPool pool) {
+        int blocks = (n + block - 1) / block;
+        int tiles = blocks * (blocks + 1) / 2;
+        int[] tileRows = new int[tiles];
+        int[] tileCols = new int[tiles];
+        int k = 0;
+        for (int bi = 0; bi < blocks; bi++) {
+            for (int bj = bi; bj < blocks; bj++) {
+                tileRows[k] = bi;
+                tileCols[k] = bj;
+                k++;
+            }
+        }
+        pool.submit(() -> IntStream.range(0, tiles).parallel()
+                .forEach(tile -> tile(x, n, t, p, block, tileRows[tile], tileCols[tile]))).join();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                p[j * n + i] = p[i * n + j];
+            }
+        }
+    }
+
+    /**
+     * 秩 2 更新：P += add·addᵀ - remove·removeᵀ，保持对称
+     *
+     * @param p      n × n 矩阵
+     * @param n      行数
+     * @param add    加入窗口的一列收益率
+     * @param remove 移出窗口的一列收益率
+     * @param pool   线程池
+     */
+    public static void rankTwoUpdate(double[] p, int n, double[] add, double[] remove, ForkJoinPool pool) {
+        // 第 i 行任务只写上三角的 (i, j≥i) 与其镜像 (j, i)，各任务写入的位置互不重叠
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(i -> {
+            double a = add[i];
+            double r = remove[i];
+            int row = i * n;
+            for (int j = i; j < n; j++) {
+                double value = p[row + j] + a * add[j] - r * remove[j];
+                p[row + j] = value;
+                p[j * n + i] = value;
+            }
+        })).join();
+    }
+
+    private static void tile(double[] x, int n, int t, double[] p, int block, int bi, int bj) {
+        int i0 = bi * block;
+        int i1 = Math.min(n, i0 + block);
+        int j0 = bj * block;
+        int j1 = Math.min(n, j0 + block);
+        for (int i = i0; i < i1; i++) {
+            Arrays.fill(p, i * n + (bi == bj ? i : j0), i * n + j1, 0);
+        }
+        for (int k0 = 0; k0 < t; k0 += DEPTH) {
+            int length = Math.min(DEPTH, t - k0);
+            // 2 × 2 寄存器分块：每次读入的两行 i 与两行 j 同时参与四个点积，访存减半
+            for (int i = i0; i < i1; i += 2) {
+                boolean pairI = i + 1 < i1;
+                for (int j = bi == bj ? i : j0; j < j1; j += 2) {
+                    if (pairI && j + 1 < j1) {
+                        dot2x2(x, i * t + k0, j * t + k0, t, length, p, i * n + j, n);
+                    } else {
+                        for (int ii = i; ii < Math.min(i + 2, i1); ii++) {
+                            for (int jj = Math.max(j, ii); jj < Math.min(j + 2, j1); jj++) {
+                                p[ii * n + jj] += dot(x, ii * t + k0, jj * t + k0, length);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 行 a、a + t 与行 b、b + t 的四个点积，累加到 p[out]、p[out + 1]、p[out + n]、p[out + n + 1]；
+     * 对角分块中 (i + 1, i) 落在下三角，随后被镜像覆盖
+     */
+    private static void dot2x2(double[] x, int a, int b, int t, int length, double[] p, int out, int n) {
+        double s00 = 0;
+        double s01 = 0;
+        double s10 = 0;
+        double s11 = 0;
+        for (int k = 0; k < length; k++) {
+            double a0 = x[a + k];
+            double a1 = x[a + t + k];
+            double b0 = x[b + k];
+            double b1 = x[b + t + k];
+            s00 += a0 * b0;
+            s01 += a0 * b1;
+            s10 += a1 * b0;
+            s11 += a1 * b1;
+        }
+        p[out] += s00;
+        p[out + 1] += s01;
+        p[out + n] += s10;
+        p[out + n + 1] += s11;
+    }
+
+    /**
+     * 四路累加的点积，打破加法依赖链
+     */
+    static double dot(double[] x, int a, int b, int length) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int k = 0;
+        for (; k + 3 < length; k += 4) {
+            s0 += x[a + k] * x[b + k];
+            s1 += x[a + k + 1] * x[b + k + 1];
+            s2 += x[a + k + 2] * x[b + k + 2];
+            s3 += x[a + k + 3] * x[b + k + 3];
+        }
+        for (; k < length; k++) {
+            s0 += x[a + k] * x[b + k];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+}
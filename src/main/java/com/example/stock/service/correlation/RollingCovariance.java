@@ -0,0 +1,387 @@
+package com.example.stock.service.correlation;
+
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSlice;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 一组股票在最近 window 个共同交易日上的滚动收益率协方差
+ * 各股票的日线按日期取交集对齐，收益率为相邻共同交易日收盘价的简单收益率，
+ * 按行存入 n × window 的环形矩阵；同时维护各行之和 S 与叉积矩阵 P = X·Xᵀ，
+ * 协方差由 (P - S·Sᵀ / T) / (T - 1) 得出。
+ * 窗口前移一天时以秩 2 更新替换最旧的一列，代价 O(n²)，而全量计算为 O(n² · T)；
+ * 最后一个交易日的收盘被修正时以同样方式替换最新一列。
+ * 与指标缓存一样在访问时追赶行情，由 {@link #catchUp} 加锁串行执行，并在同一把锁内生成结果快照；
+ * 传入的序列比上次使用的旧（如请求持有已失效的序列）时不回退，直接返回当前结果
+ *
+ * @author Toom
+ * @version 1.0
+ */
+final class RollingCovariance {
+
+    /**
+     * 本次访问的计算方式
+     */
+    enum Computation {
+        FULL, INCREMENTAL, CACHED
+    }
+
+    private final String[] symbols;
+
+    private final int n;
+
+    private final int window;
+
+    private final double[] returns;
+
+    private final int[] days;
+
+    private final double[] sums;
+
+    private final double[] products;
+
+    private final double[] lastCloses;
+
+    private final double[] previousCloses;
+
+    private final double[] added;
+
+    private final double[] removed;
+
+    private QuoteSeries[] sources;
+
+    private int head;
+
+    private int lastDay;
+
+    private int updates;
+
+    private float[] correlation;
+
+    private int correlationPrecision;
+
+    private float[] covariance;
+
+    RollingCovariance(String[] symbols, int window) {
+        this.symbols = symbols;
+        this.n = symbols.length;
+        this.window = window;
+        this.returns = new double[n * window];
+        this.days = new int[window];
+        this.sums = new double[n];
+        this.products = new double[n * n];
+        this.lastCloses = new double[n];
+        this.previousCloses = new double[n];
+        this.added = new double[n];
+        this.removed = new double[n];
+    }
+
+    /**
+     * 缓存权重：协方差矩阵与收益率矩阵的单元数
+     */
+    int weight() {
+        return n * (n + window);
+    }
+
+    /**
+     * 追赶到最新行情并取出结果
+     *
+     * @param series          与 symbols 一一对应的当前序列
+     * @param pool            并行计算线程池
+     * @param block           分块行数
+     * @param rebuildInterval 增量更新多少次后整体重算
+     * @param covariance      true 取协方差矩阵，false 取相关系数矩阵
+     * @param precision       相关系数保留的小数位数
+     * @return 同一时刻的矩阵与窗口日期
+     * @throws IllegalArgumentException 共同交易日不足 window + 1 个
+     */
+    synchronized Snapshot catchUp(QuoteSeries[] series, ForkJoinPool pool, int block, int rebuildInterval,
+                                  boolean covariance, int precision) {
+        Computation computation = update(series, pool, block, rebuildInterval);
+        return new Snapshot(computation, covariance ? covariance() : correlation(precision), days[head], lastDay);
+    }
+
+    private Computation update(QuoteSeries[] series, ForkJoinPool pool, int block, int rebuildInterval) {
+        if (sources == null) {
+            rebuild(series, pool, block);
+            return Computation.FULL;
+        }
+        if (!Arrays.equals(sources, series)) {
+            // 序列对象不同：重新加载（历史回补）后的新序列需要重算；
+            // 比已使用的序列更旧的（请求在失效前取得的旧对象）不能把结果回退到旧数据
+            for (int i = 0; i < n; i++) {
+                if (series[i] != sources[i] && series[i].lastDay() < sources[i].lastDay()) {
+                    return Computation.CACHED;
+                }
+            }
+            rebuild(series, pool, block);
+            return Computation.FULL;
+        }
+        QuoteSlice[] slices = new QuoteSlice[n];
+        int[] cursors = new int[n];
+        boolean revised = false;
+        for (int i = 0; i < n; i++) {
+            slices[i] = series[i].slice();
+            int index = indexOf(slices[i], lastDay);
+            if (index < 0) {
+                rebuild(series, pool, block);
+                return Computation.FULL;
+            }
+            double close = close(slices[i], index);
+            if (close != lastCloses[i]) {
+                revised = true;
+            }
+            cursors[i] = index + 1;
+        }
+        boolean changed = false;
+        if (revised) {
+            reviseLast(slices, cursors, pool);
+            changed = true;
+        }
+        int advanced = 0;
+        while (true) {
+            int day = nextCommonDay(slices, cursors);
+            if (day == Integer.MIN_VALUE) {
+                break;
+            }
+            // 新交易日达到一个窗口时整体重算不比逐日更新慢
+            if (++advanced >= window || ++updates >= rebuildInterval) {
+                rebuild(series, pool, block);
+                return Computation.FULL;
+            }
+            advance(slices, cursors, day, pool);
+            changed = true;
+        }
+        if (!changed) {
+            return Computation.CACHED;
+        }
+        correlation = null;
+        covariance = null;
+        return Computation.INCREMENTAL;
+    }
+
+    /**
+     * 相关系数矩阵的上三角（不含对角线），按行展开，保留 precision 位小数
+     */
+    private float[] correlation(int precision) {
+        if (correlation != null && correlationPrecision == precision) {
+            return correlation;
+        }
+        double scale = Math.pow(10, precision);
+        double[] deviations = new double[n];
+        for (int i = 0; i < n; i++) {
+            double variance = covariance(i, i);
+            deviations[i] = variance > 0 ? Math.sqrt(variance) : 0;
+        }
+        float[] values = new float[n * (n - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double denominator = deviations[i] * deviations[j];
+                double value = denominator > 0 ? covariance(i, j) / denominator : 0;
+                value = Math.max(-1, Math.min(1, value));
+                values[k++] = (float) (Math.round(value * scale) / scale);
+            }
+        }
+        correlation = values;
+        correlationPrecision = precision;
+        return values;
+    }
+
+    /**
+     * 协方差矩阵的上三角（含对角线），按行展开
+     */
+    private float[] covariance() {
+        if (covariance != null) {
+            return covariance;
+        }
+        float[] values = new float[n * (n + 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                values[k++] = (float) covariance(i, j);
+            }
+        }
+        covariance = values;
+        return values;
+    }
+
+    String[] symbols() {
+        return symbols;
+    }
+
+    int window() {
+        return window;
+    }
+
+    private double covariance(int i, int j) {
+        return (products[i * n + j] - sums[i] * sums[j] / window) / (window - 1);
+    }
+
+    /**
+     * 从各序列末尾向前归并，取最近 window + 1 个共同交易日，全量计算
+     */
+    private void rebuild(QuoteSeries[] series, ForkJoinPool pool, int block) {
+        QuoteSlice[] slices = new QuoteSlice[n];
+        int[] cursors = new int[n];
+        for (int i = 0; i < n; i++) {
+            slices[i] = series[i].slice();
+            cursors[i] = slices[i].size() - 1;
+        }
+        int points = window + 1;
+        double[] closes = new double[n * points];
+        int[] commonDays = new int[points];
+        for (int k = points - 1; k >= 0; k--) {
+            int day = previousCommonDay(slices, cursors);
+            if (day == Integer.MIN_VALUE) {
+                throw new IllegalArgumentException("共同交易日不足 " + points + " 个，无法计算窗口为 "
+                        + window + " 的收益率矩阵");
+            }
+            commonDays[k] = day;
+            for (int i = 0; i < n; i++) {
+                closes[i * points + k] = close(slices[i], cursors[i]);
+                cursors[i]--;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            double sum = 0;
+            for (int k = 0; k < window; k++) {
+                double value = simpleReturn(closes[i * points + k], closes[i * points + k + 1]);
+                returns[i * window + k] = value;
+                sum += value;
+            }
+            sums[i] = sum;
+            lastCloses[i] = closes[i * points + window];
+            previousCloses[i] = closes[i * points + window - 1];
+        }
+        System.arraycopy(commonDays, 1, days, 0, window);
+        CovarianceKernel.crossProducts(returns, n, window, products, block, pool);
+        head = 0;
+        lastDay = commonDays[window];
+        updates = 0;
+        sources = series.clone();
+        correlation = null;
+        covariance = null;
+    }
+
+    /**
+     * 最后一个交易日的收盘被修正：替换最新一列
+     */
+    private void reviseLast(QuoteSlice[] slices, int[] cursors, ForkJoinPool pool) {
+        int newest = (head + window - 1) % window;
+        for (int i = 0; i < n; i++) {
+            double close = close(slices[i], cursors[i] - 1);
+            removed[i] = returns[i * window + newest];
+            added[i] = simpleReturn(previousCloses[i], close);
+            lastCloses[i] = close;
+        }
+        replaceColumn(newest, pool);
+    }
+
+    /**
+     * 窗口前移一个共同交易日：新收益率替换最旧一列
+     */
+    private void advance(QuoteSlice[] slices, int[] cursors, int day, ForkJoinPool pool) {
+        for (int i = 0; i < n; i++) {
+            double close = close(slices[i], cursors[i]);
+            removed[i] = returns[i * window + head];
+            added[i] = simpleReturn(lastCloses[i], close);
+            previousCloses[i] = lastCloses[i];
+            lastCloses[i] = close;
+            cursors[i]++;
+        }
+        replaceColumn(head, pool);
+        days[head] = day;
+        head = (head + 1) % window;
+        lastDay = day;
+    }
+
+    private void replaceColumn(int column, ForkJoinPool pool) {
+        for (int i = 0; i < n; i++) {
+            returns[i * window + column] = added[i];
+            sums[i] += added[i] - removed[i];
+        }
+        CovarianceKernel.rankTwoUpdate(products, n, added, removed, pool);
+    }
+
+    /**
+     * 各游标向前移动到不晚于下一个共同交易日的位置；返回该日，不存在时返回 Integer.MIN_VALUE
+     */
+    private int previousCommonDay(QuoteSlice[] slices, int[] cursors) {
+        int target = Integer.MAX_VALUE;
+        int matched = 0;
+        while (matched < n) {
+            matched = 0;
+            for (int i = 0; i < n; i++) {
+                while (cursors[i] >= 0 && slices[i].day(cursors[i]) > target) {
+                    cursors[i]--;
+                }
+                if (cursors[i] < 0) {
+                    return Integer.MIN_VALUE;
+                }
+                int day = slices[i].day(cursors[i]);
+                if (day == target) {
+                    matched++;
+                } else {
+                    target = day;
+                    matched = 1;
+                }
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 各游标向后移动到不早于下一个共同交易日的位置；返回该日，不存在时返回 Integer.MIN_VALUE
+     */
+    private int nextCommonDay(QuoteSlice[] slices, int[] cursors) {
+        int target = Integer.MIN_VALUE;
+        int matched = 0;
+        while (matched < n) {
+            matched = 0;
+            for (int i = 0; i < n; i++) {
+                while (cursors[i] < slices[i].size() && slices[i].day(cursors[i]) < target) {
+                    cursors[i]++;
+                }
+                if (cursors[i] >= slices[i].size()) {
+                    return Integer.MIN_VALUE;
+                }
+                int day = slices[i].day(cursors[i]);
+                if (day == target) {
+                    matched++;
+                } else {
+                    target = day;
+                    matched = 1;
+                }
+            }
+        }
+        return target;
+    }
+
+    private static int indexOf(QuoteSlice slice, int day) {
+        int index = Arrays.binarySearch(slice.dayColumn(), slice.from(), slice.to(), day);
+        return index >= 0 ? index - slice.from() : -1;
+    }
+
+    private static double close(QuoteSlice slice, int index) {
+        return slice.closeColumn()[slice.from() + index];
+    }
+
+    private static double simpleReturn(double previous, double current) {
+        return previous > 0 ? current / previous - 1 : 0;
+    }
+
+    /**
+     * 一次访问的结果，在 {@link #catchUp} 的锁内生成
+     *
+     * @param computation 计算方式
+     * @param values      矩阵上三角，按行展开；与缓存共享，调用方不得修改
+     * @param firstDay    窗口内第一个收益率的日期（epoch day）
+     * @param lastDay     窗口内最后一个收益率的日期（epoch day）
+     */
+    record Snapshot(Computation computation, float[] values, int firstDay, int lastDay) {
+    }
+
+}
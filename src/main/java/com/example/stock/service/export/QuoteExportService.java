@@ -0,0 +1,320 @@
+package com.example.stock.service.export;
+
+import com.example.stock.config.ExportProperties;
+import com.example.stock.model.enums.ExportFormat;
+import com.example.stock.service.StockService;
+import com.example.stock.utils.QuoteCsvWriter;
+import com.example.stock.utils.QuoteExportColumnarWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 行情批量导出服务
+ * 在一个只读、可重复读的事务内按股票依次查询，每个查询沿 (symbol, date) 唯一索引顺序扫描，
+ * 以固定 fetchSize 的服务端游标分批抓取并逐行写出，不创建实体，内存占用与导出量无关。
+ * 客户端断开时写出失败即停止抓取；请求超时或出错时由 {@link Export#cancel()} 从其他线程取消正在执行的语句。
+ * 同时进行的导出数受 app.export.max-concurrent 限制，每个导出从创建到 {@link Export#close()} 占用一个许可
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class QuoteExportService {
+
+    private static final String CSV_SQL = """
+            SELECT symbol, date, open, high, low, close, adj_close, volume
+            FROM daily_quotes
+            WHERE symbol = ? AND date BETWEEN ? AND ?
+            ORDER BY date
+            """;
+
+    /**
+     * 价格转为两位定点整数，时间戳为 UTC 零点秒数，与 K 线接口一致
+     */
+    private static final String COLUMNAR_SQL = """
+            SELECT symbol,
+                   (date - DATE '1970-01-01')::bigint * 86400 AS ts,
+                   ROUND(open * 100)::bigint  AS o,
+                   ROUND(high * 100)::bigint  AS h,
+                   ROUND(low * 100)::bigint   AS l,
+                   ROUND(close * 100)::bigint AS c,
+                   volume                     AS v
+            FROM daily_quotes
+            WHERE symbol = ? AND date BETWEEN ? AND ?
+            ORDER BY date
+            """;
+
+    /**
+     * 未指定起始日期时的下限
+     */
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final StockService stockService;
+
+    private final ExportProperties exportProperties;
+
+    /**
+     * 导出并发许可
+     */
+    private final Semaphore permits;
+
+    public QuoteExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              StockService stockService, ExportProperties exportProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.stockService = stockService;
+        this.exportProperties = exportProperties;
+        this.permits = new Semaphore(Math.max(1, exportProperties.getMaxConcurrent()));
+    }
+
+    /**
+     * 校验导出参数并创建导出任务
+     *
+     * @param symbols 逗号分隔的股票代码
+     * @param from    起始日期（含，yyyy-MM-dd），为空时不限
+     * @param to      结束日期（含，yyyy-MM-dd），为空时为今天
+     * @param format  导出格式
+     * @param gzip    是否 gzip 压缩
+     * @return 导出任务，调用 {@link Export#writeTo(OutputStream)} 写出，结束后须调用 {@link Export#close()}
+     * @throws IllegalArgumentException                         参数不合法
+     * @throws com.example.stock.exception.StockNotFoundException 股票不存在
+     * @throws RejectedExecutionException                       同时进行的导出数已达上限
+     */
+    public Export prepare(String symbols, String from, String to, ExportFormat format, boolean gzip) {
+        if (symbols == null || symbols.isBlank()) {
+            throw new IllegalArgumentException("股票代码不能为空");
+        }
+        LocalDate start = parseDate(from, EARLIEST);
+        LocalDate end = parseDate(to, LocalDate.now());
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("起始日期不能晚于结束日期");
+        }
+        // 先按原始代码去重计数再逐个解析，超限的请求不做任何查找
+        Set<String> requested = new LinkedHashSet<>();
+        for (String symbol : symbols.split(",")) {
+            if (!symbol.isBlank()) {
+                requested.add(symbol.trim());
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("股票代码不能为空");
+        }
+        if (requested.size() > exportProperties.getMaxSymbols()) {
+            throw new IllegalArgumentException("单次最多导出 " + exportProperties.getMaxSymbols() + " 只股票");
+        }
+        TreeSet<String> resolved = new TreeSet<>();
+        for (String symbol : requested) {
+            resolved.add(stockService.resolveSymbol(symbol));
+        }
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("同时进行的导出已达上限 " + exportProperties.getMaxConcurrent());
+        }
+        return new Export(new ArrayList<>(resolved), start, end, format, gzip);
+    }
+
+    private static LocalDate parseDate(String value, LocalDate defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("日期格式应为 yyyy-MM-dd: " + value);
+        }
+    }
+
+    /**
+     * 导出任务
+     */
+    public final class Export {
+
+        private final List<String> symbols;
+
+        private final LocalDate from;
+
+        private final LocalDate to;
+
+        private final ExportFormat format;
+
+        private final boolean gzip;
+
+        private volatile PreparedStatement statement;
+
+        private volatile boolean cancelled;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Export(List<String> symbols, LocalDate from, LocalDate to, ExportFormat format, boolean gzip) {
+            this.symbols = symbols;
+            this.from = from;
+            this.to = to;
+            this.format = format;
+            this.gzip = gzip;
+        }
+
+        public ExportFormat getFormat() {
+            return format;
+        }
+
+        public boolean isGzip() {
+            return gzip;
+        }
+
+        /**
+         * 下载文件名，如 quotes-20240101-20241231.csv.gz
+         */
+        public String getFilename() {
+            return "quotes-" + from.toString().replace("-", "") + '-' + to.toString().replace("-", "")
+                    + '.' + format.getExtension() + (gzip ? ".gz" : "");
+        }
+
+        /**
+         * 写出导出文件；写出失败（客户端断开）时停止查询并抛出 IOException，结束后释放并发许可
+         *
+         * @param out 输出流，调用方负责关闭
+         * @return 写出的行数
+         * @throws CancellationException 导出已被取消
+         */
+        public long writeTo(OutputStream out) throws IOException {
+            try {
+                return write(out);
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * 释放并发许可；可重复调用，请求未开始写出就结束（超时、出错）时由调用方调用
+         */
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        private long write(OutputStream out) throws IOException {
+            long started = System.currentTimeMillis();
+            OutputStream target = gzip ? new GZIPOutputStream(out, exportProperties.getBufferSize()) : out;
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            // 多次查询共用同一快照，导出期间写入的行情不会只出现在部分股票中
+            transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            long rows;
+            try {
+                rows = transactionTemplate.execute(status ->
+                        jdbcTemplate.execute((ConnectionCallback<Long>) con -> query(con, target)));
+            } catch (UncheckedIOException e) {
+                log.warn("行情导出中断，股票数: {}，原因: {}", symbols.size(), e.getCause().getMessage());
+                throw e.getCause();
+            }
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+            out.flush();
+            log.info("行情导出完成，格式: {}，股票数: {}，行数: {}，耗时: {} ms",
+                    format.getCode(), symbols.size(), rows, System.currentTimeMillis() - started);
+            return rows;
+        }
+
+        /**
+         * 取消导出：正在执行的语句被取消，后续查询不再执行；可从任意线程调用
+         */
+        public void cancel() {
+            cancelled = true;
+            PreparedStatement current = statement;
+            if (current != null) {
+                try {
+                    current.cancel();
+                } catch (SQLException e) {
+                    log.debug("取消导出查询失败: {}", e.getMessage());
+                }
+            }
+        }
+
+        private long query(Connection con, OutputStream out) throws SQLException {
+            boolean csv = format == ExportFormat.CSV;
+            QuoteCsvWriter csvWriter = csv ? new QuoteCsvWriter(out, exportProperties.getBufferSize()) : null;
+            QuoteExportColumnarWriter columnarWriter = csv ? null
+                    : new QuoteExportColumnarWriter(out, exportProperties.getBlockSize());
+            long rows = 0;
+            try (PreparedStatement ps = con.prepareStatement(csv ? CSV_SQL : COLUMNAR_SQL)) {
+                ps.setFetchSize(exportProperties.getFetchSize());
+                statement = ps;
+                if (csv) {
+                    csvWriter.writeHeader();
+                } else {
+                    columnarWriter.begin();
+                }
+                for (String symbol : symbols) {
+                    if (cancelled) {
+                        throw new CancellationException("行情导出已取消");
+                    }
+                    ps.setString(1, symbol);
+                    ps.setDate(2, Date.valueOf(from));
+                    ps.setDate(3, Date.valueOf(to));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            if (csv) {
+                                csvWriter.writeRow(rs.getString(1), rs.getString(2), rs.getString(3),
+                                        rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7),
+                                        rs.getLong(8));
+                            } else {
+                                columnarWriter.writeCandle(rs.getString(1), rs.getLong(2), rs.getLong(3),
+                                        rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getLong(7));
+                            }
+                            rows++;
+                        }
+                    }
+                }
+                if (csv) {
+                    csvWriter.finish();
+                } else {
+                    columnarWriter.end();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                if (cancelled) {
+                    throw new CancellationException("行情导出已取消");
+                }
+                throw e;
+            } finally {
+                statement = null;
+            }
+            return rows;
+        }
+
+    }
+
+}
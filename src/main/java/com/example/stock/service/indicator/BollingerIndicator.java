@@ -0,0 +1,93 @@
+package com.example.stock.service.indicator;
+
+/**
+ * 布林带
+ * 中轨为 MA(period)，上 / 下轨为中轨 ± k 倍总体标准差；
+ * 环形缓冲区维护滑动和与平方和，通过 {@link Output} 选择输出哪一条轨
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class BollingerIndicator implements StreamingIndicator {
+
+    /**
+     * 输出轨道
+     */
+    public enum Output {
+        UPPER, MIDDLE, LOWER
+    }
+
+    private final int period;
+
+    private final double k;
+
+    private final Output output;
+
+    private final double[] window;
+
+    private int count;
+
+    private double sum;
+
+    private double sumSquares;
+
+    private double value = Double.NaN;
+
+    public BollingerIndicator(int period, double k, Output output) {
+        if (!Double.isFinite(k) || k < 0) {
+            throw new IllegalArgumentException("布林带倍数必须是非负数: " + k);
+        }
+        this.period = IndicatorPeriods.requirePositive("布林带周期", period);
+        this.k = k;
+        this.output = output;
+        this.window = new double[period];
+    }
+
+    private BollingerIndicator(BollingerIndicator source) {
+        this.period = source.period;
+        this.k = source.k;
+        this.output = source.output;
+        this.window = source.window.clone();
+        this.count = source.count;
+        this.sum = source.sum;
+        this.sumSquares = source.sumSquares;
+        this.value = source.value;
+    }
+
+    @Override
+    public double update(double price) {
+        int slot = count % period;
+        if (count >= period) {
+            double old = window[slot];
+            sum -= old;
+            sumSquares -= old * old;
+        }
+        window[slot] = price;
+        sum += price;
+        sumSquares += price * price;
+        count++;
+        if (count < period) {
+            return value;
+        }
+        double mean = sum / period;
+        // 滑动平方和存在浮点误差，方差可能出现极小的负数
+        double deviation = Math.sqrt(Math.max(0, sumSquares / period - mean * mean));
+        value = switch (output) {
+            case UPPER -> mean + k * deviation;
+            case MIDDLE -> mean;
+            case LOWER -> mean - k * deviation;
+        };
+        return value;
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+
+    @Override
+    public StreamingIndicator copy() {
+        return new BollingerIndicator(this);
+    }
+
+}
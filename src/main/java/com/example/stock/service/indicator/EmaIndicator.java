@@ -0,0 +1,58 @@
+package com.example.stock.service.indicator;
+
+/**
+ * 指数移动平均（EMA）
+ * 以前 period 个值的简单平均作为初始值，之后按 alpha = 2 / (period + 1) 递推
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class EmaIndicator implements StreamingIndicator {
+
+    private final int period;
+
+    private final double alpha;
+
+    private int count;
+
+    private double seedSum;
+
+    private double value = Double.NaN;
+
+    public EmaIndicator(int period) {
+        this.period = IndicatorPeriods.requirePositive("EMA 周期", period);
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    private EmaIndicator(EmaIndicator source) {
+        this.period = source.period;
+        this.alpha = source.alpha;
+        this.count = source.count;
+        this.seedSum = source.seedSum;
+        this.value = source.value;
+    }
+
+    @Override
+    public double update(double price) {
+        count++;
+        if (count < period) {
+            seedSum += price;
+        } else if (count == period) {
+            value = (seedSum + price) / period;
+        } else {
+            value += alpha * (price - value);
+        }
+        return value;
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+
+    @Override
+    public StreamingIndicator copy() {
+        return new EmaIndicator(this);
+    }
+
+}
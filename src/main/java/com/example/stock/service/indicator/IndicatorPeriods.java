@@ -0,0 +1,79 @@
+package com.example.stock.service.indicator;
+
+/**
+ * 指标周期校验
+ * 周期决定环形缓冲区长度，必须是 [1, 上限] 内的整数；
+ * 上限由 app.indicator.max-period 配置，通过 {@link IndicatorSpecParser} 注入到解析用户输入的各处
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class IndicatorPeriods {
+
+    /**
+     * 未配置时的周期上限
+     */
+    public static final int DEFAULT_MAX_PERIOD = 1000;
+
+    /**
+     * 默认上限的校验器，用于代码中写死的内置指标
+     */
+    public static final IndicatorPeriods DEFAULT = new IndicatorPeriods(DEFAULT_MAX_PERIOD);
+
+    private final int maxPeriod;
+
+    /**
+     * @param maxPeriod 周期上限
+     * @throws IllegalArgumentException 上限小于 1
+     */
+    public IndicatorPeriods(int maxPeriod) {
+        if (maxPeriod < 1) {
+            throw new IllegalArgumentException("指标周期上限必须大于 0");
+        }
+        this.maxPeriod = maxPeriod;
+    }
+
+    /**
+     * 周期上限
+     */
+    public int maxPeriod() {
+        return maxPeriod;
+    }
+
+    /**
+     * 校验并转换以 double 给出的周期参数
+     *
+     * @param name  参数名称，用于错误信息
+     * @param value 参数值
+     * @return 整数周期
+     * @throws IllegalArgumentException 不是整数或超出 [1, 上限]
+     */
+    public int require(String name, double value) {
+        if (value != Math.rint(value) || value < 1 || value > maxPeriod) {
+            throw new IllegalArgumentException(message(name, value));
+        }
+        return (int) value;
+    }
+
+    /**
+     * 校验整数周期为正数；上限已在解析参数时校验
+     *
+     * @param name   参数名称，用于错误信息
+     * @param period 周期
+     * @return 周期本身
+     * @throws IllegalArgumentException 周期小于 1
+     */
+    public static int requirePositive(String name, int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException(name + "必须是正整数: " + period);
+        }
+        return period;
+    }
+
+    private String message(String name, double value) {
+        String text = value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value) : Double.toString(value);
+        return name + "必须是 1 到 " + maxPeriod + " 之间的整数: " + text;
+    }
+
+}
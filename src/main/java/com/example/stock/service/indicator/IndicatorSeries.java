@@ -0,0 +1,77 @@
+package com.example.stock.service.indicator;
+
+import java.util.Arrays;
+
+/**
+ * 指标序列只读视图
+ * 下标与对应的 {@code QuoteSeries} 对齐（第 i 个值对应第 i 根 K 线）；
+ * 按下标读取时不复制底层数组，底层数组不对外暴露
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class IndicatorSeries {
+
+    private final IndicatorSpec spec;
+
+    private final double[] values;
+
+    private final int size;
+
+    IndicatorSeries(IndicatorSpec spec, double[] values, int size) {
+        this.spec = spec;
+        this.values = values;
+        this.size = size;
+    }
+
+    public IndicatorSpec getSpec() {
+        return spec;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 第 i 根 K 线的指标值，预热期为 NaN
+     */
+    public double get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + " of " + size);
+        }
+        return values[i];
+    }
+
+    /**
+     * 最新值，序列为空时为 NaN
+     */
+    public double last() {
+        return size == 0 ? Double.NaN : values[size - 1];
+    }
+
+    /**
+     * 倒数第 n 个值（n = 0 即最新值），越界时为 NaN
+     */
+    public double fromEnd(int n) {
+        int i = size - 1 - n;
+        return i < 0 || i >= size ? Double.NaN : values[i];
+    }
+
+    /**
+     * 复制 [from, to) 区间的指标值
+     */
+    public double[] toArray(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") of " + size);
+        }
+        return Arrays.copyOfRange(values, from, to);
+    }
+
+    /**
+     * 复制全部指标值
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.example.stock.service.indicator;
+
+import com.example.stock.config.IndicatorProperties;
+import com.example.stock.model.dto.IndicatorDTO;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.example.stock.service.timeseries.QuoteSlice;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 技术指标服务
+ * 按 (symbol, 指标, 参数) 缓存指标序列及其流式状态：
+ * 首次访问时整段计算，之后每追加一根 K 线只做一次 O(1) 的流式更新；
+ * 最后一根 K 线被修正时，从修正前保存的状态快照重新推进；
+ * 条目数由 Caffeine 按 app.indicator.cache-max-entries 限制，淘汰在其维护任务中分摊完成，不阻塞读取
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+public class IndicatorService {
+
+    private final QuoteSeriesStore quoteSeriesStore;
+
+    private final Cache<CacheKey, CachedIndicator> cache;
+
+    public IndicatorService(QuoteSeriesStore quoteSeriesStore, IndicatorProperties indicatorProperties) {
+        this.quoteSeriesStore = quoteSeriesStore;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(indicatorProperties.getCacheMaxEntries())
+                .build();
+    }
+
+    /**
+     * 获取指标序列（基于收盘价）
+     *
+     * @param symbol 股票代码（规范写法）
+     * @param spec   指标规格
+     * @return 与行情序列对齐的指标序列
+     */
+    public IndicatorSeries get(String symbol, IndicatorSpec spec) {
+        return get(quoteSeriesStore.getOrLoad(symbol), spec);
+    }
+
+    /**
+     * 获取指标序列（基于收盘价）
+     *
+     * @param series 行情序列
+     * @param spec   指标规格
+     * @return 与行情序列对齐的指标序列
+     */
+    public IndicatorSeries get(QuoteSeries series, IndicatorSpec spec) {
+        CachedIndicator cached = cache.get(new CacheKey(series.getSymbol(), spec),
+                key -> new CachedIndicator(spec));
+        return cached.catchUp(series);
+    }
+
+    /**
+     * 获取最近 limit 根 K 线上的多条指标序列
+     *
+     * @param symbol 股票代码（规范写法）
+     * @param specs  指标规格列表
+     * @param limit  返回条数
+     * @return 与 K 线时间戳对齐的指标数据
+     */
+    public IndicatorDTO getIndicators(String symbol, List<IndicatorSpec> specs, int limit) {
+        if (specs.isEmpty()) {
+            throw new IllegalArgumentException("至少需要指定一个指标");
+        }
+        QuoteSeries series = quoteSeriesStore.getOrLoad(symbol);
+        QuoteSlice slice = series.slice();
+        int to = slice.size();
+        int from = Math.max(0, to - limit);
+
+        List<Long> timestamps = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            timestamps.add(slice.day(i) * 86400L);
+        }
+
+        Map<String, List<Double>> values = new LinkedHashMap<>();
+        for (IndicatorSpec spec : specs) {
+            IndicatorSeries indicator = get(series, spec);
+            List<Double> list = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                double v = i < indicator.size() ? indicator.get(i) : Double.NaN;
+                list.add(Double.isNaN(v) ? null : v);
+            }
+            values.put(spec.toString(), list);
+        }
+
+        return IndicatorDTO.builder()
+                .symbol(symbol)
+                .timestamps(timestamps)
+                .series(values)
+                .build();
+    }
+
+    /**
+     * 清除某只股票的全部指标缓存
+     *
+     * @param symbol 股票代码
+     */
+    public void invalidate(String symbol) {
+        cache.asMap().keySet().removeIf(key -> key.symbol().equals(symbol));
+    }
+
+    /**
+     * 当前缓存条目数（处理完挂起的淘汰后）
+     */
+    public int cacheSize() {
+        cache.cleanUp();
+        return (int) cache.estimatedSize();
+    }
+
+    private record CacheKey(String symbol, IndicatorSpec spec) {
+    }
+
+    /**
+     * 单个指标的缓存：已计算的值 + 推进到末尾的流式状态
+     */
+    private static final class CachedIndicator {
+
+        private final IndicatorSpec spec;
+
+        private QuoteSeries source;
+
+        private StreamingIndicator state;
+
+        /**
+         * 处理最后一根 K 线之前的状态，用于最后一根被修正时回退
+         */
+        private StreamingIndicator beforeLast;
+
+        private double[] values = new double[0];
+
+        private int count;
+
+        /**
+         * 已通过 {@link IndicatorSeries} 发出的长度，[0, published) 不能原地改写
+         */
+        private int published;
+
+        private int lastDay;
+
+        private double lastClose;
+
+        private CachedIndicator(IndicatorSpec spec) {
+            this.spec = spec;
+        }
+
+        private synchronized IndicatorSeries catchUp(QuoteSeries series) {
+            QuoteSlice slice = series.slice();
+            int n = slice.size();
+
+            // 序列被重新加载（历史回补）或变短时从头计算
+            if (source != series || n < count) {
+                source = series;
+                state = spec.newState();
+                beforeLast = null;
+                count = 0;
+            }
+
+            // 上次处理的最后一根 K 线被修正：回退到处理它之前的状态
+            if (count > 0 && (slice.day(count - 1) != lastDay || slice.close(count - 1) != lastClose)) {
+                state = beforeLast;
+                count--;
+            }
+
+            if (count < n) {
+                if (count < published) {
+                    // 重算会覆盖已发出视图中的值，换一个新数组
+                    values = Arrays.copyOf(values, Math.max(n, values.length));
+                } else if (values.length < n) {
+                    values = Arrays.copyOf(values, Math.max(n, values.length + (values.length >> 1)));
+                }
+                double[] closes = slice.closeColumn();
+                int base = slice.from();
+                for (int i = count; i < n; i++) {
+                    if (i == n - 1) {
+                        beforeLast = state.copy();
+                    }
+                    values[i] = state.update(closes[base + i]);
+                }
+                count = n;
+                lastDay = slice.day(n - 1);
+                lastClose = slice.close(n - 1);
+            }
+            published = count;
+            return new IndicatorSeries(spec, values, count);
+        }
+
+    }
+
+}
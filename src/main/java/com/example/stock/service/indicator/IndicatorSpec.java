@@ -0,0 +1,103 @@
+package com.example.stock.service.indicator;
+
+import java.util.Arrays;
+
+/**
+ * 指标规格：类型 + 参数，作为指标缓存的键
+ * 文本形式为 "ma(5)"、"macd(12,26,9)"、"boll_upper(20,2)"，由 {@link IndicatorSpecParser} 解析
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class IndicatorSpec {
+
+    private final IndicatorType type;
+
+    private final double[] params;
+
+    /**
+     * 构造时所用的周期校验，不参与相等比较
+     */
+    private final IndicatorPeriods periods;
+
+    private IndicatorSpec(IndicatorType type, double[] params, IndicatorPeriods periods) {
+        this.type = type;
+        this.params = params;
+        this.periods = periods;
+    }
+
+    /**
+     * 构造内置指标规格（默认周期上限），参数个数不足时用默认值补齐；
+     * 用户输入的规格经 {@link IndicatorSpecParser} 按配置的上限校验
+     *
+     * @param type   指标类型
+     * @param params 参数
+     */
+    public static IndicatorSpec of(IndicatorType type, double... params) {
+        return of(IndicatorPeriods.DEFAULT, type, params);
+    }
+
+    /**
+     * 构造指标规格，参数个数不足时用默认值补齐
+     *
+     * @param periods 周期校验
+     * @param type    指标类型
+     * @param params  参数
+     * @throws IllegalArgumentException 参数个数过多或参数不合法
+     */
+    public static IndicatorSpec of(IndicatorPeriods periods, IndicatorType type, double... params) {
+        if (params.length > type.arity()) {
+            throw new IllegalArgumentException("指标 " + type.getCode() + " 最多 " + type.arity() + " 个参数");
+        }
+        double[] full = type.defaults();
+        System.arraycopy(params, 0, full, 0, params.length);
+        // 构造一次以校验参数合法性
+        type.create(full, periods);
+        return new IndicatorSpec(type, full, periods);
+    }
+
+    public IndicatorType getType() {
+        return type;
+    }
+
+    /**
+     * 创建一个全新的流式状态
+     */
+    public StreamingIndicator newState() {
+        return type.create(params, periods);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IndicatorSpec other)) {
+            return false;
+        }
+        return type == other.type && Arrays.equals(params, other.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + Arrays.hashCode(params);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(type.getCode()).append('(');
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            double p = params[i];
+            if (p == Math.rint(p)) {
+                sb.append((long) p);
+            } else {
+                sb.append(p);
+            }
+        }
+        return sb.append(')').toString();
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.example.stock.service.indicator;
+
+import com.example.stock.config.IndicatorProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 指标规格解析器
+ * 文本形式为 "ma(5)"、"macd(12,26,9)"、"boll_upper(20,2)"，省略参数时使用默认值；
+ * 周期参数按 app.indicator.max-period 校验
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+public class IndicatorSpecParser {
+
+    private final IndicatorPeriods periods;
+
+    public IndicatorSpecParser(IndicatorProperties indicatorProperties) {
+        this.periods = new IndicatorPeriods(indicatorProperties.getMaxPeriod());
+    }
+
+    /**
+     * 周期校验（回测策略参数共用）
+     */
+    public IndicatorPeriods getPeriods() {
+        return periods;
+    }
+
+    /**
+     * 构造指标规格，参数个数不足时用默认值补齐
+     *
+     * @param type   指标类型
+     * @param params 参数
+     * @throws IllegalArgumentException 参数个数过多或参数不合法
+     */
+    public IndicatorSpec of(IndicatorType type, double... params) {
+        return IndicatorSpec.of(periods, type, params);
+    }
+
+    /**
+     * 解析文本形式的指标规格
+     *
+     * @param text 如 ma(5)、rsi、macd(12,26,9)
+     * @throws IllegalArgumentException 格式错误或参数不合法
+     */
+    public IndicatorSpec parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("指标不能为空");
+        }
+        String trimmed = text.trim();
+        int open = trimmed.indexOf('(');
+        if (open < 0) {
+            return of(IndicatorType.fromCode(trimmed));
+        }
+        if (!trimmed.endsWith(")")) {
+            throw new IllegalArgumentException("指标格式错误: " + text);
+        }
+        IndicatorType type = IndicatorType.fromCode(trimmed.substring(0, open).trim());
+        String body = trimmed.substring(open + 1, trimmed.length() - 1).trim();
+        if (body.isEmpty()) {
+            return of(type);
+        }
+        String[] parts = body.split(",");
+        double[] params = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                params[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("指标参数错误: " + text);
+        }
+        return of(type, params);
+    }
+
+    /**
+     * 解析逗号分隔的多个指标规格，括号内的逗号视为参数分隔符
+     *
+     * @param text 如 ma(5),ma(20),macd(12,26,9)
+     */
+    public List<IndicatorSpec> parseList(String text) {
+        List<IndicatorSpec> specs = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return specs;
+        }
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ',';
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                String part = text.substring(start, i);
+                if (!part.isBlank()) {
+                    specs.add(parse(part));
+                }
+                start = i + 1;
+            }
+        }
+        return specs;
+    }
+
+}
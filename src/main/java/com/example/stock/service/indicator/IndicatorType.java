@@ -0,0 +1,89 @@
+package com.example.stock.service.indicator;
+
+import java.util.function.BiFunction;
+
+/**
+ * 指标类型
+ * 每种类型输出一条数值序列，多线指标（MACD、布林带）按输出线拆分为多个类型
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public enum IndicatorType {
+
+    MA("ma", new double[]{20},
+            (p, v) -> new SmaIndicator(v.require("MA 周期", p[0]))),
+
+    EMA("ema", new double[]{20},
+            (p, v) -> new EmaIndicator(v.require("EMA 周期", p[0]))),
+
+    RSI("rsi", new double[]{14},
+            (p, v) -> new RsiIndicator(v.require("RSI 周期", p[0]))),
+
+    MACD("macd", new double[]{12, 26, 9},
+            (p, v) -> new MacdIndicator(v.require("MACD 快线周期", p[0]), v.require("MACD 慢线周期", p[1]),
+                    v.require("MACD 信号线周期", p[2]), MacdIndicator.Output.LINE)),
+
+    MACD_SIGNAL("macd_signal", new double[]{12, 26, 9},
+            (p, v) -> new MacdIndicator(v.require("MACD 快线周期", p[0]), v.require("MACD 慢线周期", p[1]),
+                    v.require("MACD 信号线周期", p[2]), MacdIndicator.Output.SIGNAL)),
+
+    MACD_HIST("macd_hist", new double[]{12, 26, 9},
+            (p, v) -> new MacdIndicator(v.require("MACD 快线周期", p[0]), v.require("MACD 慢线周期", p[1]),
+                    v.require("MACD 信号线周期", p[2]), MacdIndicator.Output.HISTOGRAM)),
+
+    BOLL_UPPER("boll_upper", new double[]{20, 2},
+            (p, v) -> new BollingerIndicator(v.require("布林带周期", p[0]), p[1], BollingerIndicator.Output.UPPER)),
+
+    BOLL_MID("boll_mid", new double[]{20, 2},
+            (p, v) -> new BollingerIndicator(v.require("布林带周期", p[0]), p[1], BollingerIndicator.Output.MIDDLE)),
+
+    BOLL_LOWER("boll_lower", new double[]{20, 2},
+            (p, v) -> new BollingerIndicator(v.require("布林带周期", p[0]), p[1], BollingerIndicator.Output.LOWER));
+
+    private final String code;
+
+    private final double[] defaults;
+
+    private final BiFunction<double[], IndicatorPeriods, StreamingIndicator> factory;
+
+    IndicatorType(String code, double[] defaults, BiFunction<double[], IndicatorPeriods, StreamingIndicator> factory) {
+        this.code = code;
+        this.defaults = defaults;
+        this.factory = factory;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 参数个数
+     */
+    public int arity() {
+        return defaults.length;
+    }
+
+    double[] defaults() {
+        return defaults.clone();
+    }
+
+    StreamingIndicator create(double[] params, IndicatorPeriods periods) {
+        return factory.apply(params, periods);
+    }
+
+    /**
+     * 根据代码解析类型（忽略大小写）
+     *
+     * @throws IllegalArgumentException 不支持的指标
+     */
+    public static IndicatorType fromCode(String code) {
+        for (IndicatorType type : values()) {
+            if (type.code.equalsIgnoreCase(code)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("不支持的指标: " + code);
+    }
+
+}
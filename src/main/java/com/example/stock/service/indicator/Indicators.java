@@ -0,0 +1,57 @@
+package com.example.stock.service.indicator;
+
+/**
+ * 指标批量计算与信号判断工具
+ * 批量计算复用流式状态逐根推进，保证与流式更新结果完全一致
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class Indicators {
+
+    private Indicators() {
+    }
+
+    /**
+     * 对 values[from, to) 计算整段指标序列
+     *
+     * @param spec   指标规格
+     * @param values 价格数组
+     * @param from   起始下标（含）
+     * @param to     结束下标（不含）
+     * @return 长度为 to - from 的指标值，预热期为 NaN
+     */
+    public static double[] compute(IndicatorSpec spec, double[] values, int from, int to) {
+        double[] out = new double[to - from];
+        compute(spec.newState(), values, from, to, out, 0);
+        return out;
+    }
+
+    /**
+     * 用给定状态推进 values[from, to)，结果写入 out[offset...]
+     *
+     * @return 推进后的状态
+     */
+    public static StreamingIndicator compute(StreamingIndicator state, double[] values, int from, int to,
+                                             double[] out, int offset) {
+        for (int i = from; i < to; i++) {
+            out[offset + i - from] = state.update(values[i]);
+        }
+        return state;
+    }
+
+    /**
+     * 第 i 根 K 线上 a 是否上穿 b（金叉）
+     */
+    public static boolean crossedAbove(double[] a, double[] b, int i) {
+        return i > 0 && a[i - 1] <= b[i - 1] && a[i] > b[i];
+    }
+
+    /**
+     * 第 i 根 K 线上 a 是否下穿 b（死叉）
+     */
+    public static boolean crossedBelow(double[] a, double[] b, int i) {
+        return i > 0 && a[i - 1] >= b[i - 1] && a[i] < b[i];
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.example.stock.service.indicator;
+
+/**
+ * MACD
+ * DIF = EMA(fast) - EMA(slow)，DEA = EMA(DIF, signal)，柱 = DIF - DEA；
+ * 通过 {@link Output} 选择输出哪一条线
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class MacdIndicator implements StreamingIndicator {
+
+    /**
+     * 输出线
+     */
+    public enum Output {
+        LINE, SIGNAL, HISTOGRAM
+    }
+
+    private final Output output;
+
+    private final EmaIndicator fast;
+
+    private final EmaIndicator slow;
+
+    private final EmaIndicator signal;
+
+    private double value = Double.NaN;
+
+    public MacdIndicator(int fastPeriod, int slowPeriod, int signalPeriod, Output output) {
+        if (fastPeriod >= slowPeriod) {
+            throw new IllegalArgumentException("MACD 快线周期必须小于慢线周期");
+        }
+        this.output = output;
+        this.fast = new EmaIndicator(fastPeriod);
+        this.slow = new EmaIndicator(slowPeriod);
+        this.signal = new EmaIndicator(signalPeriod);
+    }
+
+    private MacdIndicator(MacdIndicator source) {
+        this.output = source.output;
+        this.fast = (EmaIndicator) source.fast.copy();
+        this.slow = (EmaIndicator) source.slow.copy();
+        this.signal = (EmaIndicator) source.signal.copy();
+        this.value = source.value;
+    }
+
+    @Override
+    public double update(double price) {
+        double f = fast.update(price);
+        double s = slow.update(price);
+        if (Double.isNaN(s)) {
+            return value;
+        }
+        double line = f - s;
+        double dea = signal.update(line);
+        value = switch (output) {
+            case LINE -> line;
+            case SIGNAL -> dea;
+            case HISTOGRAM -> Double.isNaN(dea) ? Double.NaN : line - dea;
+        };
+        return value;
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+
+    @Override
+    public StreamingIndicator copy() {
+        return new MacdIndicator(this);
+    }
+
+}
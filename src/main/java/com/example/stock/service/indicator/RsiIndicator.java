@@ -0,0 +1,77 @@
+package com.example.stock.service.indicator;
+
+/**
+ * 相对强弱指数（RSI，Wilder 平滑）
+ * 前 period 个涨跌幅取简单平均，之后 avg = (avg * (period - 1) + x) / period
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class RsiIndicator implements StreamingIndicator {
+
+    private final int period;
+
+    private int count;
+
+    private double previous;
+
+    private double avgGain;
+
+    private double avgLoss;
+
+    private double value = Double.NaN;
+
+    public RsiIndicator(int period) {
+        this.period = IndicatorPeriods.requirePositive("RSI 周期", period);
+    }
+
+    private RsiIndicator(RsiIndicator source) {
+        this.period = source.period;
+        this.count = source.count;
+        this.previous = source.previous;
+        this.avgGain = source.avgGain;
+        this.avgLoss = source.avgLoss;
+        this.value = source.value;
+    }
+
+    @Override
+    public double update(double price) {
+        if (count++ == 0) {
+            previous = price;
+            return value;
+        }
+        double change = price - previous;
+        previous = price;
+        double gain = change > 0 ? change : 0;
+        double loss = change < 0 ? -change : 0;
+
+        // count - 1 为已有的涨跌幅个数
+        int changes = count - 1;
+        if (changes <= period) {
+            avgGain += gain;
+            avgLoss += loss;
+            if (changes < period) {
+                return value;
+            }
+            avgGain /= period;
+            avgLoss /= period;
+        } else {
+            avgGain = (avgGain * (period - 1) + gain) / period;
+            avgLoss = (avgLoss * (period - 1) + loss) / period;
+        }
+
+        value = avgLoss == 0 ? (avgGain == 0 ? 50 : 100) : 100 - 100 / (1 + avgGain / avgLoss);
+        return value;
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+
+    @Override
+    public StreamingIndicator copy() {
+        return new RsiIndicator(this);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.stock.service.indicator;
+
+/**
+ * 简单移动平均（MA）
+ * 环形缓冲区 + 滑动求和
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class SmaIndicator implements StreamingIndicator {
+
+    private final int period;
+
+    private final double[] window;
+
+    private int count;
+
+    private double sum;
+
+    private double value = Double.NaN;
+
+    public SmaIndicator(int period) {
+        this.period = IndicatorPeriods.requirePositive("MA 周期", period);
+        this.window = new double[period];
+    }
+
+    private SmaIndicator(SmaIndicator source) {
+        this.period = source.period;
+        this.window = source.window.clone();
+        this.count = source.count;
+        this.sum = source.sum;
+        this.value = source.value;
+    }
+
+    @Override
+    public double update(double price) {
+        int slot = count % period;
+        if (count >= period) {
+            sum -= window[slot];
+        }
+        window[slot] = price;
+        sum += price;
+        count++;
+        value = count >= period ? sum / period : Double.NaN;
+        return value;
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+
+    @Override
+    public StreamingIndicator copy() {
+        return new SmaIndicator(this);
+    }
+
+}
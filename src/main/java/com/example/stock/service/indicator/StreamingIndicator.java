@@ -0,0 +1,31 @@
+package com.example.stock.service.indicator;
+
+/**
+ * 流式指标状态
+ * 每根新 K 线调用一次 {@link #update(double)}，O(1) 更新内部状态并返回当前指标值；
+ * 预热期（数据不足一个周期）返回 NaN
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public interface StreamingIndicator {
+
+    /**
+     * 输入一根新 K 线的价格
+     *
+     * @param price 价格（通常为收盘价）
+     * @return 当前指标值，预热期为 NaN
+     */
+    double update(double price);
+
+    /**
+     * 当前指标值，预热期为 NaN
+     */
+    double value();
+
+    /**
+     * 复制当前状态，用于在修正最后一根 K 线时回退
+     */
+    StreamingIndicator copy();
+
+}
@@ -0,0 +1,31 @@
+package com.example.stock.service.market;
+
+import com.example.stock.model.dto.QuoteBarDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 行情数据源接口
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public interface MarketDataClient {
+
+    /**
+     * 数据源名称
+     */
+    String getSource();
+
+    /**
+     * 拉取指定日期区间的日线数据
+     *
+     * @param symbol 股票代码
+     * @param from   起始日期（含）
+     * @param to     结束日期（含）
+     * @return 按日期升序的日线数据
+     */
+    List<QuoteBarDTO> fetchDailyBars(String symbol, LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,98 @@
+package com.example.stock.service.market;
+
+import com.example.stock.config.SyncProperties;
+import com.example.stock.model.dto.QuoteBarDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 本地模拟行情数据源
+ * 不访问外网，按 (symbol, date) 确定性地生成工作日日线，并模拟可配置的请求延迟；
+ * 用于测试与压测，替代 Yahoo Finance
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sync", name = "source", havingValue = "stub")
+public class StubMarketDataClient implements MarketDataClient {
+
+    private final SyncProperties syncProperties;
+
+    @Override
+    public String getSource() {
+        return "stub";
+    }
+
+    @Override
+    public List<QuoteBarDTO> fetchDailyBars(String symbol, LocalDate from, LocalDate to) {
+        if (syncProperties.getStubLatencyMs() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(syncProperties.getStubLatencyMs()));
+        }
+
+        List<QuoteBarDTO> bars = new ArrayList<>();
+        int seed = symbol.hashCode();
+        double base = 20 + Math.floorMod(seed, 480);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            long day = date.toEpochDay();
+            double close = price(base, seed, day);
+            double open = price(base, seed, day - 1);
+            double spread = close * 0.01 * (1 + noise(seed, day));
+            double high = Math.max(open, close) + spread;
+            double low = Math.max(0.01, Math.min(open, close) - spread);
+            long volume = 1_000_000L + (long) (noise(seed ^ 0x5bd1e995, day) * 9_000_000L);
+
+            bars.add(QuoteBarDTO.builder()
+                    .symbol(symbol)
+                    .date(date)
+                    .open(scale(open))
+                    .high(scale(high))
+                    .low(scale(low))
+                    .close(scale(close))
+                    .volume(volume)
+                    .adjClose(scale(close))
+                    .build());
+        }
+        return bars;
+    }
+
+    /**
+     * 以日期为自变量的确定性价格曲线：长期趋势 + 周期波动 + 噪声
+     */
+    private static double price(double base, int seed, long day) {
+        double trend = 1 + (day % 3650) / 3650.0 * 0.5;
+        double cycle = 1 + 0.15 * Math.sin(day / 30.0 + seed);
+        double jitter = 1 + 0.02 * (noise(seed, day) - 0.5);
+        return base * trend * cycle * jitter;
+    }
+
+    /**
+     * [0, 1) 区间的确定性伪随机数
+     */
+    private static double noise(int seed, long day) {
+        long h = day * 0x9E3779B97F4A7C15L + seed;
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        return (h >>> 11) * 0x1.0p-53;
+    }
+
+    private static BigDecimal scale(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+}
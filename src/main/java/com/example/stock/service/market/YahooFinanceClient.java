@@ -0,0 +1,119 @@
+package com.example.stock.service.market;
+
+import com.example.stock.config.ApiProperties;
+import com.example.stock.exception.MarketDataException;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Yahoo Finance 日线数据源
+ * 调用 /v8/finance/chart/{symbol} 接口，只请求 [from, to] 区间内的数据
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "app.sync", name = "source", havingValue = "yahoo", matchIfMissing = true)
+public class YahooFinanceClient implements MarketDataClient {
+
+    private static final String SOURCE = "yahoo";
+
+    private final RestClient restClient;
+
+    public YahooFinanceClient(ApiProperties apiProperties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(apiProperties.getRequestTimeout());
+        requestFactory.setReadTimeout(apiProperties.getRequestTimeout());
+        this.restClient = RestClient.builder()
+                .baseUrl(apiProperties.getYahooFinanceBaseUrl())
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public String getSource() {
+        return SOURCE;
+    }
+
+    @Override
+    public List<QuoteBarDTO> fetchDailyBars(String symbol, LocalDate from, LocalDate to) {
+        long period1 = from.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long period2 = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+
+        JsonNode root;
+        try {
+            root = restClient.get()
+                    .uri("/v8/finance/chart/{symbol}?period1={p1}&period2={p2}&interval=1d&events=div,split",
+                            symbol, period1, period2)
+                    .retrieve()
+                    .body(JsonNode.class);
+        } catch (RestClientException e) {
+            throw new MarketDataException(SOURCE, "请求 Yahoo Finance 失败: " + symbol + " - " + e.getMessage(), e);
+        }
+
+        JsonNode result = root == null ? null : root.path("chart").path("result").path(0);
+        if (result == null || result.isMissingNode()) {
+            String error = root == null ? "空响应" : root.path("chart").path("error").toString();
+            throw new MarketDataException(SOURCE, "Yahoo Finance 返回异常: " + symbol + " - " + error);
+        }
+
+        return parseBars(symbol, result, from, to);
+    }
+
+    private List<QuoteBarDTO> parseBars(String symbol, JsonNode result, LocalDate from, LocalDate to) {
+        JsonNode timestamps = result.path("timestamp");
+        JsonNode quote = result.path("indicators").path("quote").path(0);
+        JsonNode adjClose = result.path("indicators").path("adjclose").path(0).path("adjclose");
+        int gmtOffset = result.path("meta").path("gmtoffset").asInt(0);
+
+        List<QuoteBarDTO> bars = new ArrayList<>(timestamps.size());
+        for (int i = 0; i < timestamps.size(); i++) {
+            JsonNode open = quote.path("open").path(i);
+            JsonNode high = quote.path("high").path(i);
+            JsonNode low = quote.path("low").path(i);
+            JsonNode close = quote.path("close").path(i);
+            if (!open.isNumber() || !high.isNumber() || !low.isNumber() || !close.isNumber()) {
+                // 停牌或数据缺失的交易日
+                continue;
+            }
+            LocalDate date = Instant.ofEpochSecond(timestamps.get(i).asLong() + gmtOffset)
+                    .atOffset(ZoneOffset.UTC).toLocalDate();
+            if (date.isBefore(from) || date.isAfter(to)) {
+                continue;
+            }
+            JsonNode adj = adjClose.path(i);
+            bars.add(QuoteBarDTO.builder()
+                    .symbol(symbol)
+                    .date(date)
+                    .open(scale(open))
+                    .high(scale(high))
+                    .low(scale(low))
+                    .close(scale(close))
+                    .volume(quote.path("volume").path(i).asLong(0))
+                    .adjClose(adj.isNumber() ? scale(adj) : null)
+                    .build());
+        }
+        log.debug("Yahoo Finance 返回日线: {}，条数: {}", symbol, bars.size());
+        return bars;
+    }
+
+    private static BigDecimal scale(JsonNode value) {
+        return BigDecimal.valueOf(value.asDouble()).setScale(2, RoundingMode.HALF_UP);
+    }
+
+}
@@ -0,0 +1,329 @@
+package com.example.stock.service.partition;
+
+import com.example.stock.config.PartitionProperties;
+import com.example.stock.model.enums.PartitionInterval;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * daily_quotes 分区管理（PostgreSQL 声明式范围分区）
+ * 普通表迁移为分区表须在启动前离线执行 db/migrate-daily-quotes-partitioned.sql（整表复制期间锁表），
+ * 启动时发现仍为普通表只告警、不启用；表不存在时直接创建按 date 范围分区的表（生产环境由 schema 脚本创建）。
+ * 每个分区通过父表上的 uk_symbol_date 获得 (symbol, date) 复合唯一索引。
+ * 不建默认分区：有默认分区时分区之间不再有序，"最新一条"查询无法按分区逆序 Append 提前停止。
+ * 因此写入前必须已有覆盖该日期的分区：启动时先于快照导入等启动任务加载分区，写入前按需创建缺失分区，
+ * 每日维护任务预建未来分区；建分区在 advisory lock 内进行，多个实例不会重复创建。
+ * 旧版本建过的默认分区在启动时把数据移入正式分区后删除
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class QuotePartitionManager {
+
+    static final String TABLE = "daily_quotes";
+
+    /**
+     * 旧版本建表与迁移脚本创建的默认分区，启动时移除
+     */
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+
+    /**
+     * 分区表的主键序列；不能沿用旧表的 daily_quotes_id_seq，旧表删除时会连带删除它
+     */
+    static final String SEQUENCE = TABLE + "_pk_seq";
+
+    /**
+     * 与实体 {@code DailyQuote} 及离线迁移脚本一致；分区表的主键与唯一约束必须包含分区键 date
+     */
+    private static final String CREATE_PARENT_SQL = """
+            CREATE TABLE daily_quotes (
+                id         bigint         NOT NULL DEFAULT nextval('daily_quotes_pk_seq'),
+                symbol     varchar(20)    NOT NULL,
+                date       date           NOT NULL,
+                open       numeric(10, 2) NOT NULL,
+                high       numeric(10, 2) NOT NULL,
+                low        numeric(10, 2) NOT NULL,
+                close      numeric(10, 2) NOT NULL,
+                volume     bigint         NOT NULL,
+                adj_close  numeric(10, 2),
+                created_at timestamp(6)   NOT NULL,
+                CONSTRAINT daily_quotes_pkey PRIMARY KEY (id, date),
+                CONSTRAINT uk_symbol_date UNIQUE (symbol, date),
+                CONSTRAINT fk_daily_quote_stock FOREIGN KEY (symbol) REFERENCES stocks (symbol)
+            ) PARTITION BY RANGE (date)
+            """;
+
+    private static final String RELKIND_SQL = "SELECT relkind FROM pg_class WHERE oid = to_regclass(?)";
+
+    /**
+     * 多个实例之间串行化建表与建分区，事务结束自动释放
+     */
+    private static final String DDL_LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('" + TABLE + "'))";
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+            FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass('daily_quotes')
+            """;
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('([0-9-]+)'\\) TO \\('([0-9-]+)'\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final PartitionProperties partitionProperties;
+
+    /**
+     * 已有分区：起始日 -> 结束日（不含）
+     */
+    private final NavigableMap<LocalDate, LocalDate> ranges = new ConcurrentSkipListMap<>();
+
+    private volatile boolean active;
+
+    /**
+     * daily_quotes 是否已是受管理的分区表
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * 启动时确保 daily_quotes 为分区表并建好当前及未来分区；
+     * 在 ApplicationStartedEvent 上执行，先于快照导入（CommandLineRunner）与其他读写 daily_quotes 的启动任务
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialize() {
+        if (!partitionProperties.isEnabled()) {
+            if ("p".equals(relkind(TABLE))) {
+                log.warn("{} 为分区表但分区管理未开启（app.partition.enabled），写入没有分区覆盖的日期会失败", TABLE);
+            }
+            return;
+        }
+        try {
+            String kind = relkind(TABLE);
+            if (kind == null) {
+                kind = inTransaction(this::createIfAbsent);
+            }
+            if ("r".equals(kind)) {
+                log.warn("{} 为普通表，分区管理未启用；请停机执行 db/migrate-daily-quotes-partitioned.sql 离线迁移",
+                        TABLE);
+                return;
+            } else if (!"p".equals(kind)) {
+                log.warn("{} 不是表（relkind={}），分区管理未启用", TABLE, kind);
+                return;
+            }
+            loadRanges();
+            log.info("{} 分区加载完成，范围分区数: {}", TABLE, ranges.size());
+            retireDefault();
+            active = true;
+            maintain();
+        } catch (RuntimeException e) {
+            ranges.clear();
+            log.error("初始化 daily_quotes 分区失败，按普通表继续运行: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 定时维护
+     */
+    @Scheduled(cron = "${app.partition.maintenance-cron:0 15 2 * * *}")
+    public void scheduledMaintenance() {
+        if (active) {
+            maintain();
+        }
+    }
+
+    /**
+     * 预建当前及未来 premake 个分区
+     */
+    public synchronized void maintain() {
+        PartitionInterval interval = partitionProperties.getInterval();
+        LocalDate start = interval.floor(LocalDate.now());
+        for (int i = 0; i <= partitionProperties.getPremake(); i++) {
+            if (!isCovered(start)) {
+                createPartition(start);
+            }
+            start = interval.next(start);
+        }
+    }
+
+    /**
+     * 写入前确保这些交易日都有对应分区；全部已覆盖时不加锁、不访问数据库
+     *
+     * @param dates 即将写入的交易日
+     */
+    public void ensureCovering(Collection<LocalDate> dates) {
+        if (!active) {
+            return;
+        }
+        for (LocalDate date : dates) {
+            if (!isCovered(date)) {
+                synchronized (this) {
+                    if (!isCovered(date)) {
+                        createPartition(date);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 已有分区（起始日 -> 结束日）
+     */
+    public Map<LocalDate, LocalDate> getRanges() {
+        return Map.copyOf(ranges);
+    }
+
+    // ==================== 建表 ====================
+
+    /**
+     * 表不存在时创建分区表；持有建表锁后重新检查，其他实例已创建时沿用其结果
+     *
+     * @return 建表后 daily_quotes 的 relkind
+     */
+    private String createIfAbsent() {
+        jdbcTemplate.queryForList(DDL_LOCK_SQL);
+        String kind = relkind(TABLE);
+        if (kind != null) {
+            return kind;
+        }
+        createParent();
+        log.info("已创建分区表 {}，粒度: {}", TABLE, partitionProperties.getInterval());
+        return "p";
+    }
+
+    private void createParent() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE);
+        jdbcTemplate.execute(CREATE_PARENT_SQL);
+        jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " OWNED BY " + TABLE + ".id");
+        jdbcTemplate.execute("CREATE INDEX idx_daily_quote_date ON " + TABLE + " (date)");
+    }
+
+    // ==================== 分区维护 ====================
+
+    private boolean isCovered(LocalDate date) {
+        Map.Entry<LocalDate, LocalDate> range = ranges.floorEntry(date);
+        return range != null && date.isBefore(range.getValue());
+    }
+
+    /**
+     * 为 date 建分区：取其所在粒度区间，并裁掉与已有分区（如修改粒度前建的分区）重叠的部分。
+     * 持有建分区锁后重新加载分区，其他实例已建好时直接沿用。
+     * 默认分区尚未移除时，其中落在该范围内的数据先移入新表再挂载，否则挂载会因默认分区存在重叠数据而失败
+     */
+    private void createPartition(LocalDate date) {
+        Map.Entry<LocalDate, LocalDate> created = inTransaction(() -> {
+            jdbcTemplate.queryForList(DDL_LOCK_SQL);
+            loadRanges();
+            if (isCovered(date)) {
+                return null;
+            }
+            PartitionInterval interval = partitionProperties.getInterval();
+            LocalDate bucket = interval.floor(date);
+            LocalDate from = bucket;
+            LocalDate to = interval.next(bucket);
+            Map.Entry<LocalDate, LocalDate> before = ranges.floorEntry(date);
+            if (before != null && before.getValue().isAfter(from)) {
+                from = before.getValue();
+            }
+            LocalDate after = ranges.higherKey(date);
+            if (after != null && after.isBefore(to)) {
+                to = after;
+            }
+            String name = TABLE + '_' + interval.suffix(bucket) + (from.equals(bucket) && to.equals(interval.next(bucket))
+                    ? "" : "_" + from.toString().replace("-", ""));
+
+            // DDL 不支持绑定参数；日期为 ISO 格式，不存在注入风险
+            String bounds = " FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+            if (relkind(DEFAULT_PARTITION) == null) {
+                jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF " + TABLE + bounds);
+                log.info("已创建分区 {} [{}, {})", name, from, to);
+            } else {
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE + " INCLUDING DEFAULTS)");
+                int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                        + " WHERE date >= ? AND date < ? RETURNING *) INSERT INTO " + name + " SELECT * FROM moved",
+                        Date.valueOf(from), Date.valueOf(to));
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name + bounds);
+                log.info("已创建分区 {} [{}, {})，自默认分区移入: {} 行", name, from, to, moved);
+            }
+            return Map.entry(from, to);
+        });
+        if (created != null) {
+            ranges.put(created.getKey(), created.getValue());
+        }
+    }
+
+    /**
+     * 移除旧版本留下的默认分区：其中的数据按粒度移入新建的正式分区后删除默认分区。
+     * 先锁父表（删除分区本身也需要父表的 ACCESS EXCLUSIVE 锁），避免与写入默认分区的事务互相等待
+     */
+    private void retireDefault() {
+        if (relkind(DEFAULT_PARTITION) == null) {
+            return;
+        }
+        String unit = partitionProperties.getInterval().name().toLowerCase(Locale.ROOT);
+        inTransaction(() -> {
+            jdbcTemplate.queryForList(DDL_LOCK_SQL);
+            if (relkind(DEFAULT_PARTITION) == null) {
+                return null;
+            }
+            jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+            List<Date> buckets = jdbcTemplate.queryForList("SELECT DISTINCT date_trunc('" + unit + "', date)::date FROM "
+                    + DEFAULT_PARTITION, Date.class);
+            for (Date bucket : buckets) {
+                createPartition(bucket.toLocalDate());
+            }
+            jdbcTemplate.execute("DROP TABLE " + DEFAULT_PARTITION);
+            return null;
+        });
+        log.info("已移除默认分区 {}", DEFAULT_PARTITION);
+    }
+
+    /**
+     * 从数据库加载已有分区范围并入 ranges；只增不减，不影响并发的 isCovered 判断
+     */
+    private void loadRanges() {
+        jdbcTemplate.query(PARTITIONS_SQL, rs -> {
+            String bound = rs.getString(2);
+            Matcher matcher = RANGE_BOUND.matcher(bound);
+            if (matcher.find()) {
+                ranges.put(LocalDate.parse(matcher.group(1)), LocalDate.parse(matcher.group(2)));
+            } else if (!"DEFAULT".equals(bound)) {
+                log.warn("无法识别的分区范围: {} {}", rs.getString(1), bound);
+            }
+        });
+    }
+
+    private String relkind(String table) {
+        List<String> kinds = jdbcTemplate.queryForList(RELKIND_SQL, String.class, table);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.example.stock.service.screener;
+
+import com.example.stock.service.indicator.IndicatorSeries;
+import com.example.stock.service.timeseries.QuoteSlice;
+
+/**
+ * 单只股票的选股求值上下文
+ * 所有取值以最新一根 K 线为基准，shift 表示向前偏移的根数，越界或预热期返回 NaN
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class ScreenerContext {
+
+    private final QuoteSlice slice;
+
+    private final IndicatorSeries[] indicators;
+
+    private final int last;
+
+    public ScreenerContext(QuoteSlice slice, IndicatorSeries[] indicators) {
+        this.slice = slice;
+        this.indicators = indicators;
+        this.last = slice.size() - 1;
+    }
+
+    public QuoteSlice getSlice() {
+        return slice;
+    }
+
+    /**
+     * 第 slot 个指标在 shift 根 K 线之前的值
+     */
+    public double indicator(int slot, int shift) {
+        IndicatorSeries series = indicators[slot];
+        int i = last - shift;
+        return i < 0 || i >= series.size() ? Double.NaN : series.get(i);
+    }
+
+    public double open(int shift) {
+        int i = last - shift;
+        return i < 0 ? Double.NaN : slice.open(i);
+    }
+
+    public double high(int shift) {
+        int i = last - shift;
+        return i < 0 ? Double.NaN : slice.high(i);
+    }
+
+    public double low(int shift) {
+        int i = last - shift;
+        return i < 0 ? Double.NaN : slice.low(i);
+    }
+
+    public double close(int shift) {
+        int i = last - shift;
+        return i < 0 ? Double.NaN : slice.close(i);
+    }
+
+    public double volume(int shift) {
+        int i = last - shift;
+        return i < 0 ? Double.NaN : slice.volume(i);
+    }
+
+    /**
+     * 相对前一根 K 线收盘价的涨跌幅（百分比）
+     */
+    public double changePercent(int shift) {
+        int i = last - shift;
+        if (i < 1) {
+            return Double.NaN;
+        }
+        double previous = slice.close(i - 1);
+        return previous == 0 ? Double.NaN : (slice.close(i) - previous) / previous * 100;
+    }
+
+}
@@ -0,0 +1,425 @@
+package com.example.stock.service.screener;
+
+import com.example.stock.service.indicator.IndicatorSpec;
+import com.example.stock.service.indicator.IndicatorSpecParser;
+import com.example.stock.service.indicator.IndicatorType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 选股条件表达式
+ * 把文本条件编译为可在每只股票上直接求值的表达式树，所有取值都针对该股票最新一根 K 线。
+ * <pre>
+ * 条件   := or
+ * or     := and ("or" and)*
+ * and    := not ("and" not)*
+ * not    := "not" not | "(" 条件 ")" | cross_above(值, 值) | cross_below(值, 值) | 值 比较符 值
+ * 比较符 := &lt; | &lt;= | &gt; | &gt;= | = | !=
+ * 值     := 项 (("+" | "-") 项)*，项 := 因子 (("*" | "/") 因子)*
+ * 因子   := 数字 | 字段 | 指标 | "(" 值 ")" | "-" 因子，字段与指标后可跟 [n] 表示 n 根 K 线之前
+ * 字段   := open | high | low | close | volume | change_pct
+ * 指标   := ma(5) | ema(12) | rsi(14) | macd | boll_upper(20,2) ...
+ * </pre>
+ * 示例：{@code cross_above(ma(5), ma(20)) and rsi(14) < 40}
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class ScreenerExpression {
+
+    private static final int MAX_LENGTH = 1000;
+
+    private final Condition condition;
+
+    private final Operand score;
+
+    private final List<IndicatorSpec> specs;
+
+    private ScreenerExpression(Condition condition, Operand score, List<IndicatorSpec> specs) {
+        this.condition = condition;
+        this.score = score;
+        this.specs = specs;
+    }
+
+    /**
+     * 编译选股条件与排序表达式
+     *
+     * @param filter     选股条件，为空时匹配全部股票
+     * @param sort       排序表达式（值），为空时不计算排序分值
+     * @param specParser 指标规格解析器，按配置校验指标周期
+     * @return 编译后的表达式
+     * @throws IllegalArgumentException 语法错误
+     */
+    public static ScreenerExpression compile(String filter, String sort, IndicatorSpecParser specParser) {
+        List<IndicatorSpec> specs = new ArrayList<>();
+        Condition condition = ctx -> true;
+        if (filter != null && !filter.isBlank()) {
+            Parser parser = new Parser(filter, specs, specParser);
+            condition = parser.parseCondition();
+            parser.expectEnd();
+        }
+        Operand score = null;
+        if (sort != null && !sort.isBlank()) {
+            Parser parser = new Parser(sort, specs, specParser);
+            score = parser.parseOperand();
+            parser.expectEnd();
+        }
+        return new ScreenerExpression(condition, score, List.copyOf(specs));
+    }
+
+    /**
+     * 表达式引用到的全部指标，下标与 {@link ScreenerContext} 中的指标序列一一对应
+     */
+    public List<IndicatorSpec> getSpecs() {
+        return specs;
+    }
+
+    /**
+     * 是否指定了排序表达式
+     */
+    public boolean hasScore() {
+        return score != null;
+    }
+
+    /**
+     * 对一只股票求值选股条件
+     */
+    public boolean test(ScreenerContext ctx) {
+        return condition.test(ctx);
+    }
+
+    /**
+     * 对一只股票求值排序分值，未指定排序表达式时为 NaN
+     */
+    public double score(ScreenerContext ctx) {
+        return score == null ? Double.NaN : score.eval(ctx, 0);
+    }
+
+    /**
+     * 布尔条件
+     */
+    private interface Condition {
+
+        boolean test(ScreenerContext ctx);
+
+    }
+
+    /**
+     * 数值表达式，shift 为向前偏移的 K 线根数
+     */
+    private interface Operand {
+
+        double eval(ScreenerContext ctx, int shift);
+
+    }
+
+    /**
+     * 递归下降解析器
+     */
+    private static final class Parser {
+
+        private final String text;
+
+        private final List<IndicatorSpec> specs;
+
+        private final IndicatorSpecParser specParser;
+
+        private int pos;
+
+        private Parser(String text, List<IndicatorSpec> specs, IndicatorSpecParser specParser) {
+            if (text.length() > MAX_LENGTH) {
+                throw new IllegalArgumentException("选股条件过长，最多 " + MAX_LENGTH + " 个字符");
+            }
+            this.text = text;
+            this.specs = specs;
+            this.specParser = specParser;
+        }
+
+        private Condition parseCondition() {
+            Condition left = parseAnd();
+            while (acceptKeyword("or")) {
+                Condition l = left;
+                Condition r = parseAnd();
+                left = ctx -> l.test(ctx) || r.test(ctx);
+            }
+            return left;
+        }
+
+        private Condition parseAnd() {
+            Condition left = parseNot();
+            while (acceptKeyword("and")) {
+                Condition l = left;
+                Condition r = parseNot();
+                left = ctx -> l.test(ctx) && r.test(ctx);
+            }
+            return left;
+        }
+
+        private Condition parseNot() {
+            if (acceptKeyword("not")) {
+                Condition inner = parseNot();
+                return ctx -> !inner.test(ctx);
+            }
+            int mark = pos;
+            int specCount = specs.size();
+            if (accept('(')) {
+                // 括号可能包住条件，也可能包住数值表达式（如 (high - low) / close > 0.05），先按条件尝试
+                try {
+                    Condition inner = parseCondition();
+                    expect(')');
+                    if (!peekComparator()) {
+                        return inner;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // 回退按数值表达式解析
+                }
+                pos = mark;
+                specs.subList(specCount, specs.size()).clear();
+            }
+            String word = peekIdentifier();
+            if ("cross_above".equals(word) || "cross_below".equals(word)) {
+                readIdentifier();
+                expect('(');
+                Operand a = parseOperand();
+                expect(',');
+                Operand b = parseOperand();
+                expect(')');
+                return "cross_above".equals(word)
+                        ? ctx -> {
+                            double a0 = a.eval(ctx, 0), b0 = b.eval(ctx, 0);
+                            double a1 = a.eval(ctx, 1), b1 = b.eval(ctx, 1);
+                            return a1 <= b1 && a0 > b0;
+                        }
+                        : ctx -> {
+                            double a0 = a.eval(ctx, 0), b0 = b.eval(ctx, 0);
+                            double a1 = a.eval(ctx, 1), b1 = b.eval(ctx, 1);
+                            return a1 >= b1 && a0 < b0;
+                        };
+            }
+            return parseComparison();
+        }
+
+        private Condition parseComparison() {
+            Operand left = parseOperand();
+            skipSpaces();
+            String op = readComparator();
+            Operand right = parseOperand();
+            // NaN（预热期或数据不足）参与的比较一律为 false
+            return switch (op) {
+                case "<" -> ctx -> left.eval(ctx, 0) < right.eval(ctx, 0);
+                case "<=" -> ctx -> left.eval(ctx, 0) <= right.eval(ctx, 0);
+                case ">" -> ctx -> left.eval(ctx, 0) > right.eval(ctx, 0);
+                case ">=" -> ctx -> left.eval(ctx, 0) >= right.eval(ctx, 0);
+                case "=" -> ctx -> left.eval(ctx, 0) == right.eval(ctx, 0);
+                default -> ctx -> {
+                    double l = left.eval(ctx, 0), r = right.eval(ctx, 0);
+                    return !Double.isNaN(l) && !Double.isNaN(r) && l != r;
+                };
+            };
+        }
+
+        private Operand parseOperand() {
+            Operand left = parseTerm();
+            while (true) {
+                if (accept('+')) {
+                    Operand l = left, r = parseTerm();
+                    left = (ctx, shift) -> l.eval(ctx, shift) + r.eval(ctx, shift);
+                } else if (accept('-')) {
+                    Operand l = left, r = parseTerm();
+                    left = (ctx, shift) -> l.eval(ctx, shift) - r.eval(ctx, shift);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Operand parseTerm() {
+            Operand left = parseFactor();
+            while (true) {
+                if (accept('*')) {
+                    Operand l = left, r = parseFactor();
+                    left = (ctx, shift) -> l.eval(ctx, shift) * r.eval(ctx, shift);
+                } else if (accept('/')) {
+                    Operand l = left, r = parseFactor();
+                    left = (ctx, shift) -> {
+                        double d = r.eval(ctx, shift);
+                        return d == 0 ? Double.NaN : l.eval(ctx, shift) / d;
+                    };
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Operand parseFactor() {
+            skipSpaces();
+            if (accept('-')) {
+                Operand inner = parseFactor();
+                return (ctx, shift) -> -inner.eval(ctx, shift);
+            }
+            if (accept('(')) {
+                Operand inner = parseOperand();
+                expect(')');
+                return inner;
+            }
+            if (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                double value = readNumber();
+                return (ctx, shift) -> value;
+            }
+            String word = peekIdentifier();
+            if (word == null) {
+                throw error("缺少数值");
+            }
+            readIdentifier();
+            Operand operand = resolve(word);
+            int offset = readShift();
+            return offset == 0 ? operand : (ctx, shift) -> operand.eval(ctx, shift + offset);
+        }
+
+        private Operand resolve(String word) {
+            Operand field = switch (word) {
+                case "open" -> ScreenerContext::open;
+                case "high" -> ScreenerContext::high;
+                case "low" -> ScreenerContext::low;
+                case "close" -> ScreenerContext::close;
+                case "volume" -> ScreenerContext::volume;
+                case "change_pct" -> ScreenerContext::changePercent;
+                default -> null;
+            };
+            if (field != null) {
+                return field;
+            }
+
+            IndicatorType type;
+            try {
+                type = IndicatorType.fromCode(word);
+            } catch (IllegalArgumentException e) {
+                throw error("未知的字段或指标: " + word);
+            }
+            List<Double> params = new ArrayList<>();
+            if (accept('(')) {
+                if (!accept(')')) {
+                    do {
+                        params.add(readNumber());
+                    } while (accept(','));
+                    expect(')');
+                }
+            }
+            double[] values = new double[params.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = params.get(i);
+            }
+            IndicatorSpec spec = specParser.of(type, values);
+            int index = specs.indexOf(spec);
+            if (index < 0) {
+                index = specs.size();
+                specs.add(spec);
+            }
+            int slot = index;
+            return (ctx, shift) -> ctx.indicator(slot, shift);
+        }
+
+        private int readShift() {
+            if (!accept('[')) {
+                return 0;
+            }
+            double n = readNumber();
+            expect(']');
+            if (n < 0 || n != Math.rint(n)) {
+                throw error("偏移量必须是非负整数");
+            }
+            return (int) n;
+        }
+
+        private double readNumber() {
+            skipSpaces();
+            int start = pos;
+            while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                pos++;
+            }
+            try {
+                return Double.parseDouble(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("数字格式错误");
+            }
+        }
+
+        private String peekIdentifier() {
+            skipSpaces();
+            int end = pos;
+            while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+                end++;
+            }
+            if (end == pos || !Character.isLetter(text.charAt(pos))) {
+                return null;
+            }
+            return text.substring(pos, end).toLowerCase(Locale.ROOT);
+        }
+
+        private void readIdentifier() {
+            skipSpaces();
+            while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+                pos++;
+            }
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (keyword.equals(peekIdentifier())) {
+                readIdentifier();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean peekComparator() {
+            skipSpaces();
+            return pos < text.length() && "<>=!".indexOf(text.charAt(pos)) >= 0;
+        }
+
+        private String readComparator() {
+            for (String op : new String[]{"<=", ">=", "!=", "<", ">", "="}) {
+                if (text.startsWith(op, pos)) {
+                    pos += op.length();
+                    return op;
+                }
+            }
+            throw error("缺少比较符");
+        }
+
+        private boolean accept(char c) {
+            skipSpaces();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!accept(c)) {
+                throw error("缺少 '" + c + "'");
+            }
+        }
+
+        private void expectEnd() {
+            skipSpaces();
+            if (pos < text.length()) {
+                throw error("无法识别的内容");
+            }
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("选股条件错误（位置 " + pos + "）: " + message);
+        }
+
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.example.stock.service.screener;
+
+import com.example.stock.config.ScreenerProperties;
+import com.example.stock.model.dto.ScreenerMatchDTO;
+import com.example.stock.model.dto.ScreenerResultDTO;
+import com.example.stock.service.indicator.IndicatorSeries;
+import com.example.stock.service.indicator.IndicatorService;
+import com.example.stock.service.indicator.IndicatorSpecParser;
+import com.example.stock.service.indicator.IndicatorSpec;
+import com.example.stock.service.search.StockSearchIndex;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.example.stock.service.timeseries.QuoteSlice;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 横截面选股服务
+ * 在 fork-join 线程池上对全市场（或指定行业）股票并行求值选股条件，
+ * 数据全部来自内存列式序列与增量指标缓存，不访问数据库（首次访问的序列除外）
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class ScreenerService {
+
+    private final StockSearchIndex stockSearchIndex;
+
+    private final QuoteSeriesStore quoteSeriesStore;
+
+    private final IndicatorService indicatorService;
+
+    private final IndicatorSpecParser indicatorSpecParser;
+
+    private final ScreenerProperties screenerProperties;
+
+    private final ForkJoinPool pool;
+
+    public ScreenerService(StockSearchIndex stockSearchIndex,
+                           QuoteSeriesStore quoteSeriesStore,
+                           IndicatorService indicatorService,
+                           IndicatorSpecParser indicatorSpecParser,
+                           ScreenerProperties screenerProperties) {
+        this.stockSearchIndex = stockSearchIndex;
+        this.quoteSeriesStore = quoteSeriesStore;
+        this.indicatorService = indicatorService;
+        this.indicatorSpecParser = indicatorSpecParser;
+        this.screenerProperties = screenerProperties;
+        int parallelism = screenerProperties.getParallelism() > 0
+                ? screenerProperties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * 执行选股
+     *
+     * @param filter    选股条件，如 cross_above(ma(5), ma(20)) and rsi(14) &lt; 40
+     * @param sector    行业（可选，忽略大小写）
+     * @param sort      排序表达式（可选），如 rsi(14)、change_pct
+     * @param ascending 是否升序；未指定排序表达式时按代码升序
+     * @param page      页码（从 1 开始，可选）
+     * @param size      每页条数（可选）
+     * @return 分页的选股结果
+     * @throws IllegalArgumentException 条件语法错误或分页参数不合法
+     */
+    public ScreenerResultDTO screen(String filter, String sector, String sort, boolean ascending,
+                                    Integer page, Integer size) {
+        long start = System.nanoTime();
+        int pageNo = page == null ? 1 : page;
+        int pageSize = size == null ? screenerProperties.getDefaultPageSize() : size;
+        if (pageNo < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("page 与 size 必须大于 0");
+        }
+        pageSize = Math.min(pageSize, screenerProperties.getMaxPageSize());
+
+        ScreenerExpression expression = ScreenerExpression.compile(filter, sort, indicatorSpecParser);
+        List<StockSearchIndex.Entry> universe;
+        if (sector != null && !sector.isBlank()) {
+            // 行业成员直接取自索引的行业分组，不复制全市场条目再过滤
+            String target = sector.trim();
+            universe = stockSearchIndex.findBySector(target, 0, stockSearchIndex.countBySector(target));
+        } else {
+            universe = stockSearchIndex.all();
+        }
+
+        List<StockSearchIndex.Entry> candidates = universe;
+        List<Match> matches = new ArrayList<>(pool.submit(() -> candidates.parallelStream()
+                .map(entry -> evaluate(entry, expression))
+                .filter(Objects::nonNull)
+                .toList()).join());
+
+        Comparator<Match> order = Comparator.comparing(match -> match.entry().getSymbol());
+        if (expression.hasScore()) {
+            Comparator<Match> byScore = Comparator.comparingDouble(match -> match.score());
+            // 分值为 NaN 的排在最后
+            order = Comparator.<Match, Boolean>comparing(match -> Double.isNaN(match.score()))
+                    .thenComparing(ascending ? byScore : byScore.reversed())
+                    .thenComparing(order);
+        }
+        matches.sort(order);
+
+        int from = Math.min((pageNo - 1) * pageSize, matches.size());
+        int to = Math.min(from + pageSize, matches.size());
+        List<ScreenerMatchDTO> items = new ArrayList<>(to - from);
+        for (Match match : matches.subList(from, to)) {
+            items.add(toDTO(match, expression));
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("选股完成，扫描: {}，命中: {}，耗时: {} ms", universe.size(), matches.size(), elapsedMillis);
+        return ScreenerResultDTO.builder()
+                .scanned(universe.size())
+                .total(matches.size())
+                .page(pageNo)
+                .size(pageSize)
+                .elapsedMillis(elapsedMillis)
+                .items(items)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private Match evaluate(StockSearchIndex.Entry entry, ScreenerExpression expression) {
+        QuoteSeries series = quoteSeriesStore.getOrLoad(entry.getSymbol());
+        QuoteSlice slice = series.slice();
+        if (slice.isEmpty()) {
+            return null;
+        }
+        List<IndicatorSpec> specs = expression.getSpecs();
+        IndicatorSeries[] indicators = new IndicatorSeries[specs.size()];
+        for (int i = 0; i < indicators.length; i++) {
+            indicators[i] = indicatorService.get(series, specs.get(i));
+        }
+        ScreenerContext ctx = new ScreenerContext(slice, indicators);
+        if (!expression.test(ctx)) {
+            return null;
+        }
+        return new Match(entry, ctx, expression.score(ctx));
+    }
+
+    private static ScreenerMatchDTO toDTO(Match match, ScreenerExpression expression) {
+        ScreenerContext ctx = match.ctx();
+        QuoteSlice slice = ctx.getSlice();
+        Map<String, Double> indicators = new LinkedHashMap<>();
+        List<IndicatorSpec> specs = expression.getSpecs();
+        for (int i = 0; i < specs.size(); i++) {
+            indicators.put(specs.get(i).toString(), finiteOrNull(ctx.indicator(i, 0)));
+        }
+        return ScreenerMatchDTO.builder()
+                .symbol(match.entry().getSymbol())
+                .name(match.entry().getName())
+                .sector(match.entry().getSector())
+                .date(LocalDate.ofEpochDay(slice.day(slice.size() - 1)))
+                .close(ctx.close(0))
+                .changePercent(finiteOrNull(ctx.changePercent(0)))
+                .score(finiteOrNull(match.score()))
+                .indicators(indicators)
+                .build();
+    }
+
+    private static Double finiteOrNull(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+
+    private record Match(StockSearchIndex.Entry entry, ScreenerContext ctx, double score) {
+    }
+
+}
@@ -0,0 +1,636 @@
+package com.example.stock.service.search;
+
+import com.example.stock.event.StockSavedEvent;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 股票搜索内存索引
+ * 替代 LOWER(...) LIKE '%kw%' 的全表扫描：
+ * - 代码 / 名称有序前缀表（前缀查询即区间查询，等价于前缀树）
+ * - 代码 + 名称的三元组（trigram）倒排表，用于子串匹配
+ * 排序规则：代码完全匹配 > 代码前缀 > 名称前缀 > 子串匹配
+ * 另按行业维护成员表（按代码有序），供行业列表分页查询
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StockSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final StockRepository stockRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * id -> 条目；被替换的条目置为 null（墓碑）
+     */
+    private Entry[] entries = new Entry[1024];
+
+    private int size;
+
+    private int tombstones;
+
+    /**
+     * 小写代码 -> id
+     */
+    private final Map<String, Integer> idBySymbol = new HashMap<>();
+
+    /**
+     * 小写代码有序表，用于代码前缀查询
+     */
+    private final TreeMap<String, Integer> symbolPrefix = new TreeMap<>();
+
+    /**
+     * "小写名称 \0 小写代码" 有序表，用于名称前缀查询（名称可能重复）
+     */
+    private final TreeMap<String, Integer> namePrefix = new TreeMap<>();
+
+    /**
+     * trigram -> 按 id 递增的倒排列表
+     */
+    private final Map<String, IntList> grams = new HashMap<>();
+
+    /**
+     * 小写行业 -> 该行业的小写代码有序集合
+     */
+    private final Map<String, TreeSet<String>> sectorMembers = new HashMap<>();
+
+    /**
+     * 重建读取数据库期间发生的增量修改：小写代码 -> 最新的股票，移除记为 null；不在重建时为 null。
+     * 读取到的快照可能不含这些修改，替换索引后按此重放
+     */
+    private Map<String, Stock> changedDuringRebuild;
+
+    private volatile boolean ready;
+
+    /**
+     * 索引内容最后一次变化的时间（epoch 毫秒），作为股票列表类响应的版本号；
+     * 全量构建时取各股票 lastUpdate 的最大值，多实例间一致
+     */
+    private volatile long lastModified;
+
+    /**
+     * 应用启动完成后从数据库全量构建索引
+     * 读取数据库时不持锁，查询照常使用旧索引；期间的增量修改记下并在替换后重放，不会丢失
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Stock> stocks;
+        try {
+            stocks = stockRepository.findAll();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Map<String, Stock> changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+            clear();
+            long latest = 0;
+            for (Stock stock : stocks) {
+                upsertLocked(stock);
+                latest = Math.max(latest, toEpochMilli(stock.getLastUpdate()));
+            }
+            for (Map.Entry<String, Stock> change : changed.entrySet()) {
+                if (change.getValue() == null) {
+                    removeLocked(change.getKey());
+                } else {
+                    upsertLocked(change.getValue());
+                }
+            }
+            // 重建可能伴随删除，版本号只能前进
+            lastModified = ready ? Math.max(lastModified + 1, Math.max(latest, System.currentTimeMillis())) : latest;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("股票搜索索引构建完成，数量: {}，耗时: {} ms",
+                stocks.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 股票保存的事务提交后增量更新索引，回滚的修改不会进入索引
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockSaved(StockSavedEvent event) {
+        upsert(event.getStock());
+    }
+
+    /**
+     * 新增或更新一只股票
+     *
+     * @param stock 股票实体
+     */
+    public void upsert(Stock stock) {
+        if (stock == null || stock.getSymbol() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            upsertLocked(stock);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(normalize(stock.getSymbol()), stock);
+            }
+            touch();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 从索引中移除一只股票
+     *
+     * @param symbol 股票代码
+     */
+    public void remove(String symbol) {
+        if (symbol == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(normalize(symbol), null);
+            }
+            if (removeLocked(normalize(symbol))) {
+                touch();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 索引是否已完成初始构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 索引内容最后一次变化的时间（epoch 毫秒），尚未构建时为 0
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * 当前索引中的股票数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idBySymbol.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 当前索引中全部条目的快照
+     */
+    public List<Entry> all() {
+        lock.readLock().lock();
+        try {
+            List<Entry> list = new ArrayList<>(idBySymbol.size());
+            for (int i = 0; i < size; i++) {
+                if (entries[i] != null) {
+                    list.add(entries[i]);
+                }
+            }
+            return list;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 行业成员数（行业名忽略大小写）
+     *
+     * @param sector 行业
+     * @return 成员数，行业不存在时为 0
+     */
+    public int countBySector(String sector) {
+        if (sector == null) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            TreeSet<String> members = sectorMembers.get(normalize(sector));
+            return members == null ? 0 : members.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按代码顺序分页查询行业成员（行业名忽略大小写）
+     *
+     * @param sector 行业
+     * @param offset 跳过的条数
+     * @param limit  最大返回条数
+     * @return 索引条目
+     */
+    public List<Entry> findBySector(String sector, int offset, int limit) {
+        if (sector == null || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            TreeSet<String> members = sectorMembers.get(normalize(sector));
+            if (members == null || offset >= members.size()) {
+                return List.of();
+            }
+            List<Entry> result = new ArrayList<>(Math.min(limit, members.size() - offset));
+            int skipped = 0;
+            for (String lowerSymbol : members) {
+                if (skipped++ < offset) {
+                    continue;
+                }
+                result.add(entries[idBySymbol.get(lowerSymbol)]);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按代码精确查找（忽略大小写）
+     *
+     * @param symbol 股票代码
+     * @return 索引条目
+     */
+    public Optional<Entry> findBySymbol(String symbol) {
+        if (symbol == null) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Integer id = idBySymbol.get(normalize(symbol));
+            return id == null ? Optional.empty() : Optional.of(entries[id]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 搜索股票，返回按相关度排序的前 limit 条
+     *
+     * @param keyword 搜索关键字
+     * @param limit   最大返回条数
+     * @return 索引条目列表
+     */
+    public List<Entry> search(String keyword, int limit) {
+        if (keyword == null || limit <= 0) {
+            return List.of();
+        }
+        String q = normalize(keyword);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+
+        List<Entry> results = new ArrayList<>(Math.min(limit, 64));
+        Set<Integer> seen = new HashSet<>();
+
+        lock.readLock().lock();
+        try {
+            // 1. 代码完全匹配
+            Integer exact = idBySymbol.get(q);
+            if (exact != null) {
+                collect(exact, results, seen);
+            }
+
+            // 2. 代码前缀
+            collectPrefix(symbolPrefix, q, results, seen, limit);
+
+            // 3. 名称前缀
+            collectPrefix(namePrefix, q, results, seen, limit);
+
+            // 4. 子串匹配
+            if (results.size() < limit) {
+                if (q.length() >= GRAM) {
+                    collectByGrams(q, results, seen, limit);
+                } else {
+                    collectByScan(q, results, seen, limit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    // ==================== 内部实现（调用方需持有锁） ====================
+
+    private void upsertLocked(Stock stock) {
+        String lowerSymbol = normalize(stock.getSymbol());
+        String lowerName = stock.getName() == null ? "" : normalize(stock.getName());
+        Integer existingId = idBySymbol.get(lowerSymbol);
+
+        if (existingId != null) {
+            Entry old = entries[existingId];
+            removeSectorMember(old);
+            addSectorMember(stock.getSector(), lowerSymbol);
+            if (old.lowerName.equals(lowerName)) {
+                // 名称未变化，倒排表无需调整，仅替换元数据
+                entries[existingId] = new Entry(stock, lowerSymbol, lowerName);
+                return;
+            }
+            namePrefix.remove(nameKey(old));
+            entries[existingId] = null;
+            tombstones++;
+        }
+
+        Entry entry = new Entry(stock, lowerSymbol, lowerName);
+        if (existingId == null) {
+            addSectorMember(stock.getSector(), lowerSymbol);
+        }
+        int id = append(entry);
+        idBySymbol.put(lowerSymbol, id);
+        symbolPrefix.put(lowerSymbol, id);
+        namePrefix.put(nameKey(entry), id);
+        indexGrams(entry, id);
+
+        if (tombstones > 1024 && tombstones > size / 4) {
+            compact();
+        }
+    }
+
+    private boolean removeLocked(String lowerSymbol) {
+        Integer id = idBySymbol.remove(lowerSymbol);
+        if (id == null) {
+            return false;
+        }
+        Entry old = entries[id];
+        symbolPrefix.remove(old.lowerSymbol);
+        namePrefix.remove(nameKey(old));
+        removeSectorMember(old);
+        entries[id] = null;
+        tombstones++;
+        return true;
+    }
+
+    private void addSectorMember(String sector, String lowerSymbol) {
+        if (sector != null && !sector.isBlank()) {
+            sectorMembers.computeIfAbsent(normalize(sector), k -> new TreeSet<>()).add(lowerSymbol);
+        }
+    }
+
+    private void removeSectorMember(Entry entry) {
+        if (entry.sector == null || entry.sector.isBlank()) {
+            return;
+        }
+        String key = normalize(entry.sector);
+        TreeSet<String> members = sectorMembers.get(key);
+        if (members != null) {
+            members.remove(entry.lowerSymbol);
+            if (members.isEmpty()) {
+                sectorMembers.remove(key);
+            }
+        }
+    }
+
+    private int append(Entry entry) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size] = entry;
+        return size++;
+    }
+
+    private void indexGrams(Entry entry, int id) {
+        Set<String> distinct = new HashSet<>();
+        addGrams(entry.lowerSymbol, distinct);
+        addGrams(entry.lowerName, distinct);
+        for (String gram : distinct) {
+            grams.computeIfAbsent(gram, g -> new IntList()).add(id);
+        }
+    }
+
+    private static void addGrams(String text, Set<String> out) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            out.add(text.substring(i, i + GRAM));
+        }
+    }
+
+    /**
+     * 墓碑过多时重建，回收被替换条目占用的倒排空间
+     */
+    private void compact() {
+        List<Entry> live = new ArrayList<>(idBySymbol.size());
+        for (int i = 0; i < size; i++) {
+            if (entries[i] != null) {
+                live.add(entries[i]);
+            }
+        }
+        clear();
+        for (Entry entry : live) {
+            int id = append(entry);
+            idBySymbol.put(entry.lowerSymbol, id);
+            symbolPrefix.put(entry.lowerSymbol, id);
+            namePrefix.put(nameKey(entry), id);
+            indexGrams(entry, id);
+            addSectorMember(entry.sector, entry.lowerSymbol);
+        }
+    }
+
+    private void clear() {
+        entries = new Entry[1024];
+        size = 0;
+        tombstones = 0;
+        idBySymbol.clear();
+        symbolPrefix.clear();
+        namePrefix.clear();
+        grams.clear();
+        sectorMembers.clear();
+    }
+
+    private void collectPrefix(TreeMap<String, Integer> map, String prefix,
+                               List<Entry> results, Set<Integer> seen, int limit) {
+        if (results.size() >= limit) {
+            return;
+        }
+        for (Integer id : map.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            collect(id, results, seen);
+            if (results.size() >= limit) {
+                return;
+            }
+        }
+    }
+
+    private void collectByGrams(String q, List<Entry> results, Set<Integer> seen, int limit) {
+        // 选择最短的倒排列表作为候选集，逐条校验是否真正包含关键字
+        IntList shortest = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            IntList postings = grams.get(q.substring(i, i + GRAM));
+            if (postings == null) {
+                return;
+            }
+            if (shortest == null || postings.size < shortest.size) {
+                shortest = postings;
+            }
+        }
+        for (int i = 0; i < shortest.size && results.size() < limit; i++) {
+            int id = shortest.values[i];
+            Entry entry = entries[id];
+            if (entry != null && entry.contains(q)) {
+                collect(id, results, seen);
+            }
+        }
+    }
+
+    private void collectByScan(String q, List<Entry> results, Set<Integer> seen, int limit) {
+        // 1~2 个字符的关键字无法使用 trigram，前缀匹配通常已填满结果，这里只做兜底扫描
+        for (int id = 0; id < size && results.size() < limit; id++) {
+            Entry entry = entries[id];
+            if (entry != null && entry.contains(q)) {
+                collect(id, results, seen);
+            }
+        }
+    }
+
+    private void collect(int id, List<Entry> results, Set<Integer> seen) {
+        if (seen.add(id)) {
+            results.add(entries[id]);
+        }
+    }
+
+    private static String nameKey(Entry entry) {
+        return entry.lowerName + KEY_SEPARATOR + entry.lowerSymbol;
+    }
+
+    /**
+     * 推进版本号；持有写锁时调用，保证严格递增
+     */
+    private void touch() {
+        lastModified = Math.max(lastModified + 1, System.currentTimeMillis());
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 索引条目（不可变）
+     */
+    public static final class Entry {
+
+        private final String symbol;
+        private final String name;
+        private final String exchange;
+        private final String sector;
+        private final LocalDateTime lastUpdate;
+        private final String lowerSymbol;
+        private final String lowerName;
+
+        private Entry(Stock stock, String lowerSymbol, String lowerName) {
+            this.symbol = stock.getSymbol();
+            this.name = stock.getName();
+            this.exchange = stock.getExchange();
+            this.sector = stock.getSector();
+            this.lastUpdate = stock.getLastUpdate();
+            this.lowerSymbol = lowerSymbol;
+            this.lowerName = lowerName;
+        }
+
+        private boolean contains(String q) {
+            return lowerSymbol.contains(q) || lowerName.contains(q);
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getExchange() {
+            return exchange;
+        }
+
+        public String getSector() {
+            return sector;
+        }
+
+        public LocalDateTime getLastUpdate() {
+            return lastUpdate;
+        }
+
+        /**
+         * 最后更新时间（epoch 毫秒），未知时为 0
+         */
+        public long getLastUpdateMillis() {
+            return toEpochMilli(lastUpdate);
+        }
+
+    }
+
+    /**
+     * 追加写的 int 列表，避免 List<Integer> 的装箱开销
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+    }
+
+}
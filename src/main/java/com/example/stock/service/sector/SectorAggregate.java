@@ -0,0 +1,184 @@
+package com.example.stock.service.sector;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 单个行业的增量统计
+ * 只统计行业内最新交易日：某成员报出更新的交易日时统计清零并切换到该日，
+ * 其余成员随各自写入陆续计入；同一成员的修正先撤销旧贡献再计入新值。
+ * 涨跌幅有序集合同时提供中位数与涨跌幅榜，所有方法在本对象上同步
+ *
+ * @author Toom
+ * @version 1.0
+ */
+final class SectorAggregate {
+
+    private static final Comparator<Move> ORDER =
+            Comparator.comparingDouble(Move::dailyReturn).thenComparing(Move::symbol);
+
+    /**
+     * 成员股票代码 -> 最近两日收盘数据
+     */
+    private final Map<String, SymbolDay> days = new HashMap<>();
+
+    /**
+     * 计入当日统计的成员 -> 贡献
+     */
+    private final Map<String, Move> moves = new HashMap<>();
+
+    private final TreeSet<Move> ordered = new TreeSet<>(ORDER);
+
+    private LocalDate date;
+
+    private int advancers;
+
+    private int decliners;
+
+    private double sumReturn;
+
+    private double sumWeightedReturn;
+
+    private long sumVolume;
+
+    /**
+     * 合并一根 K 线
+     */
+    synchronized void bar(String symbol, LocalDate barDate, double close, long volume) {
+        SymbolDay old = days.get(symbol);
+        SymbolDay next = old == null ? SymbolDay.first(symbol, barDate, close, volume) : old.merge(barDate, close, volume);
+        if (next != old) {
+            days.put(symbol, next);
+            refresh(next);
+        }
+    }
+
+    /**
+     * 移入成员（行业变更时从原行业带过来）
+     */
+    synchronized void addMember(SymbolDay day) {
+        days.put(day.symbol(), day);
+        refresh(day);
+    }
+
+    /**
+     * 移出成员
+     *
+     * @return 该成员的收盘数据，未记录时为 null
+     */
+    synchronized SymbolDay removeMember(String symbol) {
+        withdraw(symbol);
+        return days.remove(symbol);
+    }
+
+    synchronized Snapshot snapshot(int top) {
+        int reported = moves.size();
+        double median = Double.NaN;
+        List<Move> losers = new ArrayList<>(Math.min(top, reported));
+        List<Move> gainers = new ArrayList<>(Math.min(top, reported));
+        if (reported > 0) {
+            Iterator<Move> ascending = ordered.iterator();
+            int lower = (reported - 1) / 2;
+            int upper = reported / 2;
+            for (int i = 0; i <= upper; i++) {
+                Move move = ascending.next();
+                if (i == lower) {
+                    median = move.dailyReturn();
+                }
+                if (i == upper) {
+                    median = (median + move.dailyReturn()) / 2;
+                }
+            }
+            for (Move move : ordered) {
+                if (losers.size() == top || move.dailyReturn() >= 0) {
+                    break;
+                }
+                losers.add(move);
+            }
+            for (Move move : ordered.descendingSet()) {
+                if (gainers.size() == top || move.dailyReturn() <= 0) {
+                    break;
+                }
+                gainers.add(move);
+            }
+        }
+        return new Snapshot(date, reported, advancers, decliners, reported - advancers - decliners,
+                reported == 0 ? Double.NaN : sumReturn / reported,
+                median,
+                sumVolume == 0 ? Double.NaN : sumWeightedReturn / sumVolume,
+                sumVolume, gainers, losers);
+    }
+
+    private void refresh(SymbolDay day) {
+        withdraw(day.symbol());
+        double dailyReturn = day.dailyReturn();
+        if (Double.isNaN(dailyReturn)) {
+            return;
+        }
+        if (date == null || day.date().isAfter(date)) {
+            reset(day.date());
+        } else if (day.date().isBefore(date)) {
+            // 该成员尚未报出行业最新交易日
+            return;
+        }
+        Move move = new Move(day.symbol(), dailyReturn, day.close(), day.volume());
+        moves.put(move.symbol(), move);
+        ordered.add(move);
+        if (dailyReturn > 0) {
+            advancers++;
+        } else if (dailyReturn < 0) {
+            decliners++;
+        }
+        sumReturn += dailyReturn;
+        sumWeightedReturn += dailyReturn * move.volume();
+        sumVolume += move.volume();
+    }
+
+    private void withdraw(String symbol) {
+        Move move = moves.remove(symbol);
+        if (move == null) {
+            return;
+        }
+        ordered.remove(move);
+        if (move.dailyReturn() > 0) {
+            advancers--;
+        } else if (move.dailyReturn() < 0) {
+            decliners--;
+        }
+        sumReturn -= move.dailyReturn();
+        sumWeightedReturn -= move.dailyReturn() * move.volume();
+        sumVolume -= move.volume();
+    }
+
+    private void reset(LocalDate newDate) {
+        date = newDate;
+        moves.clear();
+        ordered.clear();
+        advancers = 0;
+        decliners = 0;
+        sumReturn = 0;
+        sumWeightedReturn = 0;
+        sumVolume = 0;
+    }
+
+    /**
+     * 成员当日的涨跌贡献
+     */
+    record Move(String symbol, double dailyReturn, double close, long volume) {
+    }
+
+    /**
+     * 统计快照，比例均为小数（非百分比），无数据时为 NaN
+     */
+    record Snapshot(LocalDate date, int reported, int advancers, int decliners, int unchanged,
+                    double averageReturn, double medianReturn, double volumeWeightedReturn,
+                    long totalVolume, List<Move> topGainers, List<Move> topLosers) {
+    }
+
+}
@@ -0,0 +1,227 @@
+package com.example.stock.service.sector;
+
+import com.example.stock.config.SectorProperties;
+import com.example.stock.event.QuotesIngestedEvent;
+import com.example.stock.event.StockSavedEvent;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.SectorMoverDTO;
+import com.example.stock.model.dto.SectorStatsDTO;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.service.search.StockSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 行业统计服务
+ * 启动时一次查询加载每只股票最近两根日线，之后随行情写入事件增量更新各行业的
+ * 涨跌家数、平均 / 中位数 / 成交量加权涨跌幅及涨跌幅榜，查询只读取内存中的统计。
+ * 暂无行业的股票记在不对外提供的空行业下，之后查到行业或行业变更时连同收盘数据一起迁移
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SectorStatsService {
+
+    /**
+     * 最新交易日；走 idx_daily_quote_date 索引
+     */
+    private static final String LATEST_DATE_SQL = "SELECT MAX(date) FROM daily_quotes";
+
+    /**
+     * 每只股票最近两个交易日；daily_quotes 按 (symbol, date) 唯一。
+     * 只对回看窗口内的日线做窗口函数，按日期分区时只扫描最近的分区
+     */
+    private static final String LATEST_TWO_SQL = """
+            SELECT t.symbol, s.sector, t.date, t.close, t.volume
+            FROM (SELECT symbol, date, close, volume,
+                         ROW_NUMBER() OVER (PARTITION BY symbol ORDER BY date DESC) AS rn
+                  FROM daily_quotes
+                  WHERE date >= ?) t
+            JOIN stocks s ON s.symbol = t.symbol
+            WHERE t.rn <= 2
+            ORDER BY t.symbol, t.date
+            """;
+
+    /**
+     * 无行业（或尚未在搜索索引中查到行业）的股票所在的统计，不对外提供
+     */
+    private static final String NO_SECTOR = "";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final StockSearchIndex stockSearchIndex;
+
+    private final SectorProperties sectorProperties;
+
+    /**
+     * 行业（小写）-> 统计
+     */
+    private final Map<String, SectorAggregate> aggregates = new ConcurrentHashMap<>();
+
+    /**
+     * 股票代码 -> 所属行业（小写）；对同一股票的 K 线合并与行业迁移在该表的 compute 中串行执行
+     */
+    private final Map<String, String> sectorBySymbol = new ConcurrentHashMap<>();
+
+    /**
+     * 查询行业统计
+     *
+     * @param sector 行业（忽略大小写）
+     * @param top    涨跌幅榜条数，为空时使用默认值
+     * @return 统计，行业不存在时为空
+     */
+    public Optional<SectorStatsDTO> getStats(String sector, Integer top) {
+        int effectiveTop = top == null ? sectorProperties.getDefaultTopMovers() : top;
+        if (effectiveTop < 1) {
+            throw new IllegalArgumentException("top 必须大于 0");
+        }
+        effectiveTop = Math.min(effectiveTop, sectorProperties.getMaxTopMovers());
+
+        List<StockSearchIndex.Entry> first = stockSearchIndex.findBySector(sector, 0, 1);
+        if (first.isEmpty()) {
+            return Optional.empty();
+        }
+        SectorAggregate aggregate = aggregates.get(sectorKey(sector));
+        SectorAggregate.Snapshot snapshot = aggregate == null ? new SectorAggregate().snapshot(effectiveTop)
+                : aggregate.snapshot(effectiveTop);
+
+        return Optional.of(SectorStatsDTO.builder()
+                .sector(first.get(0).getSector())
+                .date(snapshot.date())
+                .members(stockSearchIndex.countBySector(sector))
+                .reported(snapshot.reported())
+                .advancers(snapshot.advancers())
+                .decliners(snapshot.decliners())
+                .unchanged(snapshot.unchanged())
+                .averageReturn(percent(snapshot.averageReturn()))
+                .medianReturn(percent(snapshot.medianReturn()))
+                .volumeWeightedReturn(percent(snapshot.volumeWeightedReturn()))
+                .totalVolume(snapshot.totalVolume())
+                .topGainers(snapshot.topGainers().stream().map(this::toMoverDTO).toList())
+                .topLosers(snapshot.topLosers().stream().map(this::toMoverDTO).toList())
+                .build());
+    }
+
+    /**
+     * 启动时加载每只股票最近两根日线
+     * 回看窗口以库中最新交易日为准：窗口内没有日线的股票（长期停牌）不参与统计，有新行情写入时再加入
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        long start = System.nanoTime();
+        Date latest = jdbcTemplate.queryForObject(LATEST_DATE_SQL, Date.class);
+        if (latest == null) {
+            log.info("行业统计加载跳过：暂无日线数据");
+            return;
+        }
+        Date from = Date.valueOf(latest.toLocalDate().minusDays(Math.max(1, sectorProperties.getPreloadLookbackDays())));
+        int[] rows = {0};
+        jdbcTemplate.query(LATEST_TWO_SQL, rs -> {
+            String symbol = rs.getString(1);
+            String key = sectorKey(rs.getString(2));
+            Date date = rs.getDate(3);
+            double close = rs.getDouble(4);
+            long volume = rs.getLong(5);
+            sectorBySymbol.put(symbol, key);
+            aggregate(key).bar(symbol, date.toLocalDate(), close, volume);
+            rows[0]++;
+        }, from);
+        log.info("行业统计加载完成，行业数: {}，K 线数: {}，耗时: {} ms",
+                aggregates.size(), rows[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 新行情写入数据库后增量更新所属行业的统计；
+     * 记在空行业下的股票每次重新查询搜索索引，查到行业后迁移过去
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuotesIngested(QuotesIngestedEvent event) {
+        for (QuoteBarDTO bar : event.getBars()) {
+            if (bar.getClose() == null) {
+                continue;
+            }
+            double close = bar.getClose().doubleValue();
+            long volume = bar.getVolume() == null ? 0 : bar.getVolume();
+            sectorBySymbol.compute(bar.getSymbol(), (symbol, key) -> {
+                String target = key != null && !key.equals(NO_SECTOR) ? key : stockSearchIndex.findBySymbol(symbol)
+                        .map(StockSearchIndex.Entry::getSector)
+                        .map(SectorStatsService::sectorKey)
+                        .orElse(NO_SECTOR);
+                if (key != null && !key.equals(target)) {
+                    move(symbol, key, target);
+                }
+                aggregate(target).bar(symbol, bar.getDate(), close, volume);
+                return target;
+            });
+        }
+    }
+
+    /**
+     * 股票保存的事务提交后，行业变更时把其收盘数据迁移到新行业；回滚的修改不迁移
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockSaved(StockSavedEvent event) {
+        Stock stock = event.getStock();
+        if (stock == null || stock.getSymbol() == null) {
+            return;
+        }
+        String newKey = sectorKey(stock.getSector());
+        sectorBySymbol.compute(stock.getSymbol(), (symbol, oldKey) -> {
+            if (oldKey != null && !oldKey.equals(newKey)) {
+                move(symbol, oldKey, newKey);
+            }
+            return newKey;
+        });
+    }
+
+    /**
+     * 在 sectorBySymbol 的 compute 中调用
+     */
+    private void move(String symbol, String from, String to) {
+        SectorAggregate previous = aggregates.get(from);
+        SymbolDay day = previous == null ? null : previous.removeMember(symbol);
+        if (day != null) {
+            aggregate(to).addMember(day);
+        }
+    }
+
+    private SectorAggregate aggregate(String key) {
+        return aggregates.computeIfAbsent(key, k -> new SectorAggregate());
+    }
+
+    private SectorMoverDTO toMoverDTO(SectorAggregate.Move move) {
+        return SectorMoverDTO.builder()
+                .symbol(move.symbol())
+                .name(stockSearchIndex.findBySymbol(move.symbol()).map(StockSearchIndex.Entry::getName).orElse(null))
+                .close(BigDecimal.valueOf(move.close()).setScale(2, RoundingMode.HALF_UP))
+                .changePercent(percent(move.dailyReturn()))
+                .volume(move.volume())
+                .build();
+    }
+
+    private static BigDecimal percent(double ratio) {
+        return Double.isFinite(ratio) ? BigDecimal.valueOf(ratio * 100).setScale(2, RoundingMode.HALF_UP) : null;
+    }
+
+    private static String sectorKey(String sector) {
+        return sector == null || sector.isBlank() ? NO_SECTOR : sector.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
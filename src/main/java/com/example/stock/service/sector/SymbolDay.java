@@ -0,0 +1,50 @@
+package com.example.stock.service.sector;
+
+import java.time.LocalDate;
+
+/**
+ * 单只股票最近两个交易日的收盘数据，用于计算最新交易日涨跌幅
+ *
+ * @param symbol    股票代码（规范写法）
+ * @param date      最新交易日
+ * @param close     最新收盘价
+ * @param volume    最新成交量
+ * @param prevDate  前一交易日，无数据时为 null
+ * @param prevClose 前一交易日收盘价
+ * @author Toom
+ * @version 1.0
+ */
+record SymbolDay(String symbol, LocalDate date, double close, long volume,
+                 LocalDate prevDate, double prevClose) {
+
+    static SymbolDay first(String symbol, LocalDate date, double close, long volume) {
+        return new SymbolDay(symbol, date, close, volume, null, Double.NaN);
+    }
+
+    /**
+     * 合并一根新 K 线：更新的交易日顺延，同一交易日视为修正，
+     * 较早的交易日仅在比当前前一交易日更新时替换前收盘
+     *
+     * @return 合并后的状态，无变化时返回自身
+     */
+    SymbolDay merge(LocalDate barDate, double barClose, long barVolume) {
+        if (barDate.isAfter(date)) {
+            return new SymbolDay(symbol, barDate, barClose, barVolume, date, close);
+        }
+        if (barDate.isEqual(date)) {
+            return new SymbolDay(symbol, date, barClose, barVolume, prevDate, prevClose);
+        }
+        if (prevDate == null || !barDate.isBefore(prevDate)) {
+            return new SymbolDay(symbol, date, close, volume, barDate, barClose);
+        }
+        return this;
+    }
+
+    /**
+     * 最新交易日涨跌幅（比例），缺少前收盘时为 NaN
+     */
+    double dailyReturn() {
+        return prevDate == null || !(prevClose > 0) ? Double.NaN : close / prevClose - 1;
+    }
+
+}
@@ -0,0 +1,319 @@
+package com.example.stock.service.snapshot;
+
+import com.example.stock.config.SnapshotProperties;
+import com.example.stock.service.partition.QuotePartitionManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 快照导入服务
+ * 股票一次批量写入后，日线按批次并行写入：单线程解压解析，每批由线程池在独立事务中 batchUpdate，
+ * 在途批次数受信号量限制，内存占用与快照大小无关；daily_quotes 分区时每批提交前先确保其日期已有分区。
+ * 批次各自提交，中途失败会留下部分数据：导入前在 data_seeds 中记录 STARTED，全部提交后改为 COMPLETED，
+ * 启动时据此判断是否需要导入；上次停在 STARTED 时先清空已导入的部分再重新导入。
+ * 状态检查与整个导入须在 {@link #withSeedLock} 内执行：多个实例同时启动（如滚动发布）时只有一个实例导入，
+ * 其余实例等它结束后看到 COMPLETED 直接跳过；STARTED 只可能来自已退出的进程（其会话锁已随连接释放），清空是安全的。
+ * 只在空库（或只有未完成导入的库）上调用，因此使用普通 INSERT，不依赖 ON CONFLICT
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SnapshotLoader {
+
+    private static final String INSERT_STOCK_SQL =
+            "INSERT INTO stocks (symbol, name, exchange, sector, last_update, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_QUOTE_SQL = "INSERT INTO daily_quotes "
+            + "(symbol, date, open, high, low, close, volume, adj_close, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_VERSION_SQL = "INSERT INTO quote_versions (symbol, version, updated_at) "
+            + "SELECT s.symbol, 1, ? FROM stocks s WHERE EXISTS (SELECT 1 FROM daily_quotes q WHERE q.symbol = s.symbol) "
+            + "ON CONFLICT (symbol) DO NOTHING";
+
+    private static final String SEED_NAME = "snapshot";
+
+    /**
+     * 会话级 advisory lock，持有连接断开（进程退出）时自动释放
+     */
+    private static final String SEED_LOCK_SQL = "SELECT pg_advisory_lock(hashtext('data_seeds:" + SEED_NAME + "'))";
+
+    private static final String SEED_UNLOCK_SQL =
+            "SELECT pg_advisory_unlock(hashtext('data_seeds:" + SEED_NAME + "'))";
+
+    private static final String SEED_STATUS_SQL = "SELECT status FROM data_seeds WHERE name = ?";
+
+    private static final String SEED_STARTED_SQL = "INSERT INTO data_seeds (name, status, started_at) VALUES (?, ?, ?) "
+            + "ON CONFLICT (name) DO UPDATE SET status = EXCLUDED.status, started_at = EXCLUDED.started_at, "
+            + "completed_at = NULL";
+
+    private static final String SEED_COMPLETED_SQL =
+            "UPDATE data_seeds SET status = ?, completed_at = ? WHERE name = ?";
+
+    /**
+     * 快照导入写入的全部表；日线预聚合由日线派生，一并清空
+     */
+    private static final String CLEAR_SQL = "TRUNCATE TABLE quote_versions, candle_rollups, daily_quotes, stocks";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final ResourceLoader resourceLoader;
+
+    private final SnapshotProperties snapshotProperties;
+
+    private final QuotePartitionManager quotePartitionManager;
+
+    /**
+     * 是否启用且快照存在
+     */
+    public boolean isAvailable() {
+        return snapshotProperties.isEnabled()
+                && resourceLoader.getResource(snapshotProperties.getStocksLocation()).exists();
+    }
+
+    /**
+     * 持有快照导入锁执行：在一条专用连接上以会话级 advisory lock 覆盖状态检查与整个导入
+     * （导入的各批次在其他连接上各自提交）。其他实例持有锁时阻塞等待其结束
+     *
+     * @param action 检查状态并按需导入
+     * @return action 的结果
+     */
+    public <T> T withSeedLock(Supplier<T> action) {
+        return jdbcTemplate.execute((ConnectionCallback<T>) connection -> {
+            long start = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(SEED_LOCK_SQL);
+            }
+            long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (waitedMillis > 1000) {
+                log.info("等待其他实例的快照导入结束，耗时: {} ms", waitedMillis);
+            }
+            try {
+                return action.get();
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(SEED_UNLOCK_SQL);
+                }
+            }
+        });
+    }
+
+    /**
+     * 快照导入状态
+     */
+    public SeedStatus status() {
+        List<String> status = jdbcTemplate.queryForList(SEED_STATUS_SQL, String.class, SEED_NAME);
+        return status.isEmpty() ? SeedStatus.NONE : SeedStatus.valueOf(status.get(0));
+    }
+
+    /**
+     * 导入快照；上次导入未完成时先清空其写入的数据。须在 {@link #withSeedLock} 内调用
+     *
+     * @return 导入的股票数与日线数
+     */
+    public Report load() {
+        long start = System.nanoTime();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        if (status() == SeedStatus.STARTED) {
+            log.warn("上次快照导入未完成，清空已导入的数据后重新导入");
+            jdbcTemplate.execute(CLEAR_SQL);
+        }
+        jdbcTemplate.update(SEED_STARTED_SQL, SEED_NAME, SeedStatus.STARTED.name(), now);
+
+        List<String[]> stocks = new ArrayList<>();
+        read(snapshotProperties.getStocksLocation(), 4, stocks::add);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_STOCK_SQL, stocks, stocks.size(), (ps, row) -> {
+                    ps.setString(1, row[0]);
+                    ps.setString(2, row[1]);
+                    ps.setString(3, emptyToNull(row[2]));
+                    ps.setString(4, emptyToNull(row[3]));
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                }));
+
+        long quotes = 0;
+        Resource quotesResource = resourceLoader.getResource(snapshotProperties.getQuotesLocation());
+        if (quotesResource.exists()) {
+            quotes = loadQuotes(now);
+            jdbcTemplate.update(INSERT_VERSION_SQL, now);
+        }
+        jdbcTemplate.update(SEED_COMPLETED_SQL, SeedStatus.COMPLETED.name(),
+                Timestamp.valueOf(LocalDateTime.now()), SEED_NAME);
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("快照导入完成，股票数: {}，日线数: {}，耗时: {} ms", stocks.size(), quotes, elapsedMillis);
+        return new Report(stocks.size(), quotes, elapsedMillis);
+    }
+
+    private long loadQuotes(Timestamp now) {
+        int parallelism = snapshotProperties.getParallelism() > 0
+                ? snapshotProperties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        int batchSize = Math.max(1, snapshotProperties.getBatchSize());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "snapshot-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<Future<?>> futures = new ArrayList<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long[] rows = {0};
+        try {
+            List<List<String[]>> pending = new ArrayList<>(1);
+            pending.add(new ArrayList<>(batchSize));
+            read(snapshotProperties.getQuotesLocation(), 8, row -> {
+                List<String[]> batch = pending.get(0);
+                batch.add(row);
+                rows[0]++;
+                if (batch.size() == batchSize) {
+                    futures.add(submit(executor, inFlight, transaction, batch, now));
+                    pending.set(0, new ArrayList<>(batchSize));
+                }
+            });
+            if (!pending.get(0).isEmpty()) {
+                futures.add(submit(executor, inFlight, transaction, pending.get(0), now));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return rows[0];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("快照导入被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("快照日线写入失败: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Future<?> submit(ExecutorService executor, Semaphore inFlight, TransactionTemplate transaction,
+                             List<String[]> batch, Timestamp now) {
+        Set<LocalDate> dates = new HashSet<>();
+        for (String[] row : batch) {
+            dates.add(LocalDate.parse(row[1]));
+        }
+        quotePartitionManager.ensureCovering(dates);
+        inFlight.acquireUninterruptibly();
+        return executor.submit(() -> {
+            try {
+                transaction.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_QUOTE_SQL, batch, batch.size(), (ps, row) -> {
+                            ps.setString(1, row[0]);
+                            ps.setDate(2, Date.valueOf(row[1]));
+                            ps.setBigDecimal(3, new BigDecimal(row[2]));
+                            ps.setBigDecimal(4, new BigDecimal(row[3]));
+                            ps.setBigDecimal(5, new BigDecimal(row[4]));
+                            ps.setBigDecimal(6, new BigDecimal(row[5]));
+                            ps.setLong(7, Long.parseLong(row[6]));
+                            if (row[7].isEmpty()) {
+                                ps.setNull(8, Types.NUMERIC);
+                            } else {
+                                ps.setBigDecimal(8, new BigDecimal(row[7]));
+                            }
+                            ps.setTimestamp(9, now);
+                        }));
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * 逐行读取 gzip CSV（首行为表头），字段不含逗号与引号
+     */
+    private void read(String location, int columns, Consumer<String[]> consumer) {
+        Resource resource = resourceLoader.getResource(location);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(resource.getInputStream(), 64 * 1024), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length != columns) {
+                    throw new IllegalStateException("快照格式错误: " + location + " - " + line);
+                }
+                consumer.accept(fields);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取快照失败: " + location, e);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 快照导入状态
+     */
+    public enum SeedStatus {
+
+        /**
+         * 从未导入
+         */
+        NONE,
+
+        /**
+         * 已开始但未完成（进程中断或写入失败）
+         */
+        STARTED,
+
+        /**
+         * 已完成
+         */
+        COMPLETED
+
+    }
+
+    /**
+     * 导入结果
+     *
+     * @param stocks        股票数
+     * @param quotes        日线数
+     * @param elapsedMillis 耗时（毫秒）
+     */
+    public record Report(int stocks, long quotes, long elapsedMillis) {
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.example.stock.service.stream;
+
+import com.example.stock.model.dto.PriceTickDTO;
+import com.example.stock.model.entity.DailyQuote;
+import com.example.stock.repository.DailyQuoteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 以最新日线为报价的行情源
+ * 轮询数据库中最新两根日线，随行情同步 / 导入写入的新数据推送给订阅者
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.stream", name = "feed", havingValue = "quote", matchIfMissing = true)
+public class LatestQuotePriceFeed implements PriceFeed {
+
+    private final DailyQuoteRepository dailyQuoteRepository;
+
+    @Override
+    public String getSource() {
+        return "quote";
+    }
+
+    @Override
+    public PriceTickDTO fetch(String symbol) {
+        List<DailyQuote> recent = dailyQuoteRepository.findBySymbolOrderByDateDesc(symbol, PageRequest.of(0, 2));
+        if (recent.isEmpty()) {
+            return null;
+        }
+        DailyQuote latest = recent.get(0);
+        PriceTickDTO.PriceTickDTOBuilder tick = PriceTickDTO.builder()
+                .symbol(symbol)
+                .price(latest.getClose())
+                .volume(latest.getVolume())
+                .timestamp(latest.getDate().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        if (recent.size() > 1 && recent.get(1).getClose().signum() != 0) {
+            BigDecimal previous = recent.get(1).getClose();
+            BigDecimal change = latest.getClose().subtract(previous);
+            tick.change(change)
+                    .changePercent(change.multiply(BigDecimal.valueOf(100)).divide(previous, 2, RoundingMode.HALF_UP));
+        }
+        return tick.build();
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.example.stock.service.stream;
+
+import com.example.stock.model.dto.PriceTickDTO;
+
+/**
+ * 实时报价上游数据源
+ * 由 {@link QuoteStreamService} 为每个被订阅的股票各自调度一个轮询，同一股票的调用不会并发
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public interface PriceFeed {
+
+    /**
+     * 数据源名称
+     */
+    String getSource();
+
+    /**
+     * 获取股票当前报价
+     *
+     * @param symbol 股票代码（已规范化）
+     * @return 最新报价，暂无报价时返回 null；sequence 由调用方在副本上填写，返回的对象不会被修改
+     */
+    PriceTickDTO fetch(String symbol);
+
+    /**
+     * 股票不再被订阅时调用，释放该股票的状态
+     *
+     * @param symbol 股票代码
+     */
+    default void release(String symbol) {
+    }
+
+}
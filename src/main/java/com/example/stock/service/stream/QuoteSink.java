@@ -0,0 +1,34 @@
+package com.example.stock.service.stream;
+
+import com.example.stock.model.dto.PriceTickDTO;
+
+/**
+ * 订阅者的推送出口（SSE 连接、WebSocket 会话或测试用计数器）
+ * 同一订阅者的调用由 {@link QuoteStreamService} 保证串行，实现无需线程安全
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public interface QuoteSink {
+
+    /**
+     * 推送一条报价；抛出异常视为连接已断开，订阅随即被移除
+     *
+     * @param tick 报价（所有订阅者共享，不可修改）
+     * @param json 报价的 JSON，广播前已序列化一次
+     */
+    void send(PriceTickDTO tick, String json) throws Exception;
+
+    /**
+     * 发送心跳
+     */
+    default void heartbeat() throws Exception {
+    }
+
+    /**
+     * 订阅被服务端关闭（停机、推送失败）时调用
+     */
+    default void close() {
+    }
+
+}
@@ -0,0 +1,511 @@
+package com.example.stock.service.stream;
+
+import com.example.stock.config.StreamProperties;
+import com.example.stock.model.dto.PriceTickDTO;
+import com.example.stock.model.dto.StreamStatsDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 实时报价推送服务
+ * 每个被订阅的股票只有一个上游轮询，无论订阅者多少；报价序列化一次后广播给该股票的全部订阅者。
+ * 订阅者列表为写时复制数组，广播无锁遍历；每个订阅者按股票保留一个待发槽位（有界缓冲），
+ * 消费慢的订阅者只会收到最新值（中间报价被合并，sequence 跳号），不会无限堆积。
+ * 推送由固定大小的发送线程池执行，同一订阅者同时最多一个发送任务；
+ * 单次推送超过 send-timeout-ms 的订阅者被断开，并临时扩容一个发送线程顶替被阻塞的线程，
+ * 被阻塞的写入由容器的写超时结束后再缩回，慢连接不会占满发送线程池
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class QuoteStreamService {
+
+    private final PriceFeed priceFeed;
+
+    private final StreamProperties streamProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ScheduledExecutorService pollers;
+
+    private final ThreadPoolExecutor senders;
+
+    private final int senderThreads;
+
+    /**
+     * 仍阻塞在推送中的已断开订阅者数，发送线程池按此扩容
+     */
+    private int stalledSenders;
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder sent = new LongAdder();
+
+    private final LongAdder conflated = new LongAdder();
+
+    private final LongAdder pollFailures = new LongAdder();
+
+    private final LongAdder sendFailures = new LongAdder();
+
+    private final LongAdder sendStalls = new LongAdder();
+
+    private final Timer deliveryLag;
+
+    public QuoteStreamService(PriceFeed priceFeed,
+                              StreamProperties streamProperties,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.priceFeed = priceFeed;
+        this.streamProperties = streamProperties;
+        this.objectMapper = objectMapper;
+        this.pollers = Executors.newScheduledThreadPool(Math.max(1, streamProperties.getPollerThreads()),
+                new CustomizableThreadFactory("quote-poller-"));
+        this.senderThreads = Math.max(1, streamProperties.getSenderThreads());
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("quote-sender-"));
+        if (streamProperties.getHeartbeatIntervalMs() > 0) {
+            pollers.scheduleWithFixedDelay(this::heartbeat, streamProperties.getHeartbeatIntervalMs(),
+                    streamProperties.getHeartbeatIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+        if (streamProperties.getSendTimeoutMs() > 0) {
+            long interval = Math.max(50, streamProperties.getSendTimeoutMs() / 4);
+            pollers.scheduleWithFixedDelay(this::reapStalled, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        this.deliveryLag = Timer.builder("stream.delivery.lag")
+                .description("报价从广播到推送给订阅者的延迟")
+                .register(meterRegistry);
+        Gauge.builder("stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("当前订阅连接数").register(meterRegistry);
+        Gauge.builder("stream.topics", topics, Map::size)
+                .description("正在轮询的股票数").register(meterRegistry);
+        Gauge.builder("stream.pending", this, QuoteStreamService::pendingCount)
+                .description("尚未推送的待发消息数").register(meterRegistry);
+        FunctionCounter.builder("stream.published", published, LongAdder::sum)
+                .description("上游报价次数").register(meterRegistry);
+        FunctionCounter.builder("stream.sent", sent, LongAdder::sum)
+                .description("已推送的消息数").register(meterRegistry);
+        FunctionCounter.builder("stream.conflated", conflated, LongAdder::sum)
+                .description("被最新值覆盖的消息数（慢消费者）").register(meterRegistry);
+        FunctionCounter.builder("stream.poll.failures", pollFailures, LongAdder::sum)
+                .description("上游轮询失败次数").register(meterRegistry);
+        FunctionCounter.builder("stream.send.failures", sendFailures, LongAdder::sum)
+                .description("推送失败次数").register(meterRegistry);
+        FunctionCounter.builder("stream.send.stalls", sendStalls, LongAdder::sum)
+                .description("推送超时被断开的订阅数").register(meterRegistry);
+    }
+
+    /**
+     * 订阅一组股票的实时报价
+     * 已有最新报价的股票会立即推送一次
+     *
+     * @param symbols 已规范化的股票代码
+     * @param sink    推送出口
+     * @return 订阅句柄，连接关闭时调用 {@link Subscription#cancel()}
+     * @throws IllegalArgumentException 股票数为空或超过上限
+     * @throws IllegalStateException    订阅连接数已达上限
+     */
+    public Subscription subscribe(Collection<String> symbols, QuoteSink sink) {
+        Set<String> distinct = Set.copyOf(symbols);
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("至少订阅一个股票");
+        }
+        if (distinct.size() > streamProperties.getMaxSymbolsPerSubscriber()) {
+            throw new IllegalArgumentException("单个连接最多订阅 " + streamProperties.getMaxSymbolsPerSubscriber() + " 个股票");
+        }
+        if (subscriberCount.incrementAndGet() > streamProperties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("订阅连接数已达上限");
+        }
+
+        Subscriber subscriber = new Subscriber(distinct, sink);
+        subscribers.add(subscriber);
+        // 先挂到全部股票上再推送首帧：首帧推送失败会关闭订阅，此时必须能从每个股票上摘除
+        for (String symbol : distinct) {
+            topics.compute(symbol, (key, existing) -> {
+                if (subscriber.closed.get()) {
+                    return existing;
+                }
+                Topic t = existing != null ? existing : openTopic(key);
+                t.subscribers.add(subscriber);
+                return t;
+            });
+        }
+        if (subscriber.closed.get()) {
+            // 挂载期间被关闭（并发广播推送失败），摘除关闭之后才挂上的股票
+            detach(subscriber);
+            return subscriber;
+        }
+        for (String symbol : distinct) {
+            Topic topic = topics.get(symbol);
+            Frame last = topic == null ? null : topic.last;
+            if (last != null) {
+                // 新订阅者的首帧从此刻起计推送延迟
+                subscriber.offer(new Frame(last.tick, last.json, System.nanoTime()));
+            }
+        }
+        return subscriber;
+    }
+
+    /**
+     * 广播一条报价给该股票的全部订阅者
+     * 轮询线程调用；推送型数据源也可直接调用。没有订阅者的股票直接丢弃
+     *
+     * @param tick 报价；广播的是填写了 sequence 的副本，传入对象不被修改
+     */
+    public void publish(PriceTickDTO tick) {
+        Topic topic = topics.get(tick.getSymbol());
+        if (topic != null) {
+            topic.broadcast(tick);
+        }
+    }
+
+    /**
+     * 推送统计
+     */
+    public StreamStatsDTO getStats() {
+        return StreamStatsDTO.builder()
+                .feed(priceFeed.getSource())
+                .topics(topics.size())
+                .subscribers(subscriberCount.get())
+                .published(published.sum())
+                .sent(sent.sum())
+                .conflated(conflated.sum())
+                .pending(pendingCount())
+                .pollFailures(pollFailures.sum())
+                .sendFailures(sendFailures.sum())
+                .sendStalls(sendStalls.sum())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollers.shutdownNow();
+        for (Subscriber subscriber : List.copyOf(subscribers)) {
+            subscriber.close(true);
+        }
+        senders.shutdownNow();
+    }
+
+    private Topic openTopic(String symbol) {
+        Topic topic = new Topic(symbol);
+        topic.poller = pollers.scheduleWithFixedDelay(topic::poll, 0,
+                Math.max(1, streamProperties.getPollIntervalMs()), TimeUnit.MILLISECONDS);
+        log.debug("开始轮询实时报价: {}", symbol);
+        return topic;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        detach(subscriber);
+        subscribers.remove(subscriber);
+        subscriberCount.decrementAndGet();
+    }
+
+    /**
+     * 从订阅者的各个股票上摘除，最后一个订阅者离开时停止该股票的轮询；可重复调用
+     */
+    private void detach(Subscriber subscriber) {
+        for (String symbol : subscriber.symbols) {
+            topics.computeIfPresent(symbol, (key, topic) -> {
+                topic.subscribers.remove(subscriber);
+                if (!topic.subscribers.isEmpty()) {
+                    return topic;
+                }
+                topic.poller.cancel(false);
+                priceFeed.release(key);
+                log.debug("停止轮询实时报价: {}", key);
+                return null;
+            });
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+
+    /**
+     * 断开推送超时的订阅者
+     */
+    private void reapStalled() {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(streamProperties.getSendTimeoutMs());
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedNanos;
+            if (started != 0 && now - started > timeoutNanos) {
+                subscriber.stall();
+            }
+        }
+    }
+
+    /**
+     * 调整发送线程池大小：基础线程数 + 仍被阻塞的线程数（最多翻倍）
+     */
+    private synchronized void resizeSenders(int delta) {
+        stalledSenders += delta;
+        int size = senderThreads + Math.min(stalledSenders, senderThreads);
+        if (size > senders.getMaximumPoolSize()) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    private long pendingCount() {
+        long pending = 0;
+        for (Subscriber subscriber : subscribers) {
+            pending += subscriber.pending.size();
+        }
+        return pending;
+    }
+
+    /**
+     * 订阅句柄
+     */
+    public interface Subscription {
+
+        /**
+         * 取消订阅；可重复调用
+         */
+        void cancel();
+
+    }
+
+    /**
+     * 广播用的报价帧：JSON 只序列化一次，由全部订阅者共享
+     */
+    private record Frame(PriceTickDTO tick, String json, long broadcastNanos) {
+    }
+
+    /**
+     * 单个股票：一个上游轮询 + 订阅者列表
+     */
+    private final class Topic {
+
+        private final String symbol;
+
+        private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        private final AtomicLong sequence = new AtomicLong();
+
+        private volatile Frame last;
+
+        private ScheduledFuture<?> poller;
+
+        private Topic(String symbol) {
+            this.symbol = symbol;
+        }
+
+        private void poll() {
+            try {
+                PriceTickDTO tick = priceFeed.fetch(symbol);
+                Frame previous = last;
+                if (tick == null || (previous != null && previous.tick.getTimestamp() == tick.getTimestamp()
+                        && Objects.equals(previous.tick.getPrice(), tick.getPrice()))) {
+                    return;
+                }
+                broadcast(tick);
+            } catch (Exception e) {
+                pollFailures.increment();
+                log.warn("实时报价轮询失败: {} - {}", symbol, e.getMessage());
+            }
+        }
+
+        private void broadcast(PriceTickDTO source) {
+            // 数据源可能复用或缓存返回的对象，sequence 只写在副本上
+            PriceTickDTO tick = source.toBuilder().sequence(sequence.incrementAndGet()).build();
+            Frame frame;
+            try {
+                frame = new Frame(tick, objectMapper.writeValueAsString(tick), System.nanoTime());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("报价序列化失败: " + symbol, e);
+            }
+            last = frame;
+            published.increment();
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(frame);
+            }
+        }
+
+    }
+
+    /**
+     * 单个订阅连接
+     * 每个股票一个待发槽位：新报价覆盖尚未发出的旧报价；draining 保证同时最多一个发送任务
+     */
+    private final class Subscriber implements Subscription {
+
+        private final Set<String> symbols;
+
+        private final QuoteSink sink;
+
+        private final Map<String, Frame> pending = new ConcurrentHashMap<>();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private volatile boolean heartbeatDue;
+
+        /**
+         * 当前推送开始的时间（System.nanoTime），0 表示没有进行中的推送
+         */
+        private volatile long sendStartedNanos;
+
+        private volatile boolean stalled;
+
+        private final AtomicBoolean stallReleased = new AtomicBoolean();
+
+        private Subscriber(Set<String> symbols, QuoteSink sink) {
+            this.symbols = symbols;
+            this.sink = sink;
+        }
+
+        private void offer(Frame frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (pending.put(frame.tick.getSymbol(), frame) != null) {
+                conflated.increment();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    for (String symbol : pending.keySet()) {
+                        Frame frame = pending.remove(symbol);
+                        if (frame != null) {
+                            sendStartedNanos = System.nanoTime();
+                            try {
+                                sink.send(frame.tick, frame.json);
+                            } finally {
+                                sendStartedNanos = 0;
+                            }
+                            sent.increment();
+                            deliveryLag.record(System.nanoTime() - frame.broadcastNanos, TimeUnit.NANOSECONDS);
+                        }
+                    }
+                    if (heartbeatDue) {
+                        heartbeatDue = false;
+                        sendStartedNanos = System.nanoTime();
+                        try {
+                            sink.heartbeat();
+                        } finally {
+                            sendStartedNanos = 0;
+                        }
+                    }
+                    draining.set(false);
+                    // 释放后若又有新报价且没有其他发送任务接手，继续发送
+                } while (!closed.get() && (!pending.isEmpty() || heartbeatDue) && draining.compareAndSet(false, true));
+            } catch (Exception e) {
+                if (!stalled) {
+                    sendFailures.increment();
+                    log.debug("实时报价推送失败，关闭订阅: {} - {}", symbols, e.getMessage());
+                }
+                draining.set(false);
+                close(true);
+            } finally {
+                if (stalled) {
+                    releaseStall();
+                }
+            }
+        }
+
+        /**
+         * 推送超时：断开订阅并临时扩容一个发送线程；
+         * 阻塞的推送返回（或本就没有进行中的推送）后再缩回并关闭连接
+         */
+        private void stall() {
+            if (stalled || closed.get()) {
+                return;
+            }
+            stalled = true;
+            sendStalls.increment();
+            log.warn("实时报价推送超过 {} ms，断开订阅: {}", streamProperties.getSendTimeoutMs(), symbols);
+            close(false);
+            resizeSenders(1);
+            if (!draining.get()) {
+                releaseStall();
+            }
+        }
+
+        private void releaseStall() {
+            if (stallReleased.compareAndSet(false, true)) {
+                resizeSenders(-1);
+                try {
+                    sink.close();
+                } catch (Exception e) {
+                    log.debug("关闭推送连接失败: {} - {}", symbols, e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            close(false);
+        }
+
+        private void close(boolean closeSink) {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+                pending.clear();
+                if (closeSink) {
+                    sink.close();
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.example.stock.service.stream;
+
+import com.example.stock.config.StreamProperties;
+import com.example.stock.model.dto.PriceTickDTO;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.service.StockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 本地模拟实时行情
+ * 以最新日线收盘价为昨收（无数据时按股票代码生成确定性的基准价），每次轮询做一步随机游走；
+ * 用于本地联调与大量订阅者的压测，不访问外网；通过 loadtest profile（app.stream.feed=simulated）启用
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.stream", name = "feed", havingValue = "simulated")
+public class SimulatedPriceFeed implements PriceFeed {
+
+    private final StockService stockService;
+
+    private final StreamProperties streamProperties;
+
+    private final Map<String, Walk> walks = new ConcurrentHashMap<>();
+
+    @Override
+    public String getSource() {
+        return "simulated";
+    }
+
+    @Override
+    public PriceTickDTO fetch(String symbol) {
+        Walk walk = walks.computeIfAbsent(symbol, this::start);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        walk.last = Math.max(0.01, walk.last * (1 + random.nextGaussian() * streamProperties.getSimulatedVolatility()));
+        walk.volume += random.nextLong(100, 10_000);
+
+        BigDecimal price = scale(walk.last);
+        BigDecimal previous = scale(walk.previousClose);
+        BigDecimal change = price.subtract(previous);
+        return PriceTickDTO.builder()
+                .symbol(symbol)
+                .price(price)
+                .change(change)
+                .changePercent(change.multiply(BigDecimal.valueOf(100)).divide(previous, 2, RoundingMode.HALF_UP))
+                .volume(walk.volume)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    @Override
+    public void release(String symbol) {
+        walks.remove(symbol);
+    }
+
+    private Walk start(String symbol) {
+        double base;
+        try {
+            QuoteBarDTO latest = stockService.getLatestQuote(symbol);
+            base = latest.getClose().doubleValue();
+        } catch (Exception e) {
+            log.debug("模拟行情无最新报价，使用默认基准价: {} - {}", symbol, e.getMessage());
+            base = 20 + Math.floorMod(symbol.hashCode(), 480);
+        }
+        return new Walk(base);
+    }
+
+    private static BigDecimal scale(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 单个股票的游走状态；同一股票的轮询串行执行，无需同步
+     */
+    private static final class Walk {
+
+        private final double previousClose;
+
+        private double last;
+
+        private long volume;
+
+        private Walk(double previousClose) {
+            this.previousClose = Math.max(0.01, previousClose);
+            this.last = this.previousClose;
+        }
+
+    }
+
+}
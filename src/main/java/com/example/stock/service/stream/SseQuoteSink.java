@@ -0,0 +1,40 @@
+package com.example.stock.service.stream;
+
+import com.example.stock.model.dto.PriceTickDTO;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 基于 SSE 连接的推送出口
+ * 事件名为 quote，id 为 "股票代码:序号"，data 为预先序列化的报价 JSON
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class SseQuoteSink implements QuoteSink {
+
+    private final SseEmitter emitter;
+
+    public SseQuoteSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(PriceTickDTO tick, String json) throws Exception {
+        emitter.send(SseEmitter.event()
+                .id(tick.getSymbol() + ':' + tick.getSequence())
+                .name("quote")
+                .data(json, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void heartbeat() throws Exception {
+        emitter.send(SseEmitter.event().comment("heartbeat"));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+
+}
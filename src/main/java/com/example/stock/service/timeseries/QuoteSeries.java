@@ -0,0 +1,260 @@
+package com.example.stock.service.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * 单只股票的列式日线序列
+ * 日期存为 int（epoch day），价格存为 double，成交量存为 long，
+ * 每根 K 线约 44 字节，远小于一个 DailyQuote 实体
+ *
+ * 只允许按日期递增追加；同一交易日重复写入视为对最后一根 K 线的修正。
+ * 单写多读：写入方法加锁，读取方通过 {@link #slice()} 获得一致的只读视图，不复制数据。
+ * 追加只写入视图范围之外的位置；修正最后一根时复制整组列数组，已发出的视图保持不变。
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class QuoteSeries {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final String symbol;
+
+    private volatile Columns columns;
+
+    /**
+     * 写入次数与已落盘时的写入次数，两者不等表示有未落盘的变更
+     */
+    private volatile long modifications;
+
+    private volatile long persisted;
+
+    /**
+     * 序列已包含的 quote_versions 版本号：该版本及之前提交的行情都已反映在序列中
+     */
+    private volatile long dataVersion;
+
+    /**
+     * 最近一次按版本追赶的时间（System.nanoTime），用于限制追赶频率
+     */
+    private volatile long refreshedNanos;
+
+    public QuoteSeries(String symbol) {
+        this(symbol, MIN_CAPACITY);
+    }
+
+    public QuoteSeries(String symbol, int initialCapacity) {
+        this.symbol = symbol;
+        int capacity = Math.max(initialCapacity, MIN_CAPACITY);
+        this.columns = new Columns(new int[capacity], new double[capacity], new double[capacity],
+                new double[capacity], new double[capacity], new long[capacity], 0);
+    }
+
+    /**
+     * 由已有列数组直接构造（用于从文件恢复），数组所有权转移给本对象
+     */
+    QuoteSeries(String symbol, int[] days, double[] open, double[] high,
+                double[] low, double[] close, long[] volume, int size) {
+        this.symbol = symbol;
+        this.columns = new Columns(days, open, high, low, close, volume, size);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * 当前 K 线数量
+     */
+    public int size() {
+        return columns.size;
+    }
+
+    /**
+     * 最后一根 K 线的日期（epoch day），序列为空时返回 Integer.MIN_VALUE
+     */
+    public int lastDay() {
+        Columns c = columns;
+        return c.size == 0 ? Integer.MIN_VALUE : c.days[c.size - 1];
+    }
+
+    /**
+     * 追加一根 K 线
+     *
+     * @param epochDay 交易日（epoch day）
+     * @param open     开盘价
+     * @param high     最高价
+     * @param low      最低价
+     * @param close    收盘价
+     * @param volume   成交量
+     * @return true 表示新增，false 表示修正了最后一根
+     * @throws IllegalArgumentException 日期早于最后一根 K 线
+     */
+    public synchronized boolean append(int epochDay, double open, double high,
+                                       double low, double close, long volume) {
+        Columns c = columns;
+        int n = c.size;
+        if (n > 0) {
+            int last = c.days[n - 1];
+            if (epochDay < last) {
+                throw new IllegalArgumentException(
+                        "列式序列只允许追加: " + symbol + " day=" + epochDay + " last=" + last);
+            }
+            if (epochDay == last) {
+                // 写时复制：已发出的 QuoteSlice 仍引用旧数组，修正不会在读者遍历途中改变其内容
+                c = c.grow(c.days.length);
+                c.write(n - 1, epochDay, open, high, low, close, volume);
+                columns = new Columns(c, n);
+                modifications++;
+                return false;
+            }
+        }
+        if (n == c.days.length) {
+            c = c.grow(n + (n >> 1));
+        }
+        c.write(n, epochDay, open, high, low, close, volume);
+        columns = new Columns(c, n + 1);
+        modifications++;
+        return true;
+    }
+
+    /**
+     * 整个序列的只读视图
+     */
+    public QuoteSlice slice() {
+        Columns c = columns;
+        return new QuoteSlice(symbol, c.days, c.open, c.high, c.low, c.close, c.volume, 0, c.size);
+    }
+
+    /**
+     * 最近 n 根 K 线的只读视图
+     *
+     * @param n 条数
+     */
+    public QuoteSlice tail(int n) {
+        Columns c = columns;
+        int from = Math.max(0, c.size - n);
+        return new QuoteSlice(symbol, c.days, c.open, c.high, c.low, c.close, c.volume, from, c.size);
+    }
+
+    /**
+     * 日期区间 [fromDay, toDay] 的只读视图
+     *
+     * @param fromDay 起始日（epoch day，含）
+     * @param toDay   结束日（epoch day，含）
+     */
+    public QuoteSlice range(int fromDay, int toDay) {
+        Columns c = columns;
+        int from = lowerBound(c.days, c.size, fromDay);
+        int to = lowerBound(c.days, c.size, toDay == Integer.MAX_VALUE ? toDay : toDay + 1);
+        return new QuoteSlice(symbol, c.days, c.open, c.high, c.low, c.close, c.volume, from, Math.max(from, to));
+    }
+
+    /**
+     * 序列已包含的行情版本号，没有版本记录时为 0
+     */
+    public long dataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * 推进版本号，不回退
+     */
+    synchronized void advanceDataVersion(long version) {
+        if (version > dataVersion) {
+            dataVersion = version;
+        }
+    }
+
+    /**
+     * 仅当序列恰好处于 version - 1 时推进到 version：期间有其他写入未反映时保持不变，由下次访问追赶
+     *
+     * @return 是否推进
+     */
+    synchronized boolean advanceDataVersionFrom(long version) {
+        if (dataVersion == version - 1) {
+            dataVersion = version;
+            return true;
+        }
+        return false;
+    }
+
+    long refreshedNanos() {
+        return refreshedNanos;
+    }
+
+    void markRefreshed(long nanos) {
+        refreshedNanos = nanos;
+    }
+
+    boolean isDirty() {
+        return modifications != persisted;
+    }
+
+    /**
+     * 当前写入次数，落盘前读取，写入成功后传给 {@link #markClean(long)}
+     */
+    long modifications() {
+        return modifications;
+    }
+
+    /**
+     * 标记已落盘；落盘期间又有写入时仍保持为脏，下次继续落盘
+     *
+     * @param written 落盘前读取的写入次数
+     */
+    void markClean(long written) {
+        persisted = written;
+    }
+
+    private static int lowerBound(int[] days, int size, int day) {
+        int index = Arrays.binarySearch(days, 0, size, day);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * 列数组 + 有效长度，整体以 volatile 引用发布，保证读者看到一致的快照
+     */
+    private static final class Columns {
+
+        private final int[] days;
+        private final double[] open;
+        private final double[] high;
+        private final double[] low;
+        private final double[] close;
+        private final long[] volume;
+        private final int size;
+
+        private Columns(int[] days, double[] open, double[] high, double[] low,
+                        double[] close, long[] volume, int size) {
+            this.days = days;
+            this.open = open;
+            this.high = high;
+            this.low = low;
+            this.close = close;
+            this.volume = volume;
+            this.size = size;
+        }
+
+        private Columns(Columns source, int size) {
+            this(source.days, source.open, source.high, source.low, source.close, source.volume, size);
+        }
+
+        private Columns grow(int capacity) {
+            return new Columns(Arrays.copyOf(days, capacity), Arrays.copyOf(open, capacity),
+                    Arrays.copyOf(high, capacity), Arrays.copyOf(low, capacity),
+                    Arrays.copyOf(close, capacity), Arrays.copyOf(volume, capacity), size);
+        }
+
+        private void write(int i, int day, double o, double h, double l, double c, long v) {
+            days[i] = day;
+            open[i] = o;
+            high[i] = h;
+            low[i] = l;
+            close[i] = c;
+            volume[i] = v;
+        }
+
+    }
+
+}
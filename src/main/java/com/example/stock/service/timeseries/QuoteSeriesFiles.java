@@ -0,0 +1,150 @@
+package com.example.stock.service.timeseries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 列式序列的内存映射文件读写
+ * 文件格式（小端）：magic(int) + version(int) + count(int) + 各列依次排列
+ * days int[count] | open/high/low/close double[count] | volume long[count]
+ *
+ * @author Toom
+ * @version 1.0
+ */
+final class QuoteSeriesFiles {
+
+    static final String EXTENSION = ".qcol";
+
+    private static final int MAGIC = 0x51434F4C;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 12;
+
+    private static final int BYTES_PER_BAR = Integer.BYTES + 4 * Double.BYTES + Long.BYTES;
+
+    private QuoteSeriesFiles() {
+    }
+
+    /**
+     * 股票代码对应的文件路径（代码中的非法文件名字符替换为下划线）
+     */
+    static Path pathOf(Path directory, String symbol) {
+        return directory.resolve(symbol.replaceAll("[^A-Za-z0-9._-]", "_") + EXTENSION);
+    }
+
+    /**
+     * 将序列写入文件：先写临时文件再原子替换，避免进程中断留下半个文件
+     */
+    static void write(Path file, QuoteSlice slice) throws IOException {
+        int count = slice.size();
+        int from = slice.from();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long bytes = HEADER_BYTES + (long) count * BYTES_PER_BAR;
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(count);
+            buffer.asIntBuffer().put(slice.dayColumn(), from, count);
+            int offset = HEADER_BYTES + count * Integer.BYTES;
+            offset = putDoubles(buffer, offset, slice.openColumn(), from, count);
+            offset = putDoubles(buffer, offset, slice.highColumn(), from, count);
+            offset = putDoubles(buffer, offset, slice.lowColumn(), from, count);
+            offset = putDoubles(buffer, offset, slice.closeColumn(), from, count);
+            buffer.position(offset);
+            buffer.asLongBuffer().put(slice.volumeColumn(), from, count);
+            buffer.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 只读取文件头与最后一个日期，文件不存在或格式不符时返回 Integer.MIN_VALUE
+     */
+    static int lastDay(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Integer.MIN_VALUE;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(header, 0) < HEADER_BYTES) {
+                return Integer.MIN_VALUE;
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return Integer.MIN_VALUE;
+            }
+            int count = header.getInt();
+            if (count <= 0 || channel.size() != HEADER_BYTES + (long) count * BYTES_PER_BAR) {
+                return Integer.MIN_VALUE;
+            }
+            ByteBuffer last = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(last, HEADER_BYTES + (long) (count - 1) * Integer.BYTES);
+            return last.flip().getInt();
+        }
+    }
+
+    /**
+     * 从文件恢复序列，文件不存在或格式不符时返回 null
+     */
+    static QuoteSeries read(Path file, String symbol, int spareCapacity) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            int count = buffer.getInt();
+            if (channel.size() != HEADER_BYTES + (long) count * BYTES_PER_BAR) {
+                return null;
+            }
+
+            int capacity = count + Math.max(spareCapacity, 16);
+            int[] days = new int[capacity];
+            double[] open = new double[capacity];
+            double[] high = new double[capacity];
+            double[] low = new double[capacity];
+            double[] close = new double[capacity];
+            long[] volume = new long[capacity];
+
+            buffer.asIntBuffer().get(days, 0, count);
+            int offset = HEADER_BYTES + count * Integer.BYTES;
+            offset = getDoubles(buffer, offset, open, count);
+            offset = getDoubles(buffer, offset, high, count);
+            offset = getDoubles(buffer, offset, low, count);
+            offset = getDoubles(buffer, offset, close, count);
+            buffer.position(offset);
+            buffer.asLongBuffer().get(volume, 0, count);
+
+            return new QuoteSeries(symbol, days, open, high, low, close, volume, count);
+        }
+    }
+
+    private static int putDoubles(MappedByteBuffer buffer, int offset, double[] values, int from, int count) {
+        buffer.position(offset);
+        buffer.asDoubleBuffer().put(values, from, count);
+        return offset + count * Double.BYTES;
+    }
+
+    private static int getDoubles(MappedByteBuffer buffer, int offset, double[] values, int count) {
+        buffer.position(offset);
+        buffer.asDoubleBuffer().get(values, 0, count);
+        return offset + count * Double.BYTES;
+    }
+
+}
@@ -0,0 +1,456 @@
+package com.example.stock.service.timeseries;
+
+import com.example.stock.config.TimeSeriesProperties;
+import com.example.stock.event.QuotesIngestedEvent;
+import com.example.stock.metrics.RequestTrace;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.service.cache.DataVersionService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列式日线序列仓库
+ * 按股票懒加载 daily_quotes 历史到 {@link QuoteSeries}，新 K 线只做追加；
+ * 配置 storageDir 后会把序列写入内存映射文件，重启时先读文件再从数据库补齐增量。
+ * 加载与写入提交后的追加使用同一组分段锁：加载途中提交的 K 线在加载完成、序列发布后再追加，不会丢失。
+ * 从文件恢复时核对数据库中早于文件最后一天的行数，不一致（期间有历史回补）则整段重新读取。
+ * 每个序列记录自己已包含的 quote_versions 版本号：加载时先读版本再读行情，本实例写入后由写入事件带回的版本推进；
+ * 访问时版本落后于 {@link DataVersionService} 的当前版本（其他实例写入、或加载与写入交错）则从数据库追赶增量，
+ * 追赶至少间隔 refreshIntervalMs，从库落后时不会每次访问都查库。
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class QuoteSeriesStore {
+
+    private static final String SELECT_COLUMNS =
+            "SELECT symbol, (date - DATE '1970-01-01') AS d, open, high, low, close, volume FROM daily_quotes ";
+
+    private static final String SELECT_BY_SYMBOL_SQL = SELECT_COLUMNS + "WHERE symbol = ? ORDER BY date";
+
+    /**
+     * 从文件恢复后补齐增量；包含最后一天，以便拿到该日被修正过的数据
+     */
+    private static final String SELECT_SINCE_SQL =
+            SELECT_COLUMNS + "WHERE symbol = ? AND date >= DATE '1970-01-01' + ? ORDER BY date";
+
+    private static final String SELECT_ALL_SQL = SELECT_COLUMNS + "ORDER BY symbol, date";
+
+    private static final String VERSION_SQL = "SELECT version FROM quote_versions WHERE symbol = ?";
+
+    private static final String ALL_VERSIONS_SQL = "SELECT symbol, version FROM quote_versions";
+
+    /**
+     * 文件中早于最后一天的 K 线应与数据库行数一致
+     */
+    private static final String COUNT_BEFORE_SQL =
+            "SELECT count(*) FROM daily_quotes WHERE symbol = ? AND date < DATE '1970-01-01' + ?";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final TimeSeriesProperties timeSeriesProperties;
+
+    private final DataVersionService dataVersionService;
+
+    private final Map<String, QuoteSeries> series = new ConcurrentHashMap<>();
+
+    private final Object[] loadLocks = createLocks();
+
+    /**
+     * 是否启用列式存储
+     */
+    public boolean isEnabled() {
+        return timeSeriesProperties.isEnabled();
+    }
+
+    /**
+     * 获取已加载的序列，不触发加载
+     *
+     * @param symbol 股票代码（规范写法）
+     */
+    public Optional<QuoteSeries> find(String symbol) {
+        return Optional.ofNullable(series.get(symbol));
+    }
+
+    /**
+     * 获取序列，未加载时从文件 / 数据库加载，版本落后时先追赶
+     *
+     * @param symbol 股票代码（规范写法）
+     */
+    public QuoteSeries getOrLoad(String symbol) {
+        long required = dataVersionService.quoteVersion(symbol);
+        QuoteSeries loaded = series.get(symbol);
+        if (loaded != null && !needsRefresh(loaded, required)) {
+            return loaded;
+        }
+        synchronized (lockFor(symbol)) {
+            loaded = series.get(symbol);
+            if (loaded == null) {
+                loaded = load(symbol);
+                series.put(symbol, loaded);
+            } else if (needsRefresh(loaded, required)) {
+                loaded = refresh(loaded);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * 已加载的全部序列
+     */
+    public Collection<QuoteSeries> all() {
+        return Collections.unmodifiableCollection(series.values());
+    }
+
+    /**
+     * 追加一根新 K 线；早于已有数据的历史回补会使该序列失效，下次访问时重新加载
+     * 同一股票正在加载时等待加载完成后再追加，加载查询之后提交的数据不会丢失
+     *
+     * @param symbol   股票代码（规范写法）
+     * @param epochDay 交易日（epoch day）
+     */
+    public void append(String symbol, int epochDay, double open, double high,
+                       double low, double close, long volume) {
+        synchronized (lockFor(symbol)) {
+            QuoteSeries target = series.get(symbol);
+            if (target == null) {
+                // 未加载的序列无需维护，首次访问时会从数据库读到最新数据；落盘文件已覆盖该日的则删除
+                dropStaleFile(symbol, epochDay);
+                return;
+            }
+            try {
+                target.append(epochDay, open, high, low, close, volume);
+            } catch (IllegalArgumentException e) {
+                log.info("检测到历史回补，序列失效待重新加载: {}", symbol);
+                invalidate(symbol);
+            }
+        }
+    }
+
+    /**
+     * 新行情写入数据库后追加到已加载的序列，并推进序列的版本号
+     * 事件中的 bars 按股票分组有序，每只股票在一次加锁内追加完再推进版本，读者不会看到版本先于数据
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuotesIngested(QuotesIngestedEvent event) {
+        List<QuoteBarDTO> bars = event.getBars();
+        int from = 0;
+        while (from < bars.size()) {
+            String symbol = bars.get(from).getSymbol();
+            int to = from + 1;
+            while (to < bars.size() && bars.get(to).getSymbol().equals(symbol)) {
+                to++;
+            }
+            synchronized (lockFor(symbol)) {
+                for (QuoteBarDTO bar : bars.subList(from, to)) {
+                    append(symbol, (int) bar.getDate().toEpochDay(),
+                            bar.getOpen().doubleValue(), bar.getHigh().doubleValue(),
+                            bar.getLow().doubleValue(), bar.getClose().doubleValue(), bar.getVolume());
+                }
+                QuoteSeries target = series.get(symbol);
+                Long version = event.getVersions().get(symbol);
+                if (target != null && version != null) {
+                    target.advanceDataVersionFrom(version);
+                }
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * 使某只股票的序列失效
+     *
+     * @param symbol 股票代码（规范写法）
+     */
+    public void invalidate(String symbol) {
+        synchronized (lockFor(symbol)) {
+            series.remove(symbol);
+            Path directory = storageDirectory();
+            if (directory != null) {
+                try {
+                    Files.deleteIfExists(QuoteSeriesFiles.pathOf(directory, symbol));
+                } catch (IOException e) {
+                    log.warn("删除序列文件失败: {} - {}", symbol, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 启动时按配置预加载全部历史
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!timeSeriesProperties.isEnabled() || !timeSeriesProperties.isPreload()) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (storageDirectory() != null) {
+            List<String> symbols = jdbcTemplate.queryForList("SELECT symbol FROM stocks", String.class);
+            symbols.forEach(this::getOrLoad);
+        } else {
+            preloadAllFromDatabase();
+        }
+        long bars = series.values().stream().mapToLong(QuoteSeries::size).sum();
+        log.info("列式行情序列预加载完成，股票数: {}，K 线数: {}，耗时: {} ms",
+                series.size(), bars, (System.nanoTime() - start) / 1_000_000);
+        flush();
+    }
+
+    /**
+     * 将有变更的序列写入内存映射文件；写入成功后才标记为已落盘，失败的下次重试
+     */
+    @PreDestroy
+    public void flush() {
+        Path directory = storageDirectory();
+        if (directory == null) {
+            return;
+        }
+        int written = 0;
+        for (QuoteSeries s : series.values()) {
+            if (!s.isDirty()) {
+                continue;
+            }
+            // 与失效互斥，已失效的序列不会被写回文件
+            synchronized (lockFor(s.getSymbol())) {
+                if (series.get(s.getSymbol()) != s) {
+                    continue;
+                }
+                long modifications = s.modifications();
+                try {
+                    QuoteSeriesFiles.write(QuoteSeriesFiles.pathOf(directory, s.getSymbol()), s.slice());
+                    s.markClean(modifications);
+                    written++;
+                } catch (IOException e) {
+                    log.warn("写入序列文件失败: {} - {}", s.getSymbol(), e.getMessage());
+                }
+            }
+        }
+        if (written > 0) {
+            log.info("列式行情序列已落盘，数量: {}", written);
+        }
+    }
+
+    // ==================== 加载 ====================
+
+    private QuoteSeries load(String symbol) {
+        QuoteSeries loaded = null;
+        Path directory = storageDirectory();
+        if (directory != null) {
+            try {
+                loaded = QuoteSeriesFiles.read(QuoteSeriesFiles.pathOf(directory, symbol), symbol, 256);
+            } catch (IOException e) {
+                log.warn("读取序列文件失败，改为从数据库加载: {} - {}", symbol, e.getMessage());
+            }
+        }
+        if (loaded != null && loaded.size() > 0 && !matchesDatabase(loaded)) {
+            log.info("序列文件落后于历史回补，整段重新加载: {}", symbol);
+            loaded = null;
+        }
+        if (loaded == null) {
+            loaded = new QuoteSeries(symbol, 256);
+        }
+
+        readFromDatabase(loaded);
+        log.debug("加载列式序列: {}，K 线数: {}，版本: {}", symbol, loaded.size(), loaded.dataVersion());
+        return loaded;
+    }
+
+    /**
+     * 从数据库追赶已加载序列的增量；期间有历史回补时整段重新加载并替换
+     * 调用方持有该股票的分段锁，不会与写入事件的追加交错
+     */
+    private QuoteSeries refresh(QuoteSeries existing) {
+        String symbol = existing.getSymbol();
+        if (existing.size() > 0 && !matchesDatabase(existing)) {
+            log.info("序列落后于历史回补，整段重新加载: {}", symbol);
+            QuoteSeries reloaded = new QuoteSeries(symbol, existing.size() + 256);
+            readFromDatabase(reloaded);
+            series.put(symbol, reloaded);
+            return reloaded;
+        }
+        long before = existing.dataVersion();
+        readFromDatabase(existing);
+        log.debug("追赶列式序列: {}，版本: {} -> {}", symbol, before, existing.dataVersion());
+        return existing;
+    }
+
+    /**
+     * 先读版本号再读行情（同一只读事务内，各语句各自取快照），读到的行情至少与版本一样新；
+     * 行情追加完后才推进版本号。非空序列只读取最后一天及之后的行
+     */
+    private void readFromDatabase(QuoteSeries target) {
+        String symbol = target.getSymbol();
+        boolean incremental = target.size() > 0;
+        int fromDay = target.lastDay();
+        long start = System.nanoTime();
+        long[] version = new long[1];
+        inReadOnlyTransaction(() -> {
+            version[0] = jdbcTemplate.queryForList(VERSION_SQL, Long.class, symbol).stream()
+                    .findFirst().orElse(0L);
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(incremental ? SELECT_SINCE_SQL : SELECT_BY_SYMBOL_SQL);
+                ps.setFetchSize(timeSeriesProperties.getFetchSize());
+                ps.setString(1, symbol);
+                if (incremental) {
+                    ps.setInt(2, fromDay);
+                }
+                return ps;
+            }, rs -> {
+                appendRow(target, rs);
+            });
+        });
+        RequestTrace.record(RequestTrace.DB, start);
+        target.advanceDataVersion(version[0]);
+        target.markRefreshed(System.nanoTime());
+    }
+
+    private boolean needsRefresh(QuoteSeries loaded, long required) {
+        return loaded.dataVersion() < required && System.nanoTime() - loaded.refreshedNanos()
+                >= TimeUnit.MILLISECONDS.toNanos(timeSeriesProperties.getRefreshIntervalMs());
+    }
+
+    /**
+     * 文件中最后一天之前的 K 线数与数据库一致；回补只会增加行数，按主键索引计数即可发现
+     */
+    private boolean matchesDatabase(QuoteSeries loaded) {
+        long start = System.nanoTime();
+        Integer rows = jdbcTemplate.queryForObject(COUNT_BEFORE_SQL, Integer.class,
+                loaded.getSymbol(), loaded.lastDay());
+        RequestTrace.record(RequestTrace.DB, start);
+        return rows != null && rows == loaded.size() - 1;
+    }
+
+    /**
+     * 未加载的股票收到不晚于文件最后一天的 K 线（回补或修正）时删除其落盘文件，下次从数据库整段加载
+     */
+    private void dropStaleFile(String symbol, int epochDay) {
+        Path directory = storageDirectory();
+        if (directory == null) {
+            return;
+        }
+        Path file = QuoteSeriesFiles.pathOf(directory, symbol);
+        try {
+            if (epochDay < QuoteSeriesFiles.lastDay(file)) {
+                Files.deleteIfExists(file);
+                log.info("序列文件早于历史回补，已删除: {}", symbol);
+            }
+        } catch (IOException e) {
+            log.warn("检查序列文件失败: {} - {}", symbol, e.getMessage());
+        }
+    }
+
+    /**
+     * 逐只读完后再发布：读取途中的序列不对外可见，也不会与写入提交后的追加交错；
+     * 期间已被按需加载的序列保留不覆盖
+     */
+    private void preloadAllFromDatabase() {
+        QuoteSeries[] current = new QuoteSeries[1];
+        Map<String, Long> versions = new HashMap<>();
+        inReadOnlyTransaction(() -> {
+            jdbcTemplate.query(ALL_VERSIONS_SQL, rs -> {
+                versions.put(rs.getString(1), rs.getLong(2));
+            });
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_ALL_SQL);
+                ps.setFetchSize(timeSeriesProperties.getFetchSize());
+                return ps;
+            }, rs -> {
+                String symbol = rs.getString(1);
+                if (current[0] == null || !current[0].getSymbol().equals(symbol)) {
+                    publish(current[0], versions);
+                    current[0] = new QuoteSeries(symbol, 256);
+                }
+                appendRow(current[0], rs);
+            });
+        });
+        publish(current[0], versions);
+    }
+
+    private void publish(QuoteSeries loaded, Map<String, Long> versions) {
+        if (loaded == null) {
+            return;
+        }
+        loaded.advanceDataVersion(versions.getOrDefault(loaded.getSymbol(), 0L));
+        loaded.markRefreshed(System.nanoTime());
+        synchronized (lockFor(loaded.getSymbol())) {
+            series.putIfAbsent(loaded.getSymbol(), loaded);
+        }
+    }
+
+    private static void appendRow(QuoteSeries target, ResultSet rs) throws SQLException {
+        target.append(rs.getInt(2), rs.getDouble(3), rs.getDouble(4),
+                rs.getDouble(5), rs.getDouble(6), rs.getLong(7));
+    }
+
+    /**
+     * PostgreSQL 只有在事务内才会使用游标分批抓取，否则一次性读入全部结果
+     */
+    private void inReadOnlyTransaction(Runnable action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.executeWithoutResult(status -> action.run());
+    }
+
+    private Path storageDirectory() {
+        String dir = timeSeriesProperties.getStorageDir();
+        if (!StringUtils.hasText(dir)) {
+            return null;
+        }
+        Path path = Paths.get(dir);
+        try {
+            Files.createDirectories(path);
+        } catch (IOException e) {
+            log.warn("无法创建序列目录: {} - {}", dir, e.getMessage());
+            return null;
+        }
+        return path;
+    }
+
+    private Object lockFor(String symbol) {
+        return loadLocks[Math.floorMod(symbol.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Object[] createLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.example.stock.service.timeseries;
+
+/**
+ * 列式日线序列的只读视图，区间为 [from, to)
+ * 直接引用底层列数组，不复制数据；调用方不得修改返回的数组。
+ * 指标计算等热点代码可通过 {@code closeColumn()} + {@code from()/to()} 直接遍历原始数组。
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class QuoteSlice {
+
+    private final String symbol;
+    private final int[] days;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private final int from;
+    private final int to;
+
+    QuoteSlice(String symbol, int[] days, double[] open, double[] high, double[] low,
+               double[] close, long[] volume, int from, int to) {
+        this.symbol = symbol;
+        this.days = days;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.from = from;
+        this.to = to;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return to - from;
+    }
+
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+    /**
+     * 视图内第 i 根（从 0 开始）的交易日（epoch day）
+     */
+    public int day(int i) {
+        return days[from + i];
+    }
+
+    public double open(int i) {
+        return open[from + i];
+    }
+
+    public double high(int i) {
+        return high[from + i];
+    }
+
+    public double low(int i) {
+        return low[from + i];
+    }
+
+    public double close(int i) {
+        return close[from + i];
+    }
+
+    public long volume(int i) {
+        return volume[from + i];
+    }
+
+    /**
+     * 子视图 [start, end)，下标相对于当前视图
+     */
+    public QuoteSlice subSlice(int start, int end) {
+        if (start < 0 || end > size() || start > end) {
+            throw new IndexOutOfBoundsException("subSlice [" + start + ", " + end + ") of " + size());
+        }
+        return new QuoteSlice(symbol, days, open, high, low, close, volume, from + start, from + end);
+    }
+
+    // ==================== 底层列数组（只读，有效区间 [from(), to())） ====================
+
+    public int from() {
+        return from;
+    }
+
+    public int to() {
+        return to;
+    }
+
+    public int[] dayColumn() {
+        return days;
+    }
+
+    public double[] openColumn() {
+        return open;
+    }
+
+    public double[] highColumn() {
+        return high;
+    }
+
+    public double[] lowColumn() {
+        return low;
+    }
+
+    public double[] closeColumn() {
+        return close;
+    }
+
+    public long[] volumeColumn() {
+        return volume;
+    }
+
+}
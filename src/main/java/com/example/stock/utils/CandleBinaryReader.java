@@ -0,0 +1,134 @@
+package com.example.stock.utils;
+
+/**
+ * K 线列式二进制格式（application/x-candles）解码器
+ * 格式说明见 {@link CandleBinaryWriter}；供客户端参考实现、基准与联调校验使用
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class CandleBinaryReader {
+
+    private final byte[] data;
+
+    private int position;
+
+    private CandleBinaryReader(byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * 解码
+     *
+     * @param data 二进制响应体
+     * @return 按列存放的 K 线，价格为定点整数（除以 priceScale 得到实际价格）
+     * @throws IllegalArgumentException 数据格式不正确
+     */
+    public static Candles decode(byte[] data) {
+        return decodeFrame(data, 0).candles();
+    }
+
+    /**
+     * 从指定位置解码一帧，用于连续存放多帧的数据（如行情导出的列式文件）
+     *
+     * @param data   二进制数据
+     * @param offset 帧起始位置
+     * @return 解码结果与帧结束位置
+     * @throws IllegalArgumentException 数据格式不正确
+     */
+    public static Frame decodeFrame(byte[] data, int offset) {
+        if (data.length < offset + 3 || data[offset] != CandleBinaryWriter.MAGIC_0
+                || data[offset + 1] != CandleBinaryWriter.MAGIC_1) {
+            throw new IllegalArgumentException("不是 K 线二进制格式");
+        }
+        if (data[offset + 2] != CandleBinaryWriter.VERSION) {
+            throw new IllegalArgumentException("不支持的 K 线二进制格式版本: " + data[offset + 2]);
+        }
+        CandleBinaryReader reader = new CandleBinaryReader(data);
+        reader.position = offset + 3;
+        try {
+            Candles candles = reader.readCandles();
+            return new Frame(candles, reader.position);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("K 线二进制数据不完整", e);
+        }
+    }
+
+    private Candles readCandles() {
+        int count = Math.toIntExact(readVarint());
+        long timeUnit = readVarint();
+        int priceScale = Math.toIntExact(readVarint());
+
+        long[] timestamps = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += unzigzag(readVarint());
+            timestamps[i] = previous * timeUnit;
+        }
+        long[] opens = readDeltas(count);
+        long[] highs = readDeltas(count);
+        long[] lows = readDeltas(count);
+        long[] closes = readDeltas(count);
+        long[] volumes = new long[count];
+        for (int i = 0; i < count; i++) {
+            volumes[i] = readVarint();
+        }
+        return new Candles(priceScale, timestamps, opens, highs, lows, closes, volumes);
+    }
+
+    private long[] readDeltas(int count) {
+        long[] column = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += unzigzag(readVarint());
+            column[i] = previous;
+        }
+        return column;
+    }
+
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = data[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("变长整数超过 64 位");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * 解码后的一帧
+     *
+     * @param candles K 线
+     * @param end     帧结束位置（下一帧或后续数据的起始位置）
+     */
+    public record Frame(Candles candles, int end) {
+    }
+
+    /**
+     * 解码后的 K 线（按列存放）
+     *
+     * @param priceScale 价格放大倍数
+     * @param timestamps 秒级时间戳
+     * @param opens      开盘价（定点）
+     * @param highs      最高价（定点）
+     * @param lows       最低价（定点）
+     * @param closes     收盘价（定点）
+     * @param volumes    成交量
+     */
+    public record Candles(int priceScale, long[] timestamps, long[] opens, long[] highs,
+                          long[] lows, long[] closes, long[] volumes) {
+
+        public int size() {
+            return timestamps.length;
+        }
+
+    }
+
+}
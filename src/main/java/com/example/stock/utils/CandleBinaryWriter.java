@@ -0,0 +1,165 @@
+package com.example.stock.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * K 线列式二进制写出器（application/x-candles）
+ * 各列分别编码，利用相邻 K 线数值接近的特点压缩：
+ * <pre>
+ * 'C' 'K' version(1)
+ * varint  count
+ * varint  timeUnit       时间戳单位（秒），全部为整日时取 86400
+ * varint  priceScale     价格放大倍数，固定为 100（两位定点）
+ * ts      count × zigzag varint   首个为 timestamp / timeUnit，其后为与前一根的差值
+ * open    count × zigzag varint   首个为定点价格，其后为与前一根的差值
+ * high / low / close     同 open
+ * volume  count × varint
+ * </pre>
+ * 列式编码需要知道总条数，写入的 K 线先缓存在数组中，{@link #endEnvelope()} 时一次性编码写出
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class CandleBinaryWriter implements CandleWriter {
+
+    static final byte MAGIC_0 = 'C';
+
+    static final byte MAGIC_1 = 'K';
+
+    static final byte VERSION = 1;
+
+    static final int PRICE_SCALE = 100;
+
+    private static final long SECONDS_PER_DAY = 86400;
+
+    private final OutputStream out;
+
+    private long[] timestamps;
+
+    private long[] opens;
+
+    private long[] highs;
+
+    private long[] lows;
+
+    private long[] closes;
+
+    private long[] volumes;
+
+    private int size;
+
+    public CandleBinaryWriter(OutputStream out) {
+        this(out, 256);
+    }
+
+    public CandleBinaryWriter(OutputStream out, int expectedSize) {
+        this.out = out;
+        int capacity = Math.max(expectedSize, 16);
+        this.timestamps = new long[capacity];
+        this.opens = new long[capacity];
+        this.highs = new long[capacity];
+        this.lows = new long[capacity];
+        this.closes = new long[capacity];
+        this.volumes = new long[capacity];
+    }
+
+    /**
+     * 二进制格式没有外层包装，无需写出
+     */
+    @Override
+    public void beginEnvelope() {
+    }
+
+    @Override
+    public void writeCandle(long timestamp, long openCents, long highCents,
+                            long lowCents, long closeCents, long volume) {
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            opens = Arrays.copyOf(opens, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            closes = Arrays.copyOf(closes, capacity);
+            volumes = Arrays.copyOf(volumes, capacity);
+        }
+        timestamps[size] = timestamp;
+        opens[size] = openCents;
+        highs[size] = highCents;
+        lows[size] = lowCents;
+        closes[size] = closeCents;
+        volumes[size] = volume;
+        size++;
+    }
+
+    /**
+     * 编码全部 K 线并写出、刷新
+     */
+    @Override
+    public void endEnvelope() throws IOException {
+        // 每个 varint 最多 10 字节
+        byte[] buffer = new byte[16 + size * 6 * 10];
+        buffer[0] = MAGIC_0;
+        buffer[1] = MAGIC_1;
+        buffer[2] = VERSION;
+        int position = 3;
+
+        long timeUnit = SECONDS_PER_DAY;
+        for (int i = 0; i < size; i++) {
+            if (timestamps[i] % SECONDS_PER_DAY != 0) {
+                timeUnit = 1;
+                break;
+            }
+        }
+        position = putVarint(buffer, position, size);
+        position = putVarint(buffer, position, timeUnit);
+        position = putVarint(buffer, position, PRICE_SCALE);
+
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long value = timestamps[i] / timeUnit;
+            position = putVarint(buffer, position, zigzag(value - previous));
+            previous = value;
+        }
+        position = putDeltas(buffer, position, opens);
+        position = putDeltas(buffer, position, highs);
+        position = putDeltas(buffer, position, lows);
+        position = putDeltas(buffer, position, closes);
+        for (int i = 0; i < size; i++) {
+            position = putVarint(buffer, position, volumes[i]);
+        }
+
+        out.write(buffer, 0, position);
+        out.flush();
+    }
+
+    private int putDeltas(byte[] buffer, int position, long[] column) {
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            position = putVarint(buffer, position, zigzag(column[i] - previous));
+            previous = column[i];
+        }
+        return position;
+    }
+
+    /**
+     * 无符号 LEB128 变长整数，每字节 7 位，最高位表示后面还有字节
+     */
+    private static int putVarint(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * 有符号数映射为无符号数，使绝对值小的负数也只占一两个字节
+     */
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+}
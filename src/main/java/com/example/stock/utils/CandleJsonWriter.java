@@ -0,0 +1,164 @@
+package com.example.stock.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * K 线数组 JSON 写出器
+ * 直接把 [ts, o, h, l, c, v] 写入输出流，价格以两位定点整数（分）传入，
+ * 数字格式化在内部缓冲区完成，每行不产生对象分配
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class CandleJsonWriter implements CandleWriter {
+
+    private static final byte[] ENVELOPE_START =
+            "{\"code\":200,\"msg\":\"success\",\"data\":[".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] ENVELOPE_END = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final OutputStream out;
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private boolean first = true;
+
+    public CandleJsonWriter(OutputStream out) {
+        this(out, 8192);
+    }
+
+    public CandleJsonWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, 128)];
+    }
+
+    /**
+     * 写出统一响应包装的开头，与 {@code Result.success(data)} 结构一致
+     */
+    @Override
+    public void beginEnvelope() throws IOException {
+        writeBytes(ENVELOPE_START);
+    }
+
+    /**
+     * 写出统一响应包装的结尾并刷新
+     */
+    @Override
+    public void endEnvelope() throws IOException {
+        writeBytes(ENVELOPE_END);
+        flush();
+    }
+
+    /**
+     * 写出一根 K 线
+     *
+     * @param timestamp 秒级时间戳
+     * @param openCents 开盘价（分）
+     * @param highCents 最高价（分）
+     * @param lowCents  最低价（分）
+     * @param closeCents 收盘价（分）
+     * @param volume    成交量
+     */
+    @Override
+    public void writeCandle(long timestamp, long openCents, long highCents,
+                            long lowCents, long closeCents, long volume) throws IOException {
+        // 单行最长约 6 * 21 字节，预留足够空间后不再逐字节检查
+        ensureCapacity(160);
+        if (!first) {
+            buffer[position++] = ',';
+        }
+        first = false;
+        buffer[position++] = '[';
+        putLong(timestamp);
+        buffer[position++] = ',';
+        putFixed2(openCents);
+        buffer[position++] = ',';
+        putFixed2(highCents);
+        buffer[position++] = ',';
+        putFixed2(lowCents);
+        buffer[position++] = ',';
+        putFixed2(closeCents);
+        buffer[position++] = ',';
+        putLong(volume);
+        buffer[position++] = ']';
+    }
+
+    /**
+     * 刷新缓冲区到底层输出流
+     */
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        out.flush();
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int needed) throws IOException {
+        if (position + needed > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * 写出两位小数定点数，去掉末尾多余的 0（12050 -> 120.5，12200 -> 122）
+     */
+    private void putFixed2(long cents) {
+        if (cents < 0) {
+            buffer[position++] = '-';
+            cents = -cents;
+        }
+        putLong(cents / 100);
+        int fraction = (int) (cents % 100);
+        if (fraction != 0) {
+            buffer[position++] = '.';
+            buffer[position++] = (byte) ('0' + fraction / 10);
+            if (fraction % 10 != 0) {
+                buffer[position++] = (byte) ('0' + fraction % 10);
+            }
+        }
+    }
+
+    private void putLong(long value) {
+        if (value == 0) {
+            buffer[position++] = '0';
+            return;
+        }
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                writeAscii(Long.toString(value));
+                return;
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    private void writeAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+
+}
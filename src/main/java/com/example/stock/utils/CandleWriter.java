@@ -0,0 +1,36 @@
+package com.example.stock.utils;
+
+import java.io.IOException;
+
+/**
+ * K 线写出器：按时间升序逐根写入，价格以两位定点整数（分）传入
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public interface CandleWriter {
+
+    /**
+     * 写出响应开头
+     */
+    void beginEnvelope() throws IOException;
+
+    /**
+     * 写出一根 K 线
+     *
+     * @param timestamp  秒级时间戳
+     * @param openCents  开盘价（分）
+     * @param highCents  最高价（分）
+     * @param lowCents   最低价（分）
+     * @param closeCents 收盘价（分）
+     * @param volume     成交量
+     */
+    void writeCandle(long timestamp, long openCents, long highCents,
+                     long lowCents, long closeCents, long volume) throws IOException;
+
+    /**
+     * 写出响应结尾并刷新
+     */
+    void endEnvelope() throws IOException;
+
+}
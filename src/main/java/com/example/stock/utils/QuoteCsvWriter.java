@@ -0,0 +1,66 @@
+package com.example.stock.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 行情导出 CSV 写出器
+ * 列为 symbol,date,open,high,low,close,adj_close,volume；价格按数据库文本原样写出，缺失的 adj_close 留空
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class QuoteCsvWriter {
+
+    static final String HEADER = "symbol,date,open,high,low,close,adj_close,volume\n";
+
+    private final Writer writer;
+
+    public QuoteCsvWriter(OutputStream out, int bufferSize) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize);
+    }
+
+    /**
+     * 写出表头
+     */
+    public void writeHeader() throws IOException {
+        writer.write(HEADER);
+    }
+
+    /**
+     * 写出一行
+     */
+    public void writeRow(String symbol, String date, String open, String high, String low,
+                         String close, String adjClose, long volume) throws IOException {
+        writer.write(symbol);
+        writer.write(',');
+        writer.write(date);
+        writer.write(',');
+        writer.write(open);
+        writer.write(',');
+        writer.write(high);
+        writer.write(',');
+        writer.write(low);
+        writer.write(',');
+        writer.write(close);
+        writer.write(',');
+        if (adjClose != null) {
+            writer.write(adjClose);
+        }
+        writer.write(',');
+        writer.write(Long.toString(volume));
+        writer.write('\n');
+    }
+
+    /**
+     * 写出缓冲区中剩余内容并刷新
+     */
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+}
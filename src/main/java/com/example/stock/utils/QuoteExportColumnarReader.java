@@ -0,0 +1,69 @@
+package com.example.stock.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 行情导出列式二进制格式（application/x-quote-export）解码器
+ * 格式说明见 {@link QuoteExportColumnarWriter}；供客户端参考实现与联调校验使用
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class QuoteExportColumnarReader {
+
+    private QuoteExportColumnarReader() {
+    }
+
+    /**
+     * 解码（已解压的）导出文件
+     *
+     * @param data 导出文件内容
+     * @return 按文件顺序排列的数据块，同一股票可能对应相邻的多个块
+     * @throws IllegalArgumentException 数据格式不正确
+     */
+    public static List<Block> decode(byte[] data) {
+        if (data.length < 3 || data[0] != QuoteExportColumnarWriter.MAGIC_0
+                || data[1] != QuoteExportColumnarWriter.MAGIC_1) {
+            throw new IllegalArgumentException("不是行情导出列式格式");
+        }
+        if (data[2] != QuoteExportColumnarWriter.VERSION) {
+            throw new IllegalArgumentException("不支持的行情导出格式版本: " + data[2]);
+        }
+        List<Block> blocks = new ArrayList<>();
+        int position = 3;
+        try {
+            while (true) {
+                long length = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    length |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                if (length == 0) {
+                    return blocks;
+                }
+                String symbol = new String(data, position, Math.toIntExact(length), StandardCharsets.UTF_8);
+                position += (int) length;
+                CandleBinaryReader.Frame frame = CandleBinaryReader.decodeFrame(data, position);
+                blocks.add(new Block(symbol, frame.candles()));
+                position = frame.end();
+            }
+        } catch (ArrayIndexOutOfBoundsException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("行情导出数据不完整", e);
+        }
+    }
+
+    /**
+     * 一个数据块
+     *
+     * @param symbol  股票代码
+     * @param candles 该块的 K 线
+     */
+    public record Block(String symbol, CandleBinaryReader.Candles candles) {
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.example.stock.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 行情导出列式二进制写出器（application/x-quote-export）
+ * 列式编码需要预先知道条数，导出则要求内存不随导出量增长，因此按股票分块，每块最多 blockSize 根：
+ * <pre>
+ * 'Q' 'X' version(1)
+ * 重复：
+ *   varint  symbolLength   UTF-8 字节数
+ *   bytes   symbol
+ *   frame   一帧 application/x-candles（见 {@link CandleBinaryWriter}），可用 {@link CandleBinaryReader#decodeFrame} 解码
+ * varint  0                结束标记
+ * </pre>
+ * 同一股票的 K 线可能分布在相邻的多个块中，块内与块间均按时间升序；解码参考 {@link QuoteExportColumnarReader}
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class QuoteExportColumnarWriter {
+
+    static final byte MAGIC_0 = 'Q';
+
+    static final byte MAGIC_1 = 'X';
+
+    static final byte VERSION = 1;
+
+    private final OutputStream out;
+
+    private final int blockSize;
+
+    private String symbol;
+
+    private CandleBinaryWriter block;
+
+    private int blockCount;
+
+    public QuoteExportColumnarWriter(OutputStream out, int blockSize) {
+        this.out = out;
+        this.blockSize = Math.max(blockSize, 16);
+    }
+
+    /**
+     * 写出文件头
+     */
+    public void begin() throws IOException {
+        out.write(MAGIC_0);
+        out.write(MAGIC_1);
+        out.write(VERSION);
+    }
+
+    /**
+     * 写入一根 K 线；股票变化或当前块已满时先写出当前块
+     *
+     * @param symbol 股票代码
+     */
+    public void writeCandle(String symbol, long timestamp, long openCents, long highCents,
+                            long lowCents, long closeCents, long volume) throws IOException {
+        if (block != null && (blockCount == blockSize || !symbol.equals(this.symbol))) {
+            flushBlock();
+        }
+        if (block == null) {
+            this.symbol = symbol;
+            byte[] name = symbol.getBytes(StandardCharsets.UTF_8);
+            putVarint(name.length);
+            out.write(name);
+            block = new CandleBinaryWriter(out, blockSize);
+            blockCount = 0;
+        }
+        block.writeCandle(timestamp, openCents, highCents, lowCents, closeCents, volume);
+        blockCount++;
+    }
+
+    /**
+     * 写出最后一块与结束标记并刷新
+     */
+    public void end() throws IOException {
+        if (block != null) {
+            flushBlock();
+        }
+        putVarint(0);
+        out.flush();
+    }
+
+    private void flushBlock() throws IOException {
+        block.endEnvelope();
+        block = null;
+    }
+
+    private void putVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+}
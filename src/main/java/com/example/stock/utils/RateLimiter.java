@@ -0,0 +1,85 @@
+package com.example.stock.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 简单的令牌桶限流器
+ * 按固定速率补充令牌，桶容量为 1 秒的令牌数，acquire 在令牌不足时阻塞等待
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public class RateLimiter {
+
+    private final double permitsPerSecond;
+
+    private final double maxPermits;
+
+    private final long nanosPerPermit;
+
+    private double storedPermits;
+
+    private long lastRefillNanos;
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond 必须大于 0");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxPermits = Math.max(1, permitsPerSecond);
+        this.nanosPerPermit = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.storedPermits = maxPermits;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * 获取一个令牌，必要时阻塞到预留的时间点
+     * parkNanos 可能提前返回（虚假唤醒或被 unpark），循环等待直到截止时间
+     *
+     * @throws InterruptedException 等待期间被中断；预留的令牌归还
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + waitNanos;
+        while (true) {
+            if (Thread.interrupted()) {
+                refund();
+                throw new InterruptedException("等待令牌时被中断");
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    /**
+     * 预留一个令牌，返回需要等待的纳秒数
+     * 令牌可以透支，透支部分由后续调用方按顺序排队等待
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        storedPermits = Math.min(maxPermits,
+                storedPermits + (double) (now - lastRefillNanos) / nanosPerPermit);
+        lastRefillNanos = now;
+        storedPermits -= 1;
+        return storedPermits >= 0 ? 0 : (long) (-storedPermits * nanosPerPermit);
+    }
+
+    /**
+     * 归还未使用的预留令牌，减少后来者的等待
+     */
+    private synchronized void refund() {
+        storedPermits = Math.min(maxPermits, storedPermits + 1);
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.example.stock.utils;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 虚拟线程工具
+ * 项目以 Java 17 编译，通过反射调用 Java 21 的 Executors.newVirtualThreadPerTaskExecutor，
+ * 在 21 以下的运行时返回空，由调用方回退到平台线程池
+ *
+ * @author Toom
+ * @version 1.0
+ */
+public final class VirtualThreads {
+
+    private static final Method NEW_EXECUTOR = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 创建每任务一个虚拟线程的执行器
+     *
+     * @return 执行器，运行时不支持虚拟线程时为空
+     */
+    public static Optional<ExecutorService> newPerTaskExecutor() {
+        if (NEW_EXECUTOR == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) NEW_EXECUTOR.invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Method findFactory() {
+        try {
+            return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+-- daily_quotes 离线迁移为按日期范围分区的表（PostgreSQL 11+），在应用启动前执行：
+--   psql -v ON_ERROR_STOP=1 -v interval=year -d stock_db -f migrate-daily-quotes-partitioned.sql
+-- interval 为 year（默认）或 month，须与 app.partition.interval 一致；表结构与 QuotePartitionManager 的建表语句一致。
+-- 整个迁移在一个事务中完成，失败则全部回滚；已是分区表时不做修改，可重复执行。
+-- 迁移期间 daily_quotes 持有 ACCESS EXCLUSIVE 锁，耗时与行数成正比，须在停止写入的窗口内执行；
+-- 旧表保留为 daily_quotes_legacy，核对行数后手动 DROP
+
+\if :{?interval}
+\else
+\set interval year
+\endif
+
+BEGIN;
+
+SELECT set_config('stock.partition_interval', :'interval', true);
+
+LOCK TABLE daily_quotes IN ACCESS EXCLUSIVE MODE;
+
+DO $$
+DECLARE
+    unit      text := current_setting('stock.partition_interval');
+    step      interval;
+    kind      "char";
+    first_day date;
+    last_day  date;
+    bucket    date;
+    copied    bigint;
+BEGIN
+    IF unit NOT IN ('year', 'month') THEN
+        RAISE EXCEPTION 'interval 只能为 year 或 month: %', unit;
+    END IF;
+    step := ('1 ' || unit)::interval;
+
+    -- 持有锁之后再检查表类型，避免与并发的迁移交错
+    SELECT c.relkind INTO kind FROM pg_class c WHERE c.oid = to_regclass('daily_quotes');
+    IF kind = 'p' THEN
+        RAISE NOTICE 'daily_quotes 已是分区表，跳过迁移';
+        RETURN;
+    ELSIF kind IS DISTINCT FROM 'r' THEN
+        RAISE EXCEPTION 'daily_quotes 不是普通表 (relkind=%)', kind;
+    END IF;
+    IF to_regclass('daily_quotes_legacy') IS NOT NULL THEN
+        RAISE EXCEPTION 'daily_quotes_legacy 已存在，请先核对并删除上次迁移保留的旧表';
+    END IF;
+
+    -- 约束与索引名在 schema 内唯一，先删除 / 改名让给新表
+    ALTER TABLE daily_quotes RENAME TO daily_quotes_legacy;
+    ALTER TABLE daily_quotes_legacy DROP CONSTRAINT IF EXISTS uk_symbol_date;
+    DROP INDEX IF EXISTS idx_daily_quote_symbol;
+    DROP INDEX IF EXISTS idx_daily_quote_date;
+    ALTER INDEX IF EXISTS daily_quotes_pkey RENAME TO daily_quotes_legacy_pkey;
+
+    -- 分区表的主键序列不能沿用旧表的 daily_quotes_id_seq，删除旧表时会连带删除它
+    CREATE SEQUENCE IF NOT EXISTS daily_quotes_pk_seq;
+    CREATE TABLE daily_quotes (
+        id         bigint         NOT NULL DEFAULT nextval('daily_quotes_pk_seq'),
+        symbol     varchar(20)    NOT NULL,
+        date       date           NOT NULL,
+        open       numeric(10, 2) NOT NULL,
+        high       numeric(10, 2) NOT NULL,
+        low        numeric(10, 2) NOT NULL,
+        close      numeric(10, 2) NOT NULL,
+        volume     bigint         NOT NULL,
+        adj_close  numeric(10, 2),
+        created_at timestamp(6)   NOT NULL,
+        CONSTRAINT daily_quotes_pkey PRIMARY KEY (id, date),
+        CONSTRAINT uk_symbol_date UNIQUE (symbol, date),
+        CONSTRAINT fk_daily_quote_stock FOREIGN KEY (symbol) REFERENCES stocks (symbol)
+    ) PARTITION BY RANGE (date);
+    ALTER SEQUENCE daily_quotes_pk_seq OWNED BY daily_quotes.id;
+    CREATE INDEX idx_daily_quote_date ON daily_quotes (date);
+    -- 不建默认分区（否则"最新一条"查询无法按分区顺序扫描）；此后的分区由 QuotePartitionManager 在应用启动时创建
+
+    -- 分区名与 PartitionInterval.suffix 一致：daily_quotes_y2024 / daily_quotes_m202401
+    SELECT MIN(date), MAX(date) INTO first_day, last_day FROM daily_quotes_legacy;
+    IF first_day IS NOT NULL THEN
+        bucket := date_trunc(unit, first_day)::date;
+        WHILE bucket <= last_day LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF daily_quotes FOR VALUES FROM (%L) TO (%L)',
+                    'daily_quotes_' || CASE unit WHEN 'year' THEN 'y' || to_char(bucket, 'YYYY')
+                                                 ELSE 'm' || to_char(bucket, 'YYYYMM') END,
+                    bucket, (bucket + step)::date);
+            bucket := (bucket + step)::date;
+        END LOOP;
+    END IF;
+
+    INSERT INTO daily_quotes (id, symbol, date, open, high, low, close, volume, adj_close, created_at)
+    SELECT id, symbol, date, open, high, low, close, volume, adj_close, created_at FROM daily_quotes_legacy;
+    GET DIAGNOSTICS copied = ROW_COUNT;
+    PERFORM setval('daily_quotes_pk_seq', COALESCE(MAX(id), 0) + 1, false) FROM daily_quotes;
+
+    RAISE NOTICE 'daily_quotes 已迁移为分区表，行数: %，范围: % ~ %', copied, first_day, last_day;
+END
+$$;
+
+COMMIT;
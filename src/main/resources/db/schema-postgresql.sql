@@ -0,0 +1,70 @@
+-- 生产环境建表脚本：prod 配置关闭 Hibernate ddl-auto，启动时由 spring.sql.init 执行，可重复执行
+-- 与实体 Stock / DailyQuote / CandleRollup / QuoteVersion / DataSeed 保持一致；
+-- daily_quotes 新建即为分区表（须开启 app.partition.enabled），之后由 QuotePartitionManager 维护
+
+CREATE TABLE IF NOT EXISTS stocks (
+    symbol      varchar(20)  NOT NULL,
+    name        varchar(200) NOT NULL,
+    exchange    varchar(50),
+    sector      varchar(100),
+    last_update timestamp(6),
+    created_at  timestamp(6) NOT NULL,
+    CONSTRAINT stocks_pkey PRIMARY KEY (symbol)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_name ON stocks (name);
+
+CREATE INDEX IF NOT EXISTS idx_stock_sector ON stocks (sector);
+
+-- 按 date 范围分区的父表，与 QuotePartitionManager 的建表语句一致；不建默认分区，范围分区由 QuotePartitionManager 启动时创建。
+-- 已存在的普通表不受影响，须停机执行 db/migrate-daily-quotes-partitioned.sql 迁移
+CREATE SEQUENCE IF NOT EXISTS daily_quotes_pk_seq;
+
+CREATE TABLE IF NOT EXISTS daily_quotes (
+    id         bigint         NOT NULL DEFAULT nextval('daily_quotes_pk_seq'),
+    symbol     varchar(20)    NOT NULL,
+    date       date           NOT NULL,
+    open       numeric(10, 2) NOT NULL,
+    high       numeric(10, 2) NOT NULL,
+    low        numeric(10, 2) NOT NULL,
+    close      numeric(10, 2) NOT NULL,
+    volume     bigint         NOT NULL,
+    adj_close  numeric(10, 2),
+    created_at timestamp(6)   NOT NULL,
+    CONSTRAINT daily_quotes_pkey PRIMARY KEY (id, date),
+    CONSTRAINT uk_symbol_date UNIQUE (symbol, date),
+    CONSTRAINT fk_daily_quote_stock FOREIGN KEY (symbol) REFERENCES stocks (symbol)
+) PARTITION BY RANGE (date);
+
+CREATE INDEX IF NOT EXISTS idx_daily_quote_date ON daily_quotes (date);
+
+CREATE TABLE IF NOT EXISTS candle_rollups (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    symbol       varchar(20)    NOT NULL,
+    period       varchar(8)     NOT NULL,
+    bucket_start date           NOT NULL,
+    open         numeric(10, 2) NOT NULL,
+    high         numeric(10, 2) NOT NULL,
+    low          numeric(10, 2) NOT NULL,
+    close        numeric(10, 2) NOT NULL,
+    volume       bigint         NOT NULL,
+    bar_count    integer        NOT NULL,
+    updated_at   timestamp(6)   NOT NULL,
+    CONSTRAINT candle_rollups_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_rollup_symbol_period_bucket UNIQUE (symbol, period, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS quote_versions (
+    symbol     varchar(20)  NOT NULL,
+    version    bigint       NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT quote_versions_pkey PRIMARY KEY (symbol)
+);
+
+CREATE TABLE IF NOT EXISTS data_seeds (
+    name         varchar(50)  NOT NULL,
+    status       varchar(20)  NOT NULL,
+    started_at   timestamp(6) NOT NULL,
+    completed_at timestamp(6),
+    CONSTRAINT data_seeds_pkey PRIMARY KEY (name)
+);
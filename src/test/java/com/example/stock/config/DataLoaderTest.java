@@ -0,0 +1,110 @@
+package com.example.stock.config;
+
+import com.example.stock.repository.StockRepository;
+import com.example.stock.service.snapshot.SnapshotLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 启动初始化：按完成标记跳过、续导未完成的导入，检查与导入都在导入锁内
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class DataLoaderTest {
+
+    private final StockRepository stockRepository = mock(StockRepository.class);
+
+    private final SnapshotLoader snapshotLoader = mock(SnapshotLoader.class);
+
+    private final DataLoader dataLoader = new DataLoader(stockRepository, snapshotLoader);
+
+    private boolean locked;
+
+    @BeforeEach
+    void setUp() {
+        when(snapshotLoader.withSeedLock(any())).thenAnswer(invocation -> {
+            locked = true;
+            try {
+                return invocation.<Supplier<?>>getArgument(0).get();
+            } finally {
+                locked = false;
+            }
+        });
+    }
+
+    @Test
+    void completedSeedIsSkipped() throws Exception {
+        status(SnapshotLoader.SeedStatus.COMPLETED);
+
+        dataLoader.run();
+
+        verify(snapshotLoader, never()).load();
+        verify(stockRepository, never()).count();
+    }
+
+    @Test
+    void startedSeedIsResumedUnderLock() throws Exception {
+        status(SnapshotLoader.SeedStatus.STARTED);
+        when(snapshotLoader.isAvailable()).thenReturn(true);
+        when(snapshotLoader.load()).thenAnswer(invocation -> {
+            assertThat(locked).isTrue();
+            return new SnapshotLoader.Report(2, 3, 1);
+        });
+
+        dataLoader.run();
+
+        verify(snapshotLoader).load();
+        verify(stockRepository, never()).count();
+    }
+
+    @Test
+    void startedSeedWithoutSnapshotFails() {
+        status(SnapshotLoader.SeedStatus.STARTED);
+        when(snapshotLoader.isAvailable()).thenReturn(false);
+
+        assertThatThrownBy(() -> dataLoader.run()).isInstanceOf(IllegalStateException.class);
+        verify(snapshotLoader, never()).load();
+    }
+
+    @Test
+    void emptyDatabaseLoadsSnapshot() throws Exception {
+        status(SnapshotLoader.SeedStatus.NONE);
+        when(stockRepository.count()).thenReturn(0L);
+        when(snapshotLoader.isAvailable()).thenReturn(true);
+
+        dataLoader.run();
+
+        verify(snapshotLoader).load();
+        verify(stockRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void populatedDatabaseWithoutMarkerIsLeftAlone() throws Exception {
+        status(SnapshotLoader.SeedStatus.NONE);
+        when(stockRepository.count()).thenReturn(5L);
+
+        dataLoader.run();
+
+        verify(snapshotLoader, never()).load();
+    }
+
+    private void status(SnapshotLoader.SeedStatus status) {
+        when(snapshotLoader.status()).thenAnswer(invocation -> {
+            assertThat(locked).isTrue();
+            return status;
+        });
+    }
+
+}
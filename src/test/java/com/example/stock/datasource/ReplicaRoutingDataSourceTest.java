@@ -0,0 +1,178 @@
+package com.example.stock.datasource;
+
+import com.example.stock.config.ReplicaProperties;
+import com.example.stock.model.enums.ReplicaSelectionStrategy;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 读写分离路由：只读事务走健康从库、延迟过大或检查失败时回退主库、写入后等待从库确认追平
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final ReplicaProperties properties = new ReplicaProperties();
+
+    private final HikariDataSource primary = pool("primary");
+
+    private final HikariDataSource replica = pool("replica-r1");
+
+    /**
+     * 从库复制延迟（毫秒），为 null 时连接失败
+     */
+    private Double replicaLag = 0.0;
+
+    /**
+     * 从库是否已回放到主库 WAL 位置
+     */
+    private boolean replicaCaughtUp = true;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsUseHealthyReplica() throws SQLException {
+        properties.setReadYourWrites(false);
+        dataSource = newDataSource();
+
+        // 首次健康检查之前从库尚不可路由
+        assertThat(route(true)).isEqualTo("primary");
+
+        dataSource.checkHealth();
+
+        assertThat(route(true)).isEqualTo("replica-r1");
+        assertThat(route(false)).isEqualTo("primary");
+        assertThat(dataSource.getStatus()).extracting(status -> status.getRoutedReads()).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void laggingOrUnreachableReplicaFallsBackToPrimary() throws SQLException {
+        properties.setReadYourWrites(false);
+        properties.setMaxLagMs(1_000);
+        properties.setStrategy(ReplicaSelectionStrategy.LEAST_CONNECTIONS);
+        dataSource = newDataSource();
+
+        replicaLag = 5_000.0;
+        dataSource.checkHealth();
+        assertThat(route(true)).isEqualTo("primary");
+        assertThat(dataSource.getStatus().get(1).getLagMs()).isEqualTo(5_000L);
+
+        replicaLag = 200.0;
+        dataSource.checkHealth();
+        assertThat(route(true)).isEqualTo("replica-r1");
+
+        replicaLag = null;
+        dataSource.checkHealth();
+        assertThat(route(true)).isEqualTo("primary");
+        assertThat(dataSource.getStatus().get(1).getLastError()).isEqualTo("connection refused");
+    }
+
+    @Test
+    void readsAfterWriteWaitForReplicaToCatchUp() throws SQLException {
+        dataSource = newDataSource();
+        dataSource.checkHealth();
+        assertThat(route(true)).isEqualTo("replica-r1");
+
+        // 读写事务提交后，从库须在之后的检查中确认追平才重新接收读请求
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(route(false)).isEqualTo("primary");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        assertThat(route(false)).isEqualTo("primary");
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(route(true)).isEqualTo("primary");
+
+        replicaCaughtUp = false;
+        dataSource.checkHealth();
+        assertThat(route(true)).isEqualTo("primary");
+        assertThat(dataSource.getStatus().get(1).isCaughtUp()).isFalse();
+
+        replicaCaughtUp = true;
+        dataSource.checkHealth();
+        assertThat(route(true)).isEqualTo("replica-r1");
+
+        // 自动提交的写入由显式调用记录
+        dataSource.markWritten();
+        assertThat(route(true)).isEqualTo("primary");
+    }
+
+    private String route(boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return (String) dataSource.determineCurrentLookupKey();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private ReplicaRoutingDataSource newDataSource() throws SQLException {
+        Connection primaryConnection = mock(Connection.class);
+        Statement primaryStatement = mock(Statement.class);
+        ResultSet position = mock(ResultSet.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(primaryConnection.createStatement()).thenReturn(primaryStatement);
+        when(primaryStatement.executeQuery(properties.getPrimaryPositionQuery())).thenReturn(position);
+        when(position.next()).thenReturn(true);
+        when(position.getString(1)).thenReturn("0/16B3748");
+
+        when(replica.getConnection()).thenAnswer(invocation -> {
+            if (replicaLag == null) {
+                throw new SQLException("connection refused");
+            }
+            return replicaConnection();
+        });
+        return new ReplicaRoutingDataSource(primary, List.of(replica), properties, new SimpleMeterRegistry());
+    }
+
+    private Connection replicaConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet lag = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(properties.getLagQuery())).thenReturn(lag);
+        when(lag.next()).thenReturn(true);
+        when(lag.getDouble(1)).thenReturn(replicaLag);
+
+        PreparedStatement caughtUpStatement = mock(PreparedStatement.class);
+        ResultSet caughtUp = mock(ResultSet.class);
+        when(connection.prepareStatement(properties.getCaughtUpQuery())).thenReturn(caughtUpStatement);
+        when(caughtUpStatement.executeQuery()).thenReturn(caughtUp);
+        when(caughtUp.next()).thenReturn(true);
+        when(caughtUp.getBoolean(1)).thenReturn(replicaCaughtUp);
+        return connection;
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getPoolName()).thenReturn(name);
+        return pool;
+    }
+
+}
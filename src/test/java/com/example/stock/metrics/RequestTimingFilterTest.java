@@ -0,0 +1,90 @@
+package com.example.stock.metrics;
+
+import com.example.stock.config.TraceProperties;
+import com.example.stock.model.dto.SlowRequestDTO;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 请求阶段耗时过滤器：补记序列化阶段、未提交时补写 Server-Timing、慢请求记录与跳过 actuator
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class RequestTimingFilterTest {
+
+    private final TraceProperties traceProperties = new TraceProperties();
+
+    private final SlowRequestRecorder slowRequestRecorder = new SlowRequestRecorder(traceProperties);
+
+    private final RequestTimingFilter filter = new RequestTimingFilter(traceProperties, slowRequestRecorder);
+
+    @AfterEach
+    void tearDown() {
+        RequestTrace.begin().end();
+    }
+
+    @Test
+    void stagesAreRecordedAndTraceClosed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stocks/AAPL");
+        request.setQueryString("fields=quote");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            RequestTrace.record(RequestTrace.DB, System.nanoTime() - 2_000_000);
+            RequestTrace.current().markBodyStart();
+        });
+
+        assertThat(response.getHeader(RequestTimingFilter.SERVER_TIMING))
+                .startsWith("db;dur=")
+                .contains("serialize;dur=", "app;dur=");
+        assertThat(RequestTrace.current()).isNull();
+
+        List<SlowRequestDTO> slow = slowRequestRecorder.list();
+        assertThat(slow).hasSize(1);
+        assertThat(slow.get(0).getUri()).isEqualTo("/api/stocks/AAPL?fields=quote");
+        assertThat(slow.get(0).getStatus()).isEqualTo(200);
+        assertThat(slow.get(0).getStages()).extracting(SlowRequestDTO.Stage::getName)
+                .containsExactly(RequestTrace.DB, RequestTrace.SERIALIZE);
+        assertThat(slow.get(0).getStages().get(0).getMillis()).isGreaterThanOrEqualTo(2.0);
+    }
+
+    @Test
+    void committedResponseKeepsHeaderFromAdvice() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            res.getOutputStream().write('x');
+            res.flushBuffer();
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/stocks"), response, chain);
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(RequestTimingFilter.SERVER_TIMING)).isNull();
+        assertThat(slowRequestRecorder.list()).hasSize(1);
+    }
+
+    @Test
+    void actuatorAndDisabledTracingAreSkipped() throws Exception {
+        MockHttpServletResponse actuator = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), actuator,
+                (req, res) -> assertThat(RequestTrace.current()).isNull());
+        assertThat(actuator.getHeader(RequestTimingFilter.SERVER_TIMING)).isNull();
+
+        traceProperties.setEnabled(false);
+        MockHttpServletResponse disabled = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/stocks"), disabled,
+                (req, res) -> assertThat(RequestTrace.current()).isNull());
+        assertThat(disabled.getHeader(RequestTimingFilter.SERVER_TIMING)).isNull();
+
+        assertThat(slowRequestRecorder.list()).isEmpty();
+    }
+
+}
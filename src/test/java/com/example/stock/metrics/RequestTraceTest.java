@@ -0,0 +1,79 @@
+package com.example.stock.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 请求阶段耗时记录：同名阶段累加、未激活时不记录、Server-Timing 格式与阶段数上限
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class RequestTraceTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTrace.begin().end();
+    }
+
+    @Test
+    void sameStageAccumulatesTimeAndCount() {
+        RequestTrace trace = RequestTrace.begin();
+        trace.add(RequestTrace.DB, 1_000_000);
+        trace.add(RequestTrace.REDIS, 400_000);
+        trace.add(new String("db"), 2_210_000);
+
+        assertThat(trace.toServerTiming(trace.getStartNanos() + 5_020_000))
+                .isEqualTo("db;dur=3.21;desc=\"2\", redis;dur=0.40, app;dur=5.02");
+    }
+
+    @Test
+    void recordIsIgnoredOutsideRequests() {
+        RequestTrace.record(RequestTrace.DB, System.nanoTime());
+        assertThat(RequestTrace.current()).isNull();
+
+        RequestTrace trace = RequestTrace.begin();
+        assertThat(RequestTrace.current()).isSameAs(trace);
+        assertThat(trace.size()).isZero();
+        RequestTrace.record(RequestTrace.DB, System.nanoTime());
+        trace.end();
+        RequestTrace.record(RequestTrace.DB, System.nanoTime());
+
+        assertThat(trace.size()).isEqualTo(1);
+        assertThat(trace.count(0)).isEqualTo(1);
+        assertThat(RequestTrace.current()).isNull();
+    }
+
+    @Test
+    void beginResetsPreviousRequest() {
+        RequestTrace trace = RequestTrace.begin();
+        trace.add(RequestTrace.MAPPING, 10);
+        trace.markBodyStart();
+        trace.end();
+
+        RequestTrace next = RequestTrace.begin();
+
+        assertThat(next).isSameAs(trace);
+        assertThat(next.size()).isZero();
+        assertThat(next.getBodyStartNanos()).isZero();
+    }
+
+    @Test
+    void stagesBeyondCapacityAreDropped() {
+        RequestTrace trace = RequestTrace.begin();
+        for (int i = 0; i < 20; i++) {
+            trace.add("stage" + i, 10_000);
+        }
+        trace.add("stage0", 10_000);
+
+        assertThat(trace.size()).isEqualTo(16);
+        assertThat(trace.name(15)).isEqualTo("stage15");
+        assertThat(trace.count(0)).isEqualTo(2);
+        // 四舍五入到 0.01 ms
+        assertThat(trace.toServerTiming(trace.getStartNanos()))
+                .startsWith("stage0;dur=0.02;desc=\"2\", stage1;dur=0.01");
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.example.stock.metrics;
+
+import com.example.stock.config.TraceProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Server-Timing 头在序列化之前写出，并标记响应体开始写出的时间点
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class ServerTimingAdviceTest {
+
+    private final TraceProperties traceProperties = new TraceProperties();
+
+    private final ServerTimingAdvice advice = new ServerTimingAdvice(traceProperties);
+
+    private final MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        RequestTrace.begin().end();
+    }
+
+    @Test
+    void writesHeaderAndMarksBodyStart() {
+        RequestTrace trace = RequestTrace.begin();
+        trace.add(RequestTrace.DB, 1_500_000);
+
+        Object body = "ok";
+        assertThat(beforeBodyWrite(body)).isSameAs(body);
+
+        assertThat(servletResponse.getHeader(RequestTimingFilter.SERVER_TIMING))
+                .startsWith("db;dur=1.50, app;dur=");
+        assertThat(trace.getBodyStartNanos()).isPositive();
+    }
+
+    @Test
+    void headerCanBeDisabledWhileStillTimingSerialization() {
+        traceProperties.setServerTiming(false);
+        RequestTrace trace = RequestTrace.begin();
+
+        beforeBodyWrite("ok");
+
+        assertThat(servletResponse.getHeader(RequestTimingFilter.SERVER_TIMING)).isNull();
+        assertThat(trace.getBodyStartNanos()).isPositive();
+    }
+
+    @Test
+    void inactiveTraceLeavesResponseUntouched() {
+        beforeBodyWrite("ok");
+
+        assertThat(servletResponse.getHeader(RequestTimingFilter.SERVER_TIMING)).isNull();
+    }
+
+    @Test
+    void disabledTracingSkipsAdvice() {
+        traceProperties.setEnabled(false);
+
+        assertThat(advice.supports(null, MappingJackson2HttpMessageConverter.class)).isFalse();
+    }
+
+    private Object beforeBodyWrite(Object body) {
+        ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse);
+        Object written = advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class,
+                new ServletServerHttpRequest(new MockHttpServletRequest()), response);
+        response.close();
+        return written;
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.example.stock.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 预聚合 K 线：全量重建在同一事务中完成，启动补建按完成标记跳过
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class CandleRollupServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final TransactionStatus transaction = new SimpleTransactionStatus();
+
+    private final CandleRollupService service = new CandleRollupService(jdbcTemplate, transactionManager);
+
+    @Test
+    void rebuildDeletesAndRefreshesInOneTransaction() {
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+
+        service.rebuild("AAPL");
+
+        InOrder order = inOrder(transactionManager, jdbcTemplate);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(jdbcTemplate).update(contains("DELETE FROM candle_rollups"), eq("AAPL"));
+        order.verify(jdbcTemplate, times(2)).update(contains("INSERT INTO candle_rollups"),
+                anyString(), eq("AAPL"), any(), any());
+        order.verify(transactionManager).commit(transaction);
+    }
+
+    @Test
+    void failedRefreshRollsBackTheDelete() {
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        when(jdbcTemplate.update(contains("INSERT INTO candle_rollups"), anyString(), anyString(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        assertThatThrownBy(() -> service.rebuild("AAPL")).isInstanceOf(DataAccessResourceFailureException.class);
+
+        verify(transactionManager).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void backfillIsSkippedWhileMarkerIsValid() {
+        when(jdbcTemplate.queryForObject(eq(CandleRollupService.BACKFILL_DONE_SQL), eq(Long.class),
+                eq(CandleRollupService.BACKFILL_SEED), any(), any())).thenReturn(1L);
+
+        service.backfillMissing();
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+        verify(jdbcTemplate, never()).update(eq(CandleRollupService.BACKFILL_COMPLETED_SQL),
+                any(), any(), any(), any());
+    }
+
+    @Test
+    void backfillWritesMarkerOnlyWhenEverySymbolSucceeds() {
+        when(jdbcTemplate.queryForObject(eq(CandleRollupService.BACKFILL_DONE_SQL), eq(Long.class),
+                eq(CandleRollupService.BACKFILL_SEED), any(), any())).thenReturn(0L);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("AAPL", "MSFT"));
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        when(jdbcTemplate.update(contains("DELETE FROM candle_rollups"), eq("MSFT")))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        service.backfillMissing();
+
+        verify(jdbcTemplate).update(contains("DELETE FROM candle_rollups"), eq("AAPL"));
+        verify(jdbcTemplate, never()).update(eq(CandleRollupService.BACKFILL_COMPLETED_SQL),
+                any(), any(), any(), any());
+
+        doReturn(0).when(jdbcTemplate).update(contains("DELETE FROM candle_rollups"), eq("MSFT"));
+        service.backfillMissing();
+
+        verify(jdbcTemplate).update(eq(CandleRollupService.BACKFILL_COMPLETED_SQL),
+                eq(CandleRollupService.BACKFILL_SEED), eq("COMPLETED"), any(), any());
+    }
+
+}
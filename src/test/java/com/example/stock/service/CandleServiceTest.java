@@ -0,0 +1,72 @@
+package com.example.stock.service;
+
+import com.example.stock.config.CandleProperties;
+import com.example.stock.metrics.RequestTrace;
+import com.example.stock.model.enums.CandleFormat;
+import com.example.stock.model.enums.CandlePeriod;
+import com.example.stock.service.cache.DataVersionService;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * K 线直写：数据库游标读取计入请求的 db 阶段
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class CandleServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final CandleService service = new CandleService(jdbcTemplate, new CandleProperties(),
+            mock(QuoteSeriesStore.class), transactionManager, mock(CacheManager.class), mock(DataVersionService.class));
+
+    @AfterEach
+    void tearDown() {
+        RequestTrace.begin().end();
+    }
+
+    @Test
+    void rollupQueryIsRecordedAsDbStage() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(anyInt())).thenReturn(100L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        RequestTrace trace = RequestTrace.begin();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = service.writeCandles("AAPL", CandlePeriod.WEEKLY, 10, CandleFormat.JSON, out);
+        String timing = trace.toServerTiming(System.nanoTime());
+        trace.end();
+
+        assertThat(written).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("100");
+        assertThat(timing).startsWith(RequestTrace.DB + ";dur=");
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.example.stock.service;
+
+import com.example.stock.config.SyncProperties;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.SyncRunDTO;
+import com.example.stock.model.dto.SyncStatusDTO;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.model.enums.SyncState;
+import com.example.stock.repository.DailyQuoteRepository;
+import com.example.stock.repository.StockRepository;
+import com.example.stock.service.market.MarketDataClient;
+import com.example.stock.service.market.StubMarketDataClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 使用 stub 数据源测试行情增量同步
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+class MarketDataSyncServiceTest {
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private DailyQuoteRepository dailyQuoteRepository;
+
+    @Mock
+    private QuoteIngestionService quoteIngestionService;
+
+    private SyncProperties syncProperties;
+
+    private MarketDataSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        syncProperties = new SyncProperties();
+        syncProperties.setStubLatencyMs(0);
+        syncProperties.setRateLimitPerSecond(1000);
+        syncProperties.setParallelism(2);
+        service = newService(new StubMarketDataClient(syncProperties));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void syncSymbolFetchesOnlyBarsAfterHighWater() {
+        LocalDate today = LocalDate.now();
+        LocalDate highWater = today.minusDays(10);
+        when(dailyQuoteRepository.findLatestDateBySymbol("AAPL")).thenReturn(Optional.of(highWater));
+
+        SyncStatusDTO status = service.syncSymbol("AAPL");
+
+        ArgumentCaptor<List<QuoteBarDTO>> captor = barsCaptor();
+        verify(quoteIngestionService).ingest(captor.capture());
+        List<QuoteBarDTO> bars = captor.getValue();
+        assertThat(bars).isNotEmpty()
+                .allSatisfy(bar -> assertThat(bar.getDate()).isAfter(highWater).isBeforeOrEqualTo(today));
+        assertThat(bars).hasSize(weekdaysBetween(highWater.plusDays(1), today));
+        assertThat(status.getState()).isEqualTo(SyncState.SUCCESS);
+        assertThat(status.getFetchedBars()).isEqualTo(bars.size());
+        assertThat(status.getHighWaterDate()).isEqualTo(bars.get(bars.size() - 1).getDate());
+    }
+
+    @Test
+    void syncSymbolWithoutHistoryFetchesInitialWindow() {
+        LocalDate today = LocalDate.now();
+        when(dailyQuoteRepository.findLatestDateBySymbol("MSFT")).thenReturn(Optional.empty());
+
+        SyncStatusDTO status = service.syncSymbol("MSFT");
+
+        LocalDate from = today.minusDays(syncProperties.getInitialHistoryDays());
+        assertThat(status.getState()).isEqualTo(SyncState.SUCCESS);
+        assertThat(status.getFetchedBars()).isEqualTo(weekdaysBetween(from, today));
+    }
+
+    @Test
+    void syncSymbolUpToDateSkipsFetch() {
+        MarketDataClient client = mock(MarketDataClient.class);
+        service.shutdown();
+        service = newService(client);
+        when(dailyQuoteRepository.findLatestDateBySymbol("AAPL")).thenReturn(Optional.of(LocalDate.now()));
+
+        SyncStatusDTO status = service.syncSymbol("AAPL");
+
+        verify(client, never()).fetchDailyBars(any(), any(), any());
+        verify(quoteIngestionService, never()).ingest(anyList());
+        assertThat(status.getState()).isEqualTo(SyncState.SUCCESS);
+        assertThat(status.getFetchedBars()).isZero();
+        assertThat(status.getLagDays()).isZero();
+    }
+
+    @Test
+    void syncSymbolRecordsFailure() {
+        when(dailyQuoteRepository.findLatestDateBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(quoteIngestionService.ingest(anyList())).thenThrow(new IllegalStateException("db down"));
+
+        SyncStatusDTO status = service.syncSymbol("AAPL");
+
+        assertThat(status.getState()).isEqualTo(SyncState.FAILED);
+        assertThat(status.getLastError()).isEqualTo("db down");
+        assertThat(service.getStatus("AAPL")).contains(status);
+    }
+
+    @Test
+    void syncAllCountsFailedSymbols() {
+        when(stockRepository.findAll()).thenReturn(List.of(stock("AAPL"), stock("MSFT")));
+        when(dailyQuoteRepository.findLatestDateBySymbol("AAPL")).thenReturn(Optional.empty());
+        when(dailyQuoteRepository.findLatestDateBySymbol("MSFT")).thenThrow(new IllegalStateException("boom"));
+
+        SyncRunDTO run = service.syncAll();
+
+        assertThat(run.getTotal()).isEqualTo(2);
+        assertThat(run.getCompleted()).isEqualTo(2);
+        assertThat(run.getFailed()).isEqualTo(1);
+        assertThat(run.isRunning()).isFalse();
+    }
+
+    @Test
+    void startAsyncRejectsConcurrentRun() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(stockRepository.findAll()).thenReturn(List.of(stock("AAPL")));
+        when(dailyQuoteRepository.findLatestDateBySymbol("AAPL")).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(quoteIngestionService).ingest(anyList());
+
+        assertThat(service.startAsync()).isTrue();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.startAsync()).isFalse();
+        assertThatThrownBy(service::syncAll).isInstanceOf(IllegalStateException.class);
+
+        release.countDown();
+        assertThat(awaitStart()).isTrue();
+        verify(stockRepository, timeout(5000).times(2)).findAll();
+    }
+
+    private MarketDataSyncService newService(MarketDataClient client) {
+        return new MarketDataSyncService(stockRepository, dailyQuoteRepository, quoteIngestionService,
+                client, syncProperties);
+    }
+
+    /**
+     * 上一轮结束后应能再次启动
+     */
+    private boolean awaitStart() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (service.startAsync()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<QuoteBarDTO>> barsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static Stock stock(String symbol) {
+        Stock stock = new Stock();
+        stock.setSymbol(symbol);
+        return stock;
+    }
+
+    private static int weekdaysBetween(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (long i = 0; i <= ChronoUnit.DAYS.between(from, to); i++) {
+            DayOfWeek day = from.plusDays(i).getDayOfWeek();
+            if (day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
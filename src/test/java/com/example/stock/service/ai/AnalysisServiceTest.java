@@ -0,0 +1,184 @@
+package com.example.stock.service.ai;
+
+import com.example.stock.config.AiProperties;
+import com.example.stock.config.CacheProperties;
+import com.example.stock.config.IndicatorProperties;
+import com.example.stock.model.dto.AnalysisDTO;
+import com.example.stock.model.dto.AnalysisReportDTO;
+import com.example.stock.model.enums.AnalysisStatus;
+import com.example.stock.service.StockService;
+import com.example.stock.service.cache.CacheNames;
+import com.example.stock.service.indicator.IndicatorService;
+import com.example.stock.service.search.StockSearchIndex;
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * AI 分析任务：同一股票的并发请求合并、队列满拒绝、超时，以及超时后才完成的报告写入缓存
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class AnalysisServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheNames.AI_REPORT);
+
+    private final AiProperties aiProperties = new AiProperties();
+
+    private AnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        aiProperties.setThreads(1);
+        aiProperties.setQueueCapacity(1);
+        aiProperties.setTimeoutMs(5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentRequestsShareOneJob() throws Exception {
+        service = newService();
+
+        AnalysisDTO first = service.request("AAPL");
+        AnalysisDTO second = service.request("AAPL");
+        assertThat(second.getJobId()).isEqualTo(first.getJobId());
+        assertThat(first.getStatus()).isIn(AnalysisStatus.PENDING, AnalysisStatus.RUNNING);
+
+        release.countDown();
+        awaitStatus(first.getJobId(), AnalysisStatus.SUCCESS);
+
+        AnalysisDTO cached = service.request("AAPL");
+        assertThat(cached.getStatus()).isEqualTo(AnalysisStatus.SUCCESS);
+        assertThat(cached.getJobId()).isNull();
+        assertThat(cached.getReport().getSummary()).isEqualTo("看多");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void fullQueueRejectsNewSymbols() throws Exception {
+        service = newService();
+        service.request("AAPL");
+        awaitCalls(1);
+        service.request("MSFT");
+
+        assertThatThrownBy(() -> service.request("IBM")).isInstanceOf(RejectedExecutionException.class);
+        // 已排队的股票仍可加入其任务
+        assertThat(service.request("MSFT").getStatus()).isEqualTo(AnalysisStatus.PENDING);
+        assertThatThrownBy(() -> service.request("IBM")).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void lateReportIsCachedAfterTimeout() throws Exception {
+        aiProperties.setQueueCapacity(2);
+        aiProperties.setTimeoutMs(100);
+        service = newService();
+        String running = service.request("AAPL").getJobId();
+        awaitCalls(1);
+        String queued = service.request("MSFT").getJobId();
+
+        awaitStatus(running, AnalysisStatus.TIMEOUT);
+        awaitStatus(queued, AnalysisStatus.TIMEOUT);
+        assertThat(service.getJob(running).orElseThrow().getError()).isEqualTo("AI 服务超时");
+
+        release.countDown();
+        AnalysisReportDTO report = await(() -> cacheManager.getCache(CacheNames.AI_REPORT)
+                .get("AAPL", AnalysisReportDTO.class));
+
+        assertThat(report).isNotNull();
+        assertThat(service.getJob(running).orElseThrow().getStatus()).isEqualTo(AnalysisStatus.TIMEOUT);
+        AnalysisDTO next = service.request("AAPL");
+        assertThat(next.getStatus()).isEqualTo(AnalysisStatus.SUCCESS);
+        assertThat(next.getReport()).isEqualTo(report);
+        // 排队中超时的任务被移出队列，不会再调用模型
+        Thread.sleep(200);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    private AnalysisService newService() {
+        StockService stockService = mock(StockService.class);
+        when(stockService.resolveSymbol(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        StockSearchIndex stockSearchIndex = mock(StockSearchIndex.class);
+        when(stockSearchIndex.findBySymbol(anyString())).thenReturn(Optional.empty());
+        QuoteSeriesStore quoteSeriesStore = mock(QuoteSeriesStore.class);
+        when(quoteSeriesStore.getOrLoad(anyString())).thenAnswer(invocation -> series(invocation.getArgument(0)));
+        LlmClient llmClient = new LlmClient() {
+            @Override
+            public String getModel() {
+                return "test";
+            }
+
+            @Override
+            public String complete(String systemPrompt, String userPrompt) {
+                calls.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                return "{\"summary\":\"看多\",\"content\":\"均线多头排列\"}";
+            }
+        };
+        return new AnalysisService(stockService, stockSearchIndex, quoteSeriesStore,
+                new IndicatorService(quoteSeriesStore, new IndicatorProperties()), llmClient, aiProperties,
+                new CacheProperties(), cacheManager, new ObjectMapper());
+    }
+
+    private void awaitStatus(String jobId, AnalysisStatus status) throws InterruptedException {
+        AnalysisDTO job = await(() -> service.getJob(jobId).filter(dto -> dto.getStatus() == status).orElse(null));
+        assertThat(job).as("任务 %s 状态 %s", jobId, status).isNotNull();
+    }
+
+    private void awaitCalls(int count) throws InterruptedException {
+        assertThat(await(() -> calls.get() >= count ? Boolean.TRUE : null)).isTrue();
+    }
+
+    private static <T> T await(Supplier<T> probe) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        T value = probe.get();
+        while (value == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            value = probe.get();
+        }
+        return value;
+    }
+
+    private static QuoteSeries series(String symbol) {
+        QuoteSeries series = new QuoteSeries(symbol);
+        for (int day = 0; day < 80; day++) {
+            double close = 100 + day;
+            series.append(day, close, close + 1, close - 1, close, 1_000);
+        }
+        return series;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.example.stock.service.backtest;
+
+import com.example.stock.service.indicator.IndicatorPeriods;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 回测参数网格展开：周期校验与组合去重
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class BacktestGridTest {
+
+    private static final int MAX_COMBOS = 10_000;
+
+    @Test
+    void fractionalPeriodsAreSkippedNotTruncated() {
+        List<double[]> combos = BacktestService.expandGrid(StrategyType.MA_CROSS,
+                Map.of("fast", "5:8:0.5", "slow", "20"), MAX_COMBOS, IndicatorPeriods.DEFAULT);
+
+        assertThat(combos).extracting(combo -> combo[0]).containsExactly(5.0, 6.0, 7.0, 8.0);
+    }
+
+    @Test
+    void equalCombosAreDeduplicated() {
+        List<double[]> combos = BacktestService.expandGrid(StrategyType.MA_CROSS,
+                Map.of("fast", "4.9999999999:5.0000000001:0.0000000001", "slow", "20,20.0"), MAX_COMBOS, IndicatorPeriods.DEFAULT);
+
+        assertThat(combos).hasSize(1);
+        assertThat(combos.get(0)).containsExactly(5.0, 20.0);
+    }
+
+    @Test
+    void periodsAreBounded() {
+        assertThatThrownBy(() -> BacktestService.expandGrid(StrategyType.MA_CROSS,
+                Map.of("fast", "5", "slow", "2000000000"), MAX_COMBOS, IndicatorPeriods.DEFAULT))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("慢线周期");
+        assertThatThrownBy(() -> BacktestService.expandGrid(StrategyType.RSI_REVERSION,
+                Map.of("period", "0"), MAX_COMBOS, IndicatorPeriods.DEFAULT))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("RSI 周期");
+        assertThatThrownBy(() -> BacktestService.expandGrid(StrategyType.MA_CROSS,
+                Map.of("fast", "5", "slow", "60"), MAX_COMBOS, new IndicatorPeriods(50)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("50");
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.example.stock.service.backtest;
+
+import com.example.stock.config.BacktestProperties;
+import com.example.stock.config.IndicatorProperties;
+import com.example.stock.model.dto.BacktestRequest;
+import com.example.stock.service.StockService;
+import com.example.stock.service.indicator.IndicatorSpecParser;
+import com.example.stock.service.search.StockSearchIndex;
+import com.example.stock.service.timeseries.QuoteSeriesStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 回测股票范围：超出上限时在解析代码或复制索引条目之前拒绝
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class BacktestUniverseTest {
+
+    private final StockSearchIndex stockSearchIndex = mock(StockSearchIndex.class);
+
+    private final StockService stockService = mock(StockService.class);
+
+    private final BacktestProperties backtestProperties = new BacktestProperties();
+
+    private BacktestService service;
+
+    @BeforeEach
+    void setUp() {
+        backtestProperties.setMaxSymbols(2);
+        backtestProperties.setParallelism(1);
+        service = new BacktestService(stockSearchIndex, mock(QuoteSeriesStore.class), stockService,
+                backtestProperties, new IndicatorSpecParser(new IndicatorProperties()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void tooManySymbolsAreRejectedBeforeResolving() {
+        BacktestRequest request = request().symbols(List.of("AAPL", "aapl ", "MSFT", "IBM")).build();
+
+        assertThatThrownBy(() -> service.run(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("2");
+        verify(stockService, never()).resolveSymbol(anyString());
+    }
+
+    @Test
+    void largeSectorIsRejectedFromItsCount() {
+        when(stockSearchIndex.countBySector("Technology")).thenReturn(3);
+
+        assertThatThrownBy(() -> service.run(request().sector(" Technology ").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(stockSearchIndex, never()).findBySector(anyString(), anyInt(), anyInt());
+        verify(stockSearchIndex, never()).all();
+    }
+
+    @Test
+    void wholeMarketIsRejectedFromIndexSize() {
+        when(stockSearchIndex.size()).thenReturn(3);
+
+        assertThatThrownBy(() -> service.run(request().build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(stockSearchIndex, never()).all();
+    }
+
+    private static BacktestRequest.BacktestRequestBuilder request() {
+        return BacktestRequest.builder().strategy("ma_cross");
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.example.stock.service.cache;
+
+import com.example.stock.config.CacheProperties;
+import com.example.stock.model.entity.QuoteVersion;
+import com.example.stock.repository.QuoteVersionRepository;
+import com.example.stock.service.search.StockSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 行情版本取持久化版本号，写入后推进且不回退
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class DataVersionServiceTest {
+
+    private final QuoteVersionRepository repository = mock(QuoteVersionRepository.class);
+
+    private final DataVersionService service =
+            new DataVersionService(mock(StockSearchIndex.class), repository, new CacheProperties());
+
+    @Test
+    void advancesAfterInvalidateAndNeverFallsBack() {
+        when(repository.findById("AAPL")).thenReturn(stamp(3));
+        String first = service.quotes("AAPL").orElseThrow().etag();
+
+        when(repository.findById("AAPL")).thenReturn(stamp(4));
+        assertThat(service.quotes("AAPL").orElseThrow().etag()).isEqualTo(first);
+        service.invalidateQuotes(List.of("AAPL"));
+        String second = service.quotes("AAPL").orElseThrow().etag();
+        assertThat(second).isNotEqualTo(first);
+
+        // 重新加载读到更低的版本或读不到时，沿用已发出的版本
+        when(repository.findById("AAPL")).thenReturn(stamp(2));
+        service.invalidateQuotes(List.of("AAPL"));
+        assertThat(service.quotes("AAPL").orElseThrow().etag()).isEqualTo(second);
+        when(repository.findById("AAPL")).thenReturn(Optional.empty());
+        service.invalidateQuotes(List.of("AAPL"));
+        assertThat(service.quotes("AAPL").orElseThrow().etag()).isEqualTo(second);
+    }
+
+    @Test
+    void cappedAtAvailableVersion() {
+        when(repository.findById("AAPL")).thenReturn(stamp(5));
+        DataVersionService.Version current = service.quotes("AAPL").orElseThrow();
+
+        assertThat(service.quotes("AAPL", 5)).contains(current);
+        assertThat(service.quotes("AAPL", 7)).contains(current);
+        // 数据只包含到版本 4：发出版本 4，不带 Last-Modified
+        DataVersionService.Version behind = service.quotes("AAPL", 4).orElseThrow();
+        assertThat(behind.etag()).isNotEqualTo(current.etag());
+        assertThat(behind.lastModified()).isNegative();
+        assertThat(service.quotes("AAPL", 0)).isEmpty();
+        assertThat(service.quoteVersion("AAPL")).isEqualTo(5);
+    }
+
+    @Test
+    void noVersionWithoutQuotes() {
+        when(repository.findById("MSFT")).thenReturn(Optional.empty());
+
+        assertThat(service.quotes("MSFT")).isEmpty();
+    }
+
+    private static Optional<QuoteVersion> stamp(long version) {
+        return Optional.of(new QuoteVersion("AAPL", version, LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(version)));
+    }
+
+}
@@ -0,0 +1,261 @@
+package com.example.stock.service.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * 测试用的进程内 Redis：按 RESP2 协议实现 TieredCache 用到的命令（GET / SET / SETEX / MGET / DEL / SCAN），
+ * 供 Lettuce 真实连接；沙箱内没有 Redis 服务与 Testcontainers。可切换为所有命令返回错误以模拟故障
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class RespServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+
+    private final List<String> commands = new CopyOnWriteArrayList<>();
+
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+
+    private volatile boolean failing;
+
+    RespServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "resp-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 开启后所有命令返回错误
+     */
+    void failing(boolean failing) {
+        this.failing = failing;
+    }
+
+    /**
+     * 未过期的值
+     */
+    byte[] value(String key) {
+        Entry entry = live(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * 剩余过期时间（毫秒），不存在或未设置过期时为 -1
+     */
+    long ttlMillis(String key) {
+        Entry entry = live(key);
+        return entry == null || entry.expireAt == 0 ? -1 : entry.expireAt - System.currentTimeMillis();
+    }
+
+    /**
+     * 收到的命令名（大写）
+     */
+    List<String> commands() {
+        return commands;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket client : clients) {
+            client.close();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                clients.add(client);
+                Thread handler = new Thread(() -> serve(client), "resp-client");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (client) {
+            InputStream in = new BufferedInputStream(client.getInputStream());
+            OutputStream out = new BufferedOutputStream(client.getOutputStream());
+            List<byte[]> command;
+            while ((command = readCommand(in)) != null) {
+                reply(command, out);
+                // 管道中的后续命令已在缓冲区时继续处理，批量回复
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // 连接关闭
+        }
+    }
+
+    private void reply(List<byte[]> command, OutputStream out) throws IOException {
+        String name = text(command.get(0)).toUpperCase(Locale.ROOT);
+        commands.add(name);
+        if (failing) {
+            error(out, "ERR simulated failure");
+            return;
+        }
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "CLIENT", "SELECT" -> simple(out, "OK");
+            case "GET" -> {
+                Entry entry = live(text(command.get(1)));
+                bulk(out, entry == null ? null : entry.value);
+            }
+            case "SET" -> {
+                long expireAt = 0;
+                for (int i = 3; i + 1 < command.size(); i += 2) {
+                    String option = text(command.get(i)).toUpperCase(Locale.ROOT);
+                    long amount = Long.parseLong(text(command.get(i + 1)));
+                    expireAt = System.currentTimeMillis() + (option.equals("EX") ? amount * 1000 : amount);
+                }
+                data.put(text(command.get(1)), new Entry(command.get(2), expireAt));
+                simple(out, "OK");
+            }
+            case "SETEX" -> {
+                long seconds = Long.parseLong(text(command.get(2)));
+                data.put(text(command.get(1)), new Entry(command.get(3), System.currentTimeMillis() + seconds * 1000));
+                simple(out, "OK");
+            }
+            case "MGET" -> {
+                header(out, '*', command.size() - 1);
+                for (int i = 1; i < command.size(); i++) {
+                    Entry entry = live(text(command.get(i)));
+                    bulk(out, entry == null ? null : entry.value);
+                }
+            }
+            case "DEL" -> {
+                long deleted = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    if (live(text(command.get(i))) != null && data.remove(text(command.get(i))) != null) {
+                        deleted++;
+                    }
+                }
+                header(out, ':', deleted);
+            }
+            case "SCAN" -> {
+                Pattern match = Pattern.compile(".*");
+                for (int i = 2; i + 1 < command.size(); i += 2) {
+                    if (text(command.get(i)).equalsIgnoreCase("MATCH")) {
+                        match = Pattern.compile(Pattern.quote(text(command.get(i + 1))).replace("*", "\\E.*\\Q"));
+                    }
+                }
+                List<String> keys = new ArrayList<>();
+                for (String key : data.keySet()) {
+                    if (match.matcher(key).matches() && live(key) != null) {
+                        keys.add(key);
+                    }
+                }
+                // 一次返回全部匹配的键，游标归零
+                header(out, '*', 2);
+                bulk(out, "0".getBytes(StandardCharsets.UTF_8));
+                header(out, '*', keys.size());
+                for (String key : keys) {
+                    bulk(out, key.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            default -> error(out, "ERR unknown command '" + name + "'");
+        }
+    }
+
+    private Entry live(String key) {
+        Entry entry = data.get(key);
+        if (entry != null && entry.expireAt != 0 && entry.expireAt <= System.currentTimeMillis()) {
+            data.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            return null;
+        }
+        if (type != '*') {
+            throw new IOException("只支持数组形式的命令");
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("参数须为 bulk string");
+            }
+            byte[] arg = in.readNBytes(Integer.parseInt(readLine(in)));
+            readLine(in);
+            args.add(arg);
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c == -1) {
+                throw new IOException("连接已关闭");
+            }
+            line.append((char) c);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static void simple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void error(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void header(OutputStream out, char type, long value) throws IOException {
+        out.write((type + Long.toString(value) + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        header(out, '$', value.length);
+        out.write(value);
+        out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Entry(byte[] value, long expireAt) {
+    }
+
+}
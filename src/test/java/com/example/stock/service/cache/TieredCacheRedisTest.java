@@ -0,0 +1,189 @@
+package com.example.stock.service.cache;
+
+import com.example.stock.config.CacheConfig;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 两级缓存经真实 Redis 连接（Lettuce + 进程内 RESP 服务）的往返、跨实例失效、
+ * 加载中途失效与 Redis 删除失败后的补删
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class TieredCacheRedisTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private RespServer server;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private RedisTemplate<String, byte[]> redisTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new RespServer();
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .commandTimeout(Duration.ofSeconds(2))
+                .build();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", server.port()), clientConfiguration);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new CacheConfig().binaryRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+        connectionFactory.destroy();
+        server.close();
+    }
+
+    @Test
+    void valueRoundTripsThroughRedis() {
+        TieredCache writer = cache(Duration.ofMinutes(1));
+        TieredCache reader = cache(Duration.ofMinutes(1));
+        QuoteBarDTO bar = bar("AAPL", "189.25");
+
+        writer.put("AAPL", bar);
+
+        assertThat(server.value("quotes:AAPL")).isNotNull();
+        assertThat(server.ttlMillis("quotes:AAPL")).isBetween(TTL.toMillis() - 5_000, TTL.toMillis());
+        assertThat(reader.get("AAPL", QuoteBarDTO.class)).isEqualTo(bar);
+        assertThat(reader.stats().l2Hits()).isEqualTo(1);
+        assertThat(reader.stats().redisErrors()).isZero();
+    }
+
+    @Test
+    void batchWriteAndReadUseOneRoundTripEach() {
+        TieredCache writer = cache(Duration.ofMinutes(1));
+        TieredCache reader = cache(Duration.ofMinutes(1));
+
+        writer.putAll(Map.of("AAPL", bar("AAPL", "189.25"), "MSFT", bar("MSFT", "402.10")));
+        Map<Object, Object> found = reader.getAll(List.of("AAPL", "MSFT", "IBM"));
+
+        assertThat(found).containsOnlyKeys("AAPL", "MSFT");
+        assertThat(found.get("MSFT")).isEqualTo(bar("MSFT", "402.10"));
+        assertThat(server.ttlMillis("quotes:MSFT")).isPositive();
+        assertThat(server.commands()).containsOnlyOnce("MGET");
+    }
+
+    @Test
+    void evictionIsSeenByOtherInstance() throws Exception {
+        TieredCache writer = cache(Duration.ofMinutes(1));
+        TieredCache reader = cache(Duration.ofMillis(100));
+        writer.put("AAPL", bar("AAPL", "189.25"));
+        assertThat(reader.get("AAPL", QuoteBarDTO.class)).isNotNull();
+
+        writer.evict("AAPL");
+        assertThat(server.value("quotes:AAPL")).isNull();
+        // 读实例的 L1 在其 TTL 内过期后回源
+        Thread.sleep(200);
+
+        QuoteBarDTO reloaded = reader.get("AAPL", () -> bar("AAPL", "190.00"));
+        assertThat(reloaded.getClose()).isEqualByComparingTo("190.00");
+        assertThat(writer.get("AAPL", QuoteBarDTO.class)).isEqualTo(reloaded);
+    }
+
+    @Test
+    void evictDuringLoadIsNotOverwritten() throws Exception {
+        TieredCache cache = cache(Duration.ofMinutes(1));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<QuoteBarDTO> load = executor.submit(() -> cache.get("AAPL", () -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return bar("AAPL", "189.25");
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        // 加载读到的是旧数据，新数据写入后失效
+        cache.evict("AAPL");
+        release.countDown();
+        assertThat(load.get(5, TimeUnit.SECONDS)).isNotNull();
+
+        assertThat(server.value("quotes:AAPL")).isNull();
+        assertThat(cache.get("AAPL", () -> bar("AAPL", "190.00")).getClose()).isEqualByComparingTo("190.00");
+    }
+
+    @Test
+    void failedRemoteEvictionIsRetried() {
+        TieredCache cache = cache(Duration.ofMinutes(1));
+        TieredCache other = cache(Duration.ofMinutes(1));
+        cache.put("AAPL", bar("AAPL", "189.25"));
+
+        server.failing(true);
+        cache.evict("AAPL");
+        server.failing(false);
+        assertThat(server.value("quotes:AAPL")).isNotNull();
+
+        // 恢复后的下一次 Redis 访问先补删，不会把旧值读回
+        QuoteBarDTO loaded = cache.get("AAPL", () -> bar("AAPL", "190.00"));
+        assertThat(loaded.getClose()).isEqualByComparingTo("190.00");
+        assertThat(other.get("AAPL", QuoteBarDTO.class)).isEqualTo(loaded);
+        assertThat(cache.stats().redisErrors()).isEqualTo(1);
+    }
+
+    @Test
+    void failedClearIsRetried() {
+        TieredCache cache = cache(Duration.ofMinutes(1));
+        cache.putAll(Map.of("AAPL", bar("AAPL", "189.25"), "MSFT", bar("MSFT", "402.10")));
+
+        server.failing(true);
+        cache.clear();
+        server.failing(false);
+
+        assertThat(cache.get("MSFT", QuoteBarDTO.class)).isNull();
+        assertThat(server.value("quotes:AAPL")).isNull();
+        assertThat(server.value("quotes:MSFT")).isNull();
+    }
+
+    private TieredCache cache(Duration localTtl) {
+        return new TieredCache("quotes", QuoteBarDTO.class, TTL, localTtl, 100, redisTemplate, objectMapper,
+                Duration.ZERO);
+    }
+
+    private static QuoteBarDTO bar(String symbol, String close) {
+        BigDecimal price = new BigDecimal(close);
+        return QuoteBarDTO.builder()
+                .symbol(symbol)
+                .date(LocalDate.of(2024, 1, 2))
+                .open(price)
+                .high(price)
+                .low(price)
+                .close(price)
+                .volume(1_000L)
+                .build();
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.example.stock.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 两级缓存的并发加载合并与 Redis 故障降级
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class TieredCacheTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        TieredCache cache = localOnly();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> cache.get("AAPL", () -> {
+                loads.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+                return "value";
+            })));
+        }
+        awaitCollapsed(cache, CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().loads()).isEqualTo(1);
+        assertThat(cache.get("AAPL", () -> "other")).isEqualTo("value");
+    }
+
+    @Test
+    void waitersRethrowLoaderException() throws Exception {
+        TieredCache cache = localOnly();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> cache.<String>get("MISSING", () -> {
+                release.await(5, TimeUnit.SECONDS);
+                throw new IllegalStateException("not found");
+            })));
+        }
+        awaitCollapsed(cache, CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .cause()
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("not found");
+        }
+        assertThat(cache.stats().loadFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisDownFallsBackToLocal() {
+        RedisTemplate<String, byte[]> redis = mock(RedisTemplate.class);
+        ValueOperations<String, byte[]> ops = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(ops);
+        when(ops.get(anyString())).thenThrow(new RedisConnectionFailureException("connection refused"));
+        TieredCache cache = new TieredCache("test", String.class, Duration.ofMinutes(5), Duration.ofMinutes(1),
+                100, redis, new ObjectMapper(), Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("AAPL", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get("AAPL", () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get("MSFT", () -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+
+        // 第一次失败后在重试间隔内不再访问 Redis
+        verify(ops, times(1)).get(anyString());
+        verify(ops, times(0)).set(anyString(), any(), any(Duration.class));
+        TieredCache.Stats stats = cache.stats();
+        assertThat(stats.redisDegraded()).isTrue();
+        assertThat(stats.redisErrors()).isEqualTo(1);
+        assertThat(stats.l1Hits()).isEqualTo(1);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clearDeletesRedisKeys() {
+        RedisTemplate<String, byte[]> redis = mock(RedisTemplate.class);
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn("test:AAPL", "test:MSFT");
+        when(redis.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(redis.delete(any(Collection.class))).thenReturn(2L);
+        TieredCache cache = new TieredCache("test", String.class, Duration.ofMinutes(5), Duration.ofMinutes(1),
+                100, redis, new ObjectMapper(), Duration.ofMinutes(1));
+
+        cache.clear();
+
+        verify(redis).delete(List.of("test:AAPL", "test:MSFT"));
+        verify(cursor).close();
+        assertThat(cache.stats().redisDegraded()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAllReadsLocalMissesWithOneMget() throws Exception {
+        RedisTemplate<String, byte[]> redis = mock(RedisTemplate.class);
+        ValueOperations<String, byte[]> ops = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(ops);
+        ObjectMapper objectMapper = new ObjectMapper();
+        when(ops.multiGet(List.of("test:MSFT", "test:IBM")))
+                .thenReturn(Arrays.asList(objectMapper.writeValueAsBytes("msft"), null));
+        TieredCache cache = new TieredCache("test", String.class, Duration.ofMinutes(5), Duration.ofMinutes(1),
+                100, redis, objectMapper, Duration.ofMinutes(1));
+        cache.putAll(Map.of("AAPL", "aapl"));
+
+        Map<Object, Object> found = cache.getAll(List.of("AAPL", "MSFT", "IBM"));
+
+        assertThat(found).containsExactlyInAnyOrderEntriesOf(Map.of("AAPL", "aapl", "MSFT", "msft"));
+        verify(ops, times(1)).multiGet(any());
+        verify(ops, times(0)).get(anyString());
+        verify(redis, times(1)).executePipelined(any(RedisCallback.class));
+        TieredCache.Stats stats = cache.stats();
+        assertThat(stats.l1Hits()).isEqualTo(1);
+        assertThat(stats.l2Hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        // L2 命中已回填 L1
+        assertThat(cache.getAll(List.of("MSFT"))).containsEntry("MSFT", "msft");
+        verify(ops, times(1)).multiGet(any());
+    }
+
+    private static TieredCache localOnly() {
+        return new TieredCache("test", String.class, Duration.ofMinutes(5), Duration.ofMinutes(1),
+                100, null, new ObjectMapper(), Duration.ofSeconds(30));
+    }
+
+    private static void awaitCollapsed(TieredCache cache, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.stats().collapsed() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.example.stock.service.correlation;
+
+import com.example.stock.service.timeseries.QuoteSeries;
+import com.example.stock.service.timeseries.QuoteSlice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 滚动协方差的增量推进、最后收盘修正与旧序列输入
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class RollingCovarianceTest {
+
+    private static final String[] SYMBOLS = {"AAPL", "IBM", "MSFT", "NVDA"};
+
+    private static final int WINDOW = 20;
+
+    private static final int BLOCK = 2;
+
+    private static final int REBUILD_INTERVAL = 1_000;
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void advancesAndRevisionMatchNaiveComputation() {
+        QuoteSeries[] series = series(40);
+        RollingCovariance matrix = new RollingCovariance(SYMBOLS, WINDOW);
+        assertThat(snapshot(matrix, series, true).computation()).isEqualTo(RollingCovariance.Computation.FULL);
+
+        for (int day = 40; day < 55; day++) {
+            append(series, day);
+            RollingCovariance.Snapshot snapshot = snapshot(matrix, series, true);
+            assertThat(snapshot.computation()).isEqualTo(RollingCovariance.Computation.INCREMENTAL);
+            assertMatches(matrix, series, day);
+        }
+
+        for (int i = 0; i < series.length; i++) {
+            series[i].append(54, 1, 1, 1, 90 + 3 * i, 1);
+        }
+        assertThat(snapshot(matrix, series, true).computation()).isEqualTo(RollingCovariance.Computation.INCREMENTAL);
+        assertMatches(matrix, series, 54);
+        assertThat(snapshot(matrix, series, true).computation()).isEqualTo(RollingCovariance.Computation.CACHED);
+    }
+
+    @Test
+    void staleSeriesDoNotRollBack() {
+        QuoteSeries[] stale = series(40);
+        RollingCovariance matrix = new RollingCovariance(SYMBOLS, WINDOW);
+        snapshot(matrix, stale, false);
+
+        // 模拟历史回补后重新加载的序列：新对象、多一天
+        QuoteSeries[] reloaded = series(41);
+        RollingCovariance.Snapshot latest = snapshot(matrix, reloaded, false);
+        assertThat(latest.computation()).isEqualTo(RollingCovariance.Computation.FULL);
+        assertThat(latest.lastDay()).isEqualTo(40);
+
+        RollingCovariance.Snapshot afterStale = snapshot(matrix, stale, false);
+        assertThat(afterStale.computation()).isEqualTo(RollingCovariance.Computation.CACHED);
+        assertThat(afterStale.lastDay()).isEqualTo(40);
+        assertThat(afterStale.firstDay()).isEqualTo(latest.firstDay());
+        assertThat(afterStale.values()).containsExactly(latest.values());
+    }
+
+    private RollingCovariance.Snapshot snapshot(RollingCovariance matrix, QuoteSeries[] series, boolean covariance) {
+        return matrix.catchUp(series, pool, BLOCK, REBUILD_INTERVAL, covariance, 6);
+    }
+
+    private void assertMatches(RollingCovariance matrix, QuoteSeries[] series, int lastDay) {
+        double[][] returns = naiveReturns(series);
+        RollingCovariance.Snapshot covariance = snapshot(matrix, series, true);
+        RollingCovariance.Snapshot correlation = snapshot(matrix, series, false);
+        assertThat(covariance.lastDay()).isEqualTo(lastDay);
+        assertThat(covariance.firstDay()).isEqualTo(lastDay - WINDOW + 1);
+        assertThat(correlation.firstDay()).isEqualTo(covariance.firstDay());
+
+        int c = 0;
+        int r = 0;
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            for (int j = i; j < SYMBOLS.length; j++) {
+                double expected = naiveCovariance(returns[i], returns[j]);
+                assertThat((double) covariance.values()[c++])
+                        .isCloseTo(expected, within(1e-7 + Math.abs(expected) * 1e-5));
+                if (j > i) {
+                    double pearson = expected / Math.sqrt(naiveCovariance(returns[i], returns[i])
+                            * naiveCovariance(returns[j], returns[j]));
+                    assertThat((double) correlation.values()[r++]).isCloseTo(pearson, within(1e-5));
+                }
+            }
+        }
+    }
+
+    /**
+     * 所有序列日期相同，直接取最后 window + 1 个收盘价
+     */
+    private static double[][] naiveReturns(QuoteSeries[] series) {
+        double[][] returns = new double[series.length][WINDOW];
+        for (int i = 0; i < series.length; i++) {
+            QuoteSlice slice = series[i].slice();
+            int offset = slice.size() - WINDOW - 1;
+            for (int k = 0; k < WINDOW; k++) {
+                returns[i][k] = slice.close(offset + k + 1) / slice.close(offset + k) - 1;
+            }
+        }
+        return returns;
+    }
+
+    private static double naiveCovariance(double[] x, double[] y) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int k = 0; k < x.length; k++) {
+            meanX += x[k];
+            meanY += y[k];
+        }
+        meanX /= x.length;
+        meanY /= y.length;
+        double sum = 0;
+        for (int k = 0; k < x.length; k++) {
+            sum += (x[k] - meanX) * (y[k] - meanY);
+        }
+        return sum / (x.length - 1);
+    }
+
+    private static QuoteSeries[] series(int days) {
+        QuoteSeries[] series = new QuoteSeries[SYMBOLS.length];
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            series[i] = new QuoteSeries(SYMBOLS[i]);
+        }
+        for (int day = 0; day < days; day++) {
+            append(series, day);
+        }
+        return series;
+    }
+
+    private static void append(QuoteSeries[] series, int day) {
+        for (int i = 0; i < series.length; i++) {
+            double close = 100 + 5 * Math.sin(day * (i + 1) * 0.7) + i * Math.cos(day * 0.3);
+            series[i].append(day, close, close, close, close, 1);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.example.stock.service.export;
+
+import com.example.stock.config.ExportProperties;
+import com.example.stock.model.enums.ExportFormat;
+import com.example.stock.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 行情导出的参数校验与并发许可
+ *
+ * @author Toom
+ * @version 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+class QuoteExportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StockService stockService;
+
+    private QuoteExportService service;
+
+    @BeforeEach
+    void setUp() {
+        ExportProperties properties = new ExportProperties();
+        properties.setMaxSymbols(2);
+        properties.setMaxConcurrent(1);
+        service = new QuoteExportService(jdbcTemplate, transactionManager, stockService, properties);
+    }
+
+    @Test
+    void rejectsTooManySymbolsBeforeResolving() {
+        assertThatThrownBy(() -> service.prepare("AAPL,MSFT,IBM", null, null, ExportFormat.CSV, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(stockService, never()).resolveSymbol(anyString());
+    }
+
+    @Test
+    void limitsConcurrentExports() {
+        when(stockService.resolveSymbol(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        QuoteExportService.Export first = service.prepare("AAPL, AAPL", null, null, ExportFormat.CSV, false);
+
+        assertThatThrownBy(() -> service.prepare("MSFT", null, null, ExportFormat.CSV, false))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        // 重复释放只归还一次许可
+        first.close();
+        first.close();
+        QuoteExportService.Export second = service.prepare("MSFT", null, null, ExportFormat.CSV, false);
+        assertThat(second.getFilename()).endsWith(".csv");
+        assertThatThrownBy(() -> service.prepare("IBM", null, null, ExportFormat.CSV, false))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+}
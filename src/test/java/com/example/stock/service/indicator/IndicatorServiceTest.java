@@ -0,0 +1,89 @@
+package com.example.stock.service.indicator;
+
+import com.example.stock.config.IndicatorProperties;
+import com.example.stock.service.timeseries.QuoteSeries;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 指标缓存的增量推进、最后一根 K 线修正与容量上限
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class IndicatorServiceTest {
+
+    private final IndicatorService service = new IndicatorService(null, new IndicatorProperties());
+
+    private final IndicatorSpec ma3 = IndicatorSpec.of(IndicatorType.MA, 3);
+
+    @Test
+    void revisionDoesNotChangeIssuedSeries() {
+        QuoteSeries series = new QuoteSeries("AAPL");
+        for (int day = 0; day < 5; day++) {
+            append(series, day, 10 + day);
+        }
+        IndicatorSeries before = service.get(series, ma3);
+        assertThat(before.last()).isEqualTo(13.0);
+
+        append(series, 4, 17);
+        IndicatorSeries after = service.get(series, ma3);
+
+        assertThat(after.last()).isEqualTo(14.0);
+        assertThat(before.last()).isEqualTo(13.0);
+        assertThat(before.toArray()).containsExactly(Double.NaN, Double.NaN, 11.0, 12.0, 13.0);
+    }
+
+    @Test
+    void appendMatchesFullRecompute() {
+        QuoteSeries series = new QuoteSeries("MSFT");
+        for (int day = 0; day < 50; day++) {
+            append(series, day, 100 + Math.sin(day));
+            service.get(series, ma3);
+        }
+        double[] closes = new double[50];
+        for (int day = 0; day < 50; day++) {
+            closes[day] = 100 + Math.sin(day);
+        }
+
+        assertThat(service.get(series, ma3).toArray())
+                .containsExactly(Indicators.compute(ma3, closes, 0, closes.length));
+    }
+
+    @Test
+    void toArrayReturnsCopy() {
+        QuoteSeries series = new QuoteSeries("IBM");
+        for (int day = 0; day < 3; day++) {
+            append(series, day, 1);
+        }
+        IndicatorSeries indicator = service.get(series, ma3);
+        indicator.toArray()[2] = 99;
+
+        assertThat(indicator.get(2)).isEqualTo(1.0);
+        assertThat(indicator.toArray(1, 3)).containsExactly(Double.NaN, 1.0);
+    }
+
+    @Test
+    void cacheIsBounded() {
+        IndicatorProperties properties = new IndicatorProperties();
+        properties.setCacheMaxEntries(10);
+        IndicatorService bounded = new IndicatorService(null, properties);
+        QuoteSeries series = new QuoteSeries("AAPL");
+        for (int day = 0; day < 5; day++) {
+            append(series, day, 10 + day);
+        }
+
+        for (int period = 1; period <= 100; period++) {
+            bounded.get(series, IndicatorSpec.of(IndicatorType.MA, period));
+        }
+
+        assertThat(bounded.cacheSize()).isLessThanOrEqualTo(10);
+        assertThat(bounded.get(series, ma3).last()).isEqualTo(13.0);
+    }
+
+    private static void append(QuoteSeries series, int day, double close) {
+        series.append(day, close, close, close, close, 1);
+    }
+
+}
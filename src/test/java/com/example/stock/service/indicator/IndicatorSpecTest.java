@@ -0,0 +1,65 @@
+package com.example.stock.service.indicator;
+
+import com.example.stock.config.IndicatorProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 指标规格解析与周期校验
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class IndicatorSpecTest {
+
+    private final IndicatorSpecParser parser = new IndicatorSpecParser(new IndicatorProperties());
+
+    @Test
+    void parseFillsDefaults() {
+        assertThat(parser.parse("macd").toString()).isEqualTo("macd(12,26,9)");
+        assertThat(parser.parse("boll_upper(10)").toString()).isEqualTo("boll_upper(10,2)");
+        assertThat(parser.parseList("ma(5), rsi, macd(5,10,3)")).hasSize(3);
+    }
+
+    @Test
+    void rejectsOutOfRangePeriods() {
+        int max = parser.getPeriods().maxPeriod();
+        assertThat(parser.parse("ma(" + max + ")").toString()).isEqualTo("ma(" + max + ")");
+
+        assertThatThrownBy(() -> parser.parse("ma(2000000000)"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(max));
+        assertThatThrownBy(() -> parser.parse("ma(" + (max + 1) + ")"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parser.parse("ema(0)")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parser.parse("rsi(-3)")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parser.parse("macd(12,26,1e12)")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parser.parse("boll_mid(NaN)")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void configuredLimitAppliesOnlyToItsParser() {
+        IndicatorProperties properties = new IndicatorProperties();
+        properties.setMaxPeriod(50);
+        IndicatorSpecParser limited = new IndicatorSpecParser(properties);
+
+        assertThatThrownBy(() -> limited.parse("ma(60)"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("50");
+        // 其他解析器与内置指标不受影响
+        assertThat(parser.parse("ma(60)")).isEqualTo(IndicatorSpec.of(IndicatorType.MA, 60));
+    }
+
+    @Test
+    void rejectsFractionalPeriods() {
+        assertThatThrownBy(() -> parser.parse("ma(5.5)"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("5.5");
+        // 倍数不是周期，允许小数
+        assertThat(parser.parse("boll_lower(20,2.5)").toString()).isEqualTo("boll_lower(20,2.5)");
+        assertThatThrownBy(() -> parser.parse("boll_lower(20,-1)")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.example.stock.service.partition;
+
+import com.example.stock.config.PartitionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分区管理：不建默认分区、建分区持锁并沿用其他实例的结果、移除旧版本的默认分区
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class QuotePartitionManagerTest {
+
+    private static final Pattern CREATED = Pattern.compile(
+            "(?:CREATE TABLE|ATTACH PARTITION) (\\w+)(?: PARTITION OF daily_quotes)? (FOR VALUES FROM .*)");
+
+    private static final int YEAR = LocalDate.now().getYear();
+
+    /**
+     * 模拟的 pg_inherits：分区名 -> 范围
+     */
+    private final Map<String, String> partitions = new ConcurrentHashMap<>();
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    private final List<Date> defaultBuckets = new ArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class, this::database);
+
+    private final PartitionProperties properties = new PartitionProperties();
+
+    private boolean defaultExists;
+
+    private QuotePartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setPremake(1);
+        manager = new QuotePartitionManager(jdbcTemplate, mock(PlatformTransactionManager.class), properties);
+    }
+
+    @Test
+    void startupCreatesRangesWithoutDefault() {
+        manager.initialize();
+
+        assertThat(manager.isActive()).isTrue();
+        assertThat(partitions).containsOnlyKeys("daily_quotes_y" + YEAR, "daily_quotes_y" + (YEAR + 1));
+        assertThat(statements).noneMatch(sql -> sql.contains("DEFAULT"));
+        assertThat(statements.get(0)).contains("pg_advisory_xact_lock");
+        assertThat(statements.get(1)).startsWith("CREATE TABLE daily_quotes_y" + YEAR + " PARTITION OF daily_quotes");
+    }
+
+    @Test
+    void partitionCreatedElsewhereIsReused() {
+        manager.initialize();
+        statements.clear();
+        // 另一个实例已建好后年的分区
+        partition("daily_quotes_y" + (YEAR + 2), LocalDate.of(YEAR + 2, 1, 1), LocalDate.of(YEAR + 3, 1, 1));
+
+        manager.ensureCovering(List.of(LocalDate.of(YEAR + 2, 6, 1)));
+
+        assertThat(statements).singleElement().asString().contains("pg_advisory_xact_lock");
+        assertThat(manager.getRanges()).containsEntry(LocalDate.of(YEAR + 2, 1, 1), LocalDate.of(YEAR + 3, 1, 1));
+        manager.ensureCovering(List.of(LocalDate.of(YEAR + 2, 7, 1)));
+        assertThat(statements).hasSize(1);
+    }
+
+    @Test
+    void legacyDefaultIsDrainedAndDropped() {
+        defaultExists = true;
+        defaultBuckets.add(Date.valueOf("2020-01-01"));
+
+        manager.initialize();
+
+        assertThat(defaultExists).isFalse();
+        assertThat(partitions).containsKey("daily_quotes_y2020");
+        int lock = statements.indexOf("LOCK TABLE daily_quotes IN ACCESS EXCLUSIVE MODE");
+        int drop = statements.indexOf("DROP TABLE daily_quotes_default");
+        assertThat(lock).isPositive();
+        assertThat(statements.subList(lock, drop)).anyMatch(sql -> sql.startsWith("WITH moved AS"));
+        assertThat(statements.subList(drop, statements.size()))
+                .anyMatch(sql -> sql.startsWith("CREATE TABLE daily_quotes_y" + YEAR + " PARTITION OF"));
+    }
+
+    private void partition(String name, LocalDate from, LocalDate to) {
+        partitions.put(name, "FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    /**
+     * 按方法名模拟 JdbcTemplate：记录 DDL / 加锁语句，维护分区与默认分区的存在状态
+     */
+    private Object database(InvocationOnMock invocation) throws SQLException {
+        Object[] args = invocation.getArguments();
+        switch (invocation.getMethod().getName()) {
+            case "execute" -> {
+                String sql = (String) args[0];
+                statements.add(sql);
+                Matcher matcher = CREATED.matcher(sql);
+                if (matcher.find()) {
+                    partitions.put(matcher.group(1), matcher.group(2));
+                } else if (sql.equals("DROP TABLE daily_quotes_default")) {
+                    defaultExists = false;
+                }
+                return null;
+            }
+            case "update" -> {
+                statements.add((String) args[0]);
+                return 0;
+            }
+            case "queryForList" -> {
+                if (args.length == 1) {
+                    statements.add((String) args[0]);
+                    return List.of();
+                }
+                if (args[1] == Date.class) {
+                    return defaultBuckets;
+                }
+                if ("daily_quotes".equals(args[2])) {
+                    return List.of("p");
+                }
+                return defaultExists ? List.of("r") : List.of();
+            }
+            case "query" -> {
+                RowCallbackHandler handler = (RowCallbackHandler) args[1];
+                for (Map.Entry<String, String> partition : partitions.entrySet()) {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getString(1)).thenReturn(partition.getKey());
+                    when(rs.getString(2)).thenReturn(partition.getValue());
+                    handler.processRow(rs);
+                }
+                return null;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.example.stock.service.search;
+
+import com.example.stock.model.entity.Stock;
+import com.example.stock.repository.StockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 搜索索引重建期间的增量修改不丢失，读取数据库时查询不被阻塞
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class StockSearchIndexTest {
+
+    private final StockRepository stockRepository = mock(StockRepository.class);
+
+    private final StockSearchIndex index = new StockSearchIndex(stockRepository);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayed() throws Exception {
+        when(stockRepository.findAll()).thenReturn(List.of(stock("AAPL", "Technology"), stock("IBM", "Technology")));
+        index.rebuild();
+
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // 快照读取于修改之前：仍含 IBM、不含 NVDA，AAPL 仍为旧行业
+        when(stockRepository.findAll()).thenAnswer(invocation -> {
+            reading.countDown();
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            return List.of(stock("AAPL", "Technology"), stock("IBM", "Technology"));
+        });
+        Future<?> rebuild = executor.submit(index::rebuild);
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        index.upsert(stock("NVDA", "Technology"));
+        index.upsert(stock("AAPL", "Consumer"));
+        index.remove("IBM");
+        assertThat(index.search("nvd", 10)).extracting(StockSearchIndex.Entry::getSymbol).containsExactly("NVDA");
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        assertThat(index.findBySymbol("NVDA")).isPresent();
+        assertThat(index.findBySymbol("IBM")).isEmpty();
+        assertThat(index.findBySymbol("AAPL")).get().extracting(StockSearchIndex.Entry::getSector).isEqualTo("Consumer");
+        assertThat(index.countBySector("Technology")).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void failedRebuildKeepsIndexAndStopsRecording() {
+        when(stockRepository.findAll()).thenReturn(List.of(stock("AAPL", "Technology")));
+        index.rebuild();
+        when(stockRepository.findAll()).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(index::rebuild).hasMessage("db down");
+        index.upsert(stock("MSFT", "Technology"));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.isReady()).isTrue();
+    }
+
+    private static Stock stock(String symbol, String sector) {
+        return Stock.builder().symbol(symbol).name(symbol + " Inc").exchange("NASDAQ").sector(sector).build();
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.example.stock.service.sector;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 行业增量统计：修正后的中位数与均值、移出成员、跨行业迁移、切换交易日
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class SectorAggregateTest {
+
+    private static final LocalDate DAY1 = LocalDate.of(2024, 1, 2);
+
+    private static final LocalDate DAY2 = LocalDate.of(2024, 1, 3);
+
+    @Test
+    void incrementalStatsMatchNaiveAfterCorrections() {
+        Random random = new Random(7);
+        SectorAggregate aggregate = new SectorAggregate();
+        Map<String, double[]> closes = new HashMap<>();
+        for (int i = 0; i < 41; i++) {
+            String symbol = "S" + i;
+            double prev = 50 + random.nextInt(50);
+            double close = prev * (1 + (random.nextInt(21) - 10) / 100.0);
+            aggregate.bar(symbol, DAY1, prev, 100);
+            aggregate.bar(symbol, DAY2, close, 100 + i);
+            closes.put(symbol, new double[]{prev, close, 100 + i});
+        }
+        // 同一交易日的修正先撤销旧贡献
+        for (int i = 0; i < 41; i += 3) {
+            String symbol = "S" + i;
+            double[] c = closes.get(symbol);
+            c[1] = c[0] * (1 + (random.nextInt(21) - 10) / 100.0);
+            c[2] = 500;
+            aggregate.bar(symbol, DAY2, c[1], 500);
+        }
+        aggregate.removeMember("S0");
+        closes.remove("S0");
+
+        assertMatches(aggregate.snapshot(5), closes);
+    }
+
+    @Test
+    void removedMemberMovesWithItsDay() {
+        SectorAggregate technology = new SectorAggregate();
+        SectorAggregate consumer = new SectorAggregate();
+        technology.bar("AAPL", DAY1, 100, 10);
+        technology.bar("AAPL", DAY2, 110, 10);
+        technology.bar("MSFT", DAY1, 100, 10);
+        technology.bar("MSFT", DAY2, 95, 10);
+        consumer.bar("KO", DAY1, 60, 10);
+        consumer.bar("KO", DAY2, 60, 10);
+
+        SymbolDay moved = technology.removeMember("AAPL");
+        consumer.addMember(moved);
+
+        SectorAggregate.Snapshot left = technology.snapshot(5);
+        assertThat(left.reported()).isEqualTo(1);
+        assertThat(left.advancers()).isZero();
+        assertThat(left.decliners()).isEqualTo(1);
+        assertThat(left.topGainers()).isEmpty();
+        SectorAggregate.Snapshot joined = consumer.snapshot(5);
+        assertThat(joined.reported()).isEqualTo(2);
+        assertThat(joined.advancers()).isEqualTo(1);
+        assertThat(joined.unchanged()).isEqualTo(1);
+        assertThat(joined.medianReturn()).isCloseTo(0.05, within(1e-12));
+        assertThat(joined.topGainers()).extracting(SectorAggregate.Move::symbol).containsExactly("AAPL");
+        assertThat(technology.removeMember("AAPL")).isNull();
+    }
+
+    @Test
+    void newerTradingDayRestartsStats() {
+        SectorAggregate aggregate = new SectorAggregate();
+        aggregate.bar("AAPL", DAY1, 100, 10);
+        aggregate.bar("AAPL", DAY2, 110, 10);
+        aggregate.bar("MSFT", DAY1, 100, 10);
+        aggregate.bar("MSFT", DAY2, 90, 10);
+
+        LocalDate day3 = DAY2.plusDays(1);
+        aggregate.bar("AAPL", day3, 121, 20);
+
+        SectorAggregate.Snapshot snapshot = aggregate.snapshot(5);
+        assertThat(snapshot.date()).isEqualTo(day3);
+        assertThat(snapshot.reported()).isEqualTo(1);
+        assertThat(snapshot.averageReturn()).isCloseTo(0.1, within(1e-12));
+        assertThat(snapshot.totalVolume()).isEqualTo(20);
+
+        aggregate.bar("MSFT", day3, 90, 10);
+        assertThat(aggregate.snapshot(5).reported()).isEqualTo(2);
+        assertThat(aggregate.snapshot(5).medianReturn()).isCloseTo(0.05, within(1e-12));
+    }
+
+    private static void assertMatches(SectorAggregate.Snapshot snapshot, Map<String, double[]> closes) {
+        List<Double> returns = new ArrayList<>();
+        double weighted = 0;
+        long volume = 0;
+        int advancers = 0;
+        for (double[] c : closes.values()) {
+            double r = c[1] / c[0] - 1;
+            returns.add(r);
+            weighted += r * c[2];
+            volume += (long) c[2];
+            if (r > 0) {
+                advancers++;
+            }
+        }
+        returns.sort(Double::compare);
+        int n = returns.size();
+        double median = (returns.get((n - 1) / 2) + returns.get(n / 2)) / 2;
+        double average = returns.stream().mapToDouble(Double::doubleValue).sum() / n;
+
+        assertThat(snapshot.reported()).isEqualTo(n);
+        assertThat(snapshot.advancers()).isEqualTo(advancers);
+        assertThat(snapshot.medianReturn()).isCloseTo(median, within(1e-12));
+        assertThat(snapshot.averageReturn()).isCloseTo(average, within(1e-12));
+        assertThat(snapshot.volumeWeightedReturn()).isCloseTo(weighted / volume, within(1e-12));
+        assertThat(snapshot.totalVolume()).isEqualTo(volume);
+        assertThat(snapshot.topGainers()).hasSizeLessThanOrEqualTo(5)
+                .extracting(SectorAggregate.Move::dailyReturn)
+                .isSortedAccordingTo((a, b) -> Double.compare(b, a));
+        if (!snapshot.topGainers().isEmpty()) {
+            assertThat(snapshot.topGainers().get(0).dailyReturn()).isEqualTo(returns.get(n - 1));
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.stock.service.sector;
+
+import com.example.stock.config.SectorProperties;
+import com.example.stock.event.QuotesIngestedEvent;
+import com.example.stock.event.StockSavedEvent;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.model.dto.SectorStatsDTO;
+import com.example.stock.model.entity.Stock;
+import com.example.stock.service.search.StockSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 行业统计：暂无行业的股票的 K 线不丢失，查到行业或行业变更后随之迁移
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class SectorStatsServiceTest {
+
+    private final StockSearchIndex stockSearchIndex = mock(StockSearchIndex.class);
+
+    private final SectorStatsService service =
+            new SectorStatsService(mock(JdbcTemplate.class), stockSearchIndex, new SectorProperties());
+
+    @BeforeEach
+    void setUp() {
+        StockSearchIndex.Entry technology = entry("Technology");
+        when(stockSearchIndex.findBySector(eq("Technology"), eq(0), eq(1))).thenReturn(List.of(technology));
+        when(stockSearchIndex.countBySector("Technology")).thenReturn(1);
+        when(stockSearchIndex.findBySymbol(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void barsBeforeSectorAssignmentMoveWithTheStock() {
+        ingest(bar("NVDA", 2, "100"), bar("NVDA", 3, "104"));
+        assertThat(stats().getReported()).isZero();
+
+        service.onStockSaved(new StockSavedEvent(Stock.builder().symbol("NVDA").name("Nvidia")
+                .sector("Technology").build()));
+
+        SectorStatsDTO stats = stats();
+        assertThat(stats.getReported()).isEqualTo(1);
+        assertThat(stats.getAdvancers()).isEqualTo(1);
+        assertThat(stats.getAverageReturn()).isEqualByComparingTo("4.00");
+    }
+
+    @Test
+    void sectorFoundOnLaterBarKeepsEarlierBar() {
+        ingest(bar("NVDA", 2, "100"));
+        // 搜索索引稍后才有该股票（如启动时索引尚未构建完成）
+        StockSearchIndex.Entry nvda = entry("Technology");
+        when(stockSearchIndex.findBySymbol("NVDA")).thenReturn(Optional.of(nvda));
+
+        ingest(bar("NVDA", 3, "95"));
+
+        SectorStatsDTO stats = stats();
+        assertThat(stats.getReported()).isEqualTo(1);
+        assertThat(stats.getDecliners()).isEqualTo(1);
+        assertThat(stats.getMedianReturn()).isEqualByComparingTo("-5.00");
+    }
+
+    private SectorStatsDTO stats() {
+        return service.getStats("Technology", null).orElseThrow();
+    }
+
+    private void ingest(QuoteBarDTO... bars) {
+        service.onQuotesIngested(new QuotesIngestedEvent(List.of(bars), Map.of()));
+    }
+
+    private static StockSearchIndex.Entry entry(String sector) {
+        StockSearchIndex.Entry entry = mock(StockSearchIndex.Entry.class);
+        when(entry.getSector()).thenReturn(sector);
+        return entry;
+    }
+
+    private static QuoteBarDTO bar(String symbol, int day, String close) {
+        BigDecimal price = new BigDecimal(close);
+        return QuoteBarDTO.builder()
+                .symbol(symbol)
+                .date(LocalDate.of(2024, 1, day))
+                .open(price)
+                .high(price)
+                .low(price)
+                .close(price)
+                .volume(1_000L)
+                .build();
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.stock.service.snapshot;
+
+import com.example.stock.config.SnapshotProperties;
+import com.example.stock.service.partition.QuotePartitionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 快照导入：完成标记、未完成导入的清空重导、导入锁
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class SnapshotLoaderTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final SnapshotProperties properties = new SnapshotProperties();
+
+    private SnapshotLoader loader;
+
+    @BeforeEach
+    void setUp(@TempDir Path directory) throws IOException {
+        properties.setEnabled(true);
+        properties.setStocksLocation(gzip(directory.resolve("stocks.csv.gz"),
+                "symbol,name,exchange,sector", "AAPL,Apple,NASDAQ,Technology", "MSFT,Microsoft,NASDAQ,"));
+        properties.setQuotesLocation(gzip(directory.resolve("quotes.csv.gz"),
+                "symbol,date,open,high,low,close,volume,adj_close",
+                "AAPL,2024-01-02,1,2,0.5,1.5,100,",
+                "AAPL,2024-01-03,1,2,0.5,1.5,100,1.5",
+                "MSFT,2024-01-02,1,2,0.5,1.5,100,"));
+        properties.setParallelism(2);
+        properties.setBatchSize(2);
+        loader = new SnapshotLoader(jdbcTemplate, mock(PlatformTransactionManager.class),
+                new DefaultResourceLoader(), properties, mock(QuotePartitionManager.class));
+    }
+
+    @Test
+    void freshLoadMarksCompletedWithoutTruncate() {
+        seedStatus();
+
+        SnapshotLoader.Report report = loader.load();
+
+        assertThat(report.stocks()).isEqualTo(2);
+        assertThat(report.quotes()).isEqualTo(3);
+        verify(jdbcTemplate, never()).execute(startsWith("TRUNCATE"));
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO data_seeds"), eq("snapshot"), eq("STARTED"), any());
+        order.verify(jdbcTemplate).update(startsWith("UPDATE data_seeds"), eq("COMPLETED"), any(), eq("snapshot"));
+    }
+
+    @Test
+    void startedSeedIsClearedBeforeReload() {
+        seedStatus("STARTED");
+
+        loader.load();
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute(startsWith("TRUNCATE"));
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO data_seeds"), eq("snapshot"), eq("STARTED"), any());
+        order.verify(jdbcTemplate).update(startsWith("UPDATE data_seeds"), eq("COMPLETED"), any(), eq("snapshot"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedBatchLeavesStarted() {
+        seedStatus();
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO daily_quotes"), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenThrow(new IllegalStateException("disk full"));
+
+        assertThatThrownBy(() -> loader.load()).isInstanceOf(IllegalStateException.class);
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO data_seeds"), eq("snapshot"), eq("STARTED"), any());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE data_seeds"), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void seedLockIsReleasedWhenLoadFails() throws Exception {
+        List<String> statements = new CopyOnWriteArrayList<>();
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.execute(anyString())).thenAnswer(invocation -> statements.add(invocation.getArgument(0)));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+
+        assertThatThrownBy(() -> loader.withSeedLock(() -> {
+            statements.add("load");
+            throw new IllegalStateException("disk full");
+        })).hasMessage("disk full");
+
+        assertThat(statements).hasSize(3);
+        assertThat(statements.get(0)).contains("pg_advisory_lock");
+        assertThat(statements.get(1)).isEqualTo("load");
+        assertThat(statements.get(2)).contains("pg_advisory_unlock");
+    }
+
+    private void seedStatus(String... status) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT status FROM data_seeds"), eq(String.class), any()))
+                .thenReturn(List.of(status));
+    }
+
+    private static String gzip(Path file, String... lines) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return file.toUri().toString();
+    }
+
+}
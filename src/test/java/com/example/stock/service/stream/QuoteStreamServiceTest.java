@@ -0,0 +1,218 @@
+package com.example.stock.service.stream;
+
+import com.example.stock.config.StreamProperties;
+import com.example.stock.model.dto.PriceTickDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 实时报价推送：订阅首帧、退订停止轮询、慢消费者合并、挂载期间关闭不泄漏，
+ * 以及慢连接超时断开不影响其他订阅者
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class QuoteStreamServiceTest {
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    private final List<String> released = new CopyOnWriteArrayList<>();
+
+    private QuoteStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        StreamProperties properties = new StreamProperties();
+        properties.setSenderThreads(1);
+        properties.setSendTimeoutMs(200);
+        properties.setHeartbeatIntervalMs(0);
+        properties.setPollIntervalMs(60_000);
+        PriceFeed silentFeed = new PriceFeed() {
+            @Override
+            public String getSource() {
+                return "test";
+            }
+
+            @Override
+            public PriceTickDTO fetch(String symbol) {
+                return null;
+            }
+
+            @Override
+            public void release(String symbol) {
+                released.add(symbol);
+            }
+        };
+        service = new QuoteStreamService(silentFeed, properties, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void subscriberGetsLatestQuoteAndCancelStopsPolling() throws Exception {
+        Recorder first = new Recorder();
+        QuoteStreamService.Subscription a = service.subscribe(List.of("AAPL"), first);
+        PriceTickDTO published = tick("AAPL", 1);
+        service.publish(published);
+        first.await(1);
+
+        Recorder second = new Recorder();
+        QuoteStreamService.Subscription b = service.subscribe(List.of("AAPL", "MSFT"), second);
+        second.await(1);
+
+        assertThat(second.sequences).containsExactly(1L);
+        // 广播的是副本，调用方的对象不被改写
+        assertThat(published.getSequence()).isZero();
+        assertThat(service.getStats().getTopics()).isEqualTo(2);
+
+        a.cancel();
+        // AAPL 仍有订阅者，继续轮询
+        assertThat(released).isEmpty();
+        assertThat(service.getStats().getTopics()).isEqualTo(2);
+        b.cancel();
+        b.cancel();
+        assertThat(released).containsExactlyInAnyOrder("AAPL", "MSFT");
+        assertThat(service.getStats().getTopics()).isZero();
+        assertThat(service.getStats().getSubscribers()).isZero();
+    }
+
+    @Test
+    void slowSubscriberReceivesOnlyLatestQuote() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        service.subscribe(List.of("AAPL"), (tick, json) -> {
+            received.add(tick.getSequence());
+            blocked.countDown();
+            unblock.await(5, TimeUnit.SECONDS);
+            delivered.countDown();
+        });
+        service.publish(tick("AAPL", 1));
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 2; i <= 4; i++) {
+            service.publish(tick("AAPL", i));
+        }
+        unblock.countDown();
+
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).containsExactly(1L, 4L);
+        assertThat(service.getStats().getConflated()).isEqualTo(2);
+    }
+
+    @Test
+    void subscriberClosedDuringAttachLeavesNoTopics() throws Exception {
+        Recorder holder = new Recorder();
+        service.subscribe(List.of("AAPL"), holder);
+        service.publish(tick("AAPL", 1));
+        holder.await(1);
+
+        // 首帧推送失败即关闭订阅，已挂上的其他股票也要摘除并停止轮询
+        CountDownLatch closed = new CountDownLatch(1);
+        service.subscribe(List.of("AAPL", "MSFT", "IBM", "NVDA"), new QuoteSink() {
+            @Override
+            public void send(PriceTickDTO tick, String json) throws Exception {
+                throw new IOException("broken pipe");
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        });
+
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.getStats().getTopics()).isEqualTo(1);
+        assertThat(service.getStats().getSubscribers()).isEqualTo(1);
+        assertThat(released).containsExactlyInAnyOrder("MSFT", "IBM", "NVDA");
+        assertThat(service.getStats().getSendFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void stalledSubscriberIsDisconnectedAndOthersKeepReceiving() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        service.subscribe(List.of("AAPL"), new QuoteSink() {
+            @Override
+            public void send(PriceTickDTO tick, String json) throws Exception {
+                blocked.countDown();
+                unblock.await(10, TimeUnit.SECONDS);
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        });
+        service.publish(tick("AAPL", 1));
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 唯一的发送线程被阻塞，超时后由临时线程继续为其他订阅者推送
+        List<Long> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        service.subscribe(List.of("MSFT"), (tick, json) -> {
+            received.add(tick.getSequence());
+            delivered.countDown();
+        });
+        service.publish(tick("MSFT", 2));
+
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.getStats().getSendStalls()).isEqualTo(1);
+        assertThat(service.getStats().getSubscribers()).isEqualTo(1);
+        assertThat(closed.getCount()).isEqualTo(1);
+
+        // 阻塞的推送返回后关闭连接
+        unblock.countDown();
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).containsExactly(1L);
+        assertThat(service.getStats().getSendFailures()).isZero();
+    }
+
+    /**
+     * 记录收到的 sequence，可等待收到指定条数
+     */
+    private static final class Recorder implements QuoteSink {
+
+        private final List<Long> sequences = new CopyOnWriteArrayList<>();
+
+        @Override
+        public synchronized void send(PriceTickDTO tick, String json) {
+            sequences.add(tick.getSequence());
+            notifyAll();
+        }
+
+        private synchronized void await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (sequences.size() < count && System.currentTimeMillis() < deadline) {
+                wait(100);
+            }
+            assertThat(sequences).hasSizeGreaterThanOrEqualTo(count);
+        }
+
+    }
+
+    private static PriceTickDTO tick(String symbol, long timestamp) {
+        PriceTickDTO tick = new PriceTickDTO();
+        tick.setSymbol(symbol);
+        tick.setPrice(BigDecimal.TEN);
+        tick.setTimestamp(timestamp);
+        return tick;
+    }
+
+}
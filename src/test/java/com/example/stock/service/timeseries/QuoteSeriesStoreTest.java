@@ -0,0 +1,239 @@
+package com.example.stock.service.timeseries;
+
+import com.example.stock.config.TimeSeriesProperties;
+import com.example.stock.event.QuotesIngestedEvent;
+import com.example.stock.model.dto.QuoteBarDTO;
+import com.example.stock.service.cache.DataVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 列式序列仓库：加载与追加并发、文件落后于回补、落盘失败重试、按行情版本追赶
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class QuoteSeriesStoreTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final DataVersionService dataVersionService = mock(DataVersionService.class);
+
+    private final TimeSeriesProperties properties = new TimeSeriesProperties();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void appendDuringLoadIsNotLost() throws Exception {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(rows(querying, release, 0, 1, 2, 3, 4))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        QuoteSeriesStore store = store();
+
+        Future<QuoteSeries> load = executor.submit(() -> store.getOrLoad("AAPL"));
+        assertThat(querying.await(5, TimeUnit.SECONDS)).isTrue();
+        // 加载查询开始之后提交的第 5 天
+        Thread ingest = new Thread(() -> store.append("AAPL", 5, 15, 15, 15, 15, 100));
+        ingest.start();
+        awaitBlocked(ingest);
+        release.countDown();
+        ingest.join(5_000);
+
+        QuoteSeries loaded = load.get(5, TimeUnit.SECONDS);
+        assertThat(loaded.size()).isEqualTo(6);
+        assertThat(loaded.lastDay()).isEqualTo(5);
+        assertThat(store.find("AAPL")).containsSame(loaded);
+    }
+
+    @Test
+    void fileBehindBackfillIsReloadedInFull(@TempDir Path directory) throws Exception {
+        properties.setStorageDir(directory.toString());
+        QuoteSeriesFiles.write(QuoteSeriesFiles.pathOf(directory, "AAPL"), series("AAPL", 0, 2, 3).slice());
+        // 第 1 天在文件写出后被回补，早于第 3 天的行数由 2 变为 3
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any())).thenReturn(3);
+        doAnswer(rows(null, null, 0, 1, 2, 3))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        QuoteSeries loaded = store().getOrLoad("AAPL");
+
+        assertThat(loaded.size()).isEqualTo(4);
+        assertThat(queries).singleElement().asString().doesNotContain("date >=");
+    }
+
+    @Test
+    void backfillForUnloadedSymbolDropsFile(@TempDir Path directory) throws Exception {
+        properties.setStorageDir(directory.toString());
+        Path file = QuoteSeriesFiles.pathOf(directory, "AAPL");
+        QuoteSeriesFiles.write(file, series("AAPL", 0, 2, 3).slice());
+        QuoteSeriesStore store = store();
+
+        store.append("AAPL", 3, 13, 13, 13, 13, 100);
+        assertThat(file).exists();
+        store.append("AAPL", 1, 11, 11, 11, 11, 100);
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void failedFlushStaysDirty(@TempDir Path directory) throws Exception {
+        properties.setStorageDir(directory.toString());
+        doAnswer(rows(null, null, 0, 1))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        QuoteSeriesStore store = store();
+        QuoteSeries loaded = store.getOrLoad("AAPL");
+        Path file = QuoteSeriesFiles.pathOf(directory, "AAPL");
+        // 临时文件路径被目录占用，写入失败
+        Path blocker = Files.createDirectory(file.resolveSibling(file.getFileName() + ".tmp"));
+
+        store.flush();
+        assertThat(loaded.isDirty()).isTrue();
+        assertThat(file).doesNotExist();
+
+        Files.delete(blocker);
+        store.flush();
+        assertThat(loaded.isDirty()).isFalse();
+        assertThat(QuoteSeriesFiles.read(file, "AAPL", 0).size()).isEqualTo(2);
+    }
+
+    @Test
+    void catchesUpWhenVersionAdvancesElsewhere() {
+        properties.setRefreshIntervalMs(0);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenReturn(List.of(1L), List.of(2L));
+        doAnswer(rows(null, null, 0, 1, 2)).doAnswer(rows(null, null, 2, 3))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any())).thenReturn(2);
+        QuoteSeriesStore store = store();
+        QuoteSeries loaded = store.getOrLoad("AAPL");
+        assertThat(loaded.dataVersion()).isEqualTo(1);
+
+        // 其他实例写入了第 3 天，当前版本推进到 2
+        when(dataVersionService.quoteVersion("AAPL")).thenReturn(2L);
+        QuoteSeries refreshed = store.getOrLoad("AAPL");
+
+        assertThat(refreshed).isSameAs(loaded);
+        assertThat(refreshed.size()).isEqualTo(4);
+        assertThat(refreshed.dataVersion()).isEqualTo(2);
+        assertThat(queries).hasSize(2);
+        assertThat(queries.get(1)).contains("date >=");
+    }
+
+    @Test
+    void ingestAdvancesVersionOnlyWhenContiguous() {
+        properties.setRefreshIntervalMs(0);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenReturn(List.of(1L));
+        doAnswer(rows(null, null, 0, 1))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        QuoteSeriesStore store = store();
+        QuoteSeries loaded = store.getOrLoad("AAPL");
+
+        store.onQuotesIngested(new QuotesIngestedEvent(List.of(bar("AAPL", 2)), Map.of("AAPL", 2L)));
+        when(dataVersionService.quoteVersion("AAPL")).thenReturn(2L);
+        assertThat(store.getOrLoad("AAPL").size()).isEqualTo(3);
+        assertThat(loaded.dataVersion()).isEqualTo(2);
+        assertThat(queries).hasSize(1);
+
+        // 版本 3 来自其他实例、未在本地追加，本地写入的版本 4 不能直接采用
+        store.onQuotesIngested(new QuotesIngestedEvent(List.of(bar("AAPL", 3)), Map.of("AAPL", 4L)));
+        assertThat(loaded.dataVersion()).isEqualTo(2);
+    }
+
+    private QuoteSeriesStore store() {
+        return new QuoteSeriesStore(jdbcTemplate, mock(PlatformTransactionManager.class), properties,
+                dataVersionService);
+    }
+
+    private static QuoteBarDTO bar(String symbol, int day) {
+        BigDecimal price = BigDecimal.valueOf(10 + day);
+        return QuoteBarDTO.builder()
+                .symbol(symbol)
+                .date(LocalDate.ofEpochDay(day))
+                .open(price)
+                .high(price)
+                .low(price)
+                .close(price)
+                .volume(100L)
+                .build();
+    }
+
+    /**
+     * 模拟数据库按日期返回 K 线；记录执行的 SQL，可在返回前暂停
+     */
+    private Answer<Void> rows(CountDownLatch querying, CountDownLatch release, int... days) {
+        return invocation -> {
+            Connection connection = mock(Connection.class);
+            when(connection.prepareStatement(anyString())).thenAnswer(prepare -> {
+                queries.add(prepare.getArgument(0));
+                return mock(PreparedStatement.class);
+            });
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+            if (querying != null) {
+                querying.countDown();
+                assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int day : days) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getInt(2)).thenReturn(day);
+                when(rs.getDouble(anyInt())).thenReturn(10.0 + day);
+                when(rs.getLong(7)).thenReturn(100L);
+                handler.processRow(rs);
+            }
+            return null;
+        };
+    }
+
+    private static QuoteSeries series(String symbol, int... days) {
+        QuoteSeries series = new QuoteSeries(symbol);
+        for (int day : days) {
+            series.append(day, 10 + day, 10 + day, 10 + day, 10 + day, 100);
+        }
+        return series;
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.BLOCKED) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.example.stock.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * K 线列式二进制格式的编解码往返：负差值、超大成交量、空序列、多帧与截断数据
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class CandleBinaryWriterTest {
+
+    private static final long DAY = 86400;
+
+    @Test
+    void emptySeriesRoundTrips() throws IOException {
+        byte[] data = encode(new long[0][]);
+
+        CandleBinaryReader.Candles candles = CandleBinaryReader.decode(data);
+
+        assertThat(candles.size()).isZero();
+        assertThat(candles.priceScale()).isEqualTo(CandleBinaryWriter.PRICE_SCALE);
+        assertThat(CandleBinaryReader.decodeFrame(data, 0).end()).isEqualTo(data.length);
+    }
+
+    @Test
+    void negativeDeltasRoundTrip() throws IOException {
+        // 价格逐日下跌、时间倒序、早于 1970 年的时间戳
+        long[][] rows = {
+                {20 * DAY, 50_000, 50_500, 49_000, 49_100, 1_000},
+                {19 * DAY, 49_100, 49_200, 40_000, 40_050, 2_000},
+                {-3 * DAY, 1, 2, 0, 1, 0},
+                {-4 * DAY, 0, 0, -250, -100, 5},
+        };
+
+        assertRoundTrip(rows);
+    }
+
+    @Test
+    void intradayTimestampsKeepSecondPrecision() throws IOException {
+        long[][] rows = {
+                {1_704_200_400L, 18_925, 19_000, 18_900, 18_950, 10},
+                {1_704_200_460L, 18_950, 18_960, 18_800, 18_810, 20},
+                {1_704_200_400L, 18_810, 18_810, 18_810, 18_810, 30},
+        };
+
+        assertRoundTrip(rows);
+    }
+
+    @Test
+    void largeVolumesAndExtremePricesRoundTrip() throws IOException {
+        long[][] rows = {
+                {DAY, Long.MAX_VALUE, Long.MAX_VALUE, 0, 1, Long.MAX_VALUE},
+                {2 * DAY, Long.MIN_VALUE, 0, Long.MIN_VALUE, -1, 5_000_000_000L},
+                {3 * DAY, 1L << 40, 1L << 41, 1L << 39, 1L << 40, 1L << 62},
+                {4 * DAY, 100, 100, 100, 100, 0},
+        };
+
+        assertRoundTrip(rows);
+    }
+
+    @Test
+    void manyCandlesGrowBuffersAndRoundTrip() throws IOException {
+        long[][] rows = new long[1_000][];
+        for (int i = 0; i < rows.length; i++) {
+            long close = 10_000 + (i % 7 - 3) * 37L * i;
+            rows[i] = new long[]{i * DAY, close - 5, close + 20, close - 30, close, 1_000_000L * i};
+        }
+
+        assertRoundTrip(rows);
+    }
+
+    @Test
+    void consecutiveFramesDecodeFromOffsets() throws IOException {
+        long[][] first = {{DAY, 100, 110, 90, 105, 7}};
+        long[][] second = {{2 * DAY, 200, 210, 190, 195, 8}, {3 * DAY, 195, 196, 150, 151, 9}};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(encode(first));
+        out.write(encode(second));
+        byte[] data = out.toByteArray();
+
+        CandleBinaryReader.Frame a = CandleBinaryReader.decodeFrame(data, 0);
+        CandleBinaryReader.Frame b = CandleBinaryReader.decodeFrame(data, a.end());
+
+        assertThat(a.candles().closes()).containsExactly(105);
+        assertThat(b.candles().closes()).containsExactly(195, 151);
+        assertThat(b.end()).isEqualTo(data.length);
+    }
+
+    @Test
+    void truncatedOrForeignDataIsRejected() throws IOException {
+        byte[] data = encode(new long[][]{{DAY, 100, 110, 90, 105, 300}});
+
+        assertThatThrownBy(() -> CandleBinaryReader.decode(Arrays.copyOf(data, data.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("不完整");
+        assertThatThrownBy(() -> CandleBinaryReader.decode(new byte[]{'{', '"', 'a'}))
+                .isInstanceOf(IllegalArgumentException.class);
+        byte[] future = data.clone();
+        future[2] = 2;
+        assertThatThrownBy(() -> CandleBinaryReader.decode(future))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("版本");
+    }
+
+    private static void assertRoundTrip(long[][] rows) throws IOException {
+        CandleBinaryReader.Candles candles = CandleBinaryReader.decode(encode(rows));
+
+        assertThat(candles.size()).isEqualTo(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            assertThat(new long[]{candles.timestamps()[i], candles.opens()[i], candles.highs()[i],
+                    candles.lows()[i], candles.closes()[i], candles.volumes()[i]})
+                    .as("第 %d 根", i)
+                    .containsExactly(rows[i]);
+        }
+    }
+
+    private static byte[] encode(long[][] rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // 初始容量小于条数，覆盖扩容路径
+        CandleBinaryWriter writer = new CandleBinaryWriter(out, 1);
+        writer.beginEnvelope();
+        for (long[] row : rows) {
+            writer.writeCandle(row[0], row[1], row[2], row[3], row[4], row[5]);
+        }
+        writer.endEnvelope();
+        return out.toByteArray();
+    }
+
+}
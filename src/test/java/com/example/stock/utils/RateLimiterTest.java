@@ -0,0 +1,81 @@
+package com.example.stock.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 令牌桶限流：提前唤醒后继续等待到预留时间，中断时归还令牌
+ *
+ * @author Toom
+ * @version 1.0
+ */
+class RateLimiterTest {
+
+    @Test
+    void earlyWakeupsDoNotShortenTheWait() throws Exception {
+        RateLimiter limiter = new RateLimiter(5);
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        AtomicLong waitedNanos = new AtomicLong();
+        Thread waiter = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            waitedNanos.set(System.nanoTime() - start);
+        });
+        waiter.start();
+        // 不断 unpark 模拟提前唤醒
+        while (waiter.isAlive()) {
+            LockSupport.unpark(waiter);
+            Thread.sleep(1);
+        }
+
+        assertThat(waitedNanos.get()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    void interruptAbortsWaitAndRefundsPermit() throws Exception {
+        RateLimiter limiter = new RateLimiter(1);
+        limiter.acquire();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                failure.set(e);
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+
+        waiter.interrupt();
+        waiter.join(500);
+
+        assertThat(waiter.isAlive()).isFalse();
+        assertThat(failure.get()).isInstanceOf(InterruptedException.class);
+        // 被中断的预留已归还，下一次只需等到第一次获取后的 1 秒，而不是 2 秒
+        long start = System.nanoTime();
+        CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get(5, TimeUnit.SECONDS);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(1_500));
+    }
+
+}